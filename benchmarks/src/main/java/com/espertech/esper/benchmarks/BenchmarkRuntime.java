@@ -0,0 +1,92 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.common.client.EPCompiled;
+import com.espertech.esper.common.client.EventSender;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.compiler.client.CompilerArguments;
+import com.espertech.esper.compiler.client.EPCompileException;
+import com.espertech.esper.compiler.client.EPCompilerProvider;
+import com.espertech.esper.runtime.client.*;
+
+/**
+ * Runtime for benchmarks that process events through deployed EPL, with the internal timer disabled
+ * so that benchmarks control time.
+ */
+public class BenchmarkRuntime {
+    private final EPRuntime runtime;
+    private final EventSender sender;
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI runtime URI, unique per benchmark state
+     * @param epl        module text to compile and deploy
+     */
+    public BenchmarkRuntime(String runtimeURI, String epl) {
+        Configuration configuration = new Configuration();
+        configuration.getCommon().addEventType(SupportBean.class);
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+
+        runtime = EPRuntimeProvider.getRuntime(runtimeURI, configuration);
+        runtime.initialize();
+        runtime.getEventService().advanceTime(0);
+
+        EPCompiled compiled;
+        try {
+            compiled = EPCompilerProvider.getCompiler().compile(epl, new CompilerArguments(configuration));
+        } catch (EPCompileException e) {
+            throw new RuntimeException("Failed to compile: " + e.getMessage(), e);
+        }
+        try {
+            runtime.getDeploymentService().deploy(compiled);
+        } catch (EPDeployException e) {
+            throw new RuntimeException("Failed to deploy: " + e.getMessage(), e);
+        }
+        sender = runtime.getEventService().getEventSender("SupportBean");
+    }
+
+    /**
+     * Send an event.
+     *
+     * @param bean event
+     */
+    public void send(SupportBean bean) {
+        sender.sendEvent(bean);
+    }
+
+    /**
+     * Advance time.
+     *
+     * @param time time
+     */
+    public void advanceTime(long time) {
+        runtime.getEventService().advanceTime(time);
+    }
+
+    /**
+     * Returns the runtime.
+     *
+     * @return runtime
+     */
+    public EPRuntime getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * Destroy the runtime.
+     */
+    public void destroy() {
+        runtime.destroy();
+    }
+}
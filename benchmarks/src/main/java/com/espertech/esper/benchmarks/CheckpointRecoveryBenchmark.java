@@ -0,0 +1,116 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.common.client.EPCompiled;
+import com.espertech.esper.common.client.EventSender;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.compiler.client.CompilerArguments;
+import com.espertech.esper.compiler.client.EPCompileException;
+import com.espertech.esper.compiler.client.EPCompilerProvider;
+import com.espertech.esper.runtime.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recovery of a named window from its checkpoint upon deployment, for a given number of events and
+ * a given event representation of the named window, compared to deploying without checkpoint and replaying the same events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckpointRecoveryBenchmark {
+    @Param({"1000", "100000"})
+    private int numEvents;
+
+    @Param({"map", "objectarray"})
+    private String representation;
+
+    private File directory;
+    private EPRuntime runtime;
+    private EPRuntime replayRuntime;
+    private EPCompiled compiled;
+    private SupportBean[] events;
+
+    @Setup
+    public void setup() throws IOException, EPCompileException, EPDeployException, EPUndeployException {
+        directory = Files.createTempDirectory("esper-checkpoint-benchmark").toFile();
+        Configuration configuration = new Configuration();
+        configuration.getCommon().addEventType(SupportBean.class);
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        configuration.getRuntime().getCheckpoint().setDirectory(directory.getAbsolutePath());
+        configuration.getRuntime().getCheckpoint().setIntervalMSec(Integer.MAX_VALUE);
+
+        String epl = "module Recovery;\n" +
+            "@public @EventRepresentation(" + representation + ") create window MyWindow#keepall as (id string, value long);\n" +
+            "insert into MyWindow select theString as id, longPrimitive as value from SupportBean;\n";
+        compiled = EPCompilerProvider.getCompiler().compile(epl, new CompilerArguments(configuration));
+
+        events = new SupportBean[numEvents];
+        for (int i = 0; i < numEvents; i++) {
+            events[i] = new SupportBean("E" + i, i);
+            events[i].setLongPrimitive(i);
+        }
+
+        runtime = EPRuntimeProvider.getRuntime("CheckpointRecoveryBenchmark", configuration);
+        runtime.initialize();
+        runtime.getEventService().advanceTime(0);
+        EPDeployment deployment = runtime.getDeploymentService().deploy(compiled);
+        EventSender sender = runtime.getEventService().getEventSender("SupportBean");
+        for (SupportBean event : events) {
+            sender.sendEvent(event);
+        }
+
+        // undeploy retains the events, and the next deployment checkpoints and restores them
+        runtime.getDeploymentService().undeploy(deployment.getDeploymentId());
+
+        Configuration replayConfiguration = new Configuration();
+        replayConfiguration.getCommon().addEventType(SupportBean.class);
+        replayConfiguration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        replayRuntime = EPRuntimeProvider.getRuntime("CheckpointRecoveryBenchmarkReplay", replayConfiguration);
+        replayRuntime.initialize();
+        replayRuntime.getEventService().advanceTime(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+        replayRuntime.destroy();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public void deployRestore() throws EPDeployException, EPUndeployException {
+        EPDeployment deployment = runtime.getDeploymentService().deploy(compiled);
+        runtime.getDeploymentService().undeploy(deployment.getDeploymentId());
+    }
+
+    @Benchmark
+    public void deployReplay() throws EPDeployException, EPUndeployException {
+        EPDeployment deployment = replayRuntime.getDeploymentService().deploy(compiled);
+        EventSender sender = replayRuntime.getEventService().getEventSender("SupportBean");
+        for (SupportBean event : events) {
+            sender.sendEvent(event);
+        }
+        replayRuntime.getDeploymentService().undeploy(deployment.getDeploymentId());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.common.internal.support.SupportBean;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch of an event to statements that each match the event a given number of times, such as self-joins,
+ * and that therefore have their matches collected per statement before processing when matching more than once.
+ * Run with "-prof gc" to report the allocation rate per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDispatchBenchmark {
+    @Param({"1", "10", "100"})
+    private int numStatements;
+
+    @Param({"1", "2", "4"})
+    private int numMatchesPerStatement;
+
+    private BenchmarkRuntime runtime;
+    private SupportBean event;
+
+    @Setup
+    public void setup() {
+        StringBuilder epl = new StringBuilder();
+        for (int i = 0; i < numStatements; i++) {
+            epl.append("select * from ");
+            for (int stream = 0; stream < numMatchesPerStatement; stream++) {
+                epl.append(stream == 0 ? "" : ", ");
+                epl.append("SupportBean(intPrimitive >= -").append(stream).append(")#lastevent as s").append(stream);
+            }
+            epl.append(" where s0.intPrimitive < 0;\n");
+        }
+        runtime = new BenchmarkRuntime("EventDispatchBenchmark", epl.toString());
+        event = new SupportBean("E", 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    @Benchmark
+    public void dispatch() {
+        runtime.send(event);
+    }
+}
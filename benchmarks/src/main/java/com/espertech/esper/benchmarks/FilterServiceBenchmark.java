@@ -0,0 +1,123 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.util.FilterServiceProfile;
+import com.espertech.esper.common.internal.epl.expression.core.ExprFilterSpecLookupable;
+import com.espertech.esper.common.internal.filterspec.DoubleRange;
+import com.espertech.esper.common.internal.filterspec.FilterOperator;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParamImpl;
+import com.espertech.esper.common.internal.filtersvc.FilterHandle;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceProvider;
+import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceSPI;
+import com.espertech.esper.runtime.internal.support.SupportEventBeanFactory;
+import com.espertech.esper.runtime.internal.support.SupportEventTypeFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter service evaluation for a number of filters that each use the same filter operator,
+ * so that evaluation goes through the filter index for that operator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterServiceBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"10", "1000", "100000"})
+    private int numFilters;
+
+    @Param({"EQUAL", "NOT_EQUAL", "GREATER", "RANGE_CLOSED"})
+    private FilterOperator filterOperator;
+
+    @Param({"READMOSTLY", "READLOCKFREE"})
+    private FilterServiceProfile filterServiceProfile;
+
+    private FilterServiceSPI filterService;
+    private EventBean[] events;
+    private List<FilterHandle> matches;
+    private int index;
+
+    @Setup
+    public void setup() {
+        EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        filterService = FilterServiceProvider.newService(filterServiceProfile, false);
+        Random random = new Random(1);
+        for (int i = 0; i < numFilters; i++) {
+            filterService.add(eventType, new FilterValueSetParam[][]{{makeParam(eventType, i)}}, new BenchmarkFilterHandle(i));
+        }
+
+        events = new EventBean[NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            int value = random.nextInt(numFilters);
+            SupportBean bean = new SupportBean("S" + value, value);
+            bean.setDoublePrimitive(value);
+            events[i] = SupportEventBeanFactory.createObject(bean);
+        }
+        matches = new ArrayList<>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        filterService.destroy();
+    }
+
+    @Benchmark
+    public int evaluate() {
+        matches.clear();
+        filterService.evaluate(events[index++ & (NUM_EVENTS - 1)], matches);
+        return matches.size();
+    }
+
+    private FilterValueSetParam makeParam(EventType eventType, int num) {
+        switch (filterOperator) {
+            case EQUAL:
+            case NOT_EQUAL:
+                return new FilterValueSetParamImpl(makeLookupable(eventType, "theString"), filterOperator, "S" + num);
+            case RANGE_CLOSED:
+                return new FilterValueSetParamImpl(makeLookupable(eventType, "doublePrimitive"), filterOperator, new DoubleRange((double) num, (double) num + 10));
+            default:
+                return new FilterValueSetParamImpl(makeLookupable(eventType, "doublePrimitive"), filterOperator, (double) num);
+        }
+    }
+
+    private static ExprFilterSpecLookupable makeLookupable(EventType eventType, String propertyName) {
+        return new ExprFilterSpecLookupable(propertyName, eventType.getGetter(propertyName), eventType.getPropertyType(propertyName), false);
+    }
+
+    private static class BenchmarkFilterHandle implements FilterHandle {
+        private final int statementId;
+
+        BenchmarkFilterHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+
+        public int getAgentInstanceId() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.common.internal.support.SupportBean;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grouped aggregation, as handled by the group-by aggregation service, for a number of groups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupedAggregationBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"10", "10000"})
+    private int numGroups;
+
+    @Param({"unbound", "length"})
+    private String window;
+
+    private BenchmarkRuntime runtime;
+    private SupportBean[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        String stream = window.equals("unbound") ? "SupportBean" : "SupportBean#length(1000)";
+        runtime = new BenchmarkRuntime("GroupedAggregationBenchmark",
+            "select theString, sum(intPrimitive), count(*), avg(doublePrimitive) from " + stream + " group by theString");
+
+        Random random = new Random(1);
+        events = new SupportBean[NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new SupportBean("G" + random.nextInt(numGroups), i);
+            events[i].setDoublePrimitive(i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    @Benchmark
+    public void aggregate() {
+        runtime.send(events[index++ & (NUM_EVENTS - 1)]);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.epl.index.hash.PropertyHashedEventTable;
+import com.espertech.esper.common.internal.epl.index.hash.PropertyHashedEventTableFactory;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.runtime.internal.support.SupportEventBeanFactory;
+import com.espertech.esper.runtime.internal.support.SupportEventTypeFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash index lookup and add-remove, as used by named window, table and subquery lookups, for a number of distinct keys,
+ * with the generic map-based tables and the compact tables for primitive keys.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashedIndexBenchmark {
+    private static final int NUM_LOOKUPS = 1024;
+
+    @Param({"100", "100000"})
+    private int numKeys;
+
+    @Param({"1", "10"})
+    private int eventsPerKey;
+
+    @Param({"false", "true"})
+    private boolean unique;
+
+    @Param({"false", "true"})
+    private boolean compact;
+
+    private PropertyHashedEventTable table;
+    private Object[] lookupKeys;
+    private EventBean[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        PropertyHashedEventTableFactory factory = new PropertyHashedEventTableFactory(0, new String[]{"intPrimitive"}, unique, null, eventType.getGetter("intPrimitive"), null, compact ? new Class[]{int.class} : null);
+        table = (PropertyHashedEventTable) factory.makeEventTables(null, null)[0];
+
+        int eventsPerKeyTable = unique ? 1 : eventsPerKey;
+        events = new EventBean[numKeys * eventsPerKeyTable];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SupportEventBeanFactory.createObject(new SupportBean("E" + i, i % numKeys));
+            table.add(events[i], null);
+        }
+
+        Random random = new Random(1);
+        lookupKeys = new Object[NUM_LOOKUPS];
+        for (int i = 0; i < lookupKeys.length; i++) {
+            lookupKeys[i] = random.nextInt(numKeys);
+        }
+    }
+
+    @Benchmark
+    public Set<EventBean> lookup() {
+        return table.lookup(lookupKeys[index++ & (NUM_LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public void removeAdd() {
+        EventBean event = events[index++ % events.length];
+        table.remove(event, null);
+        table.add(event, null);
+    }
+}
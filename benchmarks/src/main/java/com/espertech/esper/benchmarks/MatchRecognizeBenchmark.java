@@ -0,0 +1,66 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.common.internal.support.SupportBean;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Match-recognize state stepping for a pattern with a quantified middle variable, partitioned by key.
+ * Each partition receives a repeating sequence of one A, several B and one C event, so that matches keep being
+ * started, extended and completed. The sequence length determines how many B events a match collects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchRecognizeBenchmark {
+    @Param({"1", "1000", "10000"})
+    private int numPartitions;
+
+    @Param({"6", "50"})
+    private int sequenceLength;
+
+    private BenchmarkRuntime runtime;
+    private SupportBean[] events;
+    private long count;
+
+    @Setup
+    public void setup() {
+        runtime = new BenchmarkRuntime("MatchRecognizeBenchmark",
+            "select * from SupportBean match_recognize (" +
+                "partition by theString " +
+                "measures A.intPrimitive as a, count(B.intPrimitive) as cntb, C.intPrimitive as c " +
+                "pattern (A B+ C) " +
+                "define A as A.intPrimitive = 0, B as B.intPrimitive = 1, C as C.intPrimitive = 2)");
+        events = new SupportBean[numPartitions * sequenceLength];
+        for (int partition = 0; partition < numPartitions; partition++) {
+            for (int step = 0; step < sequenceLength; step++) {
+                int value = step == 0 ? 0 : (step == sequenceLength - 1 ? 2 : 1);
+                events[step * numPartitions + partition] = new SupportBean("P" + partition, value);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    @Benchmark
+    public void step() {
+        runtime.send(events[(int) (count++ % events.length)]);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.common.internal.support.SupportBean;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pattern "every A -&gt; B" followed-by with a correlation on a key, keeping a given number of
+ * pattern instances outstanding: each operation starts one instance and completes the oldest one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatternFollowedByBenchmark {
+    @Param({"10", "10000"})
+    private int numOutstanding;
+
+    private BenchmarkRuntime runtime;
+    private SupportBean eventA;
+    private SupportBean eventB;
+    private int count;
+
+    @Setup
+    public void setup() {
+        runtime = new BenchmarkRuntime("PatternFollowedByBenchmark",
+            "select * from pattern [every a=SupportBean(theString='A') -> b=SupportBean(theString='B', intPrimitive=a.intPrimitive)]");
+        eventA = new SupportBean("A", 0);
+        eventB = new SupportBean("B", 0);
+        for (int i = 0; i < numOutstanding; i++) {
+            sendA();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    @Benchmark
+    public void startAndComplete() {
+        eventB.setIntPrimitive(count - numOutstanding);
+        runtime.send(eventB);
+        sendA();
+    }
+
+    private void sendA() {
+        eventA.setIntPrimitive(count++);
+        runtime.send(eventA);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.common.client.util.SchedulingServiceProfile;
+import com.espertech.esper.common.internal.schedule.ScheduleHandle;
+import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceProvider;
+import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceSPI;
+import com.espertech.esper.runtime.internal.timer.TimeSourceServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling service add, remove and evaluate for many outstanding schedules, such as per-key timers
+ * of patterns and time windows, with time advancing and triggered schedules being added again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchedulingServiceBenchmark {
+    private static final int MAX_DELTA = 60000;
+
+    @Param({"1000", "100000"})
+    private int numHandles;
+
+    @Param({"SORTED", "TIMINGWHEEL"})
+    private SchedulingServiceProfile schedulingServiceProfile;
+
+    private SchedulingServiceSPI service;
+    private BenchmarkScheduleHandle[] handles;
+    private List<ScheduleHandle> triggered;
+    private Random random;
+    private long time;
+
+    @Setup
+    public void setup() {
+        service = SchedulingServiceProvider.newService(schedulingServiceProfile, new TimeSourceServiceImpl());
+        random = new Random(1);
+        handles = new BenchmarkScheduleHandle[numHandles];
+        service.setTime(0);
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new BenchmarkScheduleHandle(i);
+            service.add(1 + random.nextInt(MAX_DELTA), handles[i], i);
+        }
+        triggered = new ArrayList<>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.destroy();
+    }
+
+    @Benchmark
+    public int addRemove() {
+        int index = random.nextInt(numHandles);
+        service.remove(handles[index], index);
+        service.add(1 + random.nextInt(MAX_DELTA), handles[index], index);
+        return index;
+    }
+
+    @Benchmark
+    public int advanceAndEvaluate() {
+        time++;
+        service.setTime(time);
+        triggered.clear();
+        service.evaluate(triggered);
+        for (ScheduleHandle handle : triggered) {
+            BenchmarkScheduleHandle benchmarkHandle = (BenchmarkScheduleHandle) handle;
+            service.add(1 + random.nextInt(MAX_DELTA), benchmarkHandle, benchmarkHandle.slot);
+        }
+        return triggered.size();
+    }
+
+    private static class BenchmarkScheduleHandle implements ScheduleHandle {
+        private final long slot;
+
+        BenchmarkScheduleHandle(long slot) {
+            this.slot = slot;
+        }
+
+        public int getStatementId() {
+            return 1;
+        }
+
+        public int getAgentInstanceId() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.common.internal.support.SupportBean;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time window insert and expiry through a time window view holding a given number of events,
+ * with time advancing by one millisecond for every given number of events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeWindowViewBenchmark {
+    @Param({"1000", "100000"})
+    private int windowMsec;
+
+    @Param({"1", "100"})
+    private int eventsPerMsec;
+
+    private BenchmarkRuntime runtime;
+    private SupportBean bean;
+    private long count;
+
+    @Setup
+    public void setup() {
+        runtime = new BenchmarkRuntime("TimeWindowViewBenchmark", "select count(*) from SupportBean#time(" + windowMsec + " msec)");
+        bean = new SupportBean("E", 0);
+
+        // fill the window
+        for (long i = 0; i < (long) windowMsec * eventsPerMsec; i++) {
+            sendEvent();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runtime.destroy();
+    }
+
+    @Benchmark
+    public void insertExpire() {
+        sendEvent();
+    }
+
+    private void sendEvent() {
+        if (count % eventsPerMsec == 0) {
+            runtime.advanceTime(count / eventsPerMsec);
+        }
+        runtime.send(bean);
+        count++;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.avro.core;
+
+import com.espertech.esper.common.client.EPException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Decodes Avro binary-encoded records of a schema into {@link AvroLazyRecord} records.
+ * <p>
+ * Decoding skips through the fields once to find the position of each field, without materializing any values.
+ * A field value is only decoded when it is first read.
+ * The binary must be encoded with the same schema as the event type (no schema resolution takes place).
+ */
+public class AvroBinaryEventDecoder {
+    private final Schema schema;
+    private final List<Schema.Field> fields;
+    private final DatumReader<Object>[] readers;
+
+    /**
+     * Ctor.
+     *
+     * @param schema record schema
+     */
+    public AvroBinaryEventDecoder(Schema schema) {
+        this.schema = schema;
+        this.fields = schema.getFields();
+        this.readers = new DatumReader[fields.size()];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new GenericDatumReader<>(fields.get(i).schema());
+        }
+    }
+
+    /**
+     * Returns the record schema.
+     *
+     * @return schema
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Decode a binary-encoded record.
+     * <p>
+     * The record retains a byte array by reference, and the caller must not modify the array after sending the event.
+     * The remaining bytes of a byte buffer are copied.
+     *
+     * @param binary byte array or byte buffer
+     * @return record
+     */
+    public AvroLazyRecord decode(Object binary) {
+        byte[] bytes;
+        int offset;
+        int length;
+        if (binary instanceof byte[]) {
+            bytes = (byte[]) binary;
+            offset = 0;
+            length = bytes.length;
+        } else if (binary instanceof ByteBuffer) {
+            // byte buffers are commonly pooled or reused by the sender, and fields are decoded after this method returns,
+            // therefore the record gets its own copy of the bytes
+            ByteBuffer buffer = (ByteBuffer) binary;
+            bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            offset = 0;
+            length = bytes.length;
+        } else {
+            throw new EPException("Unexpected event object of type " + (binary == null ? "null" : binary.getClass().getName()) + ", expected byte[] or " + ByteBuffer.class.getName());
+        }
+
+        PositionInputStream input = new PositionInputStream(bytes, offset, length);
+        BinaryDecoder decoder = DecoderFactory.get().directBinaryDecoder(input, null);
+        int[] starts = new int[fields.size() + 1];
+        try {
+            for (int i = 0; i < fields.size(); i++) {
+                starts[i] = input.position();
+                skip(fields.get(i).schema(), decoder);
+            }
+        } catch (IOException | RuntimeException ex) {
+            throw new EPException("Failed to decode Avro binary for schema '" + schema.getFullName() + "': " + ex.getMessage(), ex);
+        }
+        starts[fields.size()] = input.position();
+        return new AvroLazyRecord(this, bytes, starts);
+    }
+
+    /**
+     * Decode the value of a field.
+     *
+     * @param pos   field position
+     * @param bytes binary
+     * @param start start offset of the field value
+     * @param end   end offset of the field value
+     * @return value
+     */
+    Object decodeField(int pos, byte[] bytes, int start, int end) {
+        Decoder decoder = DecoderFactory.get().binaryDecoder(bytes, start, end - start, null);
+        try {
+            return readers[pos].read(null, decoder);
+        } catch (IOException | RuntimeException ex) {
+            throw new EPException("Failed to decode Avro binary for field '" + fields.get(pos).name() + "': " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void skip(Schema schema, BinaryDecoder decoder) throws IOException {
+        switch (schema.getType()) {
+            case NULL:
+                return;
+            case BOOLEAN:
+                decoder.readBoolean();
+                return;
+            case INT:
+                decoder.readInt();
+                return;
+            case LONG:
+                decoder.readLong();
+                return;
+            case FLOAT:
+                decoder.skipFixed(4);
+                return;
+            case DOUBLE:
+                decoder.skipFixed(8);
+                return;
+            case STRING:
+                decoder.skipString();
+                return;
+            case BYTES:
+                decoder.skipBytes();
+                return;
+            case FIXED:
+                decoder.skipFixed(schema.getFixedSize());
+                return;
+            case ENUM:
+                decoder.readEnum();
+                return;
+            case UNION:
+                skip(schema.getTypes().get(decoder.readIndex()), decoder);
+                return;
+            case ARRAY:
+                for (long count = decoder.skipArray(); count != 0; count = decoder.skipArray()) {
+                    for (long i = 0; i < count; i++) {
+                        skip(schema.getElementType(), decoder);
+                    }
+                }
+                return;
+            case MAP:
+                for (long count = decoder.skipMap(); count != 0; count = decoder.skipMap()) {
+                    for (long i = 0; i < count; i++) {
+                        decoder.skipString();
+                        skip(schema.getValueType(), decoder);
+                    }
+                }
+                return;
+            case RECORD:
+                for (Schema.Field field : schema.getFields()) {
+                    skip(field.schema(), decoder);
+                }
+                return;
+            default:
+                throw new IllegalStateException("Unrecognized schema type " + schema.getType());
+        }
+    }
+
+    private static class PositionInputStream extends ByteArrayInputStream {
+        PositionInputStream(byte[] buf, int offset, int length) {
+            super(buf, offset, length);
+        }
+
+        int position() {
+            return pos;
+        }
+    }
+}
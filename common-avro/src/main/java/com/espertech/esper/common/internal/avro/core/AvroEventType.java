@@ -49,6 +49,7 @@ public class AvroEventType implements AvroSchemaEventType, EventTypeSPI {
     private String[] propertyNames;
     private HashMap<String, EventPropertyGetterSPI> propertyGetterCache;
     private Map<String, EventPropertyGetter> propertyGetterCodegeneratedCache;
+    private volatile AvroBinaryEventDecoder binaryEventDecoder;
 
     public AvroEventType(EventTypeMetadata metadata,
                          Schema avroSchema,
@@ -313,6 +314,15 @@ public class AvroEventType implements AvroSchemaEventType, EventTypeSPI {
         return avroSchema;
     }
 
+    public AvroBinaryEventDecoder getBinaryEventDecoder() {
+        AvroBinaryEventDecoder decoder = binaryEventDecoder;
+        if (decoder == null) {
+            decoder = new AvroBinaryEventDecoder(avroSchema);
+            binaryEventDecoder = decoder;
+        }
+        return decoder;
+    }
+
     private void init() {
         propertyNames = new String[avroSchema.getFields().size()];
         propertyDescriptors = new EventPropertyDescriptor[propertyNames.length];
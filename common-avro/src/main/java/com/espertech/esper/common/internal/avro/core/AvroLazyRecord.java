@@ -0,0 +1,90 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.avro.core;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Record backed by Avro binary that decodes each field value upon first read.
+ * <p>
+ * Reading and writing fields by position or name behaves as for {@link GenericData.Record}.
+ * Decoded values are published safely: concurrent readers may both decode the same field, and all readers
+ * return the value of the reader that stored its value first.
+ */
+public class AvroLazyRecord extends GenericData.Record {
+    private final static Object UNDECODED = new Object();
+
+    private final AvroBinaryEventDecoder decoder;
+    private final byte[] bytes;
+    private final int[] starts;
+    private final AtomicReferenceArray<Object> values;
+
+    AvroLazyRecord(AvroBinaryEventDecoder decoder, byte[] bytes, int[] starts) {
+        super(decoder.getSchema());
+        this.decoder = decoder;
+        this.bytes = bytes;
+        this.starts = starts;
+        this.values = new AtomicReferenceArray<>(starts.length - 1);
+        for (int i = 0; i < starts.length - 1; i++) {
+            values.lazySet(i, UNDECODED);
+        }
+    }
+
+    public Object get(int i) {
+        Object value = values.get(i);
+        if (value == UNDECODED) {
+            value = decoder.decodeField(i, bytes, starts[i], starts[i + 1]);
+            if (!values.compareAndSet(i, UNDECODED, value)) {
+                value = values.get(i);
+            }
+        }
+        return value;
+    }
+
+    public void put(int i, Object v) {
+        values.set(i, v);
+    }
+
+    public Object get(String key) {
+        Schema.Field field = getSchema().getField(key);
+        if (field == null) {
+            return null;
+        }
+        return get(field.pos());
+    }
+
+    public void put(String key, Object value) {
+        Schema.Field field = getSchema().getField(key);
+        if (field == null) {
+            throw new AvroRuntimeException("Not a valid schema field: " + key);
+        }
+        values.set(field.pos(), value);
+    }
+
+    /**
+     * Returns the number of field values decoded or written, for testing purposes.
+     *
+     * @return number of decoded fields
+     */
+    public int getNumDecoded() {
+        int count = 0;
+        for (int i = 0; i < values.length(); i++) {
+            if (values.get(i) != UNDECODED) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -179,6 +179,13 @@ public abstract class EventTypeAvroHandlerBase implements EventTypeAvroHandler {
         }
     }
 
+    public Object decodeBinary(Object avroBinary, EventType existingType) {
+        if (!(existingType instanceof AvroEventType)) {
+            throw new EPException("Event type '" + existingType.getName() + "' is not an Avro event type");
+        }
+        return ((AvroEventType) existingType).getBinaryEventDecoder().decode(avroBinary);
+    }
+
     public Object convertEvent(EventBean theEvent, AvroSchemaEventType targetType) {
         GenericData.Record original = ((AvroGenericDataBackedEventBean) theEvent).getProperties();
         Schema targetSchema = (Schema) targetType.getSchema();
@@ -52,6 +52,19 @@ public class SupportAvroUtil {
         }
     }
 
+    public static byte[] avroToBinary(Schema schema, GenericData.Record datum) {
+        DatumWriter<Object> writer = new GenericDatumWriter<Object>(schema);
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(bos, null);
+            writer.write(datum, encoder);
+            encoder.flush();
+            return bos.toByteArray();
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
     public static GenericData.Record parseQuoted(Schema schema, String json) {
         return parse(schema, json.replace("'", "\""));
     }
@@ -0,0 +1,167 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.avro.core;
+
+import com.espertech.esper.common.client.EPException;
+import junit.framework.TestCase;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.espertech.esper.common.internal.avro.core.AvroConstant.PROP_JAVA_STRING_KEY;
+import static com.espertech.esper.common.internal.avro.core.AvroConstant.PROP_JAVA_STRING_VALUE;
+import static com.espertech.esper.common.internal.avro.support.SupportAvroUtil.avroToBinary;
+import static org.apache.avro.SchemaBuilder.record;
+
+public class TestAvroLazyRecord extends TestCase {
+    private final static Schema NESTED = record("nested").fields()
+            .name("nestedInt").type().intType().noDefault()
+            .endRecord();
+    private final static Schema SCHEMA = record("typename").fields()
+            .name("myString").type().stringBuilder().prop(PROP_JAVA_STRING_KEY, PROP_JAVA_STRING_VALUE).endString().noDefault()
+            .name("myInt").type().intType().noDefault()
+            .name("myNullableLong").type().unionOf().nullType().and().longType().endUnion().noDefault()
+            .name("myDouble").type().doubleType().noDefault()
+            .name("myArray").type().array().items().intType().noDefault()
+            .name("myMap").type().map().prop(PROP_JAVA_STRING_KEY, PROP_JAVA_STRING_VALUE).values().intType().noDefault()
+            .name("myNested").type(NESTED).noDefault()
+            .name("myBoolean").type().booleanType().noDefault()
+            .endRecord();
+
+    public void testDecodeLazily() {
+        GenericData.Record expected = makeRecord();
+        AvroLazyRecord record = new AvroBinaryEventDecoder(SCHEMA).decode(avroToBinary(SCHEMA, expected));
+        assertEquals(0, record.getNumDecoded());
+
+        assertEquals(true, record.get("myBoolean"));
+        assertEquals(1, record.getNumDecoded());
+        assertEquals(10, record.get(1));
+        assertEquals("abc", record.get("myString"));
+        assertNull(record.get("myNullableLong"));
+        assertEquals(2.5d, record.get("myDouble"));
+        assertEquals(Arrays.asList(1, 2, 3), record.get("myArray"));
+        assertEquals(20, ((GenericData.Record) record.get("myNested")).get("nestedInt"));
+        assertNull(record.get("dummy"));
+        assertEquals(7, record.getNumDecoded());
+
+        record.put("myInt", 11);
+        assertEquals(11, record.get("myInt"));
+        expected.put("myInt", 11);
+        assertEquals(expected, record);
+        assertEquals(expected.hashCode(), record.hashCode());
+        assertEquals(8, record.getNumDecoded());
+    }
+
+    public void testDecodeByteBuffer() {
+        byte[] bytes = avroToBinary(SCHEMA, makeRecord());
+        byte[] padded = new byte[bytes.length + 4];
+        System.arraycopy(bytes, 0, padded, 2, bytes.length);
+        ByteBuffer heap = ByteBuffer.wrap(padded, 2, bytes.length);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+
+        AvroBinaryEventDecoder decoder = new AvroBinaryEventDecoder(SCHEMA);
+        for (ByteBuffer buffer : new ByteBuffer[]{heap, direct}) {
+            AvroLazyRecord record = decoder.decode(buffer);
+            assertEquals(makeRecord(), record);
+            assertEquals(0, buffer.position());
+        }
+    }
+
+    public void testDecodeByteBufferReused() {
+        byte[] bytes = avroToBinary(SCHEMA, makeRecord());
+        ByteBuffer heap = ByteBuffer.wrap(bytes.clone());
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+
+        AvroBinaryEventDecoder decoder = new AvroBinaryEventDecoder(SCHEMA);
+        for (ByteBuffer buffer : new ByteBuffer[]{heap, direct}) {
+            AvroLazyRecord record = decoder.decode(buffer);
+            assertEquals(0, record.getNumDecoded());
+
+            // the sender reuses the buffer for another message
+            buffer.duplicate().put(new byte[bytes.length]);
+
+            assertEquals(makeRecord(), record);
+        }
+    }
+
+    public void testConcurrentFirstAccess() throws Exception {
+        int numThreads = 4;
+        AvroBinaryEventDecoder decoder = new AvroBinaryEventDecoder(SCHEMA);
+        byte[] bytes = avroToBinary(SCHEMA, makeRecord());
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            for (int i = 0; i < 200; i++) {
+                AvroLazyRecord record = decoder.decode(bytes);
+                CyclicBarrier barrier = new CyclicBarrier(numThreads);
+                List<Future<Object[]>> futures = new ArrayList<>();
+                for (int t = 0; t < numThreads; t++) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        return new Object[]{record.get("myNested"), record.get("myArray"), record.get("myString")};
+                    }));
+                }
+                Object[] first = futures.get(0).get();
+                for (Future<Object[]> future : futures) {
+                    Object[] result = future.get();
+                    assertSame(first[0], result[0]);
+                    assertSame(first[1], result[1]);
+                    assertEquals("abc", result[2]);
+                }
+                assertEquals(20, ((GenericData.Record) first[0]).get("nestedInt"));
+                assertEquals(3, record.getNumDecoded());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testInvalid() {
+        AvroBinaryEventDecoder decoder = new AvroBinaryEventDecoder(SCHEMA);
+        try {
+            decoder.decode(new byte[]{6, 'a'});
+            fail();
+        } catch (EPException ex) {
+            assertTrue(ex.getMessage().startsWith("Failed to decode Avro binary for schema 'typename'"));
+        }
+        try {
+            decoder.decode("text");
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Unexpected event object of type java.lang.String, expected byte[] or java.nio.ByteBuffer", ex.getMessage());
+        }
+    }
+
+    private static GenericData.Record makeRecord() {
+        GenericData.Record nested = new GenericData.Record(NESTED);
+        nested.put("nestedInt", 20);
+        GenericData.Record record = new GenericData.Record(SCHEMA);
+        record.put("myString", "abc");
+        record.put("myInt", 10);
+        record.put("myNullableLong", null);
+        record.put("myDouble", 2.5d);
+        record.put("myArray", Arrays.asList(1, 2, 3));
+        record.put("myMap", Collections.singletonMap("k", 5));
+        record.put("myNested", nested);
+        record.put("myBoolean", true);
+        return record;
+    }
+}
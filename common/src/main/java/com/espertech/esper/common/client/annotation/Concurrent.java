@@ -0,0 +1,27 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.annotation;
+
+/**
+ * Annotation for use with create-table to make a keyed table a concurrent table.
+ * <p>
+ * For a concurrent table, statements that aggregate into the table or insert into the table
+ * lock the individual row rather than the whole table, so that updates to different rows from different threads proceed in parallel.
+ * Statements that read the table, by primary key, by iterating, by joining or in subqueries, read each row while holding that row
+ * and therefore read a consistent row. Rows that other threads add or remove during iteration may or may not be visible.
+ * On-delete, on-update, on-merge and fire-and-forget queries continue to lock the whole table.
+ * </p>
+ * <p>
+ * A concurrent table must declare primary key columns and does not allow creating an index.
+ * </p>
+ */
+public @interface Concurrent {
+}
@@ -0,0 +1,68 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.configuration.common;
+
+import java.io.Serializable;
+
+/**
+ * Shared cache settings: a cache that is shared by all agent instances of a statement, that is bounded by
+ * the estimated weight of cached results and that can refresh frequently-used results in the background before they expire.
+ */
+public class ConfigurationCommonCacheShared implements ConfigurationCommonCache, Serializable {
+    private long maxWeight;
+    private double maxAgeSeconds;
+    private double refreshAfterSeconds;
+    private static final long serialVersionUID = -3466271457203947416L;
+
+    /**
+     * Ctor.
+     *
+     * @param maxWeight           is the maximum total weight of cached results, wherein the weight of a result is the number of rows plus one
+     * @param maxAgeSeconds       is the maximum age in seconds, or zero for no maximum age
+     * @param refreshAfterSeconds is the age in seconds after which a result that is looked up gets refreshed in the background, or zero for no refresh
+     */
+    public ConfigurationCommonCacheShared(long maxWeight, double maxAgeSeconds, double refreshAfterSeconds) {
+        this.maxWeight = maxWeight;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.refreshAfterSeconds = refreshAfterSeconds;
+    }
+
+    /**
+     * Returns the maximum total weight of cached results.
+     *
+     * @return max weight
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Returns the maximum age in seconds.
+     *
+     * @return number of seconds, zero for no maximum age
+     */
+    public double getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * Returns the age in seconds after which a result that is looked up gets refreshed in the background.
+     *
+     * @return number of seconds, zero for no refresh
+     */
+    public double getRefreshAfterSeconds() {
+        return refreshAfterSeconds;
+    }
+
+    public String toString() {
+        return "SharedCacheDesc maxWeight=" + maxWeight + " maxAgeSeconds=" + maxAgeSeconds + " refreshAfterSeconds=" + refreshAfterSeconds;
+    }
+}
@@ -31,6 +31,7 @@ public class ConfigurationCommonDBRef implements Serializable {
     private ConnectionSettings connectionSettings;
     private ConnectionLifecycleEnum connectionLifecycleEnum;
     private ConfigurationCommonCache dataCacheDesc;
+    private int parallelPollThreads;
     private MetadataOriginEnum metadataOrigin;
     private ColumnChangeCaseEnum columnChangeCase;
     private Map<Integer, String> sqlTypesMapping;
@@ -223,6 +224,46 @@ public class ConfigurationCommonDBRef implements Serializable {
         dataCacheDesc = new ConfigurationCommonCacheExpiryTime(maxAgeSeconds, purgeIntervalSeconds, cacheReferenceType);
     }
 
+    /**
+     * Configures a cache for the database that is shared by all agent instances of a statement,
+     * bounded by the total weight of cached results, wherein the weight of a result is the number of rows plus one.
+     * <p>
+     * When the refresh-after seconds are set, a query result that is looked up and that is older than the refresh-after seconds
+     * is refreshed in the background while the cached query result continues to be returned.
+     *
+     * @param maxWeight           is the maximum total weight of cached results before least-frequently and least-recently used results are evicted
+     * @param maxAgeSeconds       is the maximum number of seconds before a query result is considered stale, or zero for no maximum age
+     * @param refreshAfterSeconds is the number of seconds after which a query result gets refreshed in the background upon lookup, or zero for no refresh
+     */
+    public void setSharedCache(long maxWeight, double maxAgeSeconds, double refreshAfterSeconds) {
+        dataCacheDesc = new ConfigurationCommonCacheShared(maxWeight, maxAgeSeconds, refreshAfterSeconds);
+    }
+
+    /**
+     * Returns the number of threads for polling the keys of a join batch in parallel, or zero (the default) for polling by the event processing thread only.
+     *
+     * @return number of threads
+     */
+    public int getParallelPollThreads() {
+        return parallelPollThreads;
+    }
+
+    /**
+     * Sets the number of threads for polling the keys of a join batch in parallel, or zero (the default) for polling by the event processing thread only.
+     * <p>
+     * When set, and when a join looks up multiple keys at once, the distinct keys that are not cached are polled
+     * in parallel and the event processing thread waits for all results before continuing the join.
+     * The event processing thread is therefore not freed up for other events. Lookups of a single key are polled by the event processing thread.
+     * <p>
+     * The threads are shared by all statements that use this reference, are allocated upon first use and are stopped when the runtime is destroyed.
+     * Polls use a connection per polling thread, so that each statement and context partition uses up to the given number of additional connections.
+     *
+     * @param parallelPollThreads number of threads
+     */
+    public void setParallelPollThreads(int parallelPollThreads) {
+        this.parallelPollThreads = parallelPollThreads;
+    }
+
     /**
      * Return a query result data cache descriptor.
      *
@@ -221,6 +221,14 @@ public class ConfigurationCommonParser {
             } else if (subElement.getNodeName().equals("lru-cache")) {
                 String size = getRequiredAttribute(subElement, "size");
                 configDBRef.setLRUCache(Integer.parseInt(size));
+            } else if (subElement.getNodeName().equals("shared-cache")) {
+                String maxWeight = getRequiredAttribute(subElement, "max-weight");
+                String maxAge = getOptionalAttribute(subElement, "max-age-seconds");
+                String refreshAfter = getOptionalAttribute(subElement, "refresh-after-seconds");
+                configDBRef.setSharedCache(Long.parseLong(maxWeight), maxAge == null ? 0 : Double.parseDouble(maxAge), refreshAfter == null ? 0 : Double.parseDouble(refreshAfter));
+            } else if (subElement.getNodeName().equals("parallel-poll")) {
+                String threads = getRequiredAttribute(subElement, "threads");
+                configDBRef.setParallelPollThreads(Integer.parseInt(threads));
             }
         }
     }
@@ -517,6 +525,14 @@ public class ConfigurationCommonParser {
             } else if (subElement.getNodeName().equals("lru-cache")) {
                 String size = getRequiredAttribute(subElement, "size");
                 configMethodRef.setLRUCache(Integer.parseInt(size));
+            } else if (subElement.getNodeName().equals("shared-cache")) {
+                String maxWeight = getRequiredAttribute(subElement, "max-weight");
+                String maxAge = getOptionalAttribute(subElement, "max-age-seconds");
+                String refreshAfter = getOptionalAttribute(subElement, "refresh-after-seconds");
+                configMethodRef.setSharedCache(Long.parseLong(maxWeight), maxAge == null ? 0 : Double.parseDouble(maxAge), refreshAfter == null ? 0 : Double.parseDouble(refreshAfter));
+            } else if (subElement.getNodeName().equals("parallel-poll")) {
+                String threads = getRequiredAttribute(subElement, "threads");
+                configMethodRef.setParallelPollThreads(Integer.parseInt(threads));
             }
         }
     }
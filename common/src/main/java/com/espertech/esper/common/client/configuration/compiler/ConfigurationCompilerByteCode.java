@@ -37,6 +37,7 @@ public class ConfigurationCompilerByteCode implements Serializable {
     private EventTypeBusModifier busModifierEventType = EventTypeBusModifier.NONBUS;
     private int threadPoolCompilerNumThreads = 8;
     private Integer threadPoolCompilerCapacity = null;
+    private String cacheDirectory = null;
 
     /**
      * Set all access modifiers to public.
@@ -379,6 +380,28 @@ public class ConfigurationCompilerByteCode implements Serializable {
         this.threadPoolCompilerCapacity = threadPoolCompilerCapacity;
     }
 
+    /**
+     * Returns the directory of the compilation cache, or null if compiled modules are not cached (the default).
+     *
+     * @return directory or null if none defined
+     */
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * Sets the directory of the compilation cache, or null to not cache compiled modules (null is the default).
+     * <p>
+     * When set, the compiler stores each compiled module in the directory, keyed by the module text, the configuration and the compiled modules of the path,
+     * and returns the stored module when compiling the same module again instead of compiling.
+     * Changes to application classes are not detected, the directory should be cleared when they change.
+     *
+     * @param cacheDirectory directory or null if none defined
+     */
+    public void setCacheDirectory(String cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
     private void checkModifier(NameAccessModifier modifier) {
         if (!modifier.isModuleProvidedAccessModifier()) {
             throw new ConfigurationException("Access modifier configuration allows private, protected or public");
@@ -41,6 +41,7 @@ public class ConfigurationRuntime implements Serializable {
     private ConfigurationRuntimeTimeSource timeSource;
     private ConfigurationRuntimeExpression expression;
     private ConfigurationRuntimeExecution execution;
+    private ConfigurationRuntimeCheckpoint checkpoint;
 
     /**
      * Ctor.
@@ -280,6 +281,15 @@ public class ConfigurationRuntime implements Serializable {
         return execution;
     }
 
+    /**
+     * Returns checkpoint settings.
+     *
+     * @return checkpoint settings
+     */
+    public ConfigurationRuntimeCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
     /**
      * Reset to an empty configuration.
      */
@@ -296,5 +306,6 @@ public class ConfigurationRuntime implements Serializable {
         timeSource = new ConfigurationRuntimeTimeSource();
         expression = new ConfigurationRuntimeExpression();
         execution = new ConfigurationRuntimeExecution();
+        checkpoint = new ConfigurationRuntimeCheckpoint();
     }
 }
@@ -0,0 +1,73 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.configuration.runtime;
+
+import java.io.Serializable;
+
+/**
+ * Holds settings for checkpointing runtime state to local snapshot files.
+ * <p>
+ * Checkpointing is disabled unless a directory is provided. When enabled, the runtime periodically writes the values of
+ * non-constant variables and the contents of named windows to snapshot files in the directory, on a separate thread.
+ * Upon deployment, a variable or named window declared by a module of the same module name and by the same name
+ * starts with the checkpointed state instead of empty.
+ * Tables, aggregation state, statement-local data windows, named windows declared for a context and
+ * named windows with a batch data window are not checkpointed.
+ */
+public class ConfigurationRuntimeCheckpoint implements Serializable {
+    private static final long serialVersionUID = -1783427962155183516L;
+
+    private String directory;
+    private long intervalMSec;
+
+    /**
+     * Ctor - sets up defaults.
+     */
+    protected ConfigurationRuntimeCheckpoint() {
+        intervalMSec = 1000;
+    }
+
+    /**
+     * Returns the directory that holds snapshot files, or null when checkpointing is disabled (the default).
+     *
+     * @return directory
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sets the directory that holds snapshot files, or null to disable checkpointing.
+     *
+     * @param directory directory
+     */
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the number of milliseconds between checkpoints.
+     *
+     * @return checkpoint interval in milliseconds
+     */
+    public long getIntervalMSec() {
+        return intervalMSec;
+    }
+
+    /**
+     * Sets the number of milliseconds between checkpoints.
+     *
+     * @param intervalMSec checkpoint interval in milliseconds
+     */
+    public void setIntervalMSec(long intervalMSec) {
+        this.intervalMSec = intervalMSec;
+    }
+}
@@ -11,6 +11,7 @@
 package com.espertech.esper.common.client.configuration.runtime;
 
 import com.espertech.esper.common.client.util.FilterServiceProfile;
+import com.espertech.esper.common.client.util.SchedulingServiceProfile;
 
 import java.io.Serializable;
 
@@ -22,7 +23,9 @@ public class ConfigurationRuntimeExecution implements Serializable {
     private boolean fairlock;
     private boolean disableLocking;
     private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
+    private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
     private int declaredExprValueCacheSize = 1;
+    private long filterServiceReorderIntervalMSec;
 
     /**
      * Ctor - sets up defaults.
@@ -102,6 +105,9 @@ public class ConfigurationRuntimeExecution implements Serializable {
 
     /**
      * Set the filter service profile for tuning filtering operations.
+     * <p>
+     * The profile determines the filter service implementation, see {@link FilterServiceProfile}.
+     * Changing the profile from the default {@link FilterServiceProfile#READMOSTLY} changes the filter index locking.
      *
      * @param filterServiceProfile filter service profile
      */
@@ -109,6 +115,24 @@ public class ConfigurationRuntimeExecution implements Serializable {
         this.filterServiceProfile = filterServiceProfile;
     }
 
+    /**
+     * Returns the scheduling service profile for tuning schedule operations.
+     *
+     * @return scheduling service profile
+     */
+    public SchedulingServiceProfile getSchedulingServiceProfile() {
+        return schedulingServiceProfile;
+    }
+
+    /**
+     * Set the scheduling service profile for tuning schedule operations.
+     *
+     * @param schedulingServiceProfile scheduling service profile
+     */
+    public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+        this.schedulingServiceProfile = schedulingServiceProfile;
+    }
+
     /**
      * Returns the cache size for declared expression values
      *
@@ -126,4 +150,27 @@ public class ConfigurationRuntimeExecution implements Serializable {
     public void setDeclaredExprValueCacheSize(int declaredExprValueCacheSize) {
         this.declaredExprValueCacheSize = declaredExprValueCacheSize;
     }
+
+    /**
+     * Returns the interval in milliseconds at which the filter service reorders filter indexes by observed selectivity,
+     * or zero (the default) for no reordering.
+     *
+     * @return interval
+     */
+    public long getFilterServiceReorderIntervalMSec() {
+        return filterServiceReorderIntervalMSec;
+    }
+
+    /**
+     * Sets the interval in milliseconds at which the filter service reorders filter indexes by observed selectivity,
+     * or zero (the default) for no reordering.
+     * <p>
+     * When set, the filter service samples events and, at each interval, rebuilds the filter index tree of an event type
+     * so that the filter attributes that match the fewest filters for the sampled events are evaluated first.
+     *
+     * @param filterServiceReorderIntervalMSec interval
+     */
+    public void setFilterServiceReorderIntervalMSec(long filterServiceReorderIntervalMSec) {
+        this.filterServiceReorderIntervalMSec = filterServiceReorderIntervalMSec;
+    }
 }
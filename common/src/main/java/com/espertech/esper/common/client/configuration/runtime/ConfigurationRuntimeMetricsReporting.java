@@ -27,6 +27,8 @@ import java.util.Map;
  */
 public class ConfigurationRuntimeMetricsReporting implements Serializable {
     private boolean jmxRuntimeMetrics;
+    private boolean latencyHistograms;
+    private boolean filterMetrics;
     private boolean enableMetricsReporting;
     private boolean isThreading;
     private long runtimeInterval;
@@ -167,6 +169,48 @@ public class ConfigurationRuntimeMetricsReporting implements Serializable {
         this.jmxRuntimeMetrics = jmxRuntimeMetrics;
     }
 
+    /**
+     * Returns true if the runtime records per-statement processing-latency histograms and reports
+     * percentiles as {@link com.espertech.esper.common.client.metric.StatementLatencyMetric} events.
+     *
+     * @return indicator
+     */
+    public boolean isLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    /**
+     * Set to true to have the runtime record per-statement processing-latency histograms and report
+     * percentiles as {@link com.espertech.esper.common.client.metric.StatementLatencyMetric} events
+     * at the statement reporting interval.
+     *
+     * @param latencyHistograms indicator whether enabled or not
+     */
+    public void setLatencyHistograms(boolean latencyHistograms) {
+        this.latencyHistograms = latencyHistograms;
+    }
+
+    /**
+     * Returns true if the runtime counts, per event type and per filter index, the events evaluated, the filter nodes visited,
+     * the matches produced and the time spent, and reports them as {@link com.espertech.esper.common.client.metric.FilterMetric} events.
+     *
+     * @return indicator
+     */
+    public boolean isFilterMetrics() {
+        return filterMetrics;
+    }
+
+    /**
+     * Set to true to have the runtime count, per event type and per filter index, the events evaluated, the filter nodes visited,
+     * the matches produced and the time spent, and report them as {@link com.espertech.esper.common.client.metric.FilterMetric} events
+     * at the runtime reporting interval and, when JMX runtime metrics are enabled, through the filter service MBean.
+     *
+     * @param filterMetrics indicator whether enabled or not
+     */
+    public void setFilterMetrics(boolean filterMetrics) {
+        this.filterMetrics = filterMetrics;
+    }
+
     /**
      * Sets a new interval for a statement group identified by name.
      *
@@ -12,6 +12,9 @@ package com.espertech.esper.common.client.configuration.runtime;
 
 import com.espertech.esper.common.client.configuration.ConfigurationException;
 import com.espertech.esper.common.client.util.FilterServiceProfile;
+import com.espertech.esper.common.client.util.OutboundOverflowPolicy;
+import com.espertech.esper.common.client.util.RingBufferWaitStrategy;
+import com.espertech.esper.common.client.util.SchedulingServiceProfile;
 import com.espertech.esper.common.client.util.Locking;
 import com.espertech.esper.common.client.util.TimeSourceType;
 import com.espertech.esper.common.client.util.UndeployRethrowPolicy;
@@ -70,6 +73,8 @@ public class ConfigurationRuntimeParser {
                 handleExpression(runtime, element);
             } else if (nodeName.equals("execution")) {
                 handleExecution(runtime, element);
+            } else if (nodeName.equals("checkpoint")) {
+                handleCheckpoint(runtime, element);
             }
         }
     }
@@ -85,10 +90,21 @@ public class ConfigurationRuntimeParser {
             runtime.getExecution().setFilterServiceProfile(profile);
         }
 
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null) {
+            SchedulingServiceProfile profile = SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase(Locale.ENGLISH));
+            runtime.getExecution().setSchedulingServiceProfile(profile);
+        }
+
         String declExprValueCacheSizeStr = getOptionalAttribute(parentElement, "declared-expr-value-cache-size");
         if (declExprValueCacheSizeStr != null) {
             runtime.getExecution().setDeclaredExprValueCacheSize(Integer.parseInt(declExprValueCacheSizeStr));
         }
+
+        String filterServiceReorderIntervalStr = getOptionalAttribute(parentElement, "filter-service-reorder-interval-msec");
+        if (filterServiceReorderIntervalStr != null) {
+            runtime.getExecution().setFilterServiceReorderIntervalMSec(Long.parseLong(filterServiceReorderIntervalStr));
+        }
     }
 
     private static void handleExpression(ConfigurationRuntime runtime, Element element) {
@@ -119,6 +135,8 @@ public class ConfigurationRuntimeParser {
     }
 
     private static void handlePatterns(ConfigurationRuntime runtime, Element element) {
+        parseOptionalBoolean(element, "share-correlated-filters", b -> runtime.getPatterns().setShareCorrelatedFilters(b));
+
         DOMElementIterator nodeIterator = new DOMElementIterator(element.getChildNodes());
         while (nodeIterator.hasNext()) {
             Element subElement = nodeIterator.next();
@@ -170,6 +188,16 @@ public class ConfigurationRuntimeParser {
             runtime.getMetricsReporting().setJmxRuntimeMetrics(Boolean.parseBoolean(jmxRuntimeMetrics));
         }
 
+        String latencyHistograms = getOptionalAttribute(element, "latency-histograms");
+        if (latencyHistograms != null) {
+            runtime.getMetricsReporting().setLatencyHistograms(Boolean.parseBoolean(latencyHistograms));
+        }
+
+        String filterMetrics = getOptionalAttribute(element, "filter-metrics");
+        if (filterMetrics != null) {
+            runtime.getMetricsReporting().setFilterMetrics(Boolean.parseBoolean(filterMetrics));
+        }
+
         DOMElementIterator nodeIterator = new DOMElementIterator(element.getChildNodes());
         while (nodeIterator.hasNext()) {
             Element subElement = nodeIterator.next();
@@ -234,6 +262,19 @@ public class ConfigurationRuntimeParser {
                 Long value = Long.parseLong(valueText);
                 runtime.getVariables().setMsecVersionRelease(value);
             }
+            if (subElement.getNodeName().equals("lock-free-reads")) {
+                String valueText = getRequiredAttribute(subElement, "enabled");
+                Boolean value = Boolean.parseBoolean(valueText);
+                runtime.getVariables().setLockFreeReads(value);
+            }
+        }
+    }
+
+    private static void handleCheckpoint(ConfigurationRuntime runtime, Element element) {
+        runtime.getCheckpoint().setDirectory(getRequiredAttribute(element, "directory"));
+        String intervalText = getOptionalAttribute(element, "interval-msec");
+        if (intervalText != null) {
+            runtime.getCheckpoint().setIntervalMSec(Long.parseLong(intervalText));
         }
     }
 
@@ -327,12 +368,44 @@ public class ConfigurationRuntimeParser {
                 runtime.getThreading().setThreadPoolInbound(result.isEnabled());
                 runtime.getThreading().setThreadPoolInboundNumThreads(result.getNumThreads());
                 runtime.getThreading().setThreadPoolInboundCapacity(result.getCapacity());
+                parseOptionalBoolean(subElement, "ring-buffer", b -> runtime.getThreading().setThreadPoolInboundRingBuffer(b));
+                RingBufferWaitStrategy waitStrategy = parseRingBufferWaitStrategy(subElement);
+                if (waitStrategy != null) {
+                    runtime.getThreading().setThreadPoolInboundWaitStrategy(waitStrategy);
+                }
+                parseOptionalBoolean(subElement, "partitioned", b -> runtime.getThreading().setThreadPoolInboundPartitioned(b));
+                DOMElementIterator partitionIterator = new DOMElementIterator(subElement.getChildNodes());
+                while (partitionIterator.hasNext()) {
+                    Element partitionElement = partitionIterator.next();
+                    if (partitionElement.getNodeName().equals("partition-property")) {
+                        String eventTypeName = getRequiredAttribute(partitionElement, "event-type");
+                        String propertyName = getRequiredAttribute(partitionElement, "property");
+                        runtime.getThreading().addThreadPoolInboundPartitionProperty(eventTypeName, propertyName);
+                    }
+                }
             }
             if (subElement.getNodeName().equals("threadpool-outbound")) {
                 ThreadPoolConfig result = parseThreadPoolConfig(subElement);
                 runtime.getThreading().setThreadPoolOutbound(result.isEnabled());
                 runtime.getThreading().setThreadPoolOutboundNumThreads(result.getNumThreads());
                 runtime.getThreading().setThreadPoolOutboundCapacity(result.getCapacity());
+                parseOptionalBoolean(subElement, "ring-buffer", b -> runtime.getThreading().setThreadPoolOutboundRingBuffer(b));
+                RingBufferWaitStrategy waitStrategy = parseRingBufferWaitStrategy(subElement);
+                if (waitStrategy != null) {
+                    runtime.getThreading().setThreadPoolOutboundWaitStrategy(waitStrategy);
+                }
+                String mailboxCapacityStr = getOptionalAttribute(subElement, "mailbox-capacity");
+                if (mailboxCapacityStr != null) {
+                    runtime.getThreading().setThreadPoolOutboundMailboxCapacity(Integer.parseInt(mailboxCapacityStr));
+                }
+                String overflowPolicyStr = getOptionalAttribute(subElement, "overflow-policy");
+                if (overflowPolicyStr != null) {
+                    runtime.getThreading().setThreadPoolOutboundOverflowPolicy(OutboundOverflowPolicy.valueOf(overflowPolicyStr.toUpperCase(Locale.ENGLISH)));
+                }
+                String spillDirectory = getOptionalAttribute(subElement, "spill-directory");
+                if (spillDirectory != null) {
+                    runtime.getThreading().setThreadPoolOutboundSpillDirectory(spillDirectory);
+                }
             }
             if (subElement.getNodeName().equals("threadpool-timerexec")) {
                 ThreadPoolConfig result = parseThreadPoolConfig(subElement);
@@ -396,6 +469,14 @@ public class ConfigurationRuntimeParser {
         return new ThreadPoolConfig(isEnabled, numThreads, capacity);
     }
 
+    private static RingBufferWaitStrategy parseRingBufferWaitStrategy(Element parentElement) {
+        String waitStrategyStr = getOptionalAttribute(parentElement, "wait-strategy");
+        if (waitStrategyStr == null) {
+            return null;
+        }
+        return RingBufferWaitStrategy.valueOf(waitStrategyStr.toUpperCase(Locale.ENGLISH));
+    }
+
     private static void handleMetricsReportingPatterns(ConfigurationRuntimeMetricsReporting.StmtGroupMetrics groupDef, Element parentElement) {
         DOMElementIterator nodeIterator = new DOMElementIterator(parentElement.getChildNodes());
         while (nodeIterator.hasNext()) {
@@ -19,6 +19,7 @@ public class ConfigurationRuntimePatterns implements Serializable {
     private static final long serialVersionUID = -7596853289989573800L;
     private Long maxSubexpressions;
     private boolean maxSubexpressionPreventStart = true;
+    private boolean shareCorrelatedFilters;
 
     /**
      * Returns the maximum number of subexpressions
@@ -57,4 +58,26 @@ public class ConfigurationRuntimePatterns implements Serializable {
     public void setMaxSubexpressionPreventStart(boolean maxSubexpressionPreventStart) {
         this.maxSubexpressionPreventStart = maxSubexpressionPreventStart;
     }
+
+    /**
+     * Returns true to indicate that a followed-by filter that correlates to a tagged event by an equals-comparison,
+     * such as "b=B(id=a.id)", is registered once for all its states, which are then looked up by correlation key,
+     * the default is false.
+     *
+     * @return indicator whether correlated filters are shared
+     */
+    public boolean isShareCorrelatedFilters() {
+        return shareCorrelatedFilters;
+    }
+
+    /**
+     * Set to true to indicate that a followed-by filter that correlates to a tagged event by an equals-comparison,
+     * such as "b=B(id=a.id)", is registered once for all its states, which are then looked up by correlation key,
+     * the default is false.
+     *
+     * @param shareCorrelatedFilters indicator whether correlated filters are shared
+     */
+    public void setShareCorrelatedFilters(boolean shareCorrelatedFilters) {
+        this.shareCorrelatedFilters = shareCorrelatedFilters;
+    }
 }
@@ -11,8 +11,12 @@
 package com.espertech.esper.common.client.configuration.runtime;
 
 import com.espertech.esper.common.client.util.Locking;
+import com.espertech.esper.common.client.util.OutboundOverflowPolicy;
+import com.espertech.esper.common.client.util.RingBufferWaitStrategy;
 
 import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Holds threading settings.
@@ -47,6 +51,15 @@ public class ConfigurationRuntimeThreading implements Serializable {
     private Integer threadPoolInboundCapacity;
     private Integer threadPoolRouteExecCapacity;
     private Integer threadPoolOutboundCapacity;
+    private boolean threadPoolInboundRingBuffer;
+    private boolean threadPoolOutboundRingBuffer;
+    private RingBufferWaitStrategy threadPoolInboundWaitStrategy;
+    private RingBufferWaitStrategy threadPoolOutboundWaitStrategy;
+    private Integer threadPoolOutboundMailboxCapacity;
+    private OutboundOverflowPolicy threadPoolOutboundOverflowPolicy;
+    private String threadPoolOutboundSpillDirectory;
+    private boolean threadPoolInboundPartitioned;
+    private Map<String, String> threadPoolInboundPartitionProperties;
 
     private boolean runtimeFairlock;
 
@@ -78,6 +91,11 @@ public class ConfigurationRuntimeThreading implements Serializable {
         threadPoolInboundNumThreads = 2;
         threadPoolRouteExecNumThreads = 2;
         threadPoolOutboundNumThreads = 2;
+
+        threadPoolInboundWaitStrategy = RingBufferWaitStrategy.PARK;
+        threadPoolOutboundWaitStrategy = RingBufferWaitStrategy.PARK;
+        threadPoolOutboundOverflowPolicy = OutboundOverflowPolicy.BLOCK;
+        threadPoolInboundPartitionProperties = new LinkedHashMap<>();
     }
 
     /**
@@ -463,6 +481,189 @@ public class ConfigurationRuntimeThreading implements Serializable {
         this.threadPoolOutboundCapacity = capacity;
     }
 
+    /**
+     * Returns true if inbound threading uses a ring buffer of preallocated slots instead of a thread pool and queue,
+     * the default is false for using a thread pool.
+     *
+     * @return indicator whether inbound threading uses a ring buffer
+     */
+    public boolean isThreadPoolInboundRingBuffer() {
+        return threadPoolInboundRingBuffer;
+    }
+
+    /**
+     * Set to true for inbound threading to use a ring buffer of preallocated slots instead of a thread pool and queue,
+     * the default is false for using a thread pool.
+     * <p>
+     * The ring buffer capacity is the inbound capacity rounded up to a power of two.
+     *
+     * @param threadPoolInboundRingBuffer indicator whether inbound threading uses a ring buffer
+     */
+    public void setThreadPoolInboundRingBuffer(boolean threadPoolInboundRingBuffer) {
+        this.threadPoolInboundRingBuffer = threadPoolInboundRingBuffer;
+    }
+
+    /**
+     * Returns true if outbound threading uses a ring buffer of preallocated slots instead of a thread pool and queue,
+     * the default is false for using a thread pool.
+     *
+     * @return indicator whether outbound threading uses a ring buffer
+     */
+    public boolean isThreadPoolOutboundRingBuffer() {
+        return threadPoolOutboundRingBuffer;
+    }
+
+    /**
+     * Set to true for outbound threading to use a ring buffer of preallocated slots instead of a thread pool and queue,
+     * the default is false for using a thread pool.
+     * <p>
+     * The ring buffer capacity is the outbound capacity rounded up to a power of two.
+     *
+     * @param threadPoolOutboundRingBuffer indicator whether outbound threading uses a ring buffer
+     */
+    public void setThreadPoolOutboundRingBuffer(boolean threadPoolOutboundRingBuffer) {
+        this.threadPoolOutboundRingBuffer = threadPoolOutboundRingBuffer;
+    }
+
+    /**
+     * Returns the wait strategy of the inbound ring buffer (default is park).
+     *
+     * @return wait strategy
+     */
+    public RingBufferWaitStrategy getThreadPoolInboundWaitStrategy() {
+        return threadPoolInboundWaitStrategy;
+    }
+
+    /**
+     * Sets the wait strategy of the inbound ring buffer (default is park).
+     *
+     * @param threadPoolInboundWaitStrategy wait strategy
+     */
+    public void setThreadPoolInboundWaitStrategy(RingBufferWaitStrategy threadPoolInboundWaitStrategy) {
+        this.threadPoolInboundWaitStrategy = threadPoolInboundWaitStrategy;
+    }
+
+    /**
+     * Returns the wait strategy of the outbound ring buffer (default is park).
+     *
+     * @return wait strategy
+     */
+    public RingBufferWaitStrategy getThreadPoolOutboundWaitStrategy() {
+        return threadPoolOutboundWaitStrategy;
+    }
+
+    /**
+     * Sets the wait strategy of the outbound ring buffer (default is park).
+     *
+     * @param threadPoolOutboundWaitStrategy wait strategy
+     */
+    public void setThreadPoolOutboundWaitStrategy(RingBufferWaitStrategy threadPoolOutboundWaitStrategy) {
+        this.threadPoolOutboundWaitStrategy = threadPoolOutboundWaitStrategy;
+    }
+
+    /**
+     * Returns the capacity of the outbound mailbox that each statement has for outbound threading,
+     * or null if none defined (the default, for no per-statement mailbox).
+     *
+     * @return mailbox capacity
+     */
+    public Integer getThreadPoolOutboundMailboxCapacity() {
+        return threadPoolOutboundMailboxCapacity;
+    }
+
+    /**
+     * Sets the capacity of the outbound mailbox that each statement has for outbound threading,
+     * or null if none defined (the default, for no per-statement mailbox).
+     * <p>
+     * With a mailbox, output of a statement is queued in the statement's mailbox and delivered to listeners in order,
+     * and the overflow policy determines what happens when output arrives while the mailbox is full.
+     *
+     * @param threadPoolOutboundMailboxCapacity mailbox capacity
+     */
+    public void setThreadPoolOutboundMailboxCapacity(Integer threadPoolOutboundMailboxCapacity) {
+        this.threadPoolOutboundMailboxCapacity = threadPoolOutboundMailboxCapacity;
+    }
+
+    /**
+     * Returns the policy applied when the outbound mailbox of a statement is full (default is block).
+     *
+     * @return overflow policy
+     */
+    public OutboundOverflowPolicy getThreadPoolOutboundOverflowPolicy() {
+        return threadPoolOutboundOverflowPolicy;
+    }
+
+    /**
+     * Sets the policy applied when the outbound mailbox of a statement is full (default is block).
+     *
+     * @param threadPoolOutboundOverflowPolicy overflow policy
+     */
+    public void setThreadPoolOutboundOverflowPolicy(OutboundOverflowPolicy threadPoolOutboundOverflowPolicy) {
+        this.threadPoolOutboundOverflowPolicy = threadPoolOutboundOverflowPolicy;
+    }
+
+    /**
+     * Returns the directory for spill files of outbound mailboxes, or null for the temporary-file directory (the default).
+     *
+     * @return spill directory
+     */
+    public String getThreadPoolOutboundSpillDirectory() {
+        return threadPoolOutboundSpillDirectory;
+    }
+
+    /**
+     * Sets the directory for spill files of outbound mailboxes, or null for the temporary-file directory (the default).
+     *
+     * @param threadPoolOutboundSpillDirectory spill directory
+     */
+    public void setThreadPoolOutboundSpillDirectory(String threadPoolOutboundSpillDirectory) {
+        this.threadPoolOutboundSpillDirectory = threadPoolOutboundSpillDirectory;
+    }
+
+    /**
+     * Returns true if inbound threading assigns events to threads by partition key, so that events
+     * with the same key are processed in order by the same thread, default is false.
+     *
+     * @return indicator whether inbound threading is partitioned
+     */
+    public boolean isThreadPoolInboundPartitioned() {
+        return threadPoolInboundPartitioned;
+    }
+
+    /**
+     * Set to true to have inbound threading assign events to threads by partition key, so that events
+     * with the same key are processed in order by the same thread.
+     * <p>
+     * The partition key of an event is the value of the partition property configured for its event type.
+     * For event types without a partition property the runtime uses the partition key of the first
+     * keyed segmented context ("partition by") declared for the event type, if any.
+     * Other events are assigned to threads in turn.
+     *
+     * @param threadPoolInboundPartitioned indicator whether inbound threading is partitioned
+     */
+    public void setThreadPoolInboundPartitioned(boolean threadPoolInboundPartitioned) {
+        this.threadPoolInboundPartitioned = threadPoolInboundPartitioned;
+    }
+
+    /**
+     * Returns the partition property per event type name for partitioned inbound threading.
+     *
+     * @return map of event type name and property name
+     */
+    public Map<String, String> getThreadPoolInboundPartitionProperties() {
+        return threadPoolInboundPartitionProperties;
+    }
+
+    /**
+     * Adds a partition property for an event type for use with partitioned inbound threading.
+     *
+     * @param eventTypeName event type name
+     * @param propertyName  name of the property providing the partition key
+     */
+    public void addThreadPoolInboundPartitionProperty(String eventTypeName, String propertyName) {
+        threadPoolInboundPartitionProperties.put(eventTypeName, propertyName);
+    }
+
     /**
      * Returns true if the runtime-level lock is configured as a fair lock (default is false).
      * <p>
@@ -17,6 +17,7 @@ import java.io.Serializable;
  */
 public class ConfigurationRuntimeVariables implements Serializable {
     private long msecVersionRelease;
+    private boolean lockFreeReads;
     private static final long serialVersionUID = 8276015152830052323L;
 
     /**
@@ -53,4 +54,29 @@ public class ConfigurationRuntimeVariables implements Serializable {
     public void setMsecVersionRelease(long msecVersionRelease) {
         this.msecVersionRelease = msecVersionRelease;
     }
+
+    /**
+     * Returns indicator whether variable versions are read without locking and older versions are released
+     * once no thread reads them anymore.
+     * <p>
+     * By default older versions of variables are read under a shared read lock and are released based on the
+     * version release interval. When enabled, each variable keeps its versions as an immutable chain that readers
+     * traverse without locking, and a write releases versions older than the oldest version any thread may still read.
+     * The version release interval then only applies to versions held by threads that stopped processing.
+     *
+     * @return indicator whether variable reads are lock-free
+     */
+    public boolean isLockFreeReads() {
+        return lockFreeReads;
+    }
+
+    /**
+     * Sets indicator whether variable versions are read without locking and older versions are released
+     * once no thread reads them anymore.
+     *
+     * @param lockFreeReads indicator whether variable reads are lock-free
+     */
+    public void setLockFreeReads(boolean lockFreeReads) {
+        this.lockFreeReads = lockFreeReads;
+    }
 }
@@ -72,4 +72,14 @@ public interface EPMetricsService {
      * @throws ConfigurationException if use at runtime and metrics reporting had not been enabled at initialization time
      */
     void setMetricsReportingDisabled() throws ConfigurationException;
+
+    /**
+     * Returns the current queue depth and drop, spill and blocking counters of the outbound mailbox of each statement.
+     * <p>
+     * Statements have outbound mailboxes when outbound threading is enabled and a mailbox capacity is configured,
+     * and a statement's mailbox is allocated when the statement first delivers output.
+     *
+     * @return mailbox metrics, empty if there are no mailboxes
+     */
+    OutboundMailboxMetric[] getOutboundMailboxMetrics();
 }
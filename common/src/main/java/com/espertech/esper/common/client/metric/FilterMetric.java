@@ -0,0 +1,127 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.metric;
+
+/**
+ * Reports filter evaluation counters for an event type or for the filter indexes of an event type, counted since
+ * the runtime started or since the filter service statistics were last reset.
+ * <p>
+ * Each interval reports one event per event type with a null expression and filter operator, and one event
+ * per filter index expression and filter operator of the event type.
+ * The time spent by a filter index includes the time spent by the indexes nested below it.
+ */
+public class FilterMetric extends MetricEvent {
+    private final long timestamp;
+    private final String eventTypeName;
+    private final String expression;
+    private final String filterOperator;
+    private final long numEventsEvaluated;
+    private final long numNodesVisited;
+    private final long numMatches;
+    private final long nanoTime;
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI         runtime URI
+     * @param timestamp          runtime timestamp
+     * @param eventTypeName      event type name
+     * @param expression         filter index expression, or null for the event type
+     * @param filterOperator     filter index operator, or null for the event type
+     * @param numEventsEvaluated number of events evaluated
+     * @param numNodesVisited    number of filter nodes visited
+     * @param numMatches         number of matches produced
+     * @param nanoTime           time spent in nanoseconds
+     */
+    public FilterMetric(String runtimeURI, long timestamp, String eventTypeName, String expression, String filterOperator, long numEventsEvaluated, long numNodesVisited, long numMatches, long nanoTime) {
+        super(runtimeURI);
+        this.timestamp = timestamp;
+        this.eventTypeName = eventTypeName;
+        this.expression = expression;
+        this.filterOperator = filterOperator;
+        this.numEventsEvaluated = numEventsEvaluated;
+        this.numNodesVisited = numNodesVisited;
+        this.numMatches = numMatches;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns runtime timestamp.
+     *
+     * @return timestamp
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the event type name.
+     *
+     * @return event type name
+     */
+    public String getEventTypeName() {
+        return eventTypeName;
+    }
+
+    /**
+     * Returns the filter index expression, or null when reporting for the event type.
+     *
+     * @return expression
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Returns the filter index operator, or null when reporting for the event type.
+     *
+     * @return filter operator
+     */
+    public String getFilterOperator() {
+        return filterOperator;
+    }
+
+    /**
+     * Returns the number of events evaluated.
+     *
+     * @return number of events
+     */
+    public long getNumEventsEvaluated() {
+        return numEventsEvaluated;
+    }
+
+    /**
+     * Returns the number of filter nodes visited.
+     *
+     * @return number of nodes
+     */
+    public long getNumNodesVisited() {
+        return numNodesVisited;
+    }
+
+    /**
+     * Returns the number of matches produced.
+     *
+     * @return number of matches
+     */
+    public long getNumMatches() {
+        return numMatches;
+    }
+
+    /**
+     * Returns the time spent in nanoseconds.
+     *
+     * @return time spent
+     */
+    public long getNanoTime() {
+        return nanoTime;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.metric;
+
+/**
+ * Reports the queue depth and overflow counters of the outbound mailbox of a statement.
+ */
+public class OutboundMailboxMetric {
+    private final String deploymentId;
+    private final String statementName;
+    private final int capacity;
+    private final int depth;
+    private final int spillDepth;
+    private final long droppedCount;
+    private final long spilledCount;
+    private final long blockedCount;
+
+    /**
+     * Ctor.
+     *
+     * @param deploymentId  deployment id
+     * @param statementName statement name
+     * @param capacity      mailbox capacity
+     * @param depth         number of outputs in the mailbox and not yet delivered, including spilled outputs
+     * @param spillDepth    number of outputs in the spill file and not yet delivered
+     * @param droppedCount  number of outputs discarded, cumulative
+     * @param spilledCount  number of outputs written to the spill file, cumulative
+     * @param blockedCount  number of times delivering output waited for the mailbox to have capacity, cumulative
+     */
+    public OutboundMailboxMetric(String deploymentId, String statementName, int capacity, int depth, int spillDepth, long droppedCount, long spilledCount, long blockedCount) {
+        this.deploymentId = deploymentId;
+        this.statementName = statementName;
+        this.capacity = capacity;
+        this.depth = depth;
+        this.spillDepth = spillDepth;
+        this.droppedCount = droppedCount;
+        this.spilledCount = spilledCount;
+        this.blockedCount = blockedCount;
+    }
+
+    /**
+     * Returns the deployment id.
+     *
+     * @return deployment id
+     */
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+
+    /**
+     * Returns the statement name.
+     *
+     * @return statement name
+     */
+    public String getStatementName() {
+        return statementName;
+    }
+
+    /**
+     * Returns the mailbox capacity.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of outputs in the mailbox and not yet delivered, including spilled outputs.
+     *
+     * @return queue depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of outputs in the spill file and not yet delivered.
+     *
+     * @return spill depth
+     */
+    public int getSpillDepth() {
+        return spillDepth;
+    }
+
+    /**
+     * Returns the number of outputs discarded by the drop-oldest or coalesce overflow policy, cumulative.
+     *
+     * @return drop count
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Returns the number of outputs written to the spill file, cumulative.
+     *
+     * @return spill count
+     */
+    public long getSpilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     * Returns the number of times delivering output waited for the mailbox to have capacity, cumulative.
+     *
+     * @return blocked count
+     */
+    public long getBlockedCount() {
+        return blockedCount;
+    }
+}
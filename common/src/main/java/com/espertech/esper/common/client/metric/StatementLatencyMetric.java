@@ -0,0 +1,137 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.metric;
+
+/**
+ * Reports statement-level processing-latency percentiles, in nanoseconds, for the last reporting interval.
+ * <p>
+ * Each interval reports one event per statement for all agent instances of the statement, with a null agent instance id,
+ * and, for statements that have multiple agent instances such as context partitions, one event per agent instance.
+ */
+public class StatementLatencyMetric extends MetricEvent {
+    private final long timestamp;
+    private final String deploymentId;
+    private final String statementName;
+    private final Integer agentInstanceId;
+    private final long count;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI      runtime URI
+     * @param timestamp       runtime timestamp
+     * @param deploymentId    deployment id
+     * @param statementName   statement name
+     * @param agentInstanceId agent instance id or null for all agent instances of the statement
+     * @param count           number of latencies recorded
+     * @param p50             50th percentile latency in nanoseconds
+     * @param p99             99th percentile latency in nanoseconds
+     * @param p999            99.9th percentile latency in nanoseconds
+     * @param max             maximum latency in nanoseconds
+     */
+    public StatementLatencyMetric(String runtimeURI, long timestamp, String deploymentId, String statementName, Integer agentInstanceId, long count, long p50, long p99, long p999, long max) {
+        super(runtimeURI);
+        this.timestamp = timestamp;
+        this.deploymentId = deploymentId;
+        this.statementName = statementName;
+        this.agentInstanceId = agentInstanceId;
+        this.count = count;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Returns runtime timestamp.
+     *
+     * @return timestamp
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the deployment id.
+     *
+     * @return deployment id
+     */
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+
+    /**
+     * Returns statement name.
+     *
+     * @return statement name
+     */
+    public String getStatementName() {
+        return statementName;
+    }
+
+    /**
+     * Returns the agent instance id, or null when reporting for all agent instances of the statement.
+     *
+     * @return agent instance id
+     */
+    public Integer getAgentInstanceId() {
+        return agentInstanceId;
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the 50th percentile (median) latency in nanoseconds.
+     *
+     * @return latency
+     */
+    public long getP50() {
+        return p50;
+    }
+
+    /**
+     * Returns the 99th percentile latency in nanoseconds.
+     *
+     * @return latency
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * Returns the 99.9th percentile latency in nanoseconds.
+     *
+     * @return latency
+     */
+    public long getP999() {
+        return p999;
+    }
+
+    /**
+     * Returns the maximum latency in nanoseconds.
+     *
+     * @return latency
+     */
+    public long getMax() {
+        return max;
+    }
+}
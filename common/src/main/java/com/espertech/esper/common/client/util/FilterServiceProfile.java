@@ -15,12 +15,21 @@ package com.espertech.esper.common.client.util;
  */
 public enum FilterServiceProfile {
     /**
-     * If filters are mostly static, the default.
+     * If filters are mostly static, the default, using a filter service that locks the filter index as a whole.
      */
     READMOSTLY,
 
     /**
-     * For very dynamic filters that come and go in a highly threaded environment.
+     * For very dynamic filters that come and go in a highly threaded environment, using a filter service that locks
+     * each filter index node separately.
+     * <p>
+     * Earlier releases of the runtime did not honor the configured profile and used the filter service of {@link #READMOSTLY} for this profile as well.
      */
-    READWRITE
+    READWRITE,
+
+    /**
+     * If filters rarely change and many threads send events, matches events without acquiring locks
+     * at the cost of slower addition and removal of filters.
+     */
+    READLOCKFREE
 }
@@ -0,0 +1,36 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.util;
+
+/**
+ * Enumeration of the policies applied when the outbound mailbox of a statement is full.
+ */
+public enum OutboundOverflowPolicy {
+    /**
+     * Blocks the thread delivering the output until the mailbox has capacity, for back-pressure towards event processing.
+     */
+    BLOCK,
+
+    /**
+     * Discards the oldest output in the mailbox, so that listeners receive the most recent output with bounded latency.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Discards all output in the mailbox and retains only the latest output of the statement.
+     */
+    COALESCE,
+
+    /**
+     * Writes output that does not fit the mailbox to a local file, from which output is delivered in order once the mailbox drains.
+     */
+    SPILL
+}
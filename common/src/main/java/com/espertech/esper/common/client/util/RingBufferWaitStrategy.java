@@ -0,0 +1,31 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.util;
+
+/**
+ * Enumeration of the techniques by which ring buffer threads wait for work or for capacity.
+ */
+public enum RingBufferWaitStrategy {
+    /**
+     * Spins without yielding, for lowest latency at the cost of a fully-used CPU per waiting thread.
+     */
+    BUSYSPIN,
+
+    /**
+     * Spins and yields the thread, for low latency while letting other threads run.
+     */
+    YIELD,
+
+    /**
+     * Spins, yields and then parks the thread for a short time, using the least CPU and therefore the default.
+     */
+    PARK
+}
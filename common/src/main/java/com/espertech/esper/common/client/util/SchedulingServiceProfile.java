@@ -0,0 +1,27 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.client.util;
+
+/**
+ * Scheduling service profile.
+ */
+public enum SchedulingServiceProfile {
+    /**
+     * Keeps schedules sorted by time, the default.
+     */
+    SORTED,
+
+    /**
+     * For a large number of schedules that are frequently added and removed, such as per-key pattern timers and time windows,
+     * keeps schedules in a hierarchical timing wheel with constant-time addition and removal.
+     */
+    TIMINGWHEEL
+}
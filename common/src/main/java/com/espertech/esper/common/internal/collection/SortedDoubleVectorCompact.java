@@ -0,0 +1,278 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.collection;
+
+/**
+ * Sorted, reference-counting set of double values with the same behavior as {@link SortedDoubleVector}
+ * that keeps values in primitive arrays, without an object per value.
+ * <p>
+ * Values are held in sorted chunks of up to a fixed number of values, and the chunks are in ascending order.
+ * A chunk is found by binary search on the last value of each chunk, or, for positional access, by means of
+ * a binary-indexed tree of chunk sizes. Adding or removing a value therefore only moves values within a single chunk.
+ * A full chunk is split in two, an empty chunk is removed and a chunk that becomes small is merged with a neighbour
+ * when the two fit into half a chunk.
+ * <p>
+ * Not synchronized and not thread-safe.
+ */
+public class SortedDoubleVectorCompact {
+    private static final int CHUNK_CAPACITY = 512;
+    private static final int INITIAL_CHUNK_CAPACITY = 8;
+    private static final int INITIAL_NUM_CHUNKS = 4;
+
+    private double[][] chunks;
+    private int[] chunkSizes;
+    private int[] tree;
+    private int numChunks;
+    private int size;
+
+    /**
+     * Constructor.
+     */
+    public SortedDoubleVectorCompact() {
+        clear();
+    }
+
+    /**
+     * Clear out the collection.
+     */
+    public void clear() {
+        chunks = new double[INITIAL_NUM_CHUNKS][];
+        chunkSizes = new int[INITIAL_NUM_CHUNKS];
+        tree = new int[INITIAL_NUM_CHUNKS + 1];
+        chunks[0] = new double[INITIAL_CHUNK_CAPACITY];
+        numChunks = 1;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of items in the collection.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value at a given index.
+     *
+     * @param index for which to return value for
+     * @return value at index
+     */
+    public double getValue(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int chunk = 0;
+        int remaining = index;
+        for (int step = Integer.highestOneBit(numChunks); step > 0; step >>= 1) {
+            int next = chunk + step;
+            if (next <= numChunks && tree[next] <= remaining) {
+                chunk = next;
+                remaining -= tree[next];
+            }
+        }
+        return chunks[chunk][remaining];
+    }
+
+    /**
+     * Add a value to the collection.
+     *
+     * @param value is the double-type value to add
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+
+        int chunk = findChunk(value);
+        if (chunkSizes[chunk] == CHUNK_CAPACITY) {
+            splitChunk(chunk);
+            if (value > chunks[chunk][chunkSizes[chunk] - 1]) {
+                chunk++;
+            }
+        }
+
+        double[] values = chunks[chunk];
+        int count = chunkSizes[chunk];
+        if (count == values.length) {
+            double[] grown = new double[Math.min(CHUNK_CAPACITY, values.length << 1)];
+            System.arraycopy(values, 0, grown, 0, count);
+            chunks[chunk] = grown;
+            values = grown;
+        }
+        int position = findPosition(values, count, value);
+        System.arraycopy(values, position, values, position + 1, count - position);
+        values[position] = value;
+        chunkSizes[chunk]++;
+        size++;
+        treeAdd(chunk, 1);
+    }
+
+    /**
+     * Remove a value from the collection.
+     *
+     * @param value to remove
+     */
+    public void remove(double value) {
+        if (Double.isNaN(value) || size == 0) {
+            return;
+        }
+
+        int chunk = findChunk(value);
+        double[] values = chunks[chunk];
+        int count = chunkSizes[chunk];
+        int position = findPosition(values, count, value);
+        if (position == count || values[position] != value) {
+            return;
+        }
+        System.arraycopy(values, position + 1, values, position, count - position - 1);
+        chunkSizes[chunk]--;
+        size--;
+        treeAdd(chunk, -1);
+
+        if (numChunks == 1) {
+            return;
+        }
+        if (chunkSizes[chunk] == 0) {
+            removeChunk(chunk);
+        } else if (chunkSizes[chunk] < CHUNK_CAPACITY / 4) {
+            if (chunk + 1 < numChunks && chunkSizes[chunk] + chunkSizes[chunk + 1] <= CHUNK_CAPACITY / 2) {
+                mergeChunks(chunk);
+            } else if (chunk > 0 && chunkSizes[chunk - 1] + chunkSizes[chunk] <= CHUNK_CAPACITY / 2) {
+                mergeChunks(chunk - 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the values in ascending order.
+     *
+     * @return sorted values
+     */
+    public double[] toArray() {
+        double[] result = new double[size];
+        int offset = 0;
+        for (int i = 0; i < numChunks; i++) {
+            System.arraycopy(chunks[i], 0, result, offset, chunkSizes[i]);
+            offset += chunkSizes[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of chunks, for testing purposes.
+     *
+     * @return number of chunks
+     */
+    protected int getNumChunks() {
+        return numChunks;
+    }
+
+    private int findChunk(double value) {
+        int low = 0;
+        int high = numChunks - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (chunks[middle][chunkSizes[middle] - 1] >= value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int findPosition(double[] values, int count, double value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void splitChunk(int chunk) {
+        if (numChunks == chunks.length) {
+            int capacity = chunks.length << 1;
+            double[][] newChunks = new double[capacity][];
+            int[] newSizes = new int[capacity];
+            System.arraycopy(chunks, 0, newChunks, 0, numChunks);
+            System.arraycopy(chunkSizes, 0, newSizes, 0, numChunks);
+            chunks = newChunks;
+            chunkSizes = newSizes;
+            tree = new int[capacity + 1];
+        }
+        System.arraycopy(chunks, chunk + 1, chunks, chunk + 2, numChunks - chunk - 1);
+        System.arraycopy(chunkSizes, chunk + 1, chunkSizes, chunk + 2, numChunks - chunk - 1);
+        numChunks++;
+
+        double[] values = chunks[chunk];
+        int half = chunkSizes[chunk] >> 1;
+        int upper = chunkSizes[chunk] - half;
+        double[] upperValues = new double[CHUNK_CAPACITY];
+        System.arraycopy(values, half, upperValues, 0, upper);
+        chunks[chunk + 1] = upperValues;
+        chunkSizes[chunk + 1] = upper;
+        chunkSizes[chunk] = half;
+        rebuildTree();
+    }
+
+    private void mergeChunks(int chunk) {
+        double[] values = chunks[chunk];
+        int count = chunkSizes[chunk];
+        int nextCount = chunkSizes[chunk + 1];
+        if (values.length < count + nextCount) {
+            double[] grown = new double[CHUNK_CAPACITY];
+            System.arraycopy(values, 0, grown, 0, count);
+            chunks[chunk] = grown;
+            values = grown;
+        }
+        System.arraycopy(chunks[chunk + 1], 0, values, count, nextCount);
+        chunkSizes[chunk] = count + nextCount;
+        removeChunk(chunk + 1);
+    }
+
+    private void removeChunk(int chunk) {
+        System.arraycopy(chunks, chunk + 1, chunks, chunk, numChunks - chunk - 1);
+        System.arraycopy(chunkSizes, chunk + 1, chunkSizes, chunk, numChunks - chunk - 1);
+        numChunks--;
+        chunks[numChunks] = null;
+        chunkSizes[numChunks] = 0;
+        rebuildTree();
+    }
+
+    private void treeAdd(int chunk, int delta) {
+        for (int i = chunk + 1; i <= numChunks; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void rebuildTree() {
+        for (int i = 1; i <= numChunks; i++) {
+            tree[i] = chunkSizes[i - 1];
+        }
+        for (int i = numChunks + 1; i < tree.length; i++) {
+            tree[i] = 0;
+        }
+        for (int i = 1; i <= numChunks; i++) {
+            int parent = i + (i & -i);
+            if (parent <= numChunks) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.collection;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.view.core.DataWindowViewFactory;
+import com.espertech.esper.common.internal.view.core.ViewDataVisitor;
+
+import java.util.*;
+
+/**
+ * Time window with the same behavior as {@link TimeWindow} that keeps events and their timestamps
+ * in a growable ring of parallel arrays, without an object per time slot.
+ * <p>
+ * Removing an event leaves an empty slot (tombstone) in the ring. Leading tombstones are dropped right away
+ * and the ring is compacted when tombstones make up more than half of it.
+ * The window finds the event to remove by means of a reverse index from event to position
+ * that is only built upon the first removal, so that windows that never see a remove stream
+ * do not keep a map entry per event.
+ * <p>
+ * It is assumed that the timestamp passed to the add method is ascending.
+ */
+public final class TimeWindowCompact implements Iterable<EventBean> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int COMPACT_MIN_ENTRIES = 64;
+
+    private final boolean isSupportRemoveStream;
+    private long[] timestamps;
+    private EventBean[] events;
+    private int mask;
+    private int head;
+    private int count;
+    private int size;
+    private int tombstones;
+    private long headSequence;
+    private Map<EventBean, Long> reverseIndex;
+
+    /**
+     * Ctor.
+     *
+     * @param isSupportRemoveStream true to indicate the time window should support removal of events
+     *                              in the window based on the remove stream events received, or false to not accomodate removal at all
+     */
+    public TimeWindowCompact(boolean isSupportRemoveStream) {
+        this.isSupportRemoveStream = isSupportRemoveStream;
+        this.timestamps = new long[INITIAL_CAPACITY];
+        this.events = new EventBean[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * Adjust expiry dates.
+     *
+     * @param delta delta to adjust for
+     */
+    public void adjust(long delta) {
+        for (int i = 0; i < count; i++) {
+            timestamps[(head + i) & mask] += delta;
+        }
+    }
+
+    /**
+     * Adds event to the time window for the specified timestamp.
+     *
+     * @param timestamp - the time slot for the event
+     * @param bean      - event to add
+     */
+    public void add(long timestamp, EventBean bean) {
+        if (count == events.length) {
+            resize(events.length << 1);
+        }
+        int position = (head + count) & mask;
+        timestamps[position] = timestamp;
+        events[position] = bean;
+        if (reverseIndex != null) {
+            reverseIndex.put(bean, headSequence + count);
+        }
+        count++;
+        size++;
+    }
+
+    /**
+     * Removes the event from the window, if remove stream handling is enabled.
+     *
+     * @param theEvent to remove
+     */
+    public void remove(EventBean theEvent) {
+        if (!isSupportRemoveStream) {
+            throw new UnsupportedOperationException("Time window does not accept event removal");
+        }
+        if (reverseIndex == null) {
+            reverseIndex = new HashMap<>();
+            rebuildReverseIndex();
+        }
+        Long sequence = reverseIndex.remove(theEvent);
+        if (sequence == null) {
+            return;
+        }
+
+        int position = (head + (int) (sequence - headSequence)) & mask;
+        events[position] = null;
+        size--;
+        tombstones++;
+        dropLeadingTombstones();
+
+        if (count >= COMPACT_MIN_ENTRIES && tombstones > count >> 1) {
+            compact();
+        }
+    }
+
+    /**
+     * Return and remove events in time-slots earlier (less) then the timestamp passed in,
+     * returning the list of events expired.
+     *
+     * @param expireBefore is the timestamp from which on to keep events in the window
+     * @return a list of events expired and removed from the window, or null if none expired
+     */
+    public ArrayDeque<EventBean> expireEvents(long expireBefore) {
+        if (count == 0 || timestamps[head] >= expireBefore) {
+            return null;
+        }
+
+        ArrayDeque<EventBean> resultBeans = new ArrayDeque<>();
+        while (count > 0 && timestamps[head] < expireBefore) {
+            EventBean event = events[head];
+            if (event != null) {
+                resultBeans.add(event);
+                if (reverseIndex != null) {
+                    reverseIndex.remove(event);
+                }
+            } else {
+                tombstones--;
+            }
+            removeHead();
+        }
+        dropLeadingTombstones();
+
+        size -= resultBeans.size();
+        return resultBeans;
+    }
+
+    /**
+     * Returns event iterator.
+     *
+     * @return iterator over events currently in window
+     */
+    public Iterator<EventBean> iterator() {
+        return new TimeWindowCompactIterator();
+    }
+
+    /**
+     * Returns the oldest timestamp in the collection if there is at least one entry,
+     * else it returns null if the window is empty.
+     *
+     * @return null if empty, oldest timestamp if not empty
+     */
+    public Long getOldestTimestamp() {
+        if (count == 0) {
+            return null;
+        }
+        return timestamps[head];
+    }
+
+    /**
+     * Returns true if the window is currently empty.
+     *
+     * @return true if empty, false if not
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of events in the window.
+     *
+     * @return number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots allocated, for testing purposes.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * Returns the reverse index, for testing purposes.
+     *
+     * @return reverse index or null if not allocated
+     */
+    public Map<EventBean, Long> getReverseIndex() {
+        return reverseIndex;
+    }
+
+    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
+        Collection<EventBean> contents = new AbstractCollection<EventBean>() {
+            public Iterator<EventBean> iterator() {
+                return TimeWindowCompact.this.iterator();
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+        viewDataVisitor.visitPrimary(contents, true, viewFactory.getViewName(), size);
+    }
+
+    private void removeHead() {
+        events[head] = null;
+        head = (head + 1) & mask;
+        headSequence++;
+        count--;
+    }
+
+    private void dropLeadingTombstones() {
+        while (count > 0 && events[head] == null) {
+            removeHead();
+            tombstones--;
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] newTimestamps = new long[capacity];
+        EventBean[] newEvents = new EventBean[capacity];
+        for (int i = 0; i < count; i++) {
+            int position = (head + i) & mask;
+            newTimestamps[i] = timestamps[position];
+            newEvents[i] = events[position];
+        }
+        timestamps = newTimestamps;
+        events = newEvents;
+        mask = capacity - 1;
+        head = 0;
+    }
+
+    private void compact() {
+        int retained = 0;
+        for (int i = 0; i < count; i++) {
+            int position = (head + i) & mask;
+            EventBean event = events[position];
+            if (event != null) {
+                int target = (head + retained) & mask;
+                timestamps[target] = timestamps[position];
+                events[target] = event;
+                retained++;
+            }
+        }
+        for (int i = retained; i < count; i++) {
+            events[(head + i) & mask] = null;
+        }
+        count = retained;
+        tombstones = 0;
+
+        int capacity = events.length;
+        while (capacity > INITIAL_CAPACITY && count <= capacity >> 2) {
+            capacity = capacity >> 1;
+        }
+        if (capacity != events.length) {
+            resize(capacity);
+        }
+        rebuildReverseIndex();
+    }
+
+    private void rebuildReverseIndex() {
+        reverseIndex.clear();
+        for (int i = 0; i < count; i++) {
+            EventBean event = events[(head + i) & mask];
+            if (event != null) {
+                reverseIndex.put(event, headSequence + i);
+            }
+        }
+    }
+
+    private class TimeWindowCompactIterator implements Iterator<EventBean> {
+        private int index;
+
+        TimeWindowCompactIterator() {
+            skipTombstones();
+        }
+
+        public boolean hasNext() {
+            return index < count;
+        }
+
+        public EventBean next() {
+            if (index >= count) {
+                throw new NoSuchElementException();
+            }
+            EventBean event = events[(head + index) & mask];
+            index++;
+            skipTombstones();
+            return event;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void skipTombstones() {
+            while (index < count && events[(head + index) & mask] == null) {
+                index++;
+            }
+        }
+    }
+}
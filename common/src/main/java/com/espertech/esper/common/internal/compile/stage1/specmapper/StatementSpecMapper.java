@@ -2235,6 +2235,9 @@ public class StatementSpecMapper {
             return new AvgProjectionExpression(sub.isDistinct());
         } else if (expr instanceof ExprNthAggNode) {
             return new PlugInProjectionExpression("nth", false);
+        } else if (expr instanceof ExprPercentileAggNode) {
+            ExprPercentileAggNode node = (ExprPercentileAggNode) expr;
+            return new PlugInProjectionExpression("percentile", node.isDistinct());
         } else if (expr instanceof ExprBetweenNode) {
             ExprBetweenNode between = (ExprBetweenNode) expr;
             return new BetweenExpression(between.isLowEndpointIncluded(), between.isHighEndpointIncluded(), between.isNotBetween());
@@ -488,6 +488,7 @@ public class StreamSpecCompiler {
                 }
                 followedByNode.setOptionalMaxExpressions(validated);
             }
+            followedByNode.analyzeCorrelatedFilters();
         }
 
         if (newTaggedEventTypes != null) {
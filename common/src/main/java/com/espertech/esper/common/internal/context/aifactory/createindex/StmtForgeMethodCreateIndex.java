@@ -81,6 +81,9 @@ public class StmtForgeMethodCreateIndex implements StmtForgeMethod {
             if (!table.isKeyed()) {
                 throw new ExprValidationException("Tables without primary key column(s) do not allow creating an index");
             }
+            if (table.isConcurrent()) {
+                throw new ExprValidationException("Concurrent tables do not allow creating an index");
+            }
         }
         EPLValidationUtil.validateContextName(namedWindow == null, infraName, infraContextName, base.getStatementSpec().getRaw().getOptionalContextName(), true);
 
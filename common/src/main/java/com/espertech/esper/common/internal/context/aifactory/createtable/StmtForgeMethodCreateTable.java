@@ -11,6 +11,7 @@
 package com.espertech.esper.common.internal.context.aifactory.createtable;
 
 import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.annotation.Concurrent;
 import com.espertech.esper.common.client.meta.EventTypeApplicationType;
 import com.espertech.esper.common.client.meta.EventTypeIdPair;
 import com.espertech.esper.common.client.meta.EventTypeMetadata;
@@ -106,6 +107,12 @@ public class StmtForgeMethodCreateTable implements StmtForgeMethod {
 
         // add table
         TableMetaData tableMetaData = new TableMetaData(tableName, base.getModuleName(), visibility, contextName, contextVisibility, contextModuleName, plan.getInternalEventType(), plan.getPublicEventType(), plan.getPrimaryKeyColumns(), plan.getPrimaryKeyTypes(), plan.getPrimaryKeyColNums(), plan.getTableColumns(), plan.getColsAggMethod().length);
+        if (AnnotationUtil.findAnnotation(base.getStatementRawInfo().getAnnotations(), Concurrent.class) != null) {
+            if (!tableMetaData.isKeyed()) {
+                throw new ExprValidationException("Tables without primary key column(s) cannot be declared concurrent");
+            }
+            tableMetaData.setConcurrent(true);
+        }
         services.getTableCompileTimeRegistry().newTable(tableMetaData);
 
         String aiFactoryProviderClassName = CodeGenerationIDGenerator.generateClassNameSimple(StatementAIFactoryProvider.class, classPostfix);
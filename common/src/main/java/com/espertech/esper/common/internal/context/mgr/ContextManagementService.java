@@ -33,4 +33,6 @@ public interface ContextManagementService {
     CopyOnWriteArrayList<ContextStateListener> getListeners();
 
     Map<String, ContextDeployment> getDeployments();
+
+    long getContextsVersion();
 }
@@ -26,6 +26,7 @@ public class ContextManagementServiceImpl implements ContextManagementService {
 
     private final CopyOnWriteArrayList<ContextStateListener> listeners = new CopyOnWriteArrayList<>();
     private final Map<String, ContextDeployment> deployments = new HashMap<>();
+    private volatile long contextsVersion;
 
     public void addContext(ContextDefinition contextDefinition, EPStatementInitServices services) {
         ContextDeployment deployment = deployments.get(services.getDeploymentId());
@@ -34,6 +35,7 @@ public class ContextManagementServiceImpl implements ContextManagementService {
             deployments.put(services.getDeploymentId(), deployment);
         }
         deployment.add(contextDefinition, services);
+        contextsVersion++;
     }
 
     public void addStatement(String deploymentIdCreateContext, String contextName, ContextControllerStatementDesc statement, boolean recovery) {
@@ -72,6 +74,7 @@ public class ContextManagementServiceImpl implements ContextManagementService {
         if (deployment.getContextCount() == 0) {
             deployments.remove(deploymentIdCreateContext);
         }
+        contextsVersion++;
         ContextStateEventUtil.dispatchContext(listeners, () -> new ContextStateEventContextDestroyed(runtimeURI, deploymentIdCreateContext, contextName), ContextStateListener::onContextDestroyed);
     }
 
@@ -83,6 +86,10 @@ public class ContextManagementServiceImpl implements ContextManagementService {
         return deployments;
     }
 
+    public long getContextsVersion() {
+        return contextsVersion;
+    }
+
     private ContextManager getAssertContextManager(String deploymentIdCreateContext, String contextName) {
         ContextManager contextManager = getContextManager(deploymentIdCreateContext, contextName);
         if (contextManager == null) {
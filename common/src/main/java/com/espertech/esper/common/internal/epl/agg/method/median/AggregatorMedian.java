@@ -15,7 +15,7 @@ import com.espertech.esper.common.internal.bytecodemodel.base.CodegenMemberCol;
 import com.espertech.esper.common.internal.bytecodemodel.base.CodegenMethod;
 import com.espertech.esper.common.internal.bytecodemodel.core.CodegenCtor;
 import com.espertech.esper.common.internal.bytecodemodel.model.expression.CodegenExpressionRef;
-import com.espertech.esper.common.internal.collection.SortedDoubleVector;
+import com.espertech.esper.common.internal.collection.SortedDoubleVectorCompact;
 import com.espertech.esper.common.internal.epl.agg.core.AggregationForgeFactory;
 import com.espertech.esper.common.internal.epl.agg.method.core.AggregatorMethodWDistinctWFilterWValueBase;
 import com.espertech.esper.common.internal.epl.expression.codegen.ExprForgeCodegenSymbol;
@@ -35,8 +35,8 @@ public class AggregatorMedian extends AggregatorMethodWDistinctWFilterWValueBase
 
     public AggregatorMedian(AggregationForgeFactory factory, int col, CodegenCtor rowCtor, CodegenMemberCol membersColumnized, CodegenClassScope classScope, Class optionalDistinctValueType, boolean hasFilter, ExprNode optionalFilter) {
         super(factory, col, rowCtor, membersColumnized, classScope, optionalDistinctValueType, hasFilter, optionalFilter);
-        vector = membersColumnized.addMember(col, SortedDoubleVector.class, "vector");
-        rowCtor.getBlock().assignRef(vector, newInstance(SortedDoubleVector.class));
+        vector = membersColumnized.addMember(col, SortedDoubleVectorCompact.class, "vector");
+        rowCtor.getBlock().assignRef(vector, newInstance(SortedDoubleVectorCompact.class));
     }
 
     protected void applyEvalEnterNonNull(CodegenExpressionRef value, Class valueType, CodegenMethod method, ExprForgeCodegenSymbol symbols, ExprForge[] forges, CodegenClassScope classScope) {
@@ -80,9 +80,10 @@ public class AggregatorMedian extends AggregatorMethodWDistinctWFilterWValueBase
      * @param vector points
      * @throws IOException io error
      */
-    public static void writePoints(DataOutput output, SortedDoubleVector vector) throws IOException {
-        output.writeInt(vector.getValues().size());
-        for (double num : vector.getValues()) {
+    public static void writePoints(DataOutput output, SortedDoubleVectorCompact vector) throws IOException {
+        double[] values = vector.toArray();
+        output.writeInt(values.length);
+        for (double num : values) {
             output.writeDouble(num);
         }
     }
@@ -94,8 +95,8 @@ public class AggregatorMedian extends AggregatorMethodWDistinctWFilterWValueBase
      * @return points
      * @throws IOException io error
      */
-    public static SortedDoubleVector readPoints(DataInput input) throws IOException {
-        SortedDoubleVector points = new SortedDoubleVector();
+    public static SortedDoubleVectorCompact readPoints(DataInput input) throws IOException {
+        SortedDoubleVectorCompact points = new SortedDoubleVectorCompact();
         int size = input.readInt();
         for (int i = 0; i < size; i++) {
             double d = input.readDouble();
@@ -110,7 +111,7 @@ public class AggregatorMedian extends AggregatorMethodWDistinctWFilterWValueBase
      * @param vector vector
      * @return value
      */
-    public static Object medianCompute(SortedDoubleVector vector) {
+    public static Object medianCompute(SortedDoubleVectorCompact vector) {
         if (vector.size() == 0) {
             return null;
         }
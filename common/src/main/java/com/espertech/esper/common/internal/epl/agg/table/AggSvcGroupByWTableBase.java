@@ -18,6 +18,7 @@ import com.espertech.esper.common.internal.epl.table.core.TableColumnMethodPairE
 import com.espertech.esper.common.internal.epl.table.core.TableEvalLockUtil;
 import com.espertech.esper.common.internal.epl.table.core.TableInstance;
 import com.espertech.esper.common.internal.epl.table.core.TableInstanceGrouped;
+import com.espertech.esper.common.internal.epl.table.strategy.ExprTableEvalStrategyUtil;
 import com.espertech.esper.common.internal.event.core.ObjectArrayBackedEventBean;
 import com.espertech.esper.common.internal.metrics.instrumentation.InstrumentationCommon;
 
@@ -25,12 +26,16 @@ import java.util.Collection;
 
 /**
  * Implementation for handling aggregation with grouping by group-keys.
+ * <p>
+ * For a concurrent table, changing and reading the aggregation state of a row is synchronized on the row's {@link AggregationRow}
+ * and collection values are copied while holding the row.
  */
 public abstract class AggSvcGroupByWTableBase implements AggregationService, AggregationServiceTable {
     protected final TableInstanceGrouped tableInstance;
     protected final TableColumnMethodPairEval[] methodPairs;
     private final AggregationMultiFunctionAgent[] accessAgents;
     private final int[] accessColumnsZeroOffset;
+    private final boolean rowLocking;
 
     protected AggregationRow currentAggregationRow;
     protected Object currentGroupKey;
@@ -40,6 +45,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService, Agg
         this.methodPairs = methodPairs;
         this.accessAgents = accessAgents;
         this.accessColumnsZeroOffset = accessColumnsZeroOffset;
+        this.rowLocking = tableInstance.getTable().getMetaData().isConcurrent();
     }
 
     public abstract void applyEnterInternal(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext);
@@ -47,14 +53,14 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService, Agg
     public abstract void applyLeaveInternal(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext);
 
     public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
-        // acquire tableInstance-level write lock
-        TableEvalLockUtil.obtainLockUnless(tableInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        // acquire tableInstance-level write lock, or read lock for a concurrent table
+        TableEvalLockUtil.obtainLockUnless(TableEvalLockUtil.getRowWriteLock(tableInstance), exprEvaluatorContext);
         applyEnterInternal(eventsPerStream, groupByKey, exprEvaluatorContext);
     }
 
     public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
-        // acquire tableInstance-level write lock
-        TableEvalLockUtil.obtainLockUnless(tableInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        // acquire tableInstance-level write lock, or read lock for a concurrent table
+        TableEvalLockUtil.obtainLockUnless(TableEvalLockUtil.getRowWriteLock(tableInstance), exprEvaluatorContext);
         applyLeaveInternal(eventsPerStream, groupByKey, exprEvaluatorContext);
     }
 
@@ -80,19 +86,39 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService, Agg
     }
 
     public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
-        return currentAggregationRow.getValue(column, eventsPerStream, isNewData, exprEvaluatorContext);
+        if (!rowLocking) {
+            return currentAggregationRow.getValue(column, eventsPerStream, isNewData, exprEvaluatorContext);
+        }
+        synchronized (currentAggregationRow) {
+            return ExprTableEvalStrategyUtil.snapshotValue(currentAggregationRow.getValue(column, eventsPerStream, isNewData, exprEvaluatorContext));
+        }
     }
 
     public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
-        return currentAggregationRow.getCollectionOfEvents(column, eventsPerStream, isNewData, context);
+        if (!rowLocking) {
+            return currentAggregationRow.getCollectionOfEvents(column, eventsPerStream, isNewData, context);
+        }
+        synchronized (currentAggregationRow) {
+            return ExprTableEvalStrategyUtil.snapshot(currentAggregationRow.getCollectionOfEvents(column, eventsPerStream, isNewData, context));
+        }
     }
 
     public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
-        return currentAggregationRow.getCollectionScalar(column, eventsPerStream, isNewData, context);
+        if (!rowLocking) {
+            return currentAggregationRow.getCollectionScalar(column, eventsPerStream, isNewData, context);
+        }
+        synchronized (currentAggregationRow) {
+            return ExprTableEvalStrategyUtil.snapshot(currentAggregationRow.getCollectionScalar(column, eventsPerStream, isNewData, context));
+        }
     }
 
     public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
-        return currentAggregationRow.getEventBean(column, eventsPerStream, isNewData, context);
+        if (!rowLocking) {
+            return currentAggregationRow.getEventBean(column, eventsPerStream, isNewData, context);
+        }
+        synchronized (currentAggregationRow) {
+            return currentAggregationRow.getEventBean(column, eventsPerStream, isNewData, context);
+        }
     }
 
     public void setRemovedCallback(AggregationRowRemovedCallback callback) {
@@ -145,6 +171,20 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService, Agg
         InstrumentationCommon instrumentationCommon = exprEvaluatorContext.getInstrumentationProvider();
         instrumentationCommon.qAggregationGroupedApplyEnterLeave(true, methodPairs.length, accessAgents.length, tableKey);
 
+        if (rowLocking) {
+            synchronized (currentAggregationRow) {
+                applyEnterRow(eventsPerStream, exprEvaluatorContext, instrumentationCommon);
+            }
+        } else {
+            applyEnterRow(eventsPerStream, exprEvaluatorContext, instrumentationCommon);
+        }
+
+        tableInstance.handleRowUpdated(bean);
+
+        instrumentationCommon.aAggregationGroupedApplyEnterLeave(true);
+    }
+
+    private void applyEnterRow(EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext, InstrumentationCommon instrumentationCommon) {
         for (int i = 0; i < methodPairs.length; i++) {
             TableColumnMethodPairEval methodPair = methodPairs[i];
             instrumentationCommon.qAggNoAccessEnterLeave(true, i, null, null);
@@ -158,10 +198,6 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService, Agg
             accessAgents[i].applyEnter(eventsPerStream, exprEvaluatorContext, currentAggregationRow, accessColumnsZeroOffset[i]);
             instrumentationCommon.aAggAccessEnterLeave(true, i);
         }
-
-        tableInstance.handleRowUpdated(bean);
-
-        instrumentationCommon.aAggregationGroupedApplyEnterLeave(true);
     }
 
     protected void applyLeaveTableKey(EventBean[] eventsPerStream, Object tableKey, ExprEvaluatorContext exprEvaluatorContext) {
@@ -171,6 +207,20 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService, Agg
         InstrumentationCommon instrumentationCommon = exprEvaluatorContext.getInstrumentationProvider();
         instrumentationCommon.qAggregationGroupedApplyEnterLeave(false, methodPairs.length, accessAgents.length, tableKey);
 
+        if (rowLocking) {
+            synchronized (currentAggregationRow) {
+                applyLeaveRow(eventsPerStream, exprEvaluatorContext, instrumentationCommon);
+            }
+        } else {
+            applyLeaveRow(eventsPerStream, exprEvaluatorContext, instrumentationCommon);
+        }
+
+        tableInstance.handleRowUpdated(bean);
+
+        instrumentationCommon.aAggregationGroupedApplyEnterLeave(false);
+    }
+
+    private void applyLeaveRow(EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext, InstrumentationCommon instrumentationCommon) {
         for (int i = 0; i < methodPairs.length; i++) {
             TableColumnMethodPairEval methodPair = methodPairs[i];
             instrumentationCommon.qAggNoAccessEnterLeave(false, i, null, null);
@@ -184,9 +234,5 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService, Agg
             accessAgents[i].applyLeave(eventsPerStream, exprEvaluatorContext, currentAggregationRow, accessColumnsZeroOffset[i]);
             instrumentationCommon.aAggAccessEnterLeave(false, i);
         }
-
-        tableInstance.handleRowUpdated(bean);
-
-        instrumentationCommon.aAggregationGroupedApplyEnterLeave(false);
     }
 }
@@ -393,6 +393,8 @@ public class AnnotationUtil {
             return newInstance(AnnotationHint.class, constant(hint.value()), constant(hint.applies()), constant(hint.model()));
         } else if (annotation instanceof NoLock) {
             return newInstance(AnnotationNoLock.class);
+        } else if (annotation instanceof Concurrent) {
+            return newInstance(AnnotationConcurrent.class);
         } else if (annotation instanceof Audit) {
             Audit hint = (Audit) annotation;
             return newInstance(AnnotationAudit.class, constant(hint.value()));
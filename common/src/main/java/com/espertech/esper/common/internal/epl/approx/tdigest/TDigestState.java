@@ -0,0 +1,365 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.approx.tdigest;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for approximate quantiles over a stream of double values.
+ * <p>
+ * The digest keeps a sorted list of centroids, each a mean and a weight, and a buffer of values not yet merged.
+ * Merging sorts the buffer and combines adjacent centroids as long as the combined centroid spans at most one unit
+ * of the arcsine scale function, so that centroids near the tails stay small and the number of centroids is bounded
+ * by about the compression.
+ * <p>
+ * Removing a value takes one unit of weight from the centroid nearest to the value, so that the digest may follow
+ * a data window. This is exact when centroids hold single values and otherwise approximate.
+ * Removals are buffered as well and are applied after merging, when the buffer is full or when the digest is read.
+ * <p>
+ * Not synchronized and not thread-safe.
+ */
+public class TDigestState {
+    /**
+     * Default compression.
+     */
+    public final static double DEFAULT_COMPRESSION = 100;
+
+    private static final int INITIAL_BUFFER_CAPACITY = 16;
+
+    private final double compression;
+    private final int bufferCapacity;
+    private double[] means;
+    private double[] weights;
+    private double[] spareMeans;
+    private double[] spareWeights;
+    private int numCentroids;
+    private double[] buffer;
+    private int bufferSize;
+    private double[] removeBuffer;
+    private int removeBufferSize;
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Ctor.
+     */
+    public TDigestState() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param compression compression, with larger values being more accurate and keeping more centroids
+     */
+    public TDigestState(double compression) {
+        this.compression = compression;
+        this.bufferCapacity = (int) (5 * compression);
+        this.means = new double[0];
+        this.weights = new double[0];
+        this.spareMeans = means;
+        this.spareWeights = weights;
+        this.buffer = new double[INITIAL_BUFFER_CAPACITY];
+        this.removeBuffer = new double[INITIAL_BUFFER_CAPACITY];
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value to add
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (bufferSize == buffer.length) {
+            if (bufferSize >= bufferCapacity) {
+                compress();
+            } else {
+                buffer = Arrays.copyOf(buffer, Math.min(bufferCapacity, buffer.length << 1));
+            }
+        }
+        buffer[bufferSize++] = value;
+        totalWeight++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Remove a value.
+     *
+     * @param value to remove
+     */
+    public void remove(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (removeBufferSize == removeBuffer.length) {
+            if (removeBufferSize >= bufferCapacity) {
+                compress();
+            } else {
+                removeBuffer = Arrays.copyOf(removeBuffer, Math.min(bufferCapacity, removeBuffer.length << 1));
+            }
+        }
+        removeBuffer[removeBufferSize++] = value;
+    }
+
+    /**
+     * Clear the digest.
+     */
+    public void clear() {
+        means = new double[0];
+        weights = new double[0];
+        spareMeans = means;
+        spareWeights = weights;
+        numCentroids = 0;
+        buffer = new double[INITIAL_BUFFER_CAPACITY];
+        bufferSize = 0;
+        removeBuffer = new double[INITIAL_BUFFER_CAPACITY];
+        removeBufferSize = 0;
+        totalWeight = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the total weight, which is the number of values added and not removed.
+     *
+     * @return total weight
+     */
+    public double size() {
+        return Math.max(0, totalWeight - removeBufferSize);
+    }
+
+    /**
+     * Returns the approximate value at the quantile.
+     *
+     * @param q quantile between zero and one
+     * @return value or NaN if there are no values
+     */
+    public double quantile(double q) {
+        compress();
+        if (numCentroids == 0) {
+            return Double.NaN;
+        }
+        if (numCentroids == 1) {
+            return means[0];
+        }
+
+        double index = q * totalWeight;
+        double halfFirst = weights[0] / 2;
+        if (index <= halfFirst) {
+            return min + (means[0] - min) * (index / halfFirst);
+        }
+
+        double weightSoFar = halfFirst;
+        for (int i = 0; i < numCentroids - 1; i++) {
+            double delta = (weights[i] + weights[i + 1]) / 2;
+            if (weightSoFar + delta > index) {
+                return means[i] + (means[i + 1] - means[i]) * ((index - weightSoFar) / delta);
+            }
+            weightSoFar += delta;
+        }
+
+        double halfLast = weights[numCentroids - 1] / 2;
+        double beyond = Math.min(1, (index - weightSoFar) / halfLast);
+        return means[numCentroids - 1] + (max - means[numCentroids - 1]) * beyond;
+    }
+
+    /**
+     * Returns the number of centroids after merging, for testing purposes.
+     *
+     * @return number of centroids
+     */
+    public int getNumCentroids() {
+        compress();
+        return numCentroids;
+    }
+
+    /**
+     * Returns the number of removals not yet applied, for testing purposes.
+     *
+     * @return number of buffered removals
+     */
+    public int getNumBufferedRemovals() {
+        return removeBufferSize;
+    }
+
+    /**
+     * Write the digest.
+     *
+     * @param output output
+     * @throws IOException io error
+     */
+    public void write(DataOutput output) throws IOException {
+        compress();
+        output.writeDouble(compression);
+        output.writeDouble(min);
+        output.writeDouble(max);
+        output.writeInt(numCentroids);
+        for (int i = 0; i < numCentroids; i++) {
+            output.writeDouble(means[i]);
+            output.writeDouble(weights[i]);
+        }
+    }
+
+    /**
+     * Read a digest.
+     *
+     * @param input input
+     * @return digest
+     * @throws IOException io error
+     */
+    public static TDigestState read(DataInput input) throws IOException {
+        TDigestState digest = new TDigestState(input.readDouble());
+        digest.min = input.readDouble();
+        digest.max = input.readDouble();
+        int count = input.readInt();
+        digest.means = new double[count];
+        digest.weights = new double[count];
+        digest.spareMeans = new double[count];
+        digest.spareWeights = new double[count];
+        for (int i = 0; i < count; i++) {
+            digest.means[i] = input.readDouble();
+            digest.weights[i] = input.readDouble();
+            digest.totalWeight += digest.weights[i];
+        }
+        digest.numCentroids = count;
+        return digest;
+    }
+
+    private void compress() {
+        if (bufferSize > 0) {
+            merge();
+        }
+        if (removeBufferSize > 0) {
+            for (int i = 0; i < removeBufferSize; i++) {
+                applyRemove(removeBuffer[i]);
+            }
+            removeBufferSize = 0;
+        }
+    }
+
+    private void applyRemove(double value) {
+        if (numCentroids == 0) {
+            return;
+        }
+
+        int index = nearestCentroid(value);
+        weights[index]--;
+        totalWeight--;
+        if (weights[index] <= 0) {
+            System.arraycopy(means, index + 1, means, index, numCentroids - index - 1);
+            System.arraycopy(weights, index + 1, weights, index, numCentroids - index - 1);
+            numCentroids--;
+        }
+
+        if (numCentroids == 0) {
+            totalWeight = 0;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+            return;
+        }
+        if (value <= min) {
+            min = means[0];
+        }
+        if (value >= max) {
+            max = means[numCentroids - 1];
+        }
+    }
+
+    private void merge() {
+        Arrays.sort(buffer, 0, bufferSize);
+
+        // merge the sorted buffer with the centroids
+        int count = numCentroids + bufferSize;
+        if (spareMeans.length < count) {
+            spareMeans = new double[count];
+            spareWeights = new double[count];
+        }
+        double[] mergedMeans = spareMeans;
+        double[] mergedWeights = spareWeights;
+        int centroid = 0;
+        int buffered = 0;
+        for (int i = 0; i < count; i++) {
+            if (buffered == bufferSize || (centroid < numCentroids && means[centroid] <= buffer[buffered])) {
+                mergedMeans[i] = means[centroid];
+                mergedWeights[i] = weights[centroid];
+                centroid++;
+            } else {
+                mergedMeans[i] = buffer[buffered];
+                mergedWeights[i] = 1;
+                buffered++;
+            }
+        }
+        bufferSize = 0;
+
+        // combine adjacent centroids in place while within one unit of the scale function
+        int last = 0;
+        double weightSoFar = 0;
+        double limit = quantileLimit(0);
+        for (int i = 1; i < count; i++) {
+            double proposed = weightSoFar + mergedWeights[last] + mergedWeights[i];
+            if (proposed / totalWeight <= limit) {
+                mergedWeights[last] += mergedWeights[i];
+                mergedMeans[last] += (mergedMeans[i] - mergedMeans[last]) * mergedWeights[i] / mergedWeights[last];
+            } else {
+                weightSoFar += mergedWeights[last];
+                limit = quantileLimit(weightSoFar / totalWeight);
+                last++;
+                mergedMeans[last] = mergedMeans[i];
+                mergedWeights[last] = mergedWeights[i];
+            }
+        }
+        spareMeans = means;
+        spareWeights = weights;
+        means = mergedMeans;
+        weights = mergedWeights;
+        numCentroids = last + 1;
+    }
+
+    private double quantileLimit(double q) {
+        double k = compression / (2 * Math.PI) * Math.asin(2 * q - 1) + 1;
+        double angle = k * 2 * Math.PI / compression;
+        if (angle >= Math.PI / 2) {
+            return 1;
+        }
+        return (Math.sin(angle) + 1) / 2;
+    }
+
+    private int nearestCentroid(double value) {
+        int low = 0;
+        int high = numCentroids;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (means[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == numCentroids) {
+            return numCentroids - 1;
+        }
+        if (low > 0 && value - means[low - 1] < means[low] - value) {
+            return low - 1;
+        }
+        return low;
+    }
+}
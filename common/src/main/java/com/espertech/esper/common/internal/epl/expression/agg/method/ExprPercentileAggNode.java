@@ -0,0 +1,75 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.expression.agg.method;
+
+import com.espertech.esper.common.internal.epl.agg.core.AggregationForgeFactory;
+import com.espertech.esper.common.internal.epl.agg.method.percentile.AggregationForgeFactoryPercentile;
+import com.espertech.esper.common.internal.epl.expression.agg.base.ExprAggregateNode;
+import com.espertech.esper.common.internal.epl.expression.agg.base.ExprAggregateNodeBase;
+import com.espertech.esper.common.internal.epl.expression.core.ExprNode;
+import com.espertech.esper.common.internal.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.common.internal.epl.expression.core.ExprValidationException;
+import com.espertech.esper.common.internal.util.JavaClassHelper;
+
+/**
+ * Represents the approximate percentile(...) aggregate function is an expression tree.
+ */
+public class ExprPercentileAggNode extends ExprAggregateNodeBase {
+    /**
+     * Ctor.
+     *
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     */
+    public ExprPercentileAggNode(boolean distinct) {
+        super(distinct);
+    }
+
+    public AggregationForgeFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException {
+        String message = "The percentile aggregation function requires two parameters, an expression returning numeric values and a numeric percentile constant between 0 and 100";
+        if (this.positionalParams.length != 2) {
+            throw new ExprValidationException(message);
+        }
+
+        ExprNode first = this.positionalParams[0];
+        ExprNode second = this.positionalParams[1];
+        Class childType = first.getForge().getEvaluationType();
+        if (!JavaClassHelper.isNumeric(childType)) {
+            throw new ExprValidationException("Implicit conversion from datatype '" +
+                    (childType == null ? "null" : childType.getSimpleName()) +
+                    "' to numeric is not allowed for aggregation function '" + getAggregationFunctionName() + "'");
+        }
+        if (!second.getForge().getForgeConstantType().isCompileTimeConstant() || !JavaClassHelper.isNumeric(second.getForge().getEvaluationType())) {
+            throw new ExprValidationException(message);
+        }
+
+        Number num = (Number) second.getForge().getExprEvaluator().evaluate(null, true, null);
+        if (num == null || num.doubleValue() < 0 || num.doubleValue() > 100) {
+            throw new ExprValidationException(message);
+        }
+
+        if (optionalFilter != null) {
+            validateFilter(optionalFilter);
+        }
+        return new AggregationForgeFactoryPercentile(this, childType, num.doubleValue());
+    }
+
+    public String getAggregationFunctionName() {
+        return "percentile";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node) {
+        return node instanceof ExprPercentileAggNode;
+    }
+
+    protected boolean isFilterExpressionAsLastParameter() {
+        return false;
+    }
+}
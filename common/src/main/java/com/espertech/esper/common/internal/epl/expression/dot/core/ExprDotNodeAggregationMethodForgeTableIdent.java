@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.common.internal.epl.expression.dot.core;
 
+import com.espertech.esper.common.internal.bytecodemodel.base.CodegenBlock;
 import com.espertech.esper.common.internal.bytecodemodel.base.CodegenClassScope;
 import com.espertech.esper.common.internal.bytecodemodel.base.CodegenMethod;
 import com.espertech.esper.common.internal.bytecodemodel.base.CodegenMethodScope;
@@ -21,6 +22,7 @@ import com.espertech.esper.common.internal.epl.expression.codegen.ExprForgeCodeg
 import com.espertech.esper.common.internal.epl.expression.core.*;
 import com.espertech.esper.common.internal.epl.expression.table.ExprTableIdentNode;
 import com.espertech.esper.common.internal.epl.table.compiletime.TableMetadataColumnAggregation;
+import com.espertech.esper.common.internal.epl.table.strategy.ExprTableEvalStrategyUtil;
 
 import java.io.StringWriter;
 
@@ -40,10 +42,18 @@ public class ExprDotNodeAggregationMethodForgeTableIdent extends ExprDotNodeAggr
 
     public CodegenExpression evaluateCodegen(String readerMethodName, Class requiredType, CodegenMethodScope parent, ExprForgeCodegenSymbol symbols, CodegenClassScope classScope) {
         CodegenMethod method = parent.makeChild(requiredType, this.getClass(), classScope);
-        method.getBlock()
+        CodegenBlock block = method.getBlock()
             .declareVar(AggregationRow.class, "row", staticMethod(ExprTableIdentNode.class, "tableColumnRow", constant(identNode.getStreamNum()), symbols.getAddEPS(method)))
-            .ifRefNullReturnNull("row")
-            .methodReturn(CodegenLegoCast.castSafeFromObjectType(requiredType, exprDotMethod(getReader(classScope), readerMethodName, constant(column.getColumn()), ref("row"), symbols.getAddEPS(method), symbols.getAddIsNewData(method), symbols.getAddExprEvalCtx(method))));
+            .ifRefNullReturnNull("row");
+        CodegenExpression value = exprDotMethod(getReader(classScope), readerMethodName, constant(column.getColumn()), ref("row"), symbols.getAddEPS(method), symbols.getAddIsNewData(method), symbols.getAddExprEvalCtx(method));
+        if (!identNode.getTableMetadata().isConcurrent()) {
+            block.methodReturn(CodegenLegoCast.castSafeFromObjectType(requiredType, value));
+        } else {
+            // rows of a concurrent table change under the table-level read lock, read while holding the row
+            block.synchronizedOn(ref("row"))
+                .blockReturn(CodegenLegoCast.castSafeFromObjectType(requiredType, staticMethod(ExprTableEvalStrategyUtil.class, "snapshotValue", value)));
+            block.methodEnd();
+        }
         return localMethod(method);
     }
 
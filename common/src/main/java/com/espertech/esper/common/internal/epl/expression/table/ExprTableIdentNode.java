@@ -70,7 +70,7 @@ public class ExprTableIdentNode extends ExprNodeBase implements ExprForgeInstrum
 
     public CodegenExpression evaluateCodegenUninstrumented(Class requiredType, CodegenMethodScope parent, ExprForgeCodegenSymbol symbols, CodegenClassScope codegenClassScope) {
         CodegenMethod method = parent.makeChild(requiredType, this.getClass(), codegenClassScope);
-        method.getBlock().declareVar(Object.class, "result", staticMethod(ExprTableIdentNode.class, "tableColumnAggValue", constant(streamNum), constant(columnNum),
+        method.getBlock().declareVar(Object.class, "result", staticMethod(ExprTableIdentNode.class, tableMetadata.isConcurrent() ? "tableColumnAggValueConcurrent" : "tableColumnAggValue", constant(streamNum), constant(columnNum),
                 symbols.getAddEPS(method), symbols.getAddIsNewData(method), symbols.getAddExprEvalCtx(method)));
         if (requiredType == Object.class) {
             method.getBlock().methodReturn(ref("result"));
@@ -157,4 +157,24 @@ public class ExprTableIdentNode extends ExprNodeBase implements ExprForgeInstrum
         AggregationRow row = ExprTableEvalStrategyUtil.getRow(oa);
         return row.getValue(column, eventsPerStream, isNewData, ctx);
     }
+
+    /**
+     * NOTE: Code-generation-invoked method, method name and parameter order matters
+     * <p>
+     * Reads the column of a row of a concurrent table, synchronizing on the row.
+     *
+     * @param streamNum       stream num
+     * @param column          col
+     * @param eventsPerStream events
+     * @param isNewData       new-data flow
+     * @param ctx             context
+     * @return value
+     */
+    public static Object tableColumnAggValueConcurrent(int streamNum, int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext ctx) {
+        ObjectArrayBackedEventBean oa = (ObjectArrayBackedEventBean) eventsPerStream[streamNum];
+        AggregationRow row = ExprTableEvalStrategyUtil.getRow(oa);
+        synchronized (row) {
+            return ExprTableEvalStrategyUtil.snapshotValue(row.getValue(column, eventsPerStream, isNewData, ctx));
+        }
+    }
 }
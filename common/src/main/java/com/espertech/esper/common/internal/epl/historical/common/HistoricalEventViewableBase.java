@@ -18,6 +18,7 @@ import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
 import com.espertech.esper.common.internal.context.util.AgentInstanceStopServices;
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.common.internal.epl.historical.datacache.HistoricalDataCache;
+import com.espertech.esper.common.internal.epl.historical.datacache.HistoricalDataCacheRefresher;
 import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
 import com.espertech.esper.common.internal.epl.historical.indexingstrategy.PollResultIndexingStrategy;
 import com.espertech.esper.common.internal.epl.historical.indexingstrategy.UnindexedEventTableList;
@@ -25,19 +26,25 @@ import com.espertech.esper.common.internal.epl.index.base.EventTable;
 import com.espertech.esper.common.internal.view.core.View;
 import com.espertech.esper.common.internal.view.core.Viewable;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 /**
  * Implements a poller viewable that uses a polling strategy, a cache and
  * some input parameters extracted from event streams to perform the polling.
  */
-public abstract class HistoricalEventViewableBase implements Viewable, HistoricalEventViewable {
+public abstract class HistoricalEventViewableBase implements Viewable, HistoricalEventViewable, HistoricalDataCacheRefresher {
     protected final HistoricalEventViewableFactoryBase factory;
     protected final PollExecStrategy pollExecStrategy;
     protected final AgentInstanceContext agentInstanceContext;
     protected HistoricalDataCache dataCache;
     protected View child;
+    protected HistoricalEventViewableParallelPoller parallelPoller;
+    private PollExecStrategy refreshExecStrategy;
+    private boolean stopped;
 
     protected static final EventBean[][] NULL_ROWS;
 
@@ -55,6 +62,16 @@ public abstract class HistoricalEventViewableBase implements Viewable, Historica
     public void stop(AgentInstanceStopServices services) {
         pollExecStrategy.destroy();
         dataCache.destroy();
+        if (parallelPoller != null) {
+            parallelPoller.destroy();
+        }
+        synchronized (this) {
+            stopped = true;
+            if (refreshExecStrategy != null) {
+                refreshExecStrategy.destroy();
+                refreshExecStrategy = null;
+            }
+        }
     }
 
     public void setChild(View view) {
@@ -76,6 +93,10 @@ public abstract class HistoricalEventViewableBase implements Viewable, Historica
     };
 
     public EventTable[][] poll(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext) {
+        if (parallelPoller != null && lookupEventsPerStream.length > 1) {
+            return pollParallel(lookupEventsPerStream, indexingStrategy, exprEvaluatorContext);
+        }
+
         HistoricalDataCache localDataCache = factory.getDataCacheThreadLocal().get();
         boolean strategyStarted = false;
 
@@ -134,7 +155,7 @@ public abstract class HistoricalEventViewableBase implements Viewable, Historica
                     resultPerInputRow[row] = indexTable;
 
                     // save in cache
-                    dataCache.put(cacheMultiKey, indexTable);
+                    dataCache.put(cacheMultiKey, indexTable, this, lookupValue, indexingStrategy);
 
                     if (localDataCache != null) {
                         localDataCache.put(cacheMultiKey, indexTable);
@@ -155,6 +176,87 @@ public abstract class HistoricalEventViewableBase implements Viewable, Historica
         return resultPerInputRow;
     }
 
+    private EventTable[][] pollParallel(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext) {
+        HistoricalDataCache localDataCache = factory.getDataCacheThreadLocal().get();
+        EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
+        Object[] cacheMultiKeyPerRow = new Object[lookupEventsPerStream.length];
+        Map<Object, Future<EventTable[]>> pending = null;
+        Map<Object, Object> pendingLookupValues = null;
+
+        // look up the cache for each row and submit a poll for each distinct key that is not cached
+        for (int row = 0; row < lookupEventsPerStream.length; row++) {
+            Object lookupValue = factory.evaluator.evaluate(lookupEventsPerStream[row], true, exprEvaluatorContext);
+            Object cacheMultiKey = factory.lookupValueToMultiKey.transform(lookupValue);
+
+            EventTable[] result = null;
+            if (localDataCache != null) {
+                result = localDataCache.getCached(cacheMultiKey);
+            }
+            if (result == null) {
+                result = dataCache.getCached(cacheMultiKey);
+                if (result != null && localDataCache != null) {
+                    localDataCache.put(cacheMultiKey, result);
+                }
+            }
+            if (result != null) {
+                resultPerInputRow[row] = result;
+                continue;
+            }
+
+            if (pending == null) {
+                pending = new HashMap<>();
+                pendingLookupValues = new HashMap<>();
+            }
+            cacheMultiKeyPerRow[row] = cacheMultiKey;
+            if (!pending.containsKey(cacheMultiKey)) {
+                Object coalesceKey = dataCache.isActive() ? cacheMultiKey : null;
+                pending.put(cacheMultiKey, parallelPoller.submit(coalesceKey, lookupValue, indexingStrategy, dataCache.isActive()));
+                pendingLookupValues.put(cacheMultiKey, lookupValue);
+            }
+        }
+
+        if (pending == null) {
+            return resultPerInputRow;
+        }
+
+        // await results in the order of rows
+        Map<Object, EventTable[]> polled = new HashMap<>();
+        for (int row = 0; row < lookupEventsPerStream.length; row++) {
+            if (resultPerInputRow[row] != null) {
+                continue;
+            }
+            Object cacheMultiKey = cacheMultiKeyPerRow[row];
+            EventTable[] result = polled.get(cacheMultiKey);
+            if (result == null) {
+                result = parallelPoller.await(pending.get(cacheMultiKey));
+                polled.put(cacheMultiKey, result);
+                dataCache.put(cacheMultiKey, result, this, pendingLookupValues.get(cacheMultiKey), indexingStrategy);
+                if (localDataCache != null) {
+                    localDataCache.put(cacheMultiKey, result);
+                }
+            }
+            resultPerInputRow[row] = result;
+        }
+        return resultPerInputRow;
+    }
+
+    public synchronized EventTable[] refresh(Object lookupValue, PollResultIndexingStrategy indexingStrategy) {
+        if (stopped) {
+            return null;
+        }
+        // the refresh uses its own strategy as the strategy for polling by the event processing thread is not thread-safe
+        if (refreshExecStrategy == null) {
+            refreshExecStrategy = factory.makePollExecStrategy(agentInstanceContext);
+        }
+        refreshExecStrategy.start();
+        try {
+            List<EventBean> pollResult = refreshExecStrategy.poll(lookupValue, agentInstanceContext);
+            return indexingStrategy.index(pollResult, true, agentInstanceContext);
+        } finally {
+            refreshExecStrategy.done();
+        }
+    }
+
     public EventType getEventType() {
         return factory.getEventType();
     }
@@ -12,8 +12,10 @@ package com.espertech.esper.common.internal.epl.historical.common;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.common.internal.epl.historical.datacache.HistoricalDataCache;
+import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
 
 /**
  * Implements a poller viewable that uses a polling strategy, a cache and
@@ -36,6 +38,14 @@ public abstract class HistoricalEventViewableFactoryBase implements HistoricalEv
         NULL_ROWS[0] = new EventBean[1];
     }
 
+    /**
+     * Returns a new strategy for polling.
+     *
+     * @param agentInstanceContext agent instance context
+     * @return strategy
+     */
+    public abstract PollExecStrategy makePollExecStrategy(AgentInstanceContext agentInstanceContext);
+
     public EventType getEventType() {
         return eventType;
     }
@@ -0,0 +1,181 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.common;
+
+import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
+import com.espertech.esper.common.internal.epl.historical.indexingstrategy.PollResultIndexingStrategy;
+import com.espertech.esper.common.internal.epl.index.base.EventTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Polls the keys of a batch of lookups for a historical stream in parallel, using the polling threads that the runtime shares
+ * among all statements polling the same database or method reference.
+ * The event processing thread submits the keys and waits for the results.
+ * <p>
+ * Each polling thread uses its own poll strategy as poll strategies are not thread-safe.
+ * A poll for a key that is already being polled for returns the same future.
+ */
+public class HistoricalEventViewableParallelPoller {
+    private final HistoricalEventViewableFactoryBase factory;
+    private final AgentInstanceContext agentInstanceContext;
+    private final int numThreads;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<Object, Future<EventTable[]>> inFlight = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<PollExecStrategy> idleStrategies = new LinkedBlockingQueue<>();
+    private final List<PollExecStrategy> strategies = new ArrayList<>();
+    private boolean destroyed;
+
+    /**
+     * Ctor.
+     *
+     * @param factory              factory for poll strategies
+     * @param agentInstanceContext agent instance context
+     * @param name                 name of the database or method reference, unique for the runtime
+     * @param numThreads           number of threads
+     */
+    public HistoricalEventViewableParallelPoller(HistoricalEventViewableFactoryBase factory, AgentInstanceContext agentInstanceContext, String name, int numThreads) {
+        this.factory = factory;
+        this.agentInstanceContext = agentInstanceContext;
+        this.numThreads = numThreads;
+        this.executor = agentInstanceContext.getHistoricalDataCacheFactory().getPollExecutor(name, numThreads, agentInstanceContext.getRuntimeURI());
+    }
+
+    /**
+     * Submit a poll.
+     *
+     * @param cacheMultiKey    key for coalescing polls for the same lookup value, or null to not coalesce
+     * @param lookupValue      lookup value
+     * @param indexingStrategy indexing strategy
+     * @param isActiveCache    whether the result is cached
+     * @return future result
+     */
+    public Future<EventTable[]> submit(final Object cacheMultiKey, final Object lookupValue, final PollResultIndexingStrategy indexingStrategy, final boolean isActiveCache) {
+        synchronized (strategies) {
+            if (destroyed || executor.isShutdown()) {
+                throw new EPException("Poller has been destroyed");
+            }
+        }
+        Callable<EventTable[]> callable = new Callable<EventTable[]>() {
+            public EventTable[] call() throws Exception {
+                return poll(lookupValue, indexingStrategy, isActiveCache);
+            }
+        };
+        if (cacheMultiKey == null) {
+            return executor.submit(callable);
+        }
+
+        Future<EventTable[]> existing = inFlight.get(cacheMultiKey);
+        if (existing != null) {
+            return existing;
+        }
+        FutureTask<EventTable[]> task = new FutureTask<EventTable[]>(callable) {
+            protected void done() {
+                inFlight.remove(cacheMultiKey, this);
+            }
+        };
+        existing = inFlight.putIfAbsent(cacheMultiKey, task);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Await a poll result.
+     *
+     * @param future future result
+     * @return rows
+     * @throws EPException if the poll failed or the thread was interrupted
+     */
+    public EventTable[] await(Future<EventTable[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EPException("Interrupted awaiting poll result", e);
+        } catch (CancellationException e) {
+            throw new EPException("Poller has been destroyed", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof EPException) {
+                throw (EPException) cause;
+            }
+            throw new EPException("Failed to poll: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Cancel pending polls and destroy poll strategies. The shared polling threads remain.
+     */
+    public void destroy() {
+        for (Future<EventTable[]> future : inFlight.values()) {
+            future.cancel(false);
+        }
+        synchronized (strategies) {
+            destroyed = true;
+            for (PollExecStrategy strategy : idleStrategies) {
+                strategy.destroy();
+            }
+            idleStrategies.clear();
+        }
+    }
+
+    private EventTable[] poll(Object lookupValue, PollResultIndexingStrategy indexingStrategy, boolean isActiveCache) throws InterruptedException {
+        PollExecStrategy strategy = acquire();
+        try {
+            strategy.start();
+            try {
+                List<EventBean> pollResult = strategy.poll(lookupValue, agentInstanceContext);
+                return indexingStrategy.index(pollResult, isActiveCache, agentInstanceContext);
+            } finally {
+                strategy.done();
+            }
+        } finally {
+            release(strategy);
+        }
+    }
+
+    private PollExecStrategy acquire() throws InterruptedException {
+        PollExecStrategy strategy = idleStrategies.poll();
+        if (strategy != null) {
+            return strategy;
+        }
+        synchronized (strategies) {
+            if (destroyed) {
+                throw new EPException("Poller has been destroyed");
+            }
+            // one strategy per thread and one for a submitting thread that polls itself
+            if (strategies.size() <= numThreads) {
+                strategy = factory.makePollExecStrategy(agentInstanceContext);
+                strategies.add(strategy);
+                return strategy;
+            }
+        }
+        return idleStrategies.take();
+    }
+
+    private void release(PollExecStrategy strategy) {
+        synchronized (strategies) {
+            if (destroyed) {
+                strategy.destroy();
+                return;
+            }
+            idleStrategies.add(strategy);
+        }
+    }
+}
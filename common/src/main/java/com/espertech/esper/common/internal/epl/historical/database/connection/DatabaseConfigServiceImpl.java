@@ -96,6 +96,14 @@ public class DatabaseConfigServiceImpl implements DatabaseConfigServiceCompileTi
         return agentInstanceContext.getHistoricalDataCacheFactory().getDataCache(dataCacheDesc, agentInstanceContext, streamNumber, scheduleCallbackId);
     }
 
+    public int getParallelPollThreads(String databaseName) throws DatabaseConfigException {
+        ConfigurationCommonDBRef config = mapDatabaseRef.get(databaseName);
+        if (config == null) {
+            throw new DatabaseConfigException("Cannot locate configuration information for database '" + databaseName + '\'');
+        }
+        return config.getParallelPollThreads();
+    }
+
     public ConnectionCache getConnectionCache(String databaseName, String preparedStatementText) throws DatabaseConfigException {
         ConfigurationCommonDBRef config = mapDatabaseRef.get(databaseName);
         if (config == null) {
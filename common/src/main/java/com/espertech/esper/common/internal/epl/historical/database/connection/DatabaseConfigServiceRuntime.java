@@ -31,5 +31,14 @@ public interface DatabaseConfigServiceRuntime extends DatabaseConfigService {
      */
     HistoricalDataCache getDataCache(String databaseName, AgentInstanceContext agentInstanceContext, int streamNumber, int scheduleCallbackId) throws DatabaseConfigException;
 
+    /**
+     * Returns the number of threads for polling the keys of a join batch in parallel for this database.
+     *
+     * @param databaseName is the name of the database
+     * @return number of threads, or zero for polling by the event processing thread
+     * @throws DatabaseConfigException is thrown to indicate database configuration errors
+     */
+    int getParallelPollThreads(String databaseName) throws DatabaseConfigException;
+
     ConnectionCache getConnectionCache(String databaseName, String preparedStatementText) throws DatabaseConfigException;
 }
@@ -12,6 +12,7 @@ package com.espertech.esper.common.internal.epl.historical.database.core;
 
 import com.espertech.esper.common.client.EPException;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.epl.historical.common.HistoricalEventViewableParallelPoller;
 import com.espertech.esper.common.internal.epl.historical.common.HistoricalEventViewableBase;
 import com.espertech.esper.common.internal.epl.historical.database.connection.DatabaseConfigException;
 import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
@@ -23,6 +24,10 @@ public class HistoricalEventViewableDatabase extends HistoricalEventViewableBase
         try {
             this.dataCache = agentInstanceContext.getDatabaseConfigService().getDataCache(factory.databaseName,
                     agentInstanceContext, factory.getStreamNumber(), factory.getScheduleCallbackId());
+            int parallelPollThreads = agentInstanceContext.getDatabaseConfigService().getParallelPollThreads(factory.databaseName);
+            if (parallelPollThreads > 0) {
+                this.parallelPoller = new HistoricalEventViewableParallelPoller(factory, agentInstanceContext, "database-" + factory.databaseName, parallelPollThreads);
+            }
         } catch (DatabaseConfigException e) {
             throw new EPException("Failed to obtain cache: " + e.getMessage(), e);
         }
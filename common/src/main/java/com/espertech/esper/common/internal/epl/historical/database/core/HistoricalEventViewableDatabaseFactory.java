@@ -21,6 +21,7 @@ import com.espertech.esper.common.internal.epl.expression.core.ExprValidationExc
 import com.espertech.esper.common.internal.epl.historical.common.HistoricalEventViewable;
 import com.espertech.esper.common.internal.epl.historical.common.HistoricalEventViewableFactoryBase;
 import com.espertech.esper.common.internal.epl.historical.database.connection.DatabaseConfigException;
+import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
 import com.espertech.esper.common.internal.settings.ClasspathImportUtil;
 
 import java.util.Map;
@@ -40,14 +41,17 @@ public class HistoricalEventViewableDatabaseFactory extends HistoricalEventViewa
     protected boolean enableJDBCLogging;
 
     public HistoricalEventViewable activate(AgentInstanceContext agentInstanceContext) {
+        return new HistoricalEventViewableDatabase(this, makePollExecStrategy(agentInstanceContext), agentInstanceContext);
+    }
+
+    public PollExecStrategy makePollExecStrategy(AgentInstanceContext agentInstanceContext) {
         ConnectionCache connectionCache = null;
         try {
             connectionCache = agentInstanceContext.getDatabaseConfigService().getConnectionCache(databaseName, preparedStatementText);
         } catch (DatabaseConfigException e) {
             throw new EPException("Failed to obtain connection cache: " + e.getMessage(), e);
         }
-        PollExecStrategyDBQuery pollExecStrategy = new PollExecStrategyDBQuery(this, agentInstanceContext, connectionCache);
-        return new HistoricalEventViewableDatabase(this, pollExecStrategy, agentInstanceContext);
+        return new PollExecStrategyDBQuery(this, agentInstanceContext, connectionCache);
     }
 
     public void setDatabaseName(String databaseName) {
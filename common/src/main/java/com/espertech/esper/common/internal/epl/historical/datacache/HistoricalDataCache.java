@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.common.internal.epl.historical.datacache;
 
+import com.espertech.esper.common.internal.epl.historical.indexingstrategy.PollResultIndexingStrategy;
 import com.espertech.esper.common.internal.epl.index.base.EventTable;
 
 /**
@@ -39,6 +40,20 @@ public interface HistoricalDataCache {
      */
     public void put(Object methodParams, EventTable[] rows);
 
+    /**
+     * Puts into the cache a key and a list of rows, along with what is needed to reload the rows,
+     * for caches that refresh entries. The default implementation does not retain the refresher and simply puts the rows.
+     *
+     * @param methodParams     is the keys to the cache entry
+     * @param rows             is a number of rows
+     * @param refresher        reloads the rows
+     * @param lookupValue      lookup value that the rows were polled for
+     * @param indexingStrategy indexing strategy that the rows were indexed with
+     */
+    default void put(Object methodParams, EventTable[] rows, HistoricalDataCacheRefresher refresher, Object lookupValue, PollResultIndexingStrategy indexingStrategy) {
+        put(methodParams, rows);
+    }
+
     /**
      * Returns true if the cache is active and currently caching, or false if the cache is inactive and not currently caching
      *
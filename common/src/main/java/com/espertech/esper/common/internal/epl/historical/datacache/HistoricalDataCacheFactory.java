@@ -13,12 +13,31 @@ package com.espertech.esper.common.internal.epl.historical.datacache;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonCache;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonCacheExpiryTime;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonCacheLRU;
+import com.espertech.esper.common.client.configuration.common.ConfigurationCommonCacheShared;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.epl.expression.time.abacus.TimeAbacus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Factory for data caches for use caching database query results and method invocation results.
+ * <p>
+ * Also holds the threads for parallel polling, which are shared by all statements of the runtime
+ * that poll the same database or method reference.
  */
 public class HistoricalDataCacheFactory {
+    private static final int POLL_QUEUE_SIZE_PER_THREAD = 64;
+
+    private final Map<Object, HistoricalDataCacheShared> sharedCaches = new HashMap<>();
+    private final Map<String, ThreadPoolExecutor> pollExecutors = new HashMap<>();
+    private boolean destroyed;
 
     /**
      * Creates a cache implementation for the strategy as defined by the cache descriptor.
@@ -47,6 +66,11 @@ public class HistoricalDataCacheFactory {
             return makeTimeCache(expCache, agentInstanceContext, streamNum, scheduleCallbackId);
         }
 
+        if (cacheDesc instanceof ConfigurationCommonCacheShared) {
+            ConfigurationCommonCacheShared sharedCache = (ConfigurationCommonCacheShared) cacheDesc;
+            return getSharedCache(sharedCache, agentInstanceContext, streamNum);
+        }
+
         throw new IllegalStateException("Cache implementation class not configured");
     }
 
@@ -54,4 +78,84 @@ public class HistoricalDataCacheFactory {
         return new HistoricalDataCacheExpiringImpl(expCache.getMaxAgeSeconds(), expCache.getPurgeIntervalSeconds(), expCache.getCacheReferenceType(),
                 agentInstanceContext, agentInstanceContext.getScheduleBucket().allocateSlot());
     }
+
+    /**
+     * Returns the cache that is shared by the agent instances of the statement for the stream, allocating the cache for the first agent instance.
+     * The cache is released when all agent instances have destroyed it.
+     *
+     * @param sharedCache          cache descriptor
+     * @param agentInstanceContext agent instance context
+     * @param streamNum            stream number
+     * @return data cache implementation
+     */
+    protected synchronized HistoricalDataCache getSharedCache(ConfigurationCommonCacheShared sharedCache, AgentInstanceContext agentInstanceContext, int streamNum) {
+        String key = agentInstanceContext.getStatementId() + "-" + streamNum;
+        HistoricalDataCacheShared cache = sharedCaches.get(key);
+        if (cache == null) {
+            TimeAbacus timeAbacus = agentInstanceContext.getClasspathImportServiceRuntime().getTimeAbacus();
+            long maxAge = sharedCache.getMaxAgeSeconds() <= 0 ? 0 : timeAbacus.deltaForSecondsDouble(sharedCache.getMaxAgeSeconds());
+            long refreshAfter = sharedCache.getRefreshAfterSeconds() <= 0 ? 0 : timeAbacus.deltaForSecondsDouble(sharedCache.getRefreshAfterSeconds());
+            cache = new HistoricalDataCacheShared(this, key, agentInstanceContext.getSchedulingService(), sharedCache.getMaxWeight(), maxAge, refreshAfter);
+            sharedCaches.put(key, cache);
+        }
+        cache.addReference();
+        return cache;
+    }
+
+    /**
+     * Returns the executor for parallel polling for a database or method reference, allocating the executor upon first use.
+     * When the executor's queue is full the submitting thread polls itself.
+     *
+     * @param name       name of the database or method reference, unique for the runtime
+     * @param numThreads number of threads
+     * @param runtimeURI runtime URI
+     * @return executor
+     */
+    public synchronized ExecutorService getPollExecutor(String name, int numThreads, String runtimeURI) {
+        if (destroyed) {
+            throw new IllegalStateException("Runtime has been destroyed");
+        }
+        ThreadPoolExecutor executor = pollExecutors.get(name);
+        if (executor == null) {
+            final String threadNamePrefix = "com.espertech.esper.HistoricalPoll-" + runtimeURI + "-" + name + "-";
+            ThreadFactory threadFactory = new ThreadFactory() {
+                AtomicInteger count = new AtomicInteger(0);
+
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r);
+                    t.setName(threadNamePrefix + count.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                }
+            };
+            executor = new ThreadPoolExecutor(numThreads, numThreads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(numThreads * POLL_QUEUE_SIZE_PER_THREAD), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+            pollExecutors.put(name, executor);
+        }
+        return executor;
+    }
+
+    /**
+     * Stops the threads for parallel polling, for use when the runtime is destroyed.
+     */
+    public synchronized void destroy() {
+        destroyed = true;
+        for (ThreadPoolExecutor executor : pollExecutors.values()) {
+            executor.shutdownNow();
+        }
+        pollExecutors.clear();
+    }
+
+    /**
+     * Releases a shared cache for an agent instance, removing the cache when no agent instance uses it.
+     *
+     * @param cache shared cache
+     */
+    protected synchronized void releaseSharedCache(HistoricalDataCacheShared cache) {
+        if (cache.removeReference() > 0) {
+            return;
+        }
+        sharedCaches.remove(cache.getOwnerKey());
+        cache.shutdown();
+    }
 }
@@ -0,0 +1,28 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.datacache;
+
+import com.espertech.esper.common.internal.epl.historical.indexingstrategy.PollResultIndexingStrategy;
+import com.espertech.esper.common.internal.epl.index.base.EventTable;
+
+/**
+ * Reloads rows for a cache entry, for use by caches that refresh entries in the background.
+ */
+public interface HistoricalDataCacheRefresher {
+    /**
+     * Poll and index rows for the lookup value. Called by a thread other than the event processing thread.
+     *
+     * @param lookupValue      the lookup value the entry was polled for
+     * @param indexingStrategy the indexing strategy the entry was indexed with
+     * @return rows, or null if rows can no longer be reloaded
+     */
+    EventTable[] refresh(Object lookupValue, PollResultIndexingStrategy indexingStrategy);
+}
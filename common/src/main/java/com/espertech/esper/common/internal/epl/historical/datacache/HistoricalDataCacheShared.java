@@ -0,0 +1,402 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.datacache;
+
+import com.espertech.esper.common.internal.epl.historical.indexingstrategy.PollResultIndexingStrategy;
+import com.espertech.esper.common.internal.epl.index.base.EventTable;
+import com.espertech.esper.common.internal.schedule.TimeProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query result data cache implementation that is shared by the agent instances of a statement
+ * and that is safe for concurrent use.
+ * <p>
+ * The cache is bounded by the total weight of entries, wherein the weight of an entry is the number of rows plus one.
+ * Entries are kept in lock-striped segments, each with its own share of the total weight.
+ * Each segment is ordered by access and counts the frequency of lookups per key in a small count-min sketch.
+ * When a segment exceeds its weight a new entry is only admitted if its key is not less frequently looked up than
+ * the least-recently used entry, which is then evicted. This keeps frequently-used entries in the cache
+ * when many keys are only ever looked up once.
+ * <p>
+ * Entries that are older than the maximum age are not returned. An entry that is looked up and that is older than the
+ * refresh-after age is reloaded by a background thread while the cached rows continue to be returned,
+ * so that frequently-used entries do not expire and do not cause the event processing thread to poll.
+ */
+public class HistoricalDataCacheShared implements HistoricalDataCache {
+    private static final Logger log = LoggerFactory.getLogger(HistoricalDataCacheShared.class);
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_WEIGHT = 64;
+
+    private final HistoricalDataCacheFactory owner;
+    private final Object ownerKey;
+    private final TimeProvider timeProvider;
+    private final long maxAgeMSec;
+    private final long refreshAfterMSec;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final long segmentMaxWeight;
+
+    private int numReferences;
+    private ExecutorService refreshExecutor;
+    private boolean destroyed;
+
+    /**
+     * Ctor.
+     *
+     * @param owner             factory that shares the cache
+     * @param ownerKey          key of the cache in the factory
+     * @param timeProvider      provides the current time
+     * @param maxWeight         maximum total weight
+     * @param maxAgeMSec        maximum age, or zero for no maximum age
+     * @param refreshAfterMSec  age after which entries get refreshed upon lookup, or zero for no refresh
+     */
+    public HistoricalDataCacheShared(HistoricalDataCacheFactory owner, Object ownerKey, TimeProvider timeProvider, long maxWeight, long maxAgeMSec, long refreshAfterMSec) {
+        this.owner = owner;
+        this.ownerKey = ownerKey;
+        this.timeProvider = timeProvider;
+        this.maxAgeMSec = maxAgeMSec;
+        this.refreshAfterMSec = refreshAfterMSec;
+
+        int numSegments = 1;
+        while (numSegments < MAX_SEGMENTS && maxWeight / (numSegments * 2) >= MIN_SEGMENT_WEIGHT) {
+            numSegments = numSegments << 1;
+        }
+        this.segmentMaxWeight = Math.max(1, (maxWeight + numSegments - 1) / numSegments);
+        this.segments = new Segment[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            segments[i] = new Segment(segmentMaxWeight);
+        }
+        this.segmentMask = numSegments - 1;
+    }
+
+    public EventTable[] getCached(Object methodParams) {
+        int hash = hash(methodParams);
+        Segment segment = segments[hash & segmentMask];
+        long now = timeProvider.getTime();
+        Entry entry;
+        boolean refresh = false;
+        synchronized (segment) {
+            segment.sketch.increment(hash);
+            entry = segment.map.get(methodParams);
+            if (entry == null) {
+                return null;
+            }
+            long age = now - entry.loadTime;
+            if (maxAgeMSec > 0 && age > maxAgeMSec) {
+                segment.map.remove(methodParams);
+                segment.weight -= entry.weight;
+                return null;
+            }
+            if (refreshAfterMSec > 0 && entry.refresher != null && age >= refreshAfterMSec && !entry.refreshing) {
+                entry.refreshing = true;
+                refresh = true;
+            }
+        }
+        if (refresh) {
+            scheduleRefresh(methodParams, entry);
+        }
+        return entry.rows;
+    }
+
+    public void put(Object methodParams, EventTable[] rows) {
+        put(methodParams, rows, null, null, null);
+    }
+
+    /**
+     * Puts into the cache a key and rows, retaining what is needed to reload the rows in the background.
+     *
+     * @param methodParams     is the keys to the cache entry
+     * @param rows             is a number of rows
+     * @param refresher        reloads the rows, or null if the entry cannot be refreshed
+     * @param lookupValue      lookup value that the rows were polled for
+     * @param indexingStrategy indexing strategy that the rows were indexed with
+     */
+    public void put(Object methodParams, EventTable[] rows, HistoricalDataCacheRefresher refresher, Object lookupValue, PollResultIndexingStrategy indexingStrategy) {
+        int hash = hash(methodParams);
+        Entry entry = new Entry(hash, rows, weigh(rows), timeProvider.getTime(), refresher, lookupValue, indexingStrategy);
+        if (entry.weight > segmentMaxWeight) {
+            return;
+        }
+        Segment segment = segments[hash & segmentMask];
+        synchronized (segment) {
+            Entry existing = segment.map.put(methodParams, entry);
+            segment.weight += entry.weight;
+            if (existing != null) {
+                segment.weight -= existing.weight;
+            }
+            segment.evict(methodParams, entry, existing == null);
+        }
+    }
+
+    public boolean isActive() {
+        return true;
+    }
+
+    public void destroy() {
+        owner.releaseSharedCache(this);
+    }
+
+    /**
+     * Returns the total weight of entries.
+     *
+     * @return weight
+     */
+    public long getWeight() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                weight += segment.weight;
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return number of entries
+     */
+    public int getSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    Object getOwnerKey() {
+        return ownerKey;
+    }
+
+    void addReference() {
+        numReferences++;
+    }
+
+    int removeReference() {
+        return --numReferences;
+    }
+
+    synchronized void shutdown() {
+        destroyed = true;
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+            refreshExecutor = null;
+        }
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+                segment.weight = 0;
+            }
+        }
+    }
+
+    private synchronized void scheduleRefresh(final Object methodParams, final Entry entry) {
+        if (destroyed) {
+            return;
+        }
+        if (refreshExecutor == null) {
+            refreshExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r);
+                    t.setName("com.espertech.esper.HistoricalDataCacheRefresh-" + ownerKey);
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        refreshExecutor.execute(new Runnable() {
+            public void run() {
+                refresh(methodParams, entry);
+            }
+        });
+    }
+
+    private void refresh(Object methodParams, Entry entry) {
+        EventTable[] rows;
+        try {
+            rows = entry.refresher.refresh(entry.lookupValue, entry.indexingStrategy);
+        } catch (Throwable t) {
+            log.warn("Failed to refresh cached rows, the cached rows remain until they expire: " + t.getMessage(), t);
+            entry.refreshing = false;
+            return;
+        }
+        int hash = entry.hash;
+        if (rows == null) {
+            // the refresher was stopped, evict the entry so that the next lookup polls again
+            Segment segment = segments[hash & segmentMask];
+            synchronized (segment) {
+                if (segment.map.get(methodParams) == entry) {
+                    segment.map.remove(methodParams);
+                    segment.weight -= entry.weight;
+                }
+            }
+            return;
+        }
+
+        Entry replacement = new Entry(hash, rows, weigh(rows), timeProvider.getTime(), entry.refresher, entry.lookupValue, entry.indexingStrategy);
+        Segment segment = segments[hash & segmentMask];
+        synchronized (segment) {
+            Entry current = segment.map.get(methodParams);
+            if (current != null && current != entry) {
+                return;
+            }
+            if (current != null) {
+                segment.weight -= current.weight;
+            }
+            if (replacement.weight > segmentMaxWeight) {
+                segment.map.remove(methodParams);
+                return;
+            }
+            segment.map.put(methodParams, replacement);
+            segment.weight += replacement.weight;
+            segment.evict(methodParams, replacement, false);
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int weigh(EventTable[] rows) {
+        int weight = 1;
+        if (rows != null) {
+            for (EventTable table : rows) {
+                Integer numEvents = table.getNumberOfEvents();
+                weight += numEvents == null ? 1 : numEvents;
+            }
+        }
+        return weight;
+    }
+
+    private static class Segment {
+        private final LinkedHashMap<Object, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+        private final FrequencySketch sketch;
+        private final long maxWeight;
+        private long weight;
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+            this.sketch = new FrequencySketch((int) Math.min(maxWeight, 1 << 14) * 4);
+        }
+
+        /**
+         * Evicts least-recently used entries until the segment is within its weight, or rejects the candidate entry if
+         * admission applies and the candidate key is less frequently looked up than the least-recently used entry.
+         */
+        void evict(Object candidateKey, Entry candidate, boolean admission) {
+            Iterator<Map.Entry<Object, Entry>> it = map.entrySet().iterator();
+            while (weight > maxWeight && it.hasNext()) {
+                Map.Entry<Object, Entry> eldest = it.next();
+                Entry victim = eldest.getValue();
+                if (victim == candidate) {
+                    continue;
+                }
+                if (admission && sketch.frequency(candidate.hash) < sketch.frequency(victim.hash)) {
+                    map.remove(candidateKey);
+                    weight -= candidate.weight;
+                    return;
+                }
+                it.remove();
+                weight -= victim.weight;
+            }
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters that approximates the number of lookups per key,
+     * halving all counters periodically so that the frequency reflects recent lookups.
+     */
+    private static class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = new int[]{0x97CB3127, 0xAB7B5B0B, 0x4F6C2E7D, 0xC13FA9A9};
+
+        private final byte[] counters;
+        private final int width;
+        private final int resetThreshold;
+        private int additions;
+
+        FrequencySketch(int width) {
+            int size = 16;
+            while (size < width) {
+                size = size << 1;
+            }
+            this.width = size;
+            this.counters = new byte[DEPTH * size];
+            this.resetThreshold = size * 10;
+        }
+
+        void increment(int hash) {
+            for (int i = 0; i < DEPTH; i++) {
+                int index = index(hash, i);
+                if (counters[index] < MAX_COUNT) {
+                    counters[index]++;
+                }
+            }
+            if (++additions >= resetThreshold) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] = (byte) (counters[i] >>> 1);
+                }
+                additions = additions >>> 1;
+            }
+        }
+
+        int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < DEPTH; i++) {
+                frequency = Math.min(frequency, counters[index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            h ^= h >>> 17;
+            return row * width + (h & (width - 1));
+        }
+    }
+
+    private static class Entry {
+        private final int hash;
+        private final EventTable[] rows;
+        private final int weight;
+        private final long loadTime;
+        private final HistoricalDataCacheRefresher refresher;
+        private final Object lookupValue;
+        private final PollResultIndexingStrategy indexingStrategy;
+        private volatile boolean refreshing;
+
+        Entry(int hash, EventTable[] rows, int weight, long loadTime, HistoricalDataCacheRefresher refresher, Object lookupValue, PollResultIndexingStrategy indexingStrategy) {
+            this.hash = hash;
+            this.rows = rows;
+            this.weight = weight;
+            this.loadTime = loadTime;
+            this.refresher = refresher;
+            this.lookupValue = lookupValue;
+            this.indexingStrategy = indexingStrategy;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import com.espertech.esper.common.client.EPException;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonCache;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonMethodRef;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.epl.historical.common.HistoricalEventViewableParallelPoller;
 import com.espertech.esper.common.internal.epl.historical.common.HistoricalEventViewableBase;
 import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
 
@@ -26,6 +27,9 @@ public class HistoricalEventViewableMethod extends HistoricalEventViewableBase {
             ConfigurationCommonMethodRef configCache = agentInstanceContext.getClasspathImportServiceRuntime().getConfigurationMethodRef(factory.getConfigurationName());
             ConfigurationCommonCache dataCacheDesc = configCache != null ? configCache.getDataCacheDesc() : null;
             this.dataCache = agentInstanceContext.getHistoricalDataCacheFactory().getDataCache(dataCacheDesc, agentInstanceContext, factory.getStreamNumber(), factory.getScheduleCallbackId());
+            if (configCache != null && configCache.getParallelPollThreads() > 0) {
+                this.parallelPoller = new HistoricalEventViewableParallelPoller(factory, agentInstanceContext, "method-" + factory.getConfigurationName(), configCache.getParallelPollThreads());
+            }
         } catch (Throwable t) {
             throw new EPException("Failed to obtain cache: " + t.getMessage(), t);
         }
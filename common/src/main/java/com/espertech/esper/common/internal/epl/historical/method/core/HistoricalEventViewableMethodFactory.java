@@ -15,6 +15,7 @@ import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
 import com.espertech.esper.common.internal.context.util.StatementContext;
 import com.espertech.esper.common.internal.epl.historical.common.HistoricalEventViewable;
 import com.espertech.esper.common.internal.epl.historical.common.HistoricalEventViewableFactoryBase;
+import com.espertech.esper.common.internal.epl.historical.execstrategy.PollExecStrategy;
 import com.espertech.esper.common.internal.epl.historical.method.poll.MethodConversionStrategy;
 import com.espertech.esper.common.internal.epl.historical.method.poll.MethodTargetStrategyFactory;
 
@@ -27,8 +28,11 @@ public class HistoricalEventViewableMethodFactory extends HistoricalEventViewabl
     }
 
     public HistoricalEventViewable activate(AgentInstanceContext agentInstanceContext) {
-        PollExecStrategyMethod strategy = new PollExecStrategyMethod(targetStrategy.make(agentInstanceContext), conversionStrategy);
-        return new HistoricalEventViewableMethod(this, strategy, agentInstanceContext);
+        return new HistoricalEventViewableMethod(this, makePollExecStrategy(agentInstanceContext), agentInstanceContext);
+    }
+
+    public PollExecStrategy makePollExecStrategy(AgentInstanceContext agentInstanceContext) {
+        return new PollExecStrategyMethod(targetStrategy.make(agentInstanceContext), conversionStrategy);
     }
 
     public String getConfigurationName() {
@@ -32,7 +32,7 @@ public class EventTableIndexServiceImpl implements EventTableIndexService {
     }
 
     public EventTableFactory createHashedOnly(int indexedStreamNum, EventType eventType, String[] indexProps, Class[] indexTypes, MultiKeyGeneratedFromObjectArray transformFireAndForget, MultiKeyGeneratedSerde optionalMultiKeySerde, boolean unique, String optionalIndexName, EventPropertyValueGetter getter, Object optionalSerde, boolean isFireAndForget, StatementContext statementContext) {
-        return new PropertyHashedEventTableFactory(indexedStreamNum, indexProps, unique, optionalIndexName, getter, transformFireAndForget);
+        return new PropertyHashedEventTableFactory(indexedStreamNum, indexProps, unique, optionalIndexName, getter, transformFireAndForget, indexTypes);
     }
 
     public EventTableFactory createUnindexed(int indexedStreamNum, EventType eventType, Object optionalSerde, boolean isFireAndForget, StatementContext statementContext) {
@@ -17,6 +17,7 @@ import com.espertech.esper.common.internal.epl.index.base.EventTable;
 import com.espertech.esper.common.internal.epl.index.base.EventTableFactory;
 import com.espertech.esper.common.internal.epl.index.base.EventTableOrganization;
 import com.espertech.esper.common.internal.epl.index.base.EventTableOrganizationType;
+import com.espertech.esper.common.internal.util.JavaClassHelper;
 
 import java.util.Arrays;
 
@@ -27,14 +28,34 @@ public class PropertyHashedEventTableFactory implements EventTableFactory {
     protected final String optionalIndexName;
     protected final EventPropertyValueGetter propertyGetter;
     protected final MultiKeyGeneratedFromObjectArray multiKeyTransform;
+    protected final Class optionalCompactKeyType;
 
     public PropertyHashedEventTableFactory(int streamNum, String[] propertyNames, boolean unique, String optionalIndexName, EventPropertyValueGetter propertyGetter, MultiKeyGeneratedFromObjectArray multiKeyTransform) {
+        this(streamNum, propertyNames, unique, optionalIndexName, propertyGetter, multiKeyTransform, null);
+    }
+
+    /**
+     * Ctor.
+     * <p>
+     * When there is a single index type that is a primitive or boxed primitive numeric type or string, the factory makes
+     * compact tables that keep keys in specialized arrays and events inline.
+     *
+     * @param streamNum         stream number
+     * @param propertyNames     property names
+     * @param unique            unique flag
+     * @param optionalIndexName index name
+     * @param propertyGetter    key getter
+     * @param multiKeyTransform multi-key transform
+     * @param indexTypes        index key types, or null if not known
+     */
+    public PropertyHashedEventTableFactory(int streamNum, String[] propertyNames, boolean unique, String optionalIndexName, EventPropertyValueGetter propertyGetter, MultiKeyGeneratedFromObjectArray multiKeyTransform, Class[] indexTypes) {
         this.streamNum = streamNum;
         this.propertyNames = propertyNames;
         this.unique = unique;
         this.optionalIndexName = optionalIndexName;
         this.propertyGetter = propertyGetter;
         this.multiKeyTransform = multiKeyTransform;
+        this.optionalCompactKeyType = getCompactKeyType(indexTypes);
 
         if (propertyGetter == null) {
             throw new IllegalArgumentException("Property-getter is null");
@@ -42,6 +63,13 @@ public class PropertyHashedEventTableFactory implements EventTableFactory {
     }
 
     public EventTable[] makeEventTables(AgentInstanceContext agentInstanceContext, Integer subqueryNumber) {
+        if (optionalCompactKeyType != null) {
+            PropertyHashedIndexStore store = optionalCompactKeyType == String.class ? new PropertyHashedIndexStoreString() : new PropertyHashedIndexStoreLong(optionalCompactKeyType);
+            if (unique) {
+                return new EventTable[]{new PropertyHashedEventTableUniqueCompact(this, store)};
+            }
+            return new EventTable[]{new PropertyHashedEventTableUnadornedCompact(this, store)};
+        }
         if (unique) {
             return new EventTable[]{new PropertyHashedEventTableUnique(this)};
         } else {
@@ -50,6 +78,9 @@ public class PropertyHashedEventTableFactory implements EventTableFactory {
     }
 
     public Class getEventTableClass() {
+        if (optionalCompactKeyType != null) {
+            return unique ? PropertyHashedEventTableUniqueCompact.class : PropertyHashedEventTableUnadornedCompact.class;
+        }
         if (unique) {
             return PropertyHashedEventTableUnique.class;
         } else {
@@ -67,4 +98,21 @@ public class PropertyHashedEventTableFactory implements EventTableFactory {
     public EventTableOrganization getOrganization() {
         return new EventTableOrganization(optionalIndexName, unique, false, streamNum, propertyNames, EventTableOrganizationType.HASH);
     }
+
+    /**
+     * Returns the compact table key type for index types, if any.
+     *
+     * @param indexTypes index key types
+     * @return boxed key type or null if compact tables do not apply
+     */
+    public static Class getCompactKeyType(Class[] indexTypes) {
+        if (indexTypes == null || indexTypes.length != 1 || indexTypes[0] == null) {
+            return null;
+        }
+        Class boxed = JavaClassHelper.getBoxedType(indexTypes[0]);
+        if (boxed == String.class || PropertyHashedIndexStoreLong.isSupportedKeyType(boxed)) {
+            return boxed;
+        }
+        return null;
+    }
 }
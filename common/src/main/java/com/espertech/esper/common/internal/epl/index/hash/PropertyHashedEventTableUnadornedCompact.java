@@ -0,0 +1,149 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.index.hash;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.*;
+
+/**
+ * Non-unique index for a single key of a primitive or string type, keeping a key's only event in an immutable singleton set
+ * in the {@link PropertyHashedIndexStore} and allocating a growable set of events only for keys that have multiple events.
+ * Lookups return the stored set and do not allocate.
+ */
+public class PropertyHashedEventTableUnadornedCompact extends PropertyHashedEventTable {
+    private final PropertyHashedIndexStore propertyIndex;
+    private int numEvents;
+
+    public PropertyHashedEventTableUnadornedCompact(PropertyHashedEventTableFactory factory, PropertyHashedIndexStore propertyIndex) {
+        super(factory);
+        this.propertyIndex = propertyIndex;
+    }
+
+    /**
+     * Returns the set of events that have the same property value as the given event.
+     *
+     * @param key to compare against
+     * @return set of events with property value, or null if none found (never returns zero-sized set)
+     */
+    public Set<EventBean> lookup(Object key) {
+        return (Set<EventBean>) propertyIndex.get(key);
+    }
+
+    public void add(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
+        Object key = getKey(theEvent);
+
+        Set<EventBean> events = (Set<EventBean>) propertyIndex.get(key);
+        if (events == null) {
+            propertyIndex.put(key, Collections.singleton(theEvent));
+            numEvents++;
+        } else if (events instanceof LinkedHashSet) {
+            if (events.add(theEvent)) {
+                numEvents++;
+            }
+        } else {
+            if (events.contains(theEvent)) {
+                return;
+            }
+            Set<EventBean> multiple = new LinkedHashSet<>();
+            multiple.addAll(events);
+            multiple.add(theEvent);
+            propertyIndex.put(key, multiple);
+            numEvents++;
+        }
+    }
+
+    public void remove(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
+        Object key = getKey(theEvent);
+
+        Set<EventBean> events = (Set<EventBean>) propertyIndex.get(key);
+        if (events == null) {
+            return;
+        }
+
+        // Not an error if the event is not found, its possible that an old-data event is artificial (such as for statistics) and
+        // thus did not correspond to a new-data event raised earlier.
+        if (!(events instanceof LinkedHashSet)) {
+            if (events.contains(theEvent)) {
+                propertyIndex.remove(key);
+                numEvents--;
+            }
+            return;
+        }
+
+        if (!events.remove(theEvent)) {
+            return;
+        }
+        numEvents--;
+        if (events.size() == 1) {
+            propertyIndex.put(key, Collections.singleton(events.iterator().next()));
+        }
+    }
+
+    public boolean isEmpty() {
+        return propertyIndex.isEmpty();
+    }
+
+    public Iterator<EventBean> iterator() {
+        return new CompactIterator(propertyIndex.valueIterator());
+    }
+
+    public void clear() {
+        propertyIndex.clear();
+        numEvents = 0;
+    }
+
+    public void destroy() {
+        clear();
+    }
+
+    public Integer getNumberOfEvents() {
+        return numEvents;
+    }
+
+    public int getNumKeys() {
+        return propertyIndex.size();
+    }
+
+    public Object getIndex() {
+        return propertyIndex;
+    }
+
+    public Class getProviderClass() {
+        return PropertyHashedEventTable.class;
+    }
+
+    private static class CompactIterator implements Iterator<EventBean> {
+        private final Iterator<Object> values;
+        private Iterator<EventBean> current;
+
+        CompactIterator(Iterator<Object> values) {
+            this.values = values;
+        }
+
+        public boolean hasNext() {
+            return (current != null && current.hasNext()) || values.hasNext();
+        }
+
+        public EventBean next() {
+            if (current != null && current.hasNext()) {
+                return current.next();
+            }
+            current = ((Set<EventBean>) values.next()).iterator();
+            return current.next();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
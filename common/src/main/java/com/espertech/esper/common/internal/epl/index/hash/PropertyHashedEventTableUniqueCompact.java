@@ -0,0 +1,120 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.index.hash;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.common.internal.epl.index.base.EventTableAsSet;
+
+import java.util.*;
+
+/**
+ * Unique index for a single key of a primitive or string type, keeping events inline in the {@link PropertyHashedIndexStore}.
+ */
+public class PropertyHashedEventTableUniqueCompact extends PropertyHashedEventTable implements EventTableAsSet {
+    private final PropertyHashedIndexStore propertyIndex;
+
+    public PropertyHashedEventTableUniqueCompact(PropertyHashedEventTableFactory factory, PropertyHashedIndexStore propertyIndex) {
+        super(factory);
+        this.propertyIndex = propertyIndex;
+    }
+
+    public Set<EventBean> lookup(Object key) {
+        EventBean event = (EventBean) propertyIndex.get(key);
+        if (event != null) {
+            return Collections.singleton(event);
+        }
+        return null;
+    }
+
+    public int getNumKeys() {
+        return propertyIndex.size();
+    }
+
+    public Object getIndex() {
+        return propertyIndex;
+    }
+
+    /**
+     * Remove then add events.
+     *
+     * @param newData              to add
+     * @param oldData              to remove
+     * @param exprEvaluatorContext evaluator context
+     */
+    @Override
+    public void addRemove(EventBean[] newData, EventBean[] oldData, ExprEvaluatorContext exprEvaluatorContext) {
+        exprEvaluatorContext.getInstrumentationProvider().qIndexAddRemove(this, newData, oldData);
+
+        if (oldData != null) {
+            for (EventBean theEvent : oldData) {
+                remove(theEvent, exprEvaluatorContext);
+            }
+        }
+        if (newData != null) {
+            for (EventBean theEvent : newData) {
+                add(theEvent, exprEvaluatorContext);
+            }
+        }
+
+        exprEvaluatorContext.getInstrumentationProvider().aIndexAddRemove();
+    }
+
+    public void add(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
+        Object key = getKey(theEvent);
+
+        Object existing = propertyIndex.put(key, theEvent);
+        if (existing != null && !existing.equals(theEvent)) {
+            throw PropertyHashedEventTableUnique.handleUniqueIndexViolation(factory.getOrganization().getIndexName(), key);
+        }
+    }
+
+    public void remove(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
+        Object key = getKey(theEvent);
+        propertyIndex.remove(key);
+    }
+
+    public boolean isEmpty() {
+        return propertyIndex.isEmpty();
+    }
+
+    public Iterator<EventBean> iterator() {
+        return (Iterator<EventBean>) (Iterator) propertyIndex.valueIterator();
+    }
+
+    public void clear() {
+        propertyIndex.clear();
+    }
+
+    public void destroy() {
+        clear();
+    }
+
+    public Integer getNumberOfEvents() {
+        return propertyIndex.size();
+    }
+
+    public Set<EventBean> allValues() {
+        if (propertyIndex.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<EventBean> values = new HashSet<>();
+        Iterator<EventBean> it = iterator();
+        while (it.hasNext()) {
+            values.add(it.next());
+        }
+        return values;
+    }
+
+    public Class getProviderClass() {
+        return PropertyHashedEventTableUnique.class;
+    }
+}
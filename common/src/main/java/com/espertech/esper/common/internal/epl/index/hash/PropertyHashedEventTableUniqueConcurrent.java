@@ -0,0 +1,58 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.index.hash;
+
+import com.espertech.esper.common.client.EventBean;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unique index that allows lookups and changes from multiple threads, for use as the primary key index of a concurrent table.
+ * <p>
+ * Keeps events in a {@link ConcurrentHashMap} and, as that map does not allow null keys, keeps the event for a null key
+ * under a placeholder key. Iteration is weakly consistent.
+ */
+public class PropertyHashedEventTableUniqueConcurrent extends PropertyHashedEventTableUnique {
+    private static final Object NULL_KEY = new Object();
+
+    public PropertyHashedEventTableUniqueConcurrent(PropertyHashedEventTableFactory factory) {
+        super(factory, new ConcurrentHashMap<>());
+    }
+
+    public Set<EventBean> lookup(Object key) {
+        return super.lookup(toIndexKey(key));
+    }
+
+    protected Object getKey(EventBean theEvent) {
+        return toIndexKey(super.getKey(theEvent));
+    }
+
+    /**
+     * Returns the key under which the index keeps the event for a given key.
+     *
+     * @param key key, can be null
+     * @return index key
+     */
+    public static Object toIndexKey(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    /**
+     * Returns the key for an index key.
+     *
+     * @param indexKey index key
+     * @return key, can be null
+     */
+    public static Object fromIndexKey(Object indexKey) {
+        return indexKey == NULL_KEY ? null : indexKey;
+    }
+}
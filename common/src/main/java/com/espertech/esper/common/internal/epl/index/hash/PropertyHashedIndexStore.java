@@ -0,0 +1,226 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.index.hash;
+
+import java.util.*;
+
+/**
+ * Open-addressing map from index key to value for hashed event tables, keeping keys of the index key type
+ * in specialized arrays and values inline, without an entry object or boxed key per value.
+ * <p>
+ * Slots use linear probing and removal shifts subsequent entries back, so there are no tombstones.
+ * Keys that are null or that are not of the index key type are kept in a separate hash map,
+ * so that lookup semantics are the same as for a hash map.
+ * <p>
+ * Values must not be null. Not synchronized and not thread-safe.
+ */
+public abstract class PropertyHashedIndexStore {
+    protected static final int INITIAL_CAPACITY = 16;
+
+    protected Object[] values;
+    protected int mask;
+    protected int size;
+    protected int resizeAt;
+    protected Map<Object, Object> otherKeys;
+
+    /**
+     * Returns the value for the key.
+     *
+     * @param key key
+     * @return value or null if not found
+     */
+    public abstract Object get(Object key);
+
+    /**
+     * Associates the value with the key.
+     *
+     * @param key   key
+     * @param value value, not null
+     * @return previous value or null if none
+     */
+    public abstract Object put(Object key, Object value);
+
+    /**
+     * Removes the key.
+     *
+     * @param key key
+     * @return previous value or null if none
+     */
+    public abstract Object remove(Object key);
+
+    /**
+     * Returns the slot that a key hashes to.
+     *
+     * @param slot slot holding the key
+     * @return home slot of the key
+     */
+    protected abstract int homeSlot(int slot);
+
+    /**
+     * Moves a key from one slot to another.
+     *
+     * @param from source slot
+     * @param to   target slot
+     */
+    protected abstract void moveKey(int from, int to);
+
+    /**
+     * Releases the key of a slot that became empty.
+     *
+     * @param slot slot
+     */
+    protected void clearKey(int slot) {
+    }
+
+    /**
+     * Allocates arrays for the capacity and re-adds existing entries.
+     *
+     * @param capacity power-of-two capacity
+     */
+    protected abstract void allocate(int capacity);
+
+    /**
+     * Returns the number of keys.
+     *
+     * @return number of keys
+     */
+    public int size() {
+        return otherKeys == null ? size : size + otherKeys.size();
+    }
+
+    /**
+     * Returns true if there are no keys.
+     *
+     * @return indicator
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all keys.
+     */
+    public void clear() {
+        size = 0;
+        otherKeys = null;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns an iterator over values.
+     *
+     * @return values
+     */
+    public Iterator<Object> valueIterator() {
+        return new ValueIterator();
+    }
+
+    /**
+     * Returns the number of slots allocated, for testing purposes.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return values.length;
+    }
+
+    protected void setCapacity(int capacity) {
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.7d);
+    }
+
+    protected void deleteSlot(int slot) {
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == null) {
+                break;
+            }
+            int home = homeSlot(next);
+            // move the entry into the hole unless its home slot lies cyclically within (hole, next]
+            boolean inRange = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!inRange) {
+                moveKey(next, hole);
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        values[hole] = null;
+        clearKey(hole);
+        size--;
+    }
+
+    protected Object getOther(Object key) {
+        return otherKeys == null ? null : otherKeys.get(key);
+    }
+
+    protected Object putOther(Object key, Object value) {
+        if (otherKeys == null) {
+            otherKeys = new HashMap<>();
+        }
+        return otherKeys.put(key, value);
+    }
+
+    protected Object removeOther(Object key) {
+        if (otherKeys == null) {
+            return null;
+        }
+        Object removed = otherKeys.remove(key);
+        if (otherKeys.isEmpty()) {
+            otherKeys = null;
+        }
+        return removed;
+    }
+
+    protected static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private class ValueIterator implements Iterator<Object> {
+        private int slot = -1;
+        private Iterator<Object> otherIterator;
+
+        ValueIterator() {
+            advance();
+        }
+
+        public boolean hasNext() {
+            if (slot < values.length) {
+                return true;
+            }
+            return otherIterator != null && otherIterator.hasNext();
+        }
+
+        public Object next() {
+            if (slot < values.length) {
+                Object value = values[slot];
+                advance();
+                return value;
+            }
+            if (otherIterator == null) {
+                throw new NoSuchElementException();
+            }
+            return otherIterator.next();
+        }
+
+        private void advance() {
+            slot++;
+            while (slot < values.length && values[slot] == null) {
+                slot++;
+            }
+            if (slot == values.length && otherKeys != null) {
+                otherIterator = otherKeys.values().iterator();
+            }
+        }
+    }
+}
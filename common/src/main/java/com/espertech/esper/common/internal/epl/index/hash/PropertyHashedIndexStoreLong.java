@@ -0,0 +1,147 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.index.hash;
+
+/**
+ * Index store for keys of a boxed integral or floating-point type, kept as primitive long values.
+ * Floating-point keys are kept as their bit pattern, which matches {@link Double#equals(Object)} and {@link Float#equals(Object)}.
+ */
+public class PropertyHashedIndexStoreLong extends PropertyHashedIndexStore {
+    private final Class keyType;
+    private final boolean isDouble;
+    private final boolean isFloat;
+    private long[] keys;
+
+    /**
+     * Ctor.
+     *
+     * @param keyType boxed key type, see {@link #isSupportedKeyType(Class)}
+     */
+    public PropertyHashedIndexStoreLong(Class keyType) {
+        this.keyType = keyType;
+        this.isDouble = keyType == Double.class;
+        this.isFloat = keyType == Float.class;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns true if keys of the boxed type can be kept as long values.
+     *
+     * @param keyType boxed key type
+     * @return indicator
+     */
+    public static boolean isSupportedKeyType(Class keyType) {
+        return keyType == Long.class || keyType == Integer.class || keyType == Short.class || keyType == Byte.class ||
+            keyType == Double.class || keyType == Float.class;
+    }
+
+    public Object get(Object key) {
+        if (key == null || key.getClass() != keyType) {
+            return getOther(key);
+        }
+        long value = toLong(key);
+        int slot = mix(value) & mask;
+        while (true) {
+            Object existing = values[slot];
+            if (existing == null) {
+                return null;
+            }
+            if (keys[slot] == value) {
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public Object put(Object key, Object entry) {
+        if (key == null || key.getClass() != keyType) {
+            return putOther(key, entry);
+        }
+        long value = toLong(key);
+        int slot = mix(value) & mask;
+        while (true) {
+            Object existing = values[slot];
+            if (existing == null) {
+                break;
+            }
+            if (keys[slot] == value) {
+                values[slot] = entry;
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        values[slot] = entry;
+        size++;
+        if (size > resizeAt) {
+            allocate(values.length << 1);
+        }
+        return null;
+    }
+
+    public Object remove(Object key) {
+        if (key == null || key.getClass() != keyType) {
+            return removeOther(key);
+        }
+        long value = toLong(key);
+        int slot = mix(value) & mask;
+        while (true) {
+            Object existing = values[slot];
+            if (existing == null) {
+                return null;
+            }
+            if (keys[slot] == value) {
+                deleteSlot(slot);
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    protected int homeSlot(int slot) {
+        return mix(keys[slot]) & mask;
+    }
+
+    protected void moveKey(int from, int to) {
+        keys[to] = keys[from];
+    }
+
+    protected void allocate(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        setCapacity(capacity);
+        if (oldValues == null || size == 0) {
+            return;
+        }
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private long toLong(Object key) {
+        if (isDouble) {
+            return Double.doubleToLongBits((Double) key);
+        }
+        if (isFloat) {
+            return Float.floatToIntBits((Float) key);
+        }
+        return ((Number) key).longValue();
+    }
+}
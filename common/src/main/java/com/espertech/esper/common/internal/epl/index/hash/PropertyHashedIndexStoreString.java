@@ -0,0 +1,127 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.index.hash;
+
+/**
+ * Index store for string keys, keeping the hash code of each key alongside the key.
+ */
+public class PropertyHashedIndexStoreString extends PropertyHashedIndexStore {
+    private String[] keys;
+    private int[] hashes;
+
+    /**
+     * Ctor.
+     */
+    public PropertyHashedIndexStoreString() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return getOther(key);
+        }
+        int hash = key.hashCode();
+        int slot = mix(hash) & mask;
+        while (true) {
+            Object existing = values[slot];
+            if (existing == null) {
+                return null;
+            }
+            if (hashes[slot] == hash && key.equals(keys[slot])) {
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public Object put(Object key, Object entry) {
+        if (!(key instanceof String)) {
+            return putOther(key, entry);
+        }
+        int hash = key.hashCode();
+        int slot = mix(hash) & mask;
+        while (true) {
+            Object existing = values[slot];
+            if (existing == null) {
+                break;
+            }
+            if (hashes[slot] == hash && key.equals(keys[slot])) {
+                values[slot] = entry;
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = (String) key;
+        hashes[slot] = hash;
+        values[slot] = entry;
+        size++;
+        if (size > resizeAt) {
+            allocate(values.length << 1);
+        }
+        return null;
+    }
+
+    public Object remove(Object key) {
+        if (!(key instanceof String)) {
+            return removeOther(key);
+        }
+        int hash = key.hashCode();
+        int slot = mix(hash) & mask;
+        while (true) {
+            Object existing = values[slot];
+            if (existing == null) {
+                return null;
+            }
+            if (hashes[slot] == hash && key.equals(keys[slot])) {
+                deleteSlot(slot);
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    protected void clearKey(int slot) {
+        keys[slot] = null;
+    }
+
+    protected int homeSlot(int slot) {
+        return mix(hashes[slot]) & mask;
+    }
+
+    protected void moveKey(int from, int to) {
+        keys[to] = keys[from];
+        hashes[to] = hashes[from];
+    }
+
+    protected void allocate(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        Object[] oldValues = values;
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        values = new Object[capacity];
+        setCapacity(capacity);
+        if (oldValues == null || size == 0) {
+            return;
+        }
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = mix(oldHashes[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -24,6 +24,7 @@ import com.espertech.esper.common.internal.epl.join.strategy.QueryStrategy;
 import com.espertech.esper.common.internal.epl.namedwindow.core.NamedWindow;
 import com.espertech.esper.common.internal.epl.namedwindow.core.NamedWindowInstance;
 import com.espertech.esper.common.internal.epl.table.core.Table;
+import com.espertech.esper.common.internal.epl.table.core.TableEvalLockUtil;
 import com.espertech.esper.common.internal.epl.table.core.TableInstance;
 import com.espertech.esper.common.internal.epl.virtualdw.VirtualDWQueryPlanUtil;
 import com.espertech.esper.common.internal.epl.virtualdw.VirtualDWView;
@@ -97,7 +98,7 @@ public class JoinSetComposerPrototypeGeneral extends JoinSetComposerPrototypeBas
                 indexesPerStream[streamNo].put(new TableLookupIndexReqKey(table.getName(), null, table.getName()), index);
                 hasTable = true;
                 tableSecondaryIndexLocks[streamNo] = agentInstanceContext.getStatementContext().getStatementInformationals().isWritesToTables() ?
-                        state.getTableLevelRWLock().writeLock() : state.getTableLevelRWLock().readLock();
+                        TableEvalLockUtil.getRowWriteLock(state) : state.getTableLevelRWLock().readLock();
             } else {
                 // build tables for implicit indexes
                 for (Map.Entry<TableLookupIndexReqKey, QueryPlanIndexItem> entry : items.entrySet()) {
@@ -45,6 +45,7 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
 
     private volatile Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> consumersInContext;  // handles as copy-on-write
     private volatile long numberOfEvents;
+    private boolean loading;
 
     public NamedWindowTailViewInstance(NamedWindowRootViewInstance rootViewInstance, NamedWindowTailView tailView, NamedWindow namedWindow, AgentInstanceContext agentInstanceContext) {
         this.rootViewInstance = rootViewInstance;
@@ -70,6 +71,11 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
             numberOfEvents += newData.length;
         }
 
+        // Events that are loaded are not output and not dispatched to consuming statements
+        if (loading) {
+            return;
+        }
+
         // Post to child views, only if there are listeners or subscribers
         if (tailView.getStatementResultService().isMakeNatural() || tailView.getStatementResultService().isMakeSynthetic()) {
             child.update(newData, oldData);
@@ -79,6 +85,21 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
         tailView.addDispatches(latchFactory, consumersInContext, delta, agentInstanceContext);
     }
 
+    /**
+     * Inserts events into the named window, such as for restoring prior state, without output to the statement
+     * and without dispatching to consuming statements. Invoked while holding the agent instance lock.
+     *
+     * @param events events to insert
+     */
+    public void load(EventBean[] events) {
+        loading = true;
+        try {
+            rootViewInstance.update(events, null);
+        } finally {
+            loading = false;
+        }
+    }
+
     public NamedWindowConsumerView addConsumer(NamedWindowConsumerDesc consumerDesc, boolean isSubselect) {
         NamedWindowConsumerCallback consumerCallback = new NamedWindowConsumerCallback() {
             public Iterator<EventBean> getIterator() {
@@ -76,7 +76,7 @@ public class OutputStrategyPostProcess {
                     agentInstanceContext.getAuditProvider().insert(natural.getOptionalSynthetic(), agentInstanceContext);
                 }
                 if (tableInstance != null) {
-                    TableEvalLockUtil.obtainLockUnless(tableInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+                    TableEvalLockUtil.obtainLockUnless(TableEvalLockUtil.getRowWriteLock(tableInstance), exprEvaluatorContext);
                     tableInstance.addEventUnadorned(natural.getOptionalSynthetic());
                 } else {
                     agentInstanceContext.getInternalEventRouter().route(natural.getOptionalSynthetic(), agentInstanceContext, parent.isAddToFront());
@@ -86,7 +86,7 @@ public class OutputStrategyPostProcess {
                     agentInstanceContext.getAuditProvider().insert(routed, agentInstanceContext);
                 }
                 if (tableInstance != null) {
-                    TableEvalLockUtil.obtainLockUnless(tableInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+                    TableEvalLockUtil.obtainLockUnless(TableEvalLockUtil.getRowWriteLock(tableInstance), exprEvaluatorContext);
                     tableInstance.addEventUnadorned(routed);
                 } else {
                     agentInstanceContext.getInternalEventRouter().route(routed, agentInstanceContext, parent.isAddToFront());
@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.common.internal.epl.pattern.core;
 
+import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
 import com.espertech.esper.common.internal.context.util.StatementContext;
 import com.espertech.esper.common.internal.epl.pattern.filter.EvalFilterConsumptionHandler;
@@ -27,11 +28,15 @@ public class PatternAgentInstanceContext {
     protected final AgentInstanceContext agentInstanceContext;
     protected final EvalFilterConsumptionHandler consumptionHandler;
     protected final Function<FilterSpecActivatable, FilterValueSetParam[][]> contextAddendumFunction;
+    protected final boolean shareCorrelatedFilters;
+    protected EventBean lastMatchEvent;
+    protected long matchEventSequence;
 
     public PatternAgentInstanceContext(PatternContext patternContext, AgentInstanceContext agentInstanceContext, boolean hasConsumingFilter, Function<FilterSpecActivatable, FilterValueSetParam[][]> contextAddendumFunction) {
         this.patternContext = patternContext;
         this.agentInstanceContext = agentInstanceContext;
         this.contextAddendumFunction = contextAddendumFunction;
+        this.shareCorrelatedFilters = agentInstanceContext.getRuntimeSettingsService().getConfigurationRuntime().getPatterns().isShareCorrelatedFilters();
 
         if (hasConsumingFilter) {
             consumptionHandler = new EvalFilterConsumptionHandler();
@@ -48,6 +53,35 @@ public class PatternAgentInstanceContext {
         return consumptionHandler;
     }
 
+    public boolean isShareCorrelatedFilters() {
+        return shareCorrelatedFilters;
+    }
+
+    /**
+     * Returns the sequence number of the event last matched by any filter of the pattern, for use by shared
+     * correlated filters to tell the states that started while the event was being processed.
+     *
+     * @return sequence number
+     */
+    public long getMatchEventSequence() {
+        return matchEventSequence;
+    }
+
+    /**
+     * Indicates that an event matched a filter of the pattern, advancing the sequence number unless the event
+     * is the same event as last matched.
+     *
+     * @param theEvent matching event
+     * @return sequence number of the event
+     */
+    public long matchEventSequence(EventBean theEvent) {
+        if (theEvent != lastMatchEvent) {
+            lastMatchEvent = theEvent;
+            matchEventSequence++;
+        }
+        return matchEventSequence;
+    }
+
     public AgentInstanceContext getAgentInstanceContext() {
         return agentInstanceContext;
     }
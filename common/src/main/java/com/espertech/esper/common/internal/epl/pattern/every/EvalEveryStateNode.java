@@ -79,6 +79,7 @@ public class EvalEveryStateNode extends EvalStateNode implements Evaluator {
         // If the spawned expression turned true already, just quit it
         if (spawnEvaluator.isEvaluatedTrue()) {
             childState.quit();
+            spawnedNodes.remove(childState);
         } else {
             childState.setParentEvaluator(this);
         }
@@ -162,6 +163,7 @@ public class EvalEveryStateNode extends EvalStateNode implements Evaluator {
         for (EvalStateNode child : spawnedNodes) {
             child.quit();
         }
+        spawnedNodes.clear();
 
         agentInstanceContext.getInstrumentationProvider().aPatternEveryQuit();
     }
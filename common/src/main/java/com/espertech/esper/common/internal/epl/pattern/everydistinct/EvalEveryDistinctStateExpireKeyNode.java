@@ -84,6 +84,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
         // If the spawned expression turned true already, just quit it
         if (spawnEvaluator.isEvaluatedTrue()) {
             childState.quit();
+            spawnedNodes.remove(childState);
         } else {
             childState.setParentEvaluator(this);
         }
@@ -190,6 +191,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
         for (EvalStateNode child : spawnedNodes.keySet()) {
             child.quit();
         }
+        spawnedNodes.clear();
 
         agentInstanceContext.getInstrumentationProvider().aPatternEveryDistinctQuit();
     }
@@ -86,6 +86,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
         // If the spawned expression turned true already, just quit it
         if (spawnEvaluator.isEvaluatedTrue()) {
             childState.quit();
+            spawnedNodes.remove(childState);
         } else {
             childState.setParentEvaluator(this);
         }
@@ -179,6 +180,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
         for (EvalStateNode child : spawnedNodes.keySet()) {
             child.quit();
         }
+        spawnedNodes.clear();
 
         agentInstanceContext.getInstrumentationProvider().aPatternEveryDistinctQuit();
     }
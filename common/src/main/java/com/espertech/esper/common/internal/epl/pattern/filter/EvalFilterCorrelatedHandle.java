@@ -0,0 +1,54 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.pattern.filter;
+
+import com.espertech.esper.common.internal.context.util.EPStatementAgentInstanceHandle;
+
+/**
+ * Handle for one activation of a filter state node that waits in a {@link EvalFilterCorrelationIndex},
+ * keeping the correlation key and the sequence number of the event last matched at the time the activation started.
+ */
+public class EvalFilterCorrelatedHandle extends EvalFilterStateNodeHandle {
+    private final Object key;
+    private final long sequence;
+
+    /**
+     * Ctor.
+     *
+     * @param agentInstanceHandle is a statement handle
+     * @param stateNode           filter state node
+     * @param key                 correlation key or null when the filter cannot match
+     * @param sequence            sequence number of the event last matched
+     */
+    public EvalFilterCorrelatedHandle(EPStatementAgentInstanceHandle agentInstanceHandle, EvalFilterStateNode stateNode, Object key, long sequence) {
+        super(agentInstanceHandle, stateNode);
+        this.key = key;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Returns the correlation key.
+     *
+     * @return key or null when the filter cannot match
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the sequence number of the event last matched at the time the activation started.
+     *
+     * @return sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.pattern.filter;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventPropertyValueGetter;
+import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.context.util.EPStatementHandleCallbackFilter;
+import com.espertech.esper.common.internal.filterspec.FilterAddendumUtil;
+import com.espertech.esper.common.internal.filterspec.FilterSpecActivatable;
+import com.espertech.esper.common.internal.filterspec.FilterSpecParam;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
+import com.espertech.esper.common.internal.filterspec.MatchedEventMap;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallback;
+import com.espertech.esper.common.internal.filtersvc.FilterService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared filter for the states of a pattern filter that correlates to a tagged event by an equals-comparison,
+ * such as "b=B(id=a.id)" in "every a=A -&gt; b=B(id=a.id)".
+ * <p>
+ * Instead of each state registering its own filter, the filter without the correlating parameter is registered once
+ * while there are waiting states, and waiting states are kept by correlation key.
+ * A matching event is passed to the states waiting for the event's key.
+ * States that started while the same event was being processed do not receive the event, in the same way that
+ * a filter added while processing an event does not see the event.
+ * <p>
+ * A key is either a single handle or a list of handles. Not synchronized, as statement processing holds the statement lock.
+ */
+public class EvalFilterCorrelationIndex implements FilterHandleCallback {
+    private final EvalFilterNode filterNode;
+    private final FilterSpecParam keyParam;
+    private final EventPropertyValueGetter keyGetter;
+    private final FilterSpecParam[][] sharedParams;
+    private final Map<Object, Object> waiting = new HashMap<>();
+    private EPStatementHandleCallbackFilter sharedHandle;
+    private FilterValueSetParam[][] sharedValues;
+    private int numWaiting;
+
+    /**
+     * Ctor.
+     *
+     * @param filterNode filter node
+     * @param paramIndex index of the correlating parameter
+     */
+    public EvalFilterCorrelationIndex(EvalFilterNode filterNode, int paramIndex) {
+        this(filterNode, filterNode.getFactoryNode().getFilterSpec().getParameters()[0], paramIndex);
+    }
+
+    EvalFilterCorrelationIndex(EvalFilterNode filterNode, FilterSpecParam[] params, int paramIndex) {
+        this.filterNode = filterNode;
+        this.keyParam = params[paramIndex];
+        this.keyGetter = keyParam.getLookupable().getGetter();
+        FilterSpecParam[] others = new FilterSpecParam[params.length - 1];
+        int count = 0;
+        for (int i = 0; i < params.length; i++) {
+            if (i != paramIndex) {
+                others[count++] = params[i];
+            }
+        }
+        this.sharedParams = new FilterSpecParam[][]{others};
+    }
+
+    /**
+     * Starts waiting for a state node.
+     *
+     * @param beginState begin state of the node
+     * @param stateNode  state node
+     * @return handle for the activation
+     */
+    public EvalFilterCorrelatedHandle add(MatchedEventMap beginState, EvalFilterStateNode stateNode) {
+        AgentInstanceContext agentInstanceContext = filterNode.getContext().getAgentInstanceContext();
+        Object key = keyParam.getFilterValue(beginState, agentInstanceContext, agentInstanceContext.getStatementContextFilterEvalEnv());
+        EvalFilterCorrelatedHandle handle = new EvalFilterCorrelatedHandle(agentInstanceContext.getEpStatementAgentInstanceHandle(), stateNode, key, filterNode.getContext().getMatchEventSequence());
+        add(handle, beginState);
+        return handle;
+    }
+
+    /**
+     * Starts waiting for an activation, starting the shared filter for the first waiting activation.
+     *
+     * @param handle     handle for the activation
+     * @param beginState begin state of the node
+     */
+    void add(EvalFilterCorrelatedHandle handle, MatchedEventMap beginState) {
+        Object key = handle.getKey();
+        if (key == null) {
+            return; // null cannot match, not even null
+        }
+
+        Object existing = waiting.get(key);
+        if (existing == null) {
+            waiting.put(key, handle);
+        } else if (existing instanceof ArrayList) {
+            ((ArrayList<EvalFilterCorrelatedHandle>) existing).add(handle);
+        } else {
+            ArrayList<EvalFilterCorrelatedHandle> list = new ArrayList<>(4);
+            list.add((EvalFilterCorrelatedHandle) existing);
+            list.add(handle);
+            waiting.put(key, list);
+        }
+
+        numWaiting++;
+        if (numWaiting == 1) {
+            startFiltering(beginState);
+        }
+    }
+
+    /**
+     * Stops waiting for an activation.
+     *
+     * @param handle handle for the activation
+     */
+    public void remove(EvalFilterCorrelatedHandle handle) {
+        Object key = handle.getKey();
+        if (key == null) {
+            return;
+        }
+        Object existing = waiting.get(key);
+        if (existing == handle) {
+            waiting.remove(key);
+        } else if (existing instanceof ArrayList) {
+            ArrayList<EvalFilterCorrelatedHandle> list = (ArrayList<EvalFilterCorrelatedHandle>) existing;
+            int index = indexOf(list, handle);
+            if (index == -1) {
+                return;
+            }
+            list.remove(index);
+            if (list.size() == 1) {
+                waiting.put(key, list.get(0));
+            }
+        } else {
+            return;
+        }
+
+        numWaiting--;
+        if (numWaiting == 0) {
+            stopFiltering();
+        }
+    }
+
+    public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+        match(theEvent, filterNode.getContext().matchEventSequence(theEvent), allStmtMatches);
+    }
+
+    /**
+     * Passes a matching event to the activations waiting for the event's key that did not start while processing the event.
+     *
+     * @param theEvent       matching event
+     * @param sequence       sequence number of the event
+     * @param allStmtMatches all matches of the statement
+     */
+    void match(EventBean theEvent, long sequence, Collection<FilterHandleCallback> allStmtMatches) {
+        Object key = keyGetter.get(theEvent);
+        if (key == null) {
+            return;
+        }
+        Object existing = waiting.get(key);
+        if (existing == null) {
+            return;
+        }
+        if (existing instanceof ArrayList) {
+            ArrayList<EvalFilterCorrelatedHandle> list = (ArrayList<EvalFilterCorrelatedHandle>) existing;
+            EvalFilterCorrelatedHandle[] handles = list.toArray(new EvalFilterCorrelatedHandle[list.size()]);
+            for (EvalFilterCorrelatedHandle handle : handles) {
+                if (handle.getSequence() != sequence) {
+                    handle.matchFound(theEvent, allStmtMatches);
+                }
+            }
+        } else {
+            EvalFilterCorrelatedHandle handle = (EvalFilterCorrelatedHandle) existing;
+            if (handle.getSequence() != sequence) {
+                handle.matchFound(theEvent, allStmtMatches);
+            }
+        }
+    }
+
+    public boolean isSubSelect() {
+        return false;
+    }
+
+    /**
+     * Returns the number of waiting states.
+     *
+     * @return count
+     */
+    public int getNumWaiting() {
+        return numWaiting;
+    }
+
+    /**
+     * Returns the number of correlation keys that states wait for.
+     *
+     * @return count
+     */
+    public int getNumKeys() {
+        return waiting.size();
+    }
+
+    /**
+     * Returns true when the shared filter is registered with the filter service.
+     *
+     * @return registered indicator
+     */
+    public boolean isFiltering() {
+        return sharedHandle != null;
+    }
+
+    void startFiltering(MatchedEventMap beginState) {
+        AgentInstanceContext agentInstanceContext = filterNode.getContext().getAgentInstanceContext();
+        FilterSpecActivatable filterSpec = filterNode.getFactoryNode().getFilterSpec();
+        sharedValues = FilterSpecActivatable.evaluateValueSet(sharedParams, beginState, agentInstanceContext, agentInstanceContext.getStatementContextFilterEvalEnv());
+        if (filterNode.getAddendumFilters() != null) {
+            sharedValues = FilterAddendumUtil.multiplyAddendum(filterNode.getAddendumFilters(), sharedValues);
+        }
+        sharedHandle = new EPStatementHandleCallbackFilter(agentInstanceContext.getEpStatementAgentInstanceHandle(), this);
+        FilterService filterService = filterNode.getContext().getFilterService();
+        filterService.add(filterSpec.getFilterForEventType(), sharedValues, sharedHandle);
+        agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filterService.getFiltersVersion());
+    }
+
+    void stopFiltering() {
+        AgentInstanceContext agentInstanceContext = filterNode.getContext().getAgentInstanceContext();
+        FilterService filterService = filterNode.getContext().getFilterService();
+        filterService.remove(sharedHandle, filterNode.getFactoryNode().getFilterSpec().getFilterForEventType(), sharedValues);
+        sharedHandle = null;
+        sharedValues = null;
+        agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filterService.getFiltersVersion());
+    }
+
+    private static int indexOf(ArrayList<EvalFilterCorrelatedHandle> list, EvalFilterCorrelatedHandle handle) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == handle) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -24,6 +24,7 @@ public class EvalFilterFactoryNode extends EvalFactoryNodeBase {
     private String eventAsName;
     private Integer consumptionLevel;
     private int eventAsTagNumber;
+    private int correlationParamIndex = -1;
 
     public void setFilterSpec(FilterSpecActivatable filterSpec) {
         this.filterSpec = filterSpec;
@@ -41,6 +42,10 @@ public class EvalFilterFactoryNode extends EvalFactoryNodeBase {
         this.eventAsTagNumber = eventAsTagNumber;
     }
 
+    public void setCorrelationParamIndex(int correlationParamIndex) {
+        this.correlationParamIndex = correlationParamIndex;
+    }
+
     public EvalNode makeEvalNode(PatternAgentInstanceContext agentInstanceContext, EvalNode parentNode) {
         return new EvalFilterNode(agentInstanceContext, this);
     }
@@ -61,6 +66,16 @@ public class EvalFilterFactoryNode extends EvalFactoryNodeBase {
         return eventAsTagNumber;
     }
 
+    /**
+     * Returns the index of the filter parameter that correlates to a tagged event by an equals-comparison,
+     * or -1 when the filter is not correlated.
+     *
+     * @return parameter index
+     */
+    public int getCorrelationParamIndex() {
+        return correlationParamIndex;
+    }
+
     public boolean isStateful() {
         return false;
     }
@@ -21,10 +21,14 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class represents a filter of events in the evaluation tree representing any event expressions.
+ * <p>
+ * When correlated filters are shared, and the filter correlates to a tagged event, keeps the shared filter
+ * that its states wait in.
  */
 public class EvalFilterNode extends EvalNodeBase {
     protected final EvalFilterFactoryNode factoryNode;
     private final FilterValueSetParam[][] addendumFilters;
+    private final EvalFilterCorrelationIndex correlationIndex;
 
     public EvalFilterNode(PatternAgentInstanceContext context, EvalFilterFactoryNode factoryNode) {
         super(context);
@@ -43,6 +47,11 @@ public class EvalFilterNode extends EvalNodeBase {
             }
         }
         this.addendumFilters = addendum;
+        if (context.isShareCorrelatedFilters() && context.getConsumptionHandler() == null && factoryNode.getCorrelationParamIndex() != -1) {
+            this.correlationIndex = new EvalFilterCorrelationIndex(this, factoryNode.getCorrelationParamIndex());
+        } else {
+            this.correlationIndex = null;
+        }
     }
 
     public EvalFilterFactoryNode getFactoryNode() {
@@ -60,5 +69,14 @@ public class EvalFilterNode extends EvalNodeBase {
         return new EvalFilterStateNode(parentNode, this);
     }
 
+    /**
+     * Returns the shared filter that states wait in, or null when states register their own filter.
+     *
+     * @return shared filter
+     */
+    public EvalFilterCorrelationIndex getCorrelationIndex() {
+        return correlationIndex;
+    }
+
     private static final Logger log = LoggerFactory.getLogger(EvalFilterNode.class);
 }
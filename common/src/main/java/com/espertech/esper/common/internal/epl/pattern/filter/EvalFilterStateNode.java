@@ -64,6 +64,13 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         // Start the filter
         isStarted = true;
 
+        EvalFilterCorrelationIndex correlationIndex = evalFilterNode.getCorrelationIndex();
+        if (correlationIndex != null) {
+            handle = correlationIndex.add(beginState, this);
+            agentInstanceContext.getInstrumentationProvider().aPatternFilterStart();
+            return;
+        }
+
         FilterService filterService = evalFilterNode.getContext().getFilterService();
         handle = new EPStatementHandleCallbackFilter(evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
         FilterSpecActivatable filterSpec = evalFilterNode.getFactoryNode().getFilterSpec();
@@ -100,6 +107,10 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         AgentInstanceContext agentInstanceContext = evalFilterNode.getContext().getAgentInstanceContext();
         agentInstanceContext.getInstrumentationProvider().qPatternFilterMatch(evalFilterNode.factoryNode, theEvent);
 
+        if (evalFilterNode.getContext().isShareCorrelatedFilters()) {
+            evalFilterNode.getContext().matchEventSequence(theEvent);
+        }
+
         if (!isStarted) {
             agentInstanceContext.getInstrumentationProvider().aPatternFilterMatch(true);
             return;
@@ -184,6 +195,16 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
     }
 
     private void stopFiltering() {
+        EvalFilterCorrelationIndex correlationIndex = evalFilterNode.getCorrelationIndex();
+        if (correlationIndex != null) {
+            if (handle != null) {
+                correlationIndex.remove((EvalFilterCorrelatedHandle) handle);
+            }
+            handle = null;
+            isStarted = false;
+            return;
+        }
+
         AgentInstanceContext agentInstanceContext = evalFilterNode.getContext().getAgentInstanceContext();
         FilterSpecActivatable filterSpec = evalFilterNode.getFactoryNode().getFilterSpec();
         FilterValueSetParam[][] filterValues = filterSpec.getValueSet(beginState, evalFilterNode.getAddendumFilters(), agentInstanceContext, agentInstanceContext.getStatementContextFilterEvalEnv());
@@ -0,0 +1,60 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.pattern.filter;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.common.internal.context.util.EPStatementHandleCallbackFilter;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallback;
+
+import java.util.Collection;
+
+/**
+ * Filter handle for one activation of a filter state node, that is its own callback.
+ * <p>
+ * A match is only passed to the state node while this handle is the current handle of the state node,
+ * so that matches delivered for an activation that has ended are ignored.
+ */
+public class EvalFilterStateNodeHandle extends EPStatementHandleCallbackFilter implements FilterHandleCallback {
+    private final EvalFilterStateNode stateNode;
+
+    /**
+     * Ctor.
+     *
+     * @param agentInstanceHandle is a statement handle
+     * @param stateNode           filter state node
+     */
+    public EvalFilterStateNodeHandle(EPStatementAgentInstanceHandle agentInstanceHandle, EvalFilterStateNode stateNode) {
+        super(agentInstanceHandle, null);
+        this.stateNode = stateNode;
+        setFilterCallback(this);
+    }
+
+    public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+        if (stateNode.handle != this) {
+            return;
+        }
+        stateNode.matchFound(theEvent, allStmtMatches);
+    }
+
+    public boolean isSubSelect() {
+        return false;
+    }
+
+    /**
+     * Returns the filter state node.
+     *
+     * @return state node
+     */
+    public EvalFilterStateNode getStateNode() {
+        return stateNode;
+    }
+}
@@ -12,6 +12,7 @@ package com.espertech.esper.common.internal.epl.pattern.followedby;
 
 import com.espertech.esper.common.internal.bytecodemodel.base.CodegenClassScope;
 import com.espertech.esper.common.internal.bytecodemodel.base.CodegenMethod;
+import com.espertech.esper.common.internal.bytecodemodel.model.expression.CodegenExpression;
 import com.espertech.esper.common.internal.compile.stage2.FilterSpecCompiled;
 import com.espertech.esper.common.internal.context.aifactory.core.SAIFFInitializeSymbol;
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluator;
@@ -21,7 +22,16 @@ import com.espertech.esper.common.internal.epl.expression.core.ExprNodeUtilityPr
 import com.espertech.esper.common.internal.epl.pattern.core.EvalFactoryNode;
 import com.espertech.esper.common.internal.epl.pattern.core.EvalForgeNodeBase;
 import com.espertech.esper.common.internal.epl.pattern.core.PatternExpressionPrecedenceEnum;
+import com.espertech.esper.common.internal.epl.pattern.core.EvalForgeNode;
 import com.espertech.esper.common.internal.epl.pattern.core.PatternExpressionUtil;
+import com.espertech.esper.common.internal.epl.pattern.filter.EvalFilterFactoryNode;
+import com.espertech.esper.common.internal.epl.pattern.filter.EvalFilterForgeNode;
+import com.espertech.esper.common.internal.epl.pattern.guard.EvalGuardFactoryNode;
+import com.espertech.esper.common.internal.epl.pattern.guard.EvalGuardForgeNode;
+import com.espertech.esper.common.internal.filterspec.FilterOperator;
+import com.espertech.esper.common.internal.filterspec.FilterSpecParamConstantForge;
+import com.espertech.esper.common.internal.filterspec.FilterSpecParamEventPropForge;
+import com.espertech.esper.common.internal.filterspec.FilterSpecParamForge;
 import com.espertech.esper.common.internal.schedule.ScheduleHandleCallbackProvider;
 
 import java.io.StringWriter;
@@ -34,6 +44,7 @@ import static com.espertech.esper.common.internal.bytecodemodel.model.expression
  */
 public class EvalFollowedByForgeNode extends EvalForgeNodeBase {
     private List<ExprNode> optionalMaxExpressions;
+    private int[] correlationParamIndexes;
 
     public EvalFollowedByForgeNode(boolean attachPatternText, List<ExprNode> optionalMaxExpressions) {
         super(attachPatternText);
@@ -48,6 +59,30 @@ public class EvalFollowedByForgeNode extends EvalForgeNodeBase {
         this.optionalMaxExpressions = optionalMaxExpressions;
     }
 
+    /**
+     * Determines, for each child that is a filter or a guarded filter, the index of the filter parameter that correlates
+     * to a tagged event by an equals-comparison, for use by shared correlated filters.
+     * Requires the filters of the child nodes to be compiled.
+     */
+    public void analyzeCorrelatedFilters() {
+        correlationParamIndexes = new int[getChildNodes().size()];
+        correlationParamIndexes[0] = -1;
+        for (int i = 1; i < getChildNodes().size(); i++) {
+            EvalFilterForgeNode filterNode = getFilterNode(getChildNodes().get(i));
+            correlationParamIndexes[i] = filterNode == null ? -1 : getCorrelationParamIndex(filterNode);
+        }
+    }
+
+    /**
+     * Returns, for each child node, the index of the filter parameter that correlates to a tagged event,
+     * or -1 when the child is not a correlated filter, or null when not analyzed.
+     *
+     * @return parameter indexes
+     */
+    public int[] getCorrelationParamIndexes() {
+        return correlationParamIndexes;
+    }
+
     public final String toString() {
         return "EvalFollowedByNode children=" + this.getChildNodes().size();
     }
@@ -91,6 +126,18 @@ public class EvalFollowedByForgeNode extends EvalForgeNodeBase {
         for (int i = 0; i < getChildNodes().size(); i++) {
             method.getBlock().assignArrayElement(ref("children"), constant(i), localMethod(getChildNodes().get(i).makeCodegen(method, symbols, classScope)));
         }
+        if (correlationParamIndexes != null) {
+            for (int i = 1; i < getChildNodes().size(); i++) {
+                if (correlationParamIndexes[i] == -1) {
+                    continue;
+                }
+                CodegenExpression filterFactory = arrayAtIndex(ref("children"), constant(i));
+                if (getChildNodes().get(i) instanceof EvalGuardForgeNode) {
+                    filterFactory = exprDotMethod(cast(EvalGuardFactoryNode.class, filterFactory), "getChildNode");
+                }
+                method.getBlock().exprDotMethod(cast(EvalFilterFactoryNode.class, filterFactory), "setCorrelationParamIndex", constant(correlationParamIndexes[i]));
+            }
+        }
         method.getBlock()
                 .exprDotMethod(ref("node"), "setChildren", ref("children"))
                 .expression(exprDotMethodChain(symbols.getAddInitSvc(method)).add("addReadyCallback", ref("node")));
@@ -114,4 +161,42 @@ public class EvalFollowedByForgeNode extends EvalForgeNodeBase {
 
     public void collectSelfFilterAndSchedule(List<FilterSpecCompiled> filters, List<ScheduleHandleCallbackProvider> schedules) {
     }
+
+    private static EvalFilterForgeNode getFilterNode(EvalForgeNode child) {
+        if (child instanceof EvalGuardForgeNode) {
+            child = child.getChildNodes().get(0);
+        }
+        return child instanceof EvalFilterForgeNode ? (EvalFilterForgeNode) child : null;
+    }
+
+    /**
+     * Returns the index of the single filter parameter that compares, by equals and without coercion,
+     * to a property of a tagged event, when all other parameters compare to constants.
+     * The filter can then be registered once for all its states, which are looked up by the tagged event property value.
+     *
+     * @param filterNode filter
+     * @return parameter index or -1 when not correlated
+     */
+    private static int getCorrelationParamIndex(EvalFilterForgeNode filterNode) {
+        FilterSpecCompiled filterSpec = filterNode.getFilterSpecCompiled();
+        if (filterSpec == null || filterNode.getConsumptionLevel() != null || filterSpec.getOptionalPropertyEvaluator() != null || filterSpec.getParameters().length != 1) {
+            return -1;
+        }
+        FilterSpecParamForge[] params = filterSpec.getParameters()[0];
+        int index = -1;
+        for (int i = 0; i < params.length; i++) {
+            FilterSpecParamForge param = params[i];
+            if (param instanceof FilterSpecParamConstantForge) {
+                continue;
+            }
+            if (index != -1 || !(param instanceof FilterSpecParamEventPropForge) || param.getFilterOperator() != FilterOperator.EQUAL) {
+                return -1;
+            }
+            if (((FilterSpecParamEventPropForge) param).isMustCoerce()) {
+                return -1;
+            }
+            index = i;
+        }
+        return index;
+    }
 }
@@ -49,6 +49,10 @@ public class EvalGuardFactoryNode extends EvalFactoryNodeBase {
         return guardFactory;
     }
 
+    public EvalFactoryNode getChildNode() {
+        return childNode;
+    }
+
     public void accept(EvalFactoryNodeVisitor visitor) {
         visitor.visit(this);
         childNode.accept(visitor);
@@ -103,6 +103,7 @@ public class EvalNotStateNode extends EvalStateNode implements Evaluator {
 
         if (childNode != null) {
             childNode.quit();
+            childNode = null;
         }
 
         agentInstanceContext.getInstrumentationProvider().aPatternNotQuit();
@@ -15,14 +15,20 @@ import com.espertech.esper.common.internal.util.CollectionUtil;
 
 /**
  * State holder for matches, backed by an array, for fast copying and writing.
+ * <p>
+ * Copies share the array with the state they are copied from, as a versioned buffer in which each state
+ * sees only the first count events. An event is written into the shared array only at the position following
+ * the last event written by any sharing state, so that the events seen by a state never change.
+ * A state that adds the same event that another sharing state already added at that position continues to share,
+ * and a state whose events diverge from the shared array copies its events into its own array.
  */
 public class RowRecogMultimatchState {
     private int count;
-    private EventBean[] events;
+    private SharedBuffer buffer;
 
     public RowRecogMultimatchState(int count, EventBean[] events) {
         this.count = count;
-        this.events = events;
+        this.buffer = new SharedBuffer(events, count);
     }
 
     /**
@@ -31,21 +37,18 @@ public class RowRecogMultimatchState {
      * @param theEvent first event to hold
      */
     public RowRecogMultimatchState(EventBean theEvent) {
-        events = new EventBean[3];
+        buffer = new SharedBuffer(new EventBean[3], 0);
         add(theEvent);
     }
 
     /**
      * Ctor.
      *
-     * @param state to copy
+     * @param state to copy, sharing its buffer
      */
     public RowRecogMultimatchState(RowRecogMultimatchState state) {
-        EventBean[] copyArray = new EventBean[state.getBuffer().length];
-        System.arraycopy(state.getBuffer(), 0, copyArray, 0, state.getCount());
-
-        count = state.getCount();
-        events = copyArray;
+        count = state.count;
+        buffer = state.buffer;
     }
 
     /**
@@ -54,12 +57,28 @@ public class RowRecogMultimatchState {
      * @param theEvent to add
      */
     public void add(EventBean theEvent) {
-        if (count == events.length) {
-            EventBean[] buf = new EventBean[events.length * 2];
-            System.arraycopy(events, 0, buf, 0, events.length);
-            events = buf;
+        EventBean[] events = buffer.events;
+        if (count == buffer.size) {
+            if (count == events.length) {
+                EventBean[] buf = new EventBean[events.length * 2];
+                System.arraycopy(events, 0, buf, 0, count);
+                buffer = new SharedBuffer(buf, count);
+            }
+            buffer.events[count++] = theEvent;
+            buffer.size = count;
+            return;
         }
-        events[count++] = theEvent;
+
+        // another state sharing the buffer added the same event
+        if (events[count] == theEvent) {
+            count++;
+            return;
+        }
+
+        EventBean[] buf = new EventBean[events.length];
+        System.arraycopy(events, 0, buf, 0, count);
+        buf[count++] = theEvent;
+        buffer = new SharedBuffer(buf, count);
     }
 
     /**
@@ -77,7 +96,7 @@ public class RowRecogMultimatchState {
      * @return buffer
      */
     public EventBean[] getBuffer() {
-        return events;
+        return buffer.events;
     }
 
     /**
@@ -87,6 +106,7 @@ public class RowRecogMultimatchState {
      * @return indicator
      */
     public boolean containsEvent(EventBean theEvent) {
+        EventBean[] events = buffer.events;
         for (int i = 0; i < count; i++) {
             if (events[i].equals(theEvent)) {
                 return true;
@@ -104,12 +124,22 @@ public class RowRecogMultimatchState {
         if (count == 0) {
             return CollectionUtil.EVENTBEANARRAY_EMPTY;
         }
-        if (count == events.length) {
-            return events;
+        if (count == buffer.events.length) {
+            return buffer.events;
         }
         EventBean[] array = new EventBean[count];
-        System.arraycopy(events, 0, array, 0, count);
-        events = array; // we hold on to the result, avoiding future shrinking
+        System.arraycopy(buffer.events, 0, array, 0, count);
+        buffer = new SharedBuffer(array, count); // we hold on to the result, avoiding future shrinking
         return array;
     }
+
+    private static class SharedBuffer {
+        private final EventBean[] events;
+        private int size;
+
+        SharedBuffer(EventBean[] events, int size) {
+            this.events = events;
+            this.size = size;
+        }
+    }
 }
@@ -662,14 +662,14 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceStopCal
                 }
                 RowRecogNFAState[] nextStatesFromHere = currentState.getState().getNextStates();
 
-                // save state for each next state
-                boolean copy = nextStatesFromHere.length > 1;
-                for (RowRecogNFAState next : nextStatesFromHere) {
+                // save state for each next state, copying for all but the last next state which takes over the current state's arrays
+                for (int nextIndex = 0; nextIndex < nextStatesFromHere.length; nextIndex++) {
+                    RowRecogNFAState next = nextStatesFromHere[nextIndex];
                     EventBean[] eventsForState = eventsPerStream;
                     RowRecogMultimatchState[] multimatches = currentState.getOptionalMultiMatches();
                     int[] greedyCounts = currentState.getGreedycountPerState();
 
-                    if (copy) {
+                    if (nextIndex < nextStatesFromHere.length - 1) {
                         eventsForState = new EventBean[eventsForState.length];
                         System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsForState.length);
 
@@ -752,9 +752,9 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceStopCal
                 }
                 RowRecogNFAState[] nextStatesFromHere = startState.getNextStates();
 
-                // save state for each next state
-                boolean copy = nextStatesFromHere.length > 1;
-                for (RowRecogNFAState next : nextStatesFromHere) {
+                // save state for each next state, copying the events for all but the last next state
+                for (int nextIndex = 0; nextIndex < nextStatesFromHere.length; nextIndex++) {
+                    RowRecogNFAState next = nextStatesFromHere[nextIndex];
 
                     if (factory.isTrackMaxStates() && !skipTrackMaxState) {
                         RowRecogStatePoolStmtSvc poolSvc = agentInstanceContext.getStatementContext().getRowRecogStatePoolStmtSvc();
@@ -769,13 +769,9 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceStopCal
                     RowRecogMultimatchState[] multimatches = rowRecogDesc.isCollectMultimatches() ? new RowRecogMultimatchState[rowRecogDesc.getMultimatchVariablesArray().length] : null;
                     int[] greedyCounts = new int[factory.getAllStates().length];
 
-                    if (copy) {
+                    if (nextIndex < nextStatesFromHere.length - 1) {
                         eventsForState = new EventBean[eventsForState.length];
                         System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsForState.length);
-
-                        int[] greedyCountsCopy = new int[greedyCounts.length];
-                        System.arraycopy(greedyCounts, 0, greedyCountsCopy, 0, greedyCounts.length);
-                        greedyCounts = greedyCountsCopy;
                     }
 
                     if (rowRecogDesc.isCollectMultimatches() && (startState.isMultiple())) {
@@ -825,6 +821,7 @@ public class RowRecogNFAView extends ViewSupport implements AgentInstanceStopCal
         return defineMultimatchEventBean;
     }
 
+    // copies share the event buffers of the states copied, see RowRecogMultimatchState
     private RowRecogMultimatchState[] deepCopy(RowRecogMultimatchState[] multimatchStates) {
         if (multimatchStates == null) {
             return null;
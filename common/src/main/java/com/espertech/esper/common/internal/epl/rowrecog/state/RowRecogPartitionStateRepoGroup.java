@@ -132,19 +132,17 @@ public class RowRecogPartitionStateRepoGroup implements RowRecogPartitionStateRe
 
         // collect unused states
         if (isCollect && (states.size() >= currentCollectionSize)) {
-            List<Object> removeList = new ArrayList<Object>();
-            for (Map.Entry<Object, RowRecogPartitionStateImpl> entry : states.entrySet()) {
-                if ((entry.getValue().isEmptyCurrentState()) &&
-                        (entry.getValue().getRandomAccess() == null || entry.getValue().getRandomAccess().isEmpty())) {
-                    removeList.add(entry.getKey());
+            int countRemoved = 0;
+            for (Iterator<RowRecogPartitionStateImpl> it = states.values().iterator(); it.hasNext(); ) {
+                RowRecogPartitionStateImpl partitionState = it.next();
+                if ((partitionState.isEmptyCurrentState()) &&
+                        (partitionState.getRandomAccess() == null || partitionState.getRandomAccess().isEmpty())) {
+                    it.remove();
+                    countRemoved++;
                 }
             }
 
-            for (Object removeKey : removeList) {
-                states.remove(removeKey);
-            }
-
-            if (removeList.size() < (currentCollectionSize / 5)) {
+            if (countRemoved < (currentCollectionSize / 5)) {
                 currentCollectionSize *= 2;
             }
         }
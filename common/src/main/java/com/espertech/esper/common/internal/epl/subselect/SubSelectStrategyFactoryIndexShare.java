@@ -24,6 +24,7 @@ import com.espertech.esper.common.internal.epl.lookupplansubord.SubordinateQuery
 import com.espertech.esper.common.internal.epl.namedwindow.core.NamedWindow;
 import com.espertech.esper.common.internal.epl.namedwindow.core.NamedWindowInstance;
 import com.espertech.esper.common.internal.epl.table.core.Table;
+import com.espertech.esper.common.internal.epl.table.core.TableEvalLockUtil;
 import com.espertech.esper.common.internal.epl.table.core.TableInstance;
 import com.espertech.esper.common.internal.view.core.Viewable;
 
@@ -112,7 +113,7 @@ public class SubSelectStrategyFactoryIndexShare implements SubSelectStrategyFact
         } else {
             TableInstance instance = table.getTableInstance(agentInstanceContext.getAgentInstanceId());
             Lock lock = agentInstanceContext.getStatementContext().getStatementInformationals().isWritesToTables() ?
-                    instance.getTableLevelRWLock().writeLock() : instance.getTableLevelRWLock().readLock();
+                    TableEvalLockUtil.getRowWriteLock(instance) : instance.getTableLevelRWLock().readLock();
             if (queryPlan == null) {
                 subqueryLookup = new SubordFullTableScanTableLookupStrategy(lock, instance.getIterableTableScan());
             } else {
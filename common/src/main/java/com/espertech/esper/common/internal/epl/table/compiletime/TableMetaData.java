@@ -47,6 +47,7 @@ public class TableMetaData implements Copyable<TableMetaData> {
     private int numMethodAggs;
     private IndexMultiKey keyIndexMultiKey;
     private EventTableIndexMetadata indexMetadata = new EventTableIndexMetadata();
+    private boolean concurrent;
 
     public TableMetaData() {
     }
@@ -87,8 +88,10 @@ public class TableMetaData implements Copyable<TableMetaData> {
     }
 
     public TableMetaData copy() {
-        return new TableMetaData(tableName, tableModuleName, tableVisibility, optionalContextName, optionalContextVisibility, optionalContextModule,
+        TableMetaData copy = new TableMetaData(tableName, tableModuleName, tableVisibility, optionalContextName, optionalContextVisibility, optionalContextModule,
             internalEventType, publicEventType, keyColumns, keyTypes, keyColNums, columns, numMethodAggs, keyIndexMultiKey, indexMetadata.copy());
+        copy.setConcurrent(concurrent);
+        return copy;
     }
 
     public void init() {
@@ -125,6 +128,7 @@ public class TableMetaData implements Copyable<TableMetaData> {
             .exprDotMethod(ref("meta"), "setKeyColNums", constant(keyColNums))
             .exprDotMethod(ref("meta"), "setColumns", TableMetadataColumn.makeColumns(columns, method, symbols, classScope))
             .exprDotMethod(ref("meta"), "setNumMethodAggs", constant(numMethodAggs))
+            .exprDotMethod(ref("meta"), "setConcurrent", constant(concurrent))
             .exprDotMethod(ref("meta"), "init")
             .methodReturn(ref("meta"));
         return localMethod(method);
@@ -232,6 +236,14 @@ public class TableMetaData implements Copyable<TableMetaData> {
         return keyTypes != null && keyTypes.length > 0;
     }
 
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    public void setConcurrent(boolean concurrent) {
+        this.concurrent = concurrent;
+    }
+
     public int[] getKeyColNums() {
         return keyColNums;
     }
@@ -51,7 +51,7 @@ public abstract class TableBase implements Table {
     }
 
     public void setEventToPublic(TableMetadataInternalEventToPublic eventToPublic) {
-        this.eventToPublic = eventToPublic;
+        this.eventToPublic = metaData.isConcurrent() ? new TableMetadataInternalEventToPublicConcurrent(eventToPublic) : eventToPublic;
     }
 
     public void setStatementContextCreateTable(StatementContext statementContextCreateTable) {
@@ -13,6 +13,7 @@ package com.espertech.esper.common.internal.epl.table.core;
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
 
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 
 public class TableEvalLockUtil {
 
@@ -32,4 +33,16 @@ public class TableEvalLockUtil {
             lock.lock();
         }
     }
+
+    /**
+     * Returns the table-level lock for statements that aggregate into a table, insert into a table or otherwise write to a table,
+     * which is the write lock except for a concurrent table, for which such statements lock rows and obtain the read lock.
+     *
+     * @param instance table instance
+     * @return lock
+     */
+    public static Lock getRowWriteLock(TableInstance instance) {
+        ReadWriteLock rwLock = instance.getTableLevelRWLock();
+        return instance.getTable().getMetaData().isConcurrent() ? rwLock.readLock() : rwLock.writeLock();
+    }
 }
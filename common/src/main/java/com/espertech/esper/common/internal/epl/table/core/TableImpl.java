@@ -35,7 +35,7 @@ public class TableImpl extends TableBase {
 
     public TableAndLockProvider getStateProvider(int agentInstanceId, boolean writesToTables) {
         TableInstance instance = getTableInstance(agentInstanceId);
-        Lock lock = writesToTables ? instance.getTableLevelRWLock().writeLock() : instance.getTableLevelRWLock().readLock();
+        Lock lock = writesToTables ? TableEvalLockUtil.getRowWriteLock(instance) : instance.getTableLevelRWLock().readLock();
         if (instance instanceof TableInstanceGrouped) {
             return new TableAndLockProviderGroupedImpl(new TableAndLockGrouped(lock, (TableInstanceGrouped) instance));
         } else {
@@ -0,0 +1,88 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.table.core;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.common.internal.epl.expression.core.ExprValidationException;
+import com.espertech.esper.common.internal.epl.index.hash.PropertyHashedEventTableUniqueConcurrent;
+import com.espertech.esper.common.internal.epl.join.queryplan.QueryPlanIndexItem;
+import com.espertech.esper.common.internal.event.core.ObjectArrayBackedEventBean;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Grouped table instance for a concurrent table.
+ * <p>
+ * Rows are kept in a concurrent primary key index so that statements that aggregate into the table or insert into the table
+ * may look up and add rows while holding the table-level read lock, see {@link TableEvalLockUtil#getRowWriteLock(TableInstance)}.
+ * Adding a row is serialized by an instance-level lock. Changing or reading the aggregation state of a row
+ * is synchronized on the row itself.
+ */
+public class TableInstanceGroupedConcurrentImpl extends TableInstanceGroupedImpl {
+
+    private final ReentrantLock addLock = new ReentrantLock();
+
+    public TableInstanceGroupedConcurrentImpl(Table table, AgentInstanceContext agentInstanceContext) {
+        super(table, agentInstanceContext, new PropertyHashedEventTableUniqueConcurrent(table.getPrimaryIndexFactory()));
+    }
+
+    public void addEvent(EventBean event) {
+        addLock.lock();
+        try {
+            super.addEvent(event);
+        } finally {
+            addLock.unlock();
+        }
+    }
+
+    public ObjectArrayBackedEventBean getRowForGroupKey(Object groupKey) {
+        return rows.get(PropertyHashedEventTableUniqueConcurrent.toIndexKey(groupKey));
+    }
+
+    public ObjectArrayBackedEventBean getCreateRowIntoTable(Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        Object indexKey = PropertyHashedEventTableUniqueConcurrent.toIndexKey(groupByKey);
+        ObjectArrayBackedEventBean bean = rows.get(indexKey);
+        if (bean != null) {
+            return bean;
+        }
+        addLock.lock();
+        try {
+            bean = rows.get(indexKey);
+            if (bean != null) {
+                return bean;
+            }
+            return createRowIntoTable(groupByKey);
+        } finally {
+            addLock.unlock();
+        }
+    }
+
+    public Collection<Object> getGroupKeys() {
+        Class[] keyTypes = table.getMetaData().getKeyTypes();
+        if (keyTypes.length != 1 || keyTypes[0].isArray()) {
+            return super.getGroupKeys();
+        }
+        List<Object> keys = new ArrayList<>(rows.size());
+        for (Object indexKey : rows.keySet()) {
+            keys.add(PropertyHashedEventTableUniqueConcurrent.fromIndexKey(indexKey));
+        }
+        return keys;
+    }
+
+    public void addExplicitIndex(String indexName, String indexModuleName, QueryPlanIndexItem explicitIndexDesc, boolean isRecoveringResilient) throws ExprValidationException {
+        throw new ExprValidationException("Concurrent tables do not allow creating an index");
+    }
+}
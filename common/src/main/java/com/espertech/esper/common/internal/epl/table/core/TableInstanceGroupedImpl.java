@@ -24,12 +24,15 @@ import java.util.*;
 
 public class TableInstanceGroupedImpl extends TableInstanceGroupedBase implements TableInstanceGrouped {
 
-    private final Map<Object, ObjectArrayBackedEventBean> rows;
+    protected final Map<Object, ObjectArrayBackedEventBean> rows;
 
     public TableInstanceGroupedImpl(Table table, AgentInstanceContext agentInstanceContext) {
+        this(table, agentInstanceContext, (PropertyHashedEventTableUnique) table.getPrimaryIndexFactory().makeEventTables(agentInstanceContext, null)[0]);
+    }
+
+    protected TableInstanceGroupedImpl(Table table, AgentInstanceContext agentInstanceContext, PropertyHashedEventTableUnique eventTable) {
         super(table, agentInstanceContext);
 
-        PropertyHashedEventTableUnique eventTable = (PropertyHashedEventTableUnique) table.getPrimaryIndexFactory().makeEventTables(agentInstanceContext, null)[0];
         rows = (Map<Object, ObjectArrayBackedEventBean>) (Map) eventTable.getPropertyIndex();
         indexRepository.addIndex(table.getMetaData().getKeyIndexMultiKey(), new EventTableIndexRepositoryEntry(table.getMetaData().getTableName(), table.getMetaData().getTableModuleName(), eventTable));
     }
@@ -33,6 +33,9 @@ public class TableManagementServiceImpl extends TableManagementServiceBase {
         if (!table.getMetaData().isKeyed()) {
             return new TableInstanceUngroupedImpl(table, agentInstanceContext);
         }
+        if (table.getMetaData().isConcurrent()) {
+            return new TableInstanceGroupedConcurrentImpl(table, agentInstanceContext);
+        }
         return new TableInstanceGroupedImpl(table, agentInstanceContext);
     }
 }
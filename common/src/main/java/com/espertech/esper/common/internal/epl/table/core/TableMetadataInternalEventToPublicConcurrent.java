@@ -0,0 +1,43 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.table.core;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.epl.agg.core.AggregationRow;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.common.internal.epl.table.strategy.ExprTableEvalStrategyUtil;
+import com.espertech.esper.common.internal.event.core.ObjectArrayBackedEventBean;
+
+/**
+ * Converts rows of a concurrent table to public events while holding the row, so that iteration, joins, subqueries
+ * and fire-and-forget queries, which hold only the table-level read lock, obtain a consistent copy of the row.
+ */
+public class TableMetadataInternalEventToPublicConcurrent implements TableMetadataInternalEventToPublic {
+    private final TableMetadataInternalEventToPublic inner;
+
+    public TableMetadataInternalEventToPublicConcurrent(TableMetadataInternalEventToPublic inner) {
+        this.inner = inner;
+    }
+
+    public EventBean convert(EventBean event, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        AggregationRow row = ExprTableEvalStrategyUtil.getRow((ObjectArrayBackedEventBean) event);
+        synchronized (row) {
+            return inner.convert(event, eventsPerStream, isNewData, context);
+        }
+    }
+
+    public Object[] convertToUnd(EventBean event, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        AggregationRow row = ExprTableEvalStrategyUtil.getRow((ObjectArrayBackedEventBean) event);
+        synchronized (row) {
+            return inner.convertToUnd(event, eventsPerStream, isNewData, context);
+        }
+    }
+}
@@ -24,22 +24,54 @@ public class ExprTableEvalStrategyGroupedAggAccessRead extends ExprTableEvalStra
 
     public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
         AggregationRow aggs = getAggregationRow(eventsPerStream, isNewData, exprEvaluatorContext);
-        return aggs == null ? null : factory.getAggregationMethod().getValue(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, exprEvaluatorContext);
+        if (aggs == null) {
+            return null;
+        }
+        if (!rowLocking) {
+            return factory.getAggregationMethod().getValue(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, exprEvaluatorContext);
+        }
+        synchronized (aggs) {
+            return ExprTableEvalStrategyUtil.snapshotValue(factory.getAggregationMethod().getValue(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, exprEvaluatorContext));
+        }
     }
 
     public Collection<EventBean> evaluateGetROCollectionEvents(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
         AggregationRow aggs = getAggregationRow(eventsPerStream, isNewData, context);
-        return aggs == null ? null : factory.getAggregationMethod().getValueCollectionEvents(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, context);
+        if (aggs == null) {
+            return null;
+        }
+        if (!rowLocking) {
+            return factory.getAggregationMethod().getValueCollectionEvents(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, context);
+        }
+        synchronized (aggs) {
+            return ExprTableEvalStrategyUtil.snapshot(factory.getAggregationMethod().getValueCollectionEvents(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, context));
+        }
     }
 
     public EventBean evaluateGetEventBean(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
         AggregationRow aggs = getAggregationRow(eventsPerStream, isNewData, context);
-        return aggs == null ? null : factory.getAggregationMethod().getValueEventBean(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, context);
+        if (aggs == null) {
+            return null;
+        }
+        if (!rowLocking) {
+            return factory.getAggregationMethod().getValueEventBean(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, context);
+        }
+        synchronized (aggs) {
+            return factory.getAggregationMethod().getValueEventBean(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, context);
+        }
     }
 
     public Collection evaluateGetROCollectionScalar(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
         AggregationRow aggs = getAggregationRow(eventsPerStream, isNewData, context);
-        return aggs == null ? null : factory.getAggregationMethod().getValueCollectionScalar(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, context);
+        if (aggs == null) {
+            return null;
+        }
+        if (!rowLocking) {
+            return factory.getAggregationMethod().getValueCollectionScalar(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, context);
+        }
+        synchronized (aggs) {
+            return ExprTableEvalStrategyUtil.snapshot(factory.getAggregationMethod().getValueCollectionScalar(factory.getAggColumnNum(), aggs, eventsPerStream, isNewData, context));
+        }
     }
 
     public Object[] evaluateTypableSingle(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
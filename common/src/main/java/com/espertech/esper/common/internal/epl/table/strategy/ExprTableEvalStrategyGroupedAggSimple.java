@@ -24,12 +24,28 @@ public class ExprTableEvalStrategyGroupedAggSimple extends ExprTableEvalStrategy
 
     public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
         AggregationRow aggs = getAggregationRow(eventsPerStream, isNewData, exprEvaluatorContext);
-        return aggs == null ? null : aggs.getValue(factory.getAggColumnNum(), eventsPerStream, isNewData, exprEvaluatorContext);
+        if (aggs == null) {
+            return null;
+        }
+        if (!rowLocking) {
+            return aggs.getValue(factory.getAggColumnNum(), eventsPerStream, isNewData, exprEvaluatorContext);
+        }
+        synchronized (aggs) {
+            return aggs.getValue(factory.getAggColumnNum(), eventsPerStream, isNewData, exprEvaluatorContext);
+        }
     }
 
     public Collection<EventBean> evaluateGetROCollectionEvents(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
         AggregationRow aggs = getAggregationRow(eventsPerStream, isNewData, context);
-        return aggs == null ? null : aggs.getCollectionOfEvents(factory.getAggColumnNum(), eventsPerStream, isNewData, context);
+        if (aggs == null) {
+            return null;
+        }
+        if (!rowLocking) {
+            return aggs.getCollectionOfEvents(factory.getAggColumnNum(), eventsPerStream, isNewData, context);
+        }
+        synchronized (aggs) {
+            return ExprTableEvalStrategyUtil.snapshot(aggs.getCollectionOfEvents(factory.getAggColumnNum(), eventsPerStream, isNewData, context));
+        }
     }
 
     public EventBean evaluateGetEventBean(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
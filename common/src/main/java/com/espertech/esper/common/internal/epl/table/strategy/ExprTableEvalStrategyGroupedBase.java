@@ -21,10 +21,12 @@ public abstract class ExprTableEvalStrategyGroupedBase implements ExprTableEvalS
 
     private final TableAndLockProviderGrouped provider;
     protected final ExprTableEvalStrategyFactory factory;
+    protected final boolean rowLocking;
 
     public ExprTableEvalStrategyGroupedBase(TableAndLockProviderGrouped provider, ExprTableEvalStrategyFactory factory) {
         this.provider = provider;
         this.factory = factory;
+        this.rowLocking = factory.getTable().getMetaData().isConcurrent();
     }
 
     protected TableInstanceGrouped lockTableRead(ExprEvaluatorContext context) {
@@ -11,6 +11,7 @@
 package com.espertech.esper.common.internal.epl.table.strategy;
 
 import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.epl.agg.core.AggregationRow;
 import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.common.internal.event.core.ObjectArrayBackedEventBean;
 
@@ -27,7 +28,13 @@ public class ExprTableEvalStrategyGroupedTopLevel extends ExprTableEvalStrategyG
         if (row == null) {
             return null;
         }
-        return ExprTableEvalStrategyUtil.evalMap(row, ExprTableEvalStrategyUtil.getRow(row), factory.getTable().getMetaData().getColumns(), eventsPerStream, isNewData, exprEvaluatorContext);
+        AggregationRow aggs = ExprTableEvalStrategyUtil.getRow(row);
+        if (!rowLocking) {
+            return ExprTableEvalStrategyUtil.evalMap(row, aggs, factory.getTable().getMetaData().getColumns(), eventsPerStream, isNewData, exprEvaluatorContext);
+        }
+        synchronized (aggs) {
+            return ExprTableEvalStrategyUtil.evalMap(row, aggs, factory.getTable().getMetaData().getColumns(), eventsPerStream, isNewData, exprEvaluatorContext);
+        }
     }
 
     public Object[] evaluateTypableSingle(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
@@ -35,7 +42,13 @@ public class ExprTableEvalStrategyGroupedTopLevel extends ExprTableEvalStrategyG
         if (row == null) {
             return null;
         }
-        return ExprTableEvalStrategyUtil.evalTypable(row, ExprTableEvalStrategyUtil.getRow(row), factory.getTable().getMetaData().getColumns(), eventsPerStream, isNewData, context);
+        AggregationRow aggs = ExprTableEvalStrategyUtil.getRow(row);
+        if (!rowLocking) {
+            return ExprTableEvalStrategyUtil.evalTypable(row, aggs, factory.getTable().getMetaData().getColumns(), eventsPerStream, isNewData, context);
+        }
+        synchronized (aggs) {
+            return ExprTableEvalStrategyUtil.evalTypable(row, aggs, factory.getTable().getMetaData().getColumns(), eventsPerStream, isNewData, context);
+        }
     }
 
     public Collection<EventBean> evaluateGetROCollectionEvents(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
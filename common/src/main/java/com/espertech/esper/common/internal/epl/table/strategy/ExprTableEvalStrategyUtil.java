@@ -24,6 +24,8 @@ import com.espertech.esper.common.internal.epl.table.compiletime.TableMetadataCo
 import com.espertech.esper.common.internal.epl.table.compiletime.TableMetadataColumnPlain;
 import com.espertech.esper.common.internal.event.core.ObjectArrayBackedEventBean;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -35,6 +37,28 @@ public class ExprTableEvalStrategyUtil {
         return (AggregationRow) eventBean.getProperties()[0];
     }
 
+    /**
+     * Returns a copy of a collection-typed aggregation value, for use with a concurrent table
+     * where the row may change after the reader releases the row.
+     *
+     * @param value value
+     * @return copy if the value is a collection, or the value itself
+     */
+    public static Object snapshotValue(Object value) {
+        return value instanceof Collection ? new ArrayList<>((Collection) value) : value;
+    }
+
+    /**
+     * Returns a copy of a collection, see {@link #snapshotValue(Object)}.
+     *
+     * @param collection collection
+     * @param <T>        element type
+     * @return copy or null
+     */
+    public static <T> Collection<T> snapshot(Collection<T> collection) {
+        return collection == null ? null : new ArrayList<>(collection);
+    }
+
     public static CodegenExpression codegenInitMap(Map<ExprTableAccessNode, ExprTableEvalStrategyFactoryForge> tableAccesses, Class generator, CodegenMethodScope parent, SAIFFInitializeSymbol symbols, CodegenClassScope classScope) {
         CodegenMethod method = parent.makeChild(Map.class, generator, classScope);
         method.getBlock()
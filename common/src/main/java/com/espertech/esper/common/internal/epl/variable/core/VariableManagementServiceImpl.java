@@ -83,6 +83,10 @@ import static com.espertech.esper.common.internal.context.util.StatementCPCacheS
  * newly created and any existing threads that read versions go against a (old) high-collection,
  * while new threads reading the reset version go against a new low-collection.
  * <p>
+ * When lock-free reads are enabled, each variable keeps its versions as an immutable chain that readers traverse
+ * without taking the read lock. Each thread publishes the version it reads, and a write releases the versions
+ * that are older then the oldest published version instead of relying on the lifetime of old versions alone.
+ * <p>
  * The class also allows an optional state handler to be plugged in to handle persistence for variable state.
  * The state handler gets invoked when a variable changes value, and when a variable gets created
  * to obtain the current value from persistence, if any.
@@ -115,7 +119,10 @@ public class VariableManagementServiceImpl implements VariableManagementService
     private final ReadWriteLock readWriteLock;
 
     // Thread-local for the visible version per thread
-    private VariableVersionThreadLocal versionThreadLocal = new VariableVersionThreadLocal();
+    private VariableVersionThreadLocal versionThreadLocal;
+
+    // Whether versions are read lock-free and released based on versions published by readers
+    private final boolean lockFreeReads;
 
     // Number of milliseconds that old versions of a variable are allowed to live
     private final long millisecondLifetimeOldVersions;
@@ -135,7 +142,20 @@ public class VariableManagementServiceImpl implements VariableManagementService
      * @param eventBeanTypedEventFactory     event adapters
      */
     public VariableManagementServiceImpl(long millisecondLifetimeOldVersions, TimeProvider timeProvider, EventBeanTypedEventFactory eventBeanTypedEventFactory, VariableStateNonConstHandler optionalStateHandler) {
-        this(0, millisecondLifetimeOldVersions, timeProvider, eventBeanTypedEventFactory, optionalStateHandler);
+        this(0, millisecondLifetimeOldVersions, false, timeProvider, eventBeanTypedEventFactory, optionalStateHandler);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param millisecondLifetimeOldVersions number of milliseconds a version may hang around before expiry
+     * @param lockFreeReads                  true for lock-free reads and releasing versions based on versions published by readers
+     * @param timeProvider                   provides the current time
+     * @param optionalStateHandler           a optional plug-in that may store variable state and retrieve state upon creation
+     * @param eventBeanTypedEventFactory     event adapters
+     */
+    public VariableManagementServiceImpl(long millisecondLifetimeOldVersions, boolean lockFreeReads, TimeProvider timeProvider, EventBeanTypedEventFactory eventBeanTypedEventFactory, VariableStateNonConstHandler optionalStateHandler) {
+        this(0, millisecondLifetimeOldVersions, lockFreeReads, timeProvider, eventBeanTypedEventFactory, optionalStateHandler);
     }
 
     /**
@@ -148,7 +168,23 @@ public class VariableManagementServiceImpl implements VariableManagementService
      * @param eventBeanTypedEventFactory     for finding event types
      */
     protected VariableManagementServiceImpl(int startVersion, long millisecondLifetimeOldVersions, TimeProvider timeProvider, EventBeanTypedEventFactory eventBeanTypedEventFactory, VariableStateNonConstHandler optionalStateHandler) {
+        this(startVersion, millisecondLifetimeOldVersions, false, timeProvider, eventBeanTypedEventFactory, optionalStateHandler);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param startVersion                   the first version number to start from
+     * @param millisecondLifetimeOldVersions number of milliseconds a version may hang around before expiry
+     * @param lockFreeReads                  true for lock-free reads and releasing versions based on versions published by readers
+     * @param timeProvider                   provides the current time
+     * @param optionalStateHandler           a optional plug-in that may store variable state and retrieve state upon creation
+     * @param eventBeanTypedEventFactory     for finding event types
+     */
+    protected VariableManagementServiceImpl(int startVersion, long millisecondLifetimeOldVersions, boolean lockFreeReads, TimeProvider timeProvider, EventBeanTypedEventFactory eventBeanTypedEventFactory, VariableStateNonConstHandler optionalStateHandler) {
         this.millisecondLifetimeOldVersions = millisecondLifetimeOldVersions;
+        this.lockFreeReads = lockFreeReads;
+        this.versionThreadLocal = new VariableVersionThreadLocal(lockFreeReads);
         this.timeProvider = timeProvider;
         this.eventBeanTypedEventFactory = eventBeanTypedEventFactory;
         this.optionalStateHandler = optionalStateHandler;
@@ -160,7 +196,7 @@ public class VariableManagementServiceImpl implements VariableManagementService
     }
 
     public void destroy() {
-        versionThreadLocal = new VariableVersionThreadLocal();
+        versionThreadLocal = new VariableVersionThreadLocal(lockFreeReads);
     }
 
     public synchronized void removeVariableIfFound(String deploymentId, String variableName) {
@@ -194,7 +230,12 @@ public class VariableManagementServiceImpl implements VariableManagementService
     }
 
     public void setLocalVersion() {
-        versionThreadLocal.getCurrentThread().setVersion(currentVersionNumber);
+        VariableVersionThreadEntry entry = versionThreadLocal.getCurrentThread();
+        int version = currentVersionNumber;
+        entry.setVersion(version);
+        if (lockFreeReads) {
+            entry.setReadVersion(version);
+        }
     }
 
     public void registerCallback(String deploymentId, String variableName, int agentInstanceId, VariableChangeCallback variableChangeCallback) {
@@ -344,7 +385,7 @@ public class VariableManagementServiceImpl implements VariableManagementService
 
         // create new holder for versions
         long timestamp = timeProvider.getTime();
-        VersionedValueList<Object> valuePerVersion = new VersionedValueList<>(variableName, currentVersionNumber, initialState, timestamp, millisecondLifetimeOldVersions, readWriteLock.readLock(), HIGH_WATERMARK_VERSIONS, false);
+        VersionedValueList<Object> valuePerVersion = makeVersions(variableName, currentVersionNumber, initialState, timestamp);
         Map<Integer, VariableReader> cps = variableVersionsPerCP.get(variable.getVariableNumber());
         VariableReader reader = new VariableReader(variable, versionThreadLocal, valuePerVersion);
         cps.put(agentInstanceId, reader);
@@ -476,7 +517,7 @@ public class VariableManagementServiceImpl implements VariableManagementService
                 // Construct a new collection, forgetting the history
                 VersionedValueList<Object> versionsOld = entry.getValue().getVersionsLow();
                 Object currentValue = versionsOld.getCurrentAndPriorValue().getCurrentVersion().getValue();
-                VersionedValueList<Object> versionsNew = new VersionedValueList<Object>(name, 1, currentValue, timestamp, millisecondLifetimeOldVersions, readWriteLock.readLock(), HIGH_WATERMARK_VERSIONS, false);
+                VersionedValueList<Object> versionsNew = makeVersions(name, 1, currentValue, timestamp);
 
                 // Tell the reader to use the high collection for old requests
                 entry.getValue().setVersionsHigh(versionsOld);
@@ -485,6 +526,13 @@ public class VariableManagementServiceImpl implements VariableManagementService
         }
     }
 
+    private VersionedValueList<Object> makeVersions(String name, int initialVersion, Object initialValue, long timestamp) {
+        if (lockFreeReads) {
+            return new VersionedValueListLockFree<>(name, initialVersion, initialValue, timestamp, millisecondLifetimeOldVersions, versionThreadLocal, HIGH_WATERMARK_VERSIONS, false);
+        }
+        return new VersionedValueList<>(name, initialVersion, initialValue, timestamp, millisecondLifetimeOldVersions, readWriteLock.readLock(), HIGH_WATERMARK_VERSIONS, false);
+    }
+
     public void checkAndWrite(String deploymentId, String variableName, int agentInstanceId, Object newValue) throws VariableValueException {
         VariableDeployment entry = deploymentsWithVariables.get(deploymentId);
         if (entry == null) {
@@ -20,6 +20,7 @@ import java.util.Map;
 public class VariableVersionThreadEntry {
     private Integer version;
     private Map<Integer, Pair<Integer, Object>> uncommitted;
+    private volatile int readVersion = Integer.MAX_VALUE;
 
     /**
      * Ctor.
@@ -67,4 +68,23 @@ public class VariableVersionThreadEntry {
     public void setUncommitted(Map<Integer, Pair<Integer, Object>> uncommitted) {
         this.uncommitted = uncommitted;
     }
+
+    /**
+     * Returns the version that the thread published as the oldest version it may read, for use by writers
+     * in releasing older versions when variable reads are lock-free.
+     *
+     * @return version number, or {@link Integer#MAX_VALUE} if none published
+     */
+    public int getReadVersion() {
+        return readVersion;
+    }
+
+    /**
+     * Publishes the version that the thread may read.
+     *
+     * @param readVersion version number
+     */
+    public void setReadVersion(int readVersion) {
+        this.readVersion = readVersion;
+    }
 }
@@ -10,20 +10,38 @@
  */
 package com.espertech.esper.common.internal.epl.variable.core;
 
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 /**
  * A wrapper for a thread-local to hold the current version for variables visible for a thread, as well
  * as uncommitted values of variables for a thread.
+ * <p>
+ * When tracking read versions, the entry of each thread is also registered so that writers can determine
+ * the oldest version that any live thread may still read.
  */
 public class VariableVersionThreadLocal {
     private ThreadLocal<VariableVersionThreadEntry> perThreadVersion;
+    private final ConcurrentLinkedQueue<ThreadEntryReference> readers;
 
     /**
      * Ctor.
      */
     public VariableVersionThreadLocal() {
+        this(false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param trackReadVersions true to register the entry of each thread for determining the oldest read version
+     */
+    public VariableVersionThreadLocal(boolean trackReadVersions) {
+        readers = trackReadVersions ? new ConcurrentLinkedQueue<>() : null;
         perThreadVersion = new ThreadLocal<VariableVersionThreadEntry>() {
             protected synchronized VariableVersionThreadEntry initialValue() {
-                return new VariableVersionThreadEntry(0, null);
+                return newEntry();
             }
         };
     }
@@ -36,9 +54,54 @@ public class VariableVersionThreadLocal {
     public VariableVersionThreadEntry getCurrentThread() {
         VariableVersionThreadEntry entry = perThreadVersion.get();
         if (entry == null) {
-            entry = new VariableVersionThreadEntry(0, null);
+            entry = newEntry();
             perThreadVersion.set(entry);
         }
         return entry;
     }
+
+    /**
+     * Returns the oldest version published by any live thread, or the current version if no thread published an older version.
+     * Versions newer than the current version were published before a version roll-over and are ignored.
+     * Removes the entries of threads that are no longer alive.
+     *
+     * @param currentVersion current version
+     * @return oldest version that may still be read
+     */
+    public int getOldestReadVersion(int currentVersion) {
+        int oldest = currentVersion;
+        if (readers == null) {
+            return oldest;
+        }
+        for (Iterator<ThreadEntryReference> it = readers.iterator(); it.hasNext(); ) {
+            ThreadEntryReference reader = it.next();
+            Thread thread = reader.get();
+            if (thread == null || !thread.isAlive()) {
+                it.remove();
+                continue;
+            }
+            int version = reader.entry.getReadVersion();
+            if (version < oldest) {
+                oldest = version;
+            }
+        }
+        return oldest;
+    }
+
+    private VariableVersionThreadEntry newEntry() {
+        VariableVersionThreadEntry entry = new VariableVersionThreadEntry(0, null);
+        if (readers != null) {
+            readers.add(new ThreadEntryReference(Thread.currentThread(), entry));
+        }
+        return entry;
+    }
+
+    private static class ThreadEntryReference extends WeakReference<Thread> {
+        private final VariableVersionThreadEntry entry;
+
+        ThreadEntryReference(Thread thread, VariableVersionThreadEntry entry) {
+            super(thread);
+            this.entry = entry;
+        }
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.variable.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A list of versioned-values for lock-free reads, that releases versions once no thread may read them anymore.
+ * <p>
+ * The versions are kept as an immutable chain from newest to oldest, with the newest version held in a volatile variable.
+ * Readers traverse the chain without taking a lock. A write prepends a new version and then truncates the chain
+ * below the newest version that is as old as or older then the oldest version any thread published as its read version.
+ * A reader never needs a version below that point and a reader that still sees a truncated part of the chain
+ * only finds versions that are valid for it.
+ * <p>
+ * When the high watermark is reached, the list on write also removes versions older then the number of milliseconds
+ * compared to the current write timestamp, so that threads that stopped processing do not retain versions indefinitely.
+ * <p>
+ * Writes must be serialized by the caller.
+ */
+public class VersionedValueListLockFree<T> extends VersionedValueList<T> {
+    private static final Logger log = LoggerFactory.getLogger(VersionedValueListLockFree.class);
+
+    private final VariableVersionThreadLocal versionThreadLocal;
+    private final int highWatermark;
+    private final boolean errorWhenNotFound;
+    private final long millisecondLifetimeOldVersions;
+
+    private volatile VersionNode<T> newest;
+
+    /**
+     * Ctor.
+     *
+     * @param name                           variable name
+     * @param initialVersion                 first version number
+     * @param initialValue                   first value
+     * @param timestamp                      timestamp of first version
+     * @param millisecondLifetimeOldVersions number of milliseconds after which versions of threads that stopped processing get removed
+     * @param versionThreadLocal             provides the oldest version published by reading threads
+     * @param highWatermark                  when the number of versions reached high watermark, the list inspects timestamps on every write
+     * @param errorWhenNotFound              true if an exception should be throw if the requested version cannot be found,
+     *                                       or false if the runtime should log a warning
+     */
+    public VersionedValueListLockFree(String name, int initialVersion, T initialValue, long timestamp, long millisecondLifetimeOldVersions, VariableVersionThreadLocal versionThreadLocal, int highWatermark, boolean errorWhenNotFound) {
+        super(name, initialVersion, initialValue, timestamp, millisecondLifetimeOldVersions, null, highWatermark, errorWhenNotFound);
+        this.versionThreadLocal = versionThreadLocal;
+        this.highWatermark = highWatermark;
+        this.errorWhenNotFound = errorWhenNotFound;
+        this.millisecondLifetimeOldVersions = millisecondLifetimeOldVersions;
+        this.newest = new VersionNode<>(initialVersion, initialValue, timestamp, null);
+    }
+
+    public T getVersion(int versionAndOlder) {
+        VersionNode<T> head = newest;
+        int count = 0;
+        for (VersionNode<T> node = head; node != null; node = node.older) {
+            if (node.version <= versionAndOlder) {
+                return node.value;
+            }
+            count++;
+        }
+
+        String text = "Variables value for version '" + versionAndOlder + "' and older could not be found" +
+                " (currentVersion=" + head.version + " numVersions=" + count + ")";
+        if (errorWhenNotFound) {
+            throw new IllegalStateException(text);
+        }
+        log.warn(text);
+        return head.value;
+    }
+
+    public Object addValue(int version, T value, long timestamp) {
+        VersionNode<T> prior = newest;
+        VersionNode<T> node = new VersionNode<>(version, value, timestamp, prior);
+        newest = node;
+        release(node, versionThreadLocal.getOldestReadVersion(version - 1), timestamp - millisecondLifetimeOldVersions);
+        return prior.value;
+    }
+
+    protected CurrentValue<T> getCurrentAndPriorValue() {
+        VersionNode<T> head = newest;
+        VersionNode<T> prior = head.older;
+        return new CurrentValue<>(new VersionedValue<>(head.version, head.value, head.timestamp),
+                prior == null ? new VersionedValue<>(-1, null, head.timestamp) : new VersionedValue<>(prior.version, prior.value, prior.timestamp));
+    }
+
+    /**
+     * Returns the number of versions held, for testing purposes.
+     *
+     * @return number of versions
+     */
+    protected int getNumVersions() {
+        int count = 0;
+        for (VersionNode<T> node = newest; node != null; node = node.older) {
+            count++;
+        }
+        return count;
+    }
+
+    public String toString() {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("Variable '").append(getName()).append("' ");
+        int count = 0;
+        for (VersionNode<T> node = newest; node != null; node = node.older) {
+            buffer.append(" version(").append(count).append(")=").append(node.version).append(" value=").append(node.value).append("\n");
+            count++;
+        }
+        return buffer.toString();
+    }
+
+    private void release(VersionNode<T> head, int oldestReadVersion, long expireBefore) {
+        int count = 0;
+        for (VersionNode<T> node = head; node != null; node = node.older) {
+            count++;
+            if (node.version <= oldestReadVersion || (count >= highWatermark && node.timestamp <= expireBefore)) {
+                node.older = null;
+                return;
+            }
+        }
+    }
+
+    private static class VersionNode<T> {
+        private final int version;
+        private final T value;
+        private final long timestamp;
+
+        // not volatile: a reader that still sees a released older version only finds versions it does not need
+        private VersionNode<T> older;
+
+        VersionNode(int version, T value, long timestamp, VersionNode<T> older) {
+            this.version = version;
+            this.value = value;
+            this.timestamp = timestamp;
+            this.older = older;
+        }
+    }
+}
@@ -10,7 +10,6 @@
  */
 package com.espertech.esper.common.internal.event.avro;
 
-import com.espertech.esper.common.client.EPException;
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventSender;
 import com.espertech.esper.common.client.EventType;
@@ -18,16 +17,21 @@ import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactory
 import com.espertech.esper.common.internal.event.util.EPRuntimeEventProcessWrapped;
 import com.espertech.esper.common.internal.statement.thread.ThreadingCommon;
 
+import java.nio.ByteBuffer;
+
 /**
  * Event sender for avro-backed events.
  * <p>
- * Allows sending only event objects of type GenericData.Record, does not check contents. Any other event object generates an error.
+ * Allows sending only event objects of type GenericData.Record, does not check contents,
+ * or Avro binary-encoded records as byte[] or ByteBuffer encoded with the schema of the event type,
+ * which are decoded into records that only decode field values when first read. Any other event object generates an error.
  */
 public class EventSenderAvro implements EventSender {
     private final EPRuntimeEventProcessWrapped runtimeEventSender;
     private final EventBeanTypedEventFactory eventBeanTypedEventFactory;
     private final EventType eventType;
     private final ThreadingCommon threadingService;
+    private final EventTypeAvroHandler eventTypeAvroHandler;
 
     /**
      * Ctor.
@@ -36,16 +40,18 @@ public class EventSenderAvro implements EventSender {
      * @param eventType                  the event type
      * @param threadingService           for inbound threading
      * @param eventBeanTypedEventFactory for event bean creation
+     * @param eventTypeAvroHandler       for decoding Avro binary
      */
-    public EventSenderAvro(EPRuntimeEventProcessWrapped runtimeEventSender, EventType eventType, EventBeanTypedEventFactory eventBeanTypedEventFactory, ThreadingCommon threadingService) {
+    public EventSenderAvro(EPRuntimeEventProcessWrapped runtimeEventSender, EventType eventType, EventBeanTypedEventFactory eventBeanTypedEventFactory, ThreadingCommon threadingService, EventTypeAvroHandler eventTypeAvroHandler) {
         this.runtimeEventSender = runtimeEventSender;
         this.eventType = eventType;
         this.threadingService = threadingService;
         this.eventBeanTypedEventFactory = eventBeanTypedEventFactory;
+        this.eventTypeAvroHandler = eventTypeAvroHandler;
     }
 
     public void sendEvent(Object theEvent) {
-        EventBean eventBean = eventBeanTypedEventFactory.adapterForTypedAvro(theEvent, eventType);
+        EventBean eventBean = eventBeanTypedEventFactory.adapterForTypedAvro(toRecord(theEvent), eventType);
 
         if (threadingService.isInboundThreading()) {
             threadingService.submitInbound(eventBean, runtimeEventSender);
@@ -55,10 +61,14 @@ public class EventSenderAvro implements EventSender {
     }
 
     public void routeEvent(Object theEvent) {
-        if (!(theEvent.getClass().isArray())) {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
-        }
-        EventBean eventBean = eventBeanTypedEventFactory.adapterForTypedAvro(theEvent, eventType);
+        EventBean eventBean = eventBeanTypedEventFactory.adapterForTypedAvro(toRecord(theEvent), eventType);
         runtimeEventSender.routeEventBean(eventBean);
     }
+
+    private Object toRecord(Object theEvent) {
+        if (theEvent instanceof byte[] || theEvent instanceof ByteBuffer) {
+            return eventTypeAvroHandler.decodeBinary(theEvent, eventType);
+        }
+        return theEvent;
+    }
 }
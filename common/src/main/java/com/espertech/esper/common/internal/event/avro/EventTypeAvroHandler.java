@@ -45,6 +45,8 @@ public interface EventTypeAvroHandler {
 
     EventBean adapterForTypeAvro(Object avroGenericDataDotRecord, EventType existingType);
 
+    Object decodeBinary(Object avroBinary, EventType existingType);
+
     EventBeanManufacturerForge getEventBeanManufacturer(AvroSchemaEventType avroSchemaEventType, WriteablePropertyDescriptor[] properties);
 
     EventBeanFactory getEventBeanFactory(EventType type, EventBeanTypedEventFactory eventBeanTypedEventFactory);
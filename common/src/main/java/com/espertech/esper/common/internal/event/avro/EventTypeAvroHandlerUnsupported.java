@@ -47,6 +47,10 @@ public class EventTypeAvroHandlerUnsupported implements EventTypeAvroHandler {
         throw getUnsupported();
     }
 
+    public Object decodeBinary(Object avroBinary, EventType existingType) {
+        throw getUnsupported();
+    }
+
     public AvroSchemaEventType newEventTypeFromNormalized(EventTypeMetadata metadata, EventTypeNameResolver eventTypeNameResolver, EventBeanTypedEventFactory eventBeanTypedEventFactory, Map<String, Object> properties, Annotation[] annotations, ConfigurationCommonEventTypeAvro optionalConfig, EventType[] superTypes, Set<EventType> deepSuperTypes, String statementName) {
         throw getUnsupported();
     }
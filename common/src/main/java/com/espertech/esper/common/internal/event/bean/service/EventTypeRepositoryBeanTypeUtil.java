@@ -17,7 +17,9 @@ import com.espertech.esper.common.client.meta.EventTypeApplicationType;
 import com.espertech.esper.common.client.meta.EventTypeIdPair;
 import com.espertech.esper.common.client.meta.EventTypeMetadata;
 import com.espertech.esper.common.client.meta.EventTypeTypeClass;
+import com.espertech.esper.common.client.metric.FilterMetric;
 import com.espertech.esper.common.client.metric.RuntimeMetric;
+import com.espertech.esper.common.client.metric.StatementLatencyMetric;
 import com.espertech.esper.common.client.metric.StatementMetric;
 import com.espertech.esper.common.client.util.EventTypeBusModifier;
 import com.espertech.esper.common.client.util.NameAccessModifier;
@@ -128,6 +130,8 @@ public class EventTypeRepositoryBeanTypeUtil {
     private static void addPredefinedBeanEventTypes(Map<String, Class> resolvedBeanEventTypes) {
         addPredefinedBeanEventType(StatementMetric.class, resolvedBeanEventTypes);
         addPredefinedBeanEventType(RuntimeMetric.class, resolvedBeanEventTypes);
+        addPredefinedBeanEventType(StatementLatencyMetric.class, resolvedBeanEventTypes);
+        addPredefinedBeanEventType(FilterMetric.class, resolvedBeanEventTypes);
     }
 
     private static void addPredefinedBeanEventType(Class clazz, Map<String, Class> resolvedBeanEventTypes) {
@@ -0,0 +1,246 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.json;
+
+import com.espertech.esper.common.client.EPException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scanning and decoding of JSON text for lazily-parsed JSON events.
+ * <p>
+ * Positions are character offsets into the text. Skipping a value only finds its end and does not decode it,
+ * with the exception of strings that are decoded when escaped.
+ */
+public class JsonEventParser {
+
+    /**
+     * Returns the JSON text for a String, UTF-8 encoded byte array or UTF-8 encoded byte buffer.
+     *
+     * @param json text
+     * @return text as string
+     * @throws EPException if the object is not a supported type
+     */
+    public static String toText(Object json) throws EPException {
+        if (json instanceof String) {
+            return (String) json;
+        }
+        if (json instanceof byte[]) {
+            return new String((byte[]) json, StandardCharsets.UTF_8);
+        }
+        if (json instanceof ByteBuffer) {
+            return StandardCharsets.UTF_8.decode(((ByteBuffer) json).duplicate()).toString();
+        }
+        if (json == null) {
+            throw new EPException("Null JSON text provided");
+        }
+        throw new EPException("Unexpected JSON text of type " + json.getClass().getName() + ", expected String, byte[] or " + ByteBuffer.class.getName());
+    }
+
+    /**
+     * Returns true if the object is a String, byte array or byte buffer that can hold JSON text.
+     *
+     * @param json object
+     * @return indicator
+     */
+    public static boolean isText(Object json) {
+        return json instanceof String || json instanceof byte[] || json instanceof ByteBuffer;
+    }
+
+    /**
+     * Returns the position of the first non-whitespace character at or after the position.
+     *
+     * @param text JSON text
+     * @param pos  position
+     * @return position
+     */
+    public static int skipWhitespace(String text, int pos) {
+        int length = text.length();
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the position after the value that starts at the position.
+     *
+     * @param text JSON text
+     * @param pos  value start position
+     * @return position after the value
+     * @throws EPException if the value is not terminated
+     */
+    public static int skipValue(String text, int pos) throws EPException {
+        int length = text.length();
+        if (pos >= length) {
+            throw unexpectedEnd(text);
+        }
+        char c = text.charAt(pos);
+        if (c == '"') {
+            return skipString(text, pos);
+        }
+        if (c == '{' || c == '[') {
+            int depth = 0;
+            while (pos < length) {
+                c = text.charAt(pos);
+                if (c == '"') {
+                    pos = skipString(text, pos);
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        return pos + 1;
+                    }
+                }
+                pos++;
+            }
+            throw unexpectedEnd(text);
+        }
+        int start = pos;
+        while (pos < length) {
+            c = text.charAt(pos);
+            if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                break;
+            }
+            pos++;
+        }
+        if (pos == start) {
+            throw unexpected(text, start, "a value");
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the position after the string that starts at the position.
+     *
+     * @param text JSON text
+     * @param pos  position of the opening quote
+     * @return position after the closing quote
+     * @throws EPException if the string is not terminated
+     */
+    public static int skipString(String text, int pos) throws EPException {
+        int length = text.length();
+        pos++;
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (c == '\\') {
+                pos += 2;
+            } else if (c == '"') {
+                return pos + 1;
+            } else {
+                pos++;
+            }
+        }
+        throw unexpectedEnd(text);
+    }
+
+    /**
+     * Decodes the string that starts at the position.
+     *
+     * @param text JSON text
+     * @param pos  position of the opening quote
+     * @return string
+     * @throws EPException if the string is not valid
+     */
+    public static String decodeString(String text, int pos) throws EPException {
+        if (pos >= text.length() || text.charAt(pos) != '"') {
+            throw unexpected(text, pos, "a string");
+        }
+        int end = skipString(text, pos) - 1;
+        int escape = text.indexOf('\\', pos + 1);
+        if (escape == -1 || escape >= end) {
+            return text.substring(pos + 1, end);
+        }
+
+        StringBuilder builder = new StringBuilder(end - pos);
+        builder.append(text, pos + 1, escape);
+        int index = escape;
+        while (index < end) {
+            char c = text.charAt(index);
+            if (c != '\\') {
+                builder.append(c);
+                index++;
+                continue;
+            }
+            char escaped = text.charAt(index + 1);
+            switch (escaped) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (index + 6 > end) {
+                        throw unexpected(text, index, "a unicode escape");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(text.substring(index + 2, index + 6), 16));
+                    } catch (NumberFormatException ex) {
+                        throw unexpected(text, index, "a unicode escape");
+                    }
+                    index += 4;
+                    break;
+                default:
+                    builder.append(escaped);
+            }
+            index += 2;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the literal or number text that starts at the position.
+     *
+     * @param text JSON text
+     * @param pos  value start position
+     * @return literal text
+     */
+    public static String literal(String text, int pos) {
+        return text.substring(pos, skipValue(text, pos));
+    }
+
+    /**
+     * Returns an exception for input that does not meet expectations.
+     *
+     * @param text     JSON text
+     * @param pos      position
+     * @param expected description of what was expected
+     * @return exception
+     */
+    public static EPException unexpected(String text, int pos, String expected) {
+        if (pos >= text.length()) {
+            return unexpectedEnd(text);
+        }
+        return new EPException("Failed to parse JSON text, expected " + expected + " at position " + pos + " but found '" + text.charAt(pos) + "'");
+    }
+
+    private static EPException unexpectedEnd(String text) {
+        return new EPException("Failed to parse JSON text, unexpected end of text at position " + text.length());
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.json;
+
+import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.internal.util.JavaClassHelper;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.espertech.esper.common.internal.event.json.JsonEventParser.*;
+
+/**
+ * Map of the members of a JSON object that decodes member values only when they are asked for.
+ * <p>
+ * Constructing the map scans the object once to find where each member value starts, without decoding values.
+ * A value is decoded upon first access and the decoded value is retained, so that reading a few properties
+ * of a large object only decodes those few. Values are decoded to the property type of the map event type
+ * when there is one: nested map types become nested maps of the same kind, arrays of nested map types
+ * become arrays of such maps, arrays become arrays of the component type, numbers become the declared numeric type. Values of properties that have no declared type decode to
+ * String, Boolean, Long or Double, Object[] and nested maps.
+ * <p>
+ * Declared properties are looked up by their position in the {@link JsonMapLayout} of the type, other members
+ * by a scan of the members or, for objects with many undeclared members, by a hash lookup.
+ * <p>
+ * The map is read-only and thread-safe. The members are indexed into final fields upon construction, so that
+ * the map, including a nested map, is safely published. Decoded values are published through an atomic reference array.
+ * Concurrent first access may decode a value twice, all threads then return the value that was published first.
+ */
+public class JsonLazyMap extends AbstractMap<String, Object> {
+    private static final Object UNDECODED = new Object();
+    private static final int UNDECLARED_SCAN_MAX = 8;
+
+    private final String text;
+    private final JsonMapLayout layout;
+    private final int[] slots;
+    private final Map<String, Integer> undeclared;
+    private final String[] keys;
+    private final int[] hashes;
+    private final int[] starts;
+    private final AtomicReferenceArray<Object> values;
+    private final int size;
+    private final int end;
+
+    /**
+     * Ctor.
+     *
+     * @param text  JSON text
+     * @param pos   position of the opening brace of the object
+     * @param layout property layout, or null if no properties are declared
+     * @throws EPException if the object is not valid
+     */
+    public JsonLazyMap(String text, int pos, JsonMapLayout layout) throws EPException {
+        Members members = new Members(text, layout);
+        members.index(pos);
+        this.text = text;
+        this.layout = layout;
+        this.slots = members.slots;
+        this.undeclared = members.undeclared;
+        this.keys = members.keys;
+        this.hashes = members.hashes;
+        this.starts = members.starts;
+        this.size = members.size;
+        this.end = members.end;
+        this.values = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            values.lazySet(i, UNDECODED);
+        }
+    }
+
+    /**
+     * Returns a map for JSON text that holds a single object.
+     *
+     * @param json  JSON text as String, UTF-8 encoded byte array or UTF-8 encoded byte buffer
+     * @param types property types, or null if none are declared
+     * @return map
+     * @throws EPException if the text is not a valid object
+     */
+    public static JsonLazyMap parse(Object json, Map<String, Object> types) throws EPException {
+        return parse(json, types == null ? null : new JsonMapLayout(types));
+    }
+
+    /**
+     * Returns a map for JSON text that holds a single object.
+     *
+     * @param json   JSON text as String, UTF-8 encoded byte array or UTF-8 encoded byte buffer
+     * @param layout property layout, or null if no properties are declared
+     * @return map
+     * @throws EPException if the text is not a valid object
+     */
+    public static JsonLazyMap parse(Object json, JsonMapLayout layout) throws EPException {
+        String text = toText(json);
+        JsonLazyMap map = new JsonLazyMap(text, skipWhitespace(text, 0), layout);
+        int pos = skipWhitespace(text, map.end);
+        if (pos != text.length()) {
+            throw unexpected(text, pos, "end of text");
+        }
+        return map;
+    }
+
+    public Object get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int position = layout == null ? -1 : layout.getPosition(key);
+        int index = position == -1 ? indexOfUndeclared(key) : slots[position];
+        if (index == -1) {
+            return null;
+        }
+        Object value = values.get(index);
+        if (value == UNDECODED) {
+            value = decodeValue(text, starts[index], position == -1 ? null : layout.getType(position));
+            if (!values.compareAndSet(index, UNDECODED, value)) {
+                value = values.get(index);
+            }
+        }
+        return value;
+    }
+
+    public boolean containsKey(Object key) {
+        return indexOf(key) != -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Set<String> keySet() {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i < size; i++) {
+            result.add(keys[i]);
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            result.put(keys[i], get(keys[i]));
+        }
+        return Collections.unmodifiableMap(result).entrySet();
+    }
+
+    /**
+     * Returns the number of member values decoded so far, for testing purposes.
+     *
+     * @return number of decoded values
+     */
+    public int getNumDecoded() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (values.get(i) != UNDECODED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int position = layout == null ? -1 : layout.getPosition(key);
+        return position == -1 ? indexOfUndeclared(key) : slots[position];
+    }
+
+    private int indexOfUndeclared(Object key) {
+        return indexOfUndeclared(key, undeclared, keys, hashes, size);
+    }
+
+    private static int indexOfUndeclared(Object key, Map<String, Integer> undeclared, String[] keys, int[] hashes, int size) {
+        if (undeclared != null) {
+            Integer index = undeclared.get(key);
+            return index == null ? -1 : index;
+        }
+        int hash = key.hashCode();
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] == hash && keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object decodeValue(String text, int pos, Object type) {
+        char c = text.charAt(pos);
+        if (c == 'n' && text.startsWith("null", pos)) {
+            return null;
+        }
+        if (type instanceof JsonMapLayout) {
+            return new JsonLazyMap(text, pos, (JsonMapLayout) type);
+        }
+        if (type instanceof JsonMapLayout.Nested) {
+            JsonMapLayout.Nested nested = (JsonMapLayout.Nested) type;
+            if (nested.isArray()) {
+                return decodeArray(text, pos, Map.class, nested.getLayout());
+            }
+            return new JsonLazyMap(text, pos, nested.getLayout());
+        }
+        if (!(type instanceof Class)) {
+            return decodeGeneric(text, pos);
+        }
+
+        Class clazz = JavaClassHelper.getBoxedType((Class) type);
+        if (clazz == String.class) {
+            return c == '"' ? decodeString(text, pos) : literal(text, pos);
+        }
+        if (clazz.isArray()) {
+            return decodeArray(text, pos, clazz.getComponentType(), clazz.getComponentType());
+        }
+        if (clazz == Boolean.class) {
+            String value = c == '"' ? decodeString(text, pos) : literal(text, pos);
+            if (value.equals("true")) {
+                return true;
+            }
+            if (value.equals("false")) {
+                return false;
+            }
+            throw unexpected(text, pos, "a boolean value");
+        }
+        if (clazz == Character.class) {
+            String value = decodeString(text, pos);
+            return value.isEmpty() ? null : value.charAt(0);
+        }
+        if (JavaClassHelper.isNumeric(clazz)) {
+            return decodeNumber(c == '"' ? decodeString(text, pos) : literal(text, pos), clazz);
+        }
+        if (Map.class.isAssignableFrom(clazz) && c == '{') {
+            return new JsonLazyMap(text, pos, null);
+        }
+        return decodeGeneric(text, pos);
+    }
+
+    private static Object decodeGeneric(String text, int pos) {
+        char c = text.charAt(pos);
+        if (c == '"') {
+            return decodeString(text, pos);
+        }
+        if (c == '{') {
+            return new JsonLazyMap(text, pos, null);
+        }
+        if (c == '[') {
+            return decodeArray(text, pos, Object.class, null);
+        }
+        String value = literal(text, pos);
+        if (value.equals("true")) {
+            return true;
+        }
+        if (value.equals("false")) {
+            return false;
+        }
+        if (value.equals("null")) {
+            return null;
+        }
+        if (value.indexOf('.') == -1 && value.indexOf('e') == -1 && value.indexOf('E') == -1) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException ex) {
+                // fall through to double
+            }
+        }
+        return decodeNumber(value, Double.class);
+    }
+
+    private static Object decodeArray(String text, int pos, Class componentType, Object elementType) {
+        if (text.charAt(pos) != '[') {
+            throw unexpected(text, pos, "'['");
+        }
+        List<Object> elements = new ArrayList<>();
+        pos = skipWhitespace(text, pos + 1);
+        if (pos < text.length() && text.charAt(pos) == ']') {
+            return Array.newInstance(componentType, 0);
+        }
+        while (true) {
+            elements.add(decodeValue(text, pos, elementType));
+            pos = skipWhitespace(text, skipValue(text, pos));
+            if (pos >= text.length()) {
+                throw unexpected(text, pos, "']'");
+            }
+            char c = text.charAt(pos);
+            if (c == ']') {
+                break;
+            }
+            if (c != ',') {
+                throw unexpected(text, pos, "',' or ']'");
+            }
+            pos = skipWhitespace(text, pos + 1);
+        }
+
+        Object array = Array.newInstance(componentType, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Object element = elements.get(i);
+            if (element == null && componentType.isPrimitive()) {
+                throw new EPException("Failed to parse JSON text, null value in array of " + componentType.getName());
+            }
+            Array.set(array, i, element);
+        }
+        return array;
+    }
+
+    private static Object decodeNumber(String value, Class boxed) {
+        try {
+            if (boxed == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            if (boxed == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (boxed == Double.class) {
+                return Double.valueOf(value);
+            }
+            if (boxed == Float.class) {
+                return Float.valueOf(value);
+            }
+            if (boxed == Short.class) {
+                return Short.valueOf(value);
+            }
+            if (boxed == Byte.class) {
+                return Byte.valueOf(value);
+            }
+            if (boxed == BigInteger.class) {
+                return new BigInteger(value);
+            }
+            return new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new EPException("Failed to parse JSON value '" + value + "' as " + boxed.getSimpleName());
+        }
+    }
+
+    /**
+     * Members of the object found by a scan, before they are assigned to the final fields of the map.
+     */
+    private static class Members {
+        private final String text;
+        private final JsonMapLayout layout;
+        private final int[] slots;
+        private Map<String, Integer> undeclared;
+        private int numUndeclared;
+        private String[] keys = new String[8];
+        private int[] hashes = new int[8];
+        private int[] starts = new int[8];
+        private int size;
+        private int end;
+
+        Members(String text, JsonMapLayout layout) {
+            this.text = text;
+            this.layout = layout;
+            this.slots = layout == null ? null : new int[layout.size()];
+            if (slots != null) {
+                Arrays.fill(slots, -1);
+            }
+        }
+
+        void index(int pos) {
+            if (pos >= text.length() || text.charAt(pos) != '{') {
+                throw unexpected(text, pos, "'{'");
+            }
+            pos = skipWhitespace(text, pos + 1);
+            if (pos < text.length() && text.charAt(pos) == '}') {
+                end = pos + 1;
+                return;
+            }
+            while (true) {
+                String key = decodeString(text, pos);
+                pos = skipWhitespace(text, skipString(text, pos));
+                if (pos >= text.length() || text.charAt(pos) != ':') {
+                    throw unexpected(text, pos, "':'");
+                }
+                int start = skipWhitespace(text, pos + 1);
+                pos = skipWhitespace(text, skipValue(text, start));
+                addMember(key, start);
+
+                if (pos >= text.length()) {
+                    throw unexpected(text, pos, "'}'");
+                }
+                char c = text.charAt(pos);
+                if (c == '}') {
+                    end = pos + 1;
+                    return;
+                }
+                if (c != ',') {
+                    throw unexpected(text, pos, "',' or '}'");
+                }
+                pos = skipWhitespace(text, pos + 1);
+            }
+        }
+
+        private void addMember(String key, int start) {
+            int position = layout == null ? -1 : layout.getPosition(key);
+            int existing = position == -1 ? indexOfUndeclared(key, undeclared, keys, hashes, size) : slots[position];
+            if (existing != -1) {
+                starts[existing] = start;
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                hashes = Arrays.copyOf(hashes, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+            }
+            keys[size] = key;
+            hashes[size] = key.hashCode();
+            starts[size] = start;
+            if (position != -1) {
+                slots[position] = size;
+            } else {
+                numUndeclared++;
+                if (undeclared != null) {
+                    undeclared.put(key, size);
+                } else if (numUndeclared > UNDECLARED_SCAN_MAX) {
+                    undeclared = new HashMap<>(numUndeclared * 4);
+                    for (int i = 0; i <= size; i++) {
+                        if (layout == null || layout.getPosition(keys[i]) == -1) {
+                            undeclared.put(keys[i], i);
+                        }
+                    }
+                }
+            }
+            size++;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.json;
+
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.event.core.TypeBeanOrUnderlying;
+import com.espertech.esper.common.internal.event.map.MapEventType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Property layout of a map event type for decoding JSON objects, assigning each declared property a fixed position
+ * and resolving the declared type of each property for decoding.
+ * <p>
+ * A layout is computed once per map event type, see {@link MapEventType#getJsonLayout()}, so that looking up a declared member
+ * of a {@link JsonLazyMap} takes a single hash lookup.
+ * Nested map types declared inline get their own layout. Nested map types declared by name, including arrays of such,
+ * resolve to the layout of the named map event type upon first use, allowing recursive types.
+ */
+public class JsonMapLayout {
+    private final Map<String, Integer> positions;
+    private final String[] names;
+    private final Object[] types;
+
+    /**
+     * Ctor.
+     *
+     * @param propertyTypes property types of the map event type
+     */
+    public JsonMapLayout(Map<String, Object> propertyTypes) {
+        this.positions = new HashMap<>(propertyTypes.size() * 2);
+        this.names = new String[propertyTypes.size()];
+        this.types = new Object[propertyTypes.size()];
+        int position = 0;
+        for (Map.Entry<String, Object> entry : propertyTypes.entrySet()) {
+            positions.put(entry.getKey(), position);
+            names[position] = entry.getKey();
+            types[position] = resolveType(entry.getValue());
+            position++;
+        }
+    }
+
+    /**
+     * Returns the position of a declared property.
+     *
+     * @param name property name
+     * @return position or -1 if the property is not declared
+     */
+    public int getPosition(Object name) {
+        Integer position = positions.get(name);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Returns the number of declared properties.
+     *
+     * @return number of properties
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of a declared property.
+     *
+     * @param position position
+     * @return name
+     */
+    public String getName(int position) {
+        return names[position];
+    }
+
+    /**
+     * Returns the type to decode a declared property to: a {@link Class}, a {@link Nested} map type,
+     * or null for values without a known type.
+     *
+     * @param position position
+     * @return type
+     */
+    public Object getType(int position) {
+        return types[position];
+    }
+
+    private static Object resolveType(Object type) {
+        if (type instanceof Class) {
+            return type;
+        }
+        if (type instanceof Map) {
+            return new Nested(new JsonMapLayout((Map<String, Object>) type), null, false);
+        }
+        if (type instanceof TypeBeanOrUnderlying) {
+            return nestedOrNull(((TypeBeanOrUnderlying) type).getEventType(), false);
+        }
+        if (type instanceof TypeBeanOrUnderlying[]) {
+            return nestedOrNull(((TypeBeanOrUnderlying[]) type)[0].getEventType(), true);
+        }
+        if (type instanceof EventType) {
+            return nestedOrNull((EventType) type, false);
+        }
+        if (type instanceof EventType[]) {
+            return nestedOrNull(((EventType[]) type)[0], true);
+        }
+        return null;
+    }
+
+    private static Nested nestedOrNull(EventType eventType, boolean array) {
+        if (!(eventType instanceof MapEventType)) {
+            return null;
+        }
+        return new Nested(null, (MapEventType) eventType, array);
+    }
+
+    /**
+     * Nested map type, or array of nested map type, of a property.
+     */
+    public static class Nested {
+        private final JsonMapLayout layout;
+        private final MapEventType eventType;
+        private final boolean array;
+
+        Nested(JsonMapLayout layout, MapEventType eventType, boolean array) {
+            this.layout = layout;
+            this.eventType = eventType;
+            this.array = array;
+        }
+
+        /**
+         * Returns the layout of the nested map type.
+         *
+         * @return layout
+         */
+        public JsonMapLayout getLayout() {
+            return layout != null ? layout : eventType.getJsonLayout();
+        }
+
+        /**
+         * Returns true for an array of the nested map type.
+         *
+         * @return array indicator
+         */
+        public boolean isArray() {
+            return array;
+        }
+    }
+}
@@ -14,6 +14,8 @@ import com.espertech.esper.common.client.EPException;
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventSender;
 import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactory;
+import com.espertech.esper.common.internal.event.json.JsonEventParser;
+import com.espertech.esper.common.internal.event.json.JsonLazyMap;
 import com.espertech.esper.common.internal.event.util.EPRuntimeEventProcessWrapped;
 import com.espertech.esper.common.internal.statement.thread.ThreadingCommon;
 
@@ -22,7 +24,8 @@ import java.util.Map;
 /**
  * Event sender for map-backed events.
  * <p>
- * Allows sending only event objects of type map, does not check map contents. Any other event object generates an error.
+ * Allows sending only event objects of type map, does not check map contents, or JSON object text as String, byte[] or ByteBuffer
+ * that is decoded lazily into a map. Any other event object generates an error.
  */
 public class EventSenderMap implements EventSender {
     private final EPRuntimeEventProcessWrapped runtimeEventSender;
@@ -46,11 +49,7 @@ public class EventSenderMap implements EventSender {
     }
 
     public void sendEvent(Object theEvent) {
-        if (!(theEvent instanceof Map)) {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
-        }
-
-        Map<String, Object> map = (Map<String, Object>) theEvent;
+        Map<String, Object> map = toMap(theEvent);
         EventBean mapEvent = eventBeanTypedEventFactory.adapterForTypedMap(map, mapEventType);
 
         if (threadingService.isInboundThreading()) {
@@ -61,11 +60,18 @@ public class EventSenderMap implements EventSender {
     }
 
     public void routeEvent(Object theEvent) {
-        if (!(theEvent instanceof Map)) {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
-        }
-        Map<String, Object> map = (Map<String, Object>) theEvent;
+        Map<String, Object> map = toMap(theEvent);
         EventBean mapEvent = eventBeanTypedEventFactory.adapterForTypedMap(map, mapEventType);
         runtimeEventSender.routeEventBean(mapEvent);
     }
+
+    private Map<String, Object> toMap(Object theEvent) {
+        if (theEvent instanceof Map) {
+            return (Map<String, Object>) theEvent;
+        }
+        if (JsonEventParser.isText(theEvent)) {
+            return JsonLazyMap.parse(theEvent, mapEventType.getJsonLayout());
+        }
+        throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
+    }
 }
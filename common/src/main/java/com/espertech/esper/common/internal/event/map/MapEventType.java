@@ -16,6 +16,7 @@ import com.espertech.esper.common.client.meta.EventTypeMetadata;
 import com.espertech.esper.common.internal.collection.Pair;
 import com.espertech.esper.common.internal.event.bean.service.BeanEventTypeFactory;
 import com.espertech.esper.common.internal.event.core.*;
+import com.espertech.esper.common.internal.event.json.JsonMapLayout;
 import com.espertech.esper.common.internal.event.property.IndexedProperty;
 import com.espertech.esper.common.internal.event.property.MappedProperty;
 import com.espertech.esper.common.internal.event.property.Property;
@@ -31,6 +32,7 @@ public class MapEventType extends BaseNestableEventType {
 
     protected Map<String, Pair<EventPropertyDescriptor, MapEventBeanPropertyWriter>> propertyWriters;
     protected EventPropertyDescriptor[] writablePropertyDescriptors;
+    private volatile JsonMapLayout jsonLayout;
 
     public MapEventType(EventTypeMetadata metadata,
                         Map<String, Object> propertyTypes,
@@ -46,6 +48,20 @@ public class MapEventType extends BaseNestableEventType {
     protected void postUpdateNestableTypes() {
     }
 
+    /**
+     * Returns the layout for decoding JSON objects to events of this type, computed upon first use.
+     *
+     * @return layout
+     */
+    public JsonMapLayout getJsonLayout() {
+        JsonMapLayout layout = jsonLayout;
+        if (layout == null) {
+            layout = new JsonMapLayout(nestableTypes);
+            jsonLayout = layout;
+        }
+        return layout;
+    }
+
     public final Class getUnderlyingType() {
         return Map.class;
     }
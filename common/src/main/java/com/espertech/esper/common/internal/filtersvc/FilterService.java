@@ -12,10 +12,12 @@ package com.espertech.esper.common.internal.filtersvc;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.metric.FilterMetric;
 import com.espertech.esper.common.internal.filterspec.FilterSpecActivatable;
 import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Interface for filtering events by event type and event property values. Allows adding and removing filters.
@@ -79,6 +81,15 @@ public interface FilterService {
      */
     public void resetStats();
 
+    /**
+     * Adds filter metric events for event types and filter indexes, if filter metrics are enabled.
+     *
+     * @param runtimeURI runtime URI
+     * @param timestamp  runtime timestamp
+     * @param metrics    list to add to
+     */
+    public void collectMetrics(String runtimeURI, long timestamp, List<FilterMetric> metrics);
+
     /**
      * Destroy the service.
      */
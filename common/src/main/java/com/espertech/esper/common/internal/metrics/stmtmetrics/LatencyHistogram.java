@@ -0,0 +1,222 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.metrics.stmtmetrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency histogram with log-linear buckets, recording nanosecond values with a relative error of at most 1/16.
+ * <p>
+ * Values below 16 each have their own bucket, and each further power-of-two range of values is divided into 16 buckets of equal width.
+ * Values of 2^40 nanoseconds (about 18 minutes) and above are recorded in the last bucket.
+ * <p>
+ * Counts are kept in shards that are selected by thread id and that are only allocated when first used,
+ * so that threads recording concurrently do not usually contend. Recording does not lock and does not allocate
+ * after the shard is allocated. Draining the histogram resets the shards for reuse rather than discarding them.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    private static final int MAX_SHARDS = 16;
+
+    /**
+     * Number of buckets.
+     */
+    public static final int NUM_BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private static final int SLOT_MAX = NUM_BUCKETS;
+
+    private final AtomicReferenceArray<AtomicLongArray> shards;
+    private final int shardMask;
+
+    /**
+     * Ctor.
+     */
+    public LatencyHistogram() {
+        int numShards = 1;
+        int processors = Runtime.getRuntime().availableProcessors();
+        while (numShards < processors && numShards < MAX_SHARDS) {
+            numShards = numShards << 1;
+        }
+        this.shards = new AtomicReferenceArray<>(numShards);
+        this.shardMask = numShards - 1;
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        int shardNum = (int) Thread.currentThread().getId() & shardMask;
+        AtomicLongArray shard = shards.get(shardNum);
+        if (shard == null) {
+            shards.compareAndSet(shardNum, null, new AtomicLongArray(NUM_BUCKETS + 1));
+            shard = shards.get(shardNum);
+        }
+        shard.incrementAndGet(bucketIndex(nanos));
+        long max = shard.get(SLOT_MAX);
+        while (nanos > max && !shard.compareAndSet(SLOT_MAX, max, nanos)) {
+            max = shard.get(SLOT_MAX);
+        }
+    }
+
+    /**
+     * Returns a snapshot that merges all shards.
+     *
+     * @return snapshot
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        for (int i = 0; i < shards.length(); i++) {
+            AtomicLongArray shard = shards.get(i);
+            if (shard == null) {
+                continue;
+            }
+            for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+                long count = shard.get(bucket);
+                snapshot.counts[bucket] += count;
+                snapshot.count += count;
+            }
+            snapshot.max = Math.max(snapshot.max, shard.get(SLOT_MAX));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Moves the counts of all shards into the snapshot, which is reset first, and resets the shards to zero.
+     * <p>
+     * Each count is taken and reset atomically, so that a value recorded concurrently is either part of the snapshot
+     * or remains for the next drain.
+     *
+     * @param snapshot to move counts into
+     */
+    public void drainTo(Snapshot snapshot) {
+        snapshot.reset();
+        for (int i = 0; i < shards.length(); i++) {
+            AtomicLongArray shard = shards.get(i);
+            if (shard == null) {
+                continue;
+            }
+            for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+                if (shard.get(bucket) != 0) {
+                    long count = shard.getAndSet(bucket, 0);
+                    snapshot.counts[bucket] += count;
+                    snapshot.count += count;
+                }
+            }
+            snapshot.max = Math.max(snapshot.max, shard.getAndSet(SLOT_MAX, 0));
+        }
+    }
+
+    /**
+     * Returns the bucket index for a value.
+     *
+     * @param value value
+     * @return bucket index
+     */
+    public static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+        if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the highest value that is recorded in a bucket.
+     *
+     * @param index bucket index
+     * @return highest value
+     */
+    public static long bucketHighestValue(int index) {
+        int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+        long lowest = (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Merged counts of a histogram.
+     */
+    public static class Snapshot {
+        private final long[] counts = new long[NUM_BUCKETS];
+        private long count;
+        private long max;
+
+        /**
+         * Resets all counts to zero.
+         */
+        public void reset() {
+            Arrays.fill(counts, 0);
+            count = 0;
+            max = 0;
+        }
+
+        /**
+         * Adds the counts of another snapshot to this snapshot.
+         *
+         * @param other snapshot to add
+         */
+        public void add(Snapshot other) {
+            for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+                counts[bucket] += other.counts[bucket];
+            }
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+
+        /**
+         * Returns the number of values recorded.
+         *
+         * @return count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the maximum value recorded.
+         *
+         * @return max
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the value at or below which the percentage of values recorded fall, to within the bucket resolution.
+         *
+         * @param percentile percentile between 0 and 100
+         * @return value, or zero if no values were recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100d * count));
+            long cumulative = 0;
+            for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+                cumulative += counts[bucket];
+                if (cumulative >= rank) {
+                    return Math.min(bucketHighestValue(bucket), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -10,10 +10,14 @@
  */
 package com.espertech.esper.common.internal.metrics.stmtmetrics;
 
+import com.espertech.esper.common.client.metric.FilterMetric;
 import com.espertech.esper.common.client.metric.RuntimeMetric;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Metrics execution producing runtime metric events.
+ * Metrics execution producing runtime metric events and, if filter metrics are enabled, filter metric events.
  */
 public class MetricExecEngine implements MetricExec {
     private final MetricEventRouter metricEventRouter;
@@ -44,6 +48,12 @@ public class MetricExecEngine implements MetricExec {
         RuntimeMetric metric = new RuntimeMetric(runtimeURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth);
         lastMetric = metric;
         metricEventRouter.route(metric);
+
+        List<FilterMetric> filterMetrics = new ArrayList<>();
+        context.getFilterService().collectMetrics(runtimeURI, metric.getTimestamp(), filterMetrics);
+        for (FilterMetric filterMetric : filterMetrics) {
+            metricEventRouter.route(filterMetric);
+        }
         metricScheduleService.add(interval, this);
     }
 
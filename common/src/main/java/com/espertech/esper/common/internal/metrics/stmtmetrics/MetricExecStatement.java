@@ -10,8 +10,12 @@
  */
 package com.espertech.esper.common.internal.metrics.stmtmetrics;
 
+import com.espertech.esper.common.client.metric.StatementLatencyMetric;
 import com.espertech.esper.common.client.metric.StatementMetric;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Metrics execution producing statement metric events.
  */
@@ -50,6 +54,19 @@ public class MetricExecStatement implements MetricExec {
             }
         }
 
+        StatementLatencyHistograms[] latencies = context.getStatementMetricRepository().reportGroupLatencies(statementGroup);
+        if (latencies != null) {
+            List<StatementLatencyMetric> latencyMetrics = new ArrayList<>();
+            for (StatementLatencyHistograms histograms : latencies) {
+                if (histograms != null) {
+                    histograms.report(timestamp, latencyMetrics);
+                }
+            }
+            for (StatementLatencyMetric metric : latencyMetrics) {
+                metricEventRouter.route(metric);
+            }
+        }
+
         if (interval != -1) {
             metricScheduleService.add(interval, this);
         }
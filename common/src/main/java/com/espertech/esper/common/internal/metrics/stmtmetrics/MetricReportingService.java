@@ -42,6 +42,18 @@ public interface MetricReportingService {
      */
     public void accountTime(StatementMetricHandle metricsHandle, long deltaCPU, long deltaWall, int numInput);
 
+    /**
+     * Account for statement CPU and wall time, recording the wall time as the processing latency of the agent instance
+     * if latency histograms are enabled.
+     *
+     * @param metricsHandle   statement handle
+     * @param agentInstanceId agent instance id
+     * @param deltaCPU        cpu time nsec
+     * @param deltaWall       wall time nsec
+     * @param numInput        number of input rows
+     */
+    public void accountTime(StatementMetricHandle metricsHandle, int agentInstanceId, long deltaCPU, long deltaWall, int numInput);
+
     /**
      * Account for statement output row counting.
      *
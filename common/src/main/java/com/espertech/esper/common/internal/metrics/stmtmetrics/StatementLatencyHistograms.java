@@ -0,0 +1,120 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.metrics.stmtmetrics;
+
+import com.espertech.esper.common.client.metric.StatementLatencyMetric;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Processing-latency histograms of a statement, per agent instance.
+ * <p>
+ * Histograms are kept from interval to interval and are drained when reported.
+ * The histogram of an agent instance that recorded nothing during an interval is dropped when reported,
+ * so that agent instances that no longer exist do not retain a histogram.
+ */
+public class StatementLatencyHistograms {
+    private final String runtimeURI;
+    private final String deploymentId;
+    private final String statementName;
+    private final Map<Integer, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final LatencyHistogram.Snapshot total = new LatencyHistogram.Snapshot();
+    private final LatencyHistogram.Snapshot snapshot = new LatencyHistogram.Snapshot();
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI    runtime URI
+     * @param deploymentId  deployment id
+     * @param statementName statement name
+     */
+    public StatementLatencyHistograms(String runtimeURI, String deploymentId, String statementName) {
+        this.runtimeURI = runtimeURI;
+        this.deploymentId = deploymentId;
+        this.statementName = statementName;
+    }
+
+    /**
+     * Record a latency for an agent instance.
+     *
+     * @param agentInstanceId agent instance id
+     * @param nanos           latency in nanoseconds
+     */
+    public void record(int agentInstanceId, long nanos) {
+        LatencyHistogram histogram = histograms.get(agentInstanceId);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(agentInstanceId, id -> new LatencyHistogram());
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * Drains the histograms and adds metric events to the list, one for the statement and, when multiple agent instances
+     * recorded latencies during the interval, one per agent instance.
+     * <p>
+     * Not thread-safe, expected to be called by the metrics reporting thread only.
+     *
+     * @param timestamp runtime timestamp
+     * @param metrics   list to add to
+     */
+    public void report(long timestamp, List<StatementLatencyMetric> metrics) {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        total.reset();
+        int index = metrics.size();
+        int numReported = 0;
+        for (Iterator<Map.Entry<Integer, LatencyHistogram>> it = histograms.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, LatencyHistogram> entry = it.next();
+            entry.getValue().drainTo(snapshot);
+            if (snapshot.getCount() == 0) {
+                it.remove();
+                continue;
+            }
+            total.add(snapshot);
+            metrics.add(toMetric(timestamp, entry.getKey(), snapshot));
+            numReported++;
+        }
+        if (numReported == 0) {
+            return;
+        }
+        if (numReported == 1) {
+            metrics.remove(index);
+        }
+        metrics.add(index, toMetric(timestamp, null, total));
+    }
+
+    /**
+     * Returns the deployment id.
+     *
+     * @return deployment id
+     */
+    public String getDeploymentId() {
+        return deploymentId;
+    }
+
+    /**
+     * Returns the statement name.
+     *
+     * @return statement name
+     */
+    public String getStatementName() {
+        return statementName;
+    }
+
+    private StatementLatencyMetric toMetric(long timestamp, Integer agentInstanceId, LatencyHistogram.Snapshot snapshot) {
+        return new StatementLatencyMetric(runtimeURI, timestamp, deploymentId, statementName, agentInstanceId, snapshot.getCount(),
+                snapshot.getValueAtPercentile(50), snapshot.getValueAtPercentile(99), snapshot.getValueAtPercentile(99.9), snapshot.getMax());
+    }
+}
@@ -53,6 +53,9 @@ public class StatementMetricArray {
     // Flushed metric per statement
     private volatile StatementMetric[] metrics;
 
+    // Latency histograms per statement, drained when reported, or null if not recording latency
+    private volatile StatementLatencyHistograms[] latencies;
+
     // Statements ids to remove with the next flush
     private Set<DeploymentIdNamePair> removedStatementNames;
 
@@ -65,10 +68,24 @@ public class StatementMetricArray {
      * @param isReportInactive true to indicate to report on inactive statements
      */
     public StatementMetricArray(String runtimeURI, String name, int initialSize, boolean isReportInactive) {
+        this(runtimeURI, name, initialSize, isReportInactive, false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI        runtime URI
+     * @param name              name of statement group
+     * @param initialSize       initial size of array
+     * @param isReportInactive  true to indicate to report on inactive statements
+     * @param latencyHistograms true to record latency histograms
+     */
+    public StatementMetricArray(String runtimeURI, String name, int initialSize, boolean isReportInactive, boolean latencyHistograms) {
         this.runtimeURI = runtimeURI;
         this.isReportInactive = isReportInactive;
 
         metrics = new StatementMetric[initialSize];
+        latencies = latencyHistograms ? new StatementLatencyHistograms[initialSize] : null;
         statementNames = new DeploymentIdNamePair[initialSize];
         currentLastElement = -1;
         rwLock = new ManagedReadWriteLock("StatementMetricArray-" + name, true);
@@ -115,6 +132,7 @@ public class StatementMetricArray {
             if ((currentLastElement + 1) < metrics.length) {
                 currentLastElement++;
                 statementNames[currentLastElement] = statement;
+                releaseLatencies(currentLastElement);
                 return currentLastElement;
             }
 
@@ -122,6 +140,7 @@ public class StatementMetricArray {
             for (int i = 0; i < statementNames.length; i++) {
                 if (statementNames[i] == null) {
                     statementNames[i] = statement;
+                    releaseLatencies(i);
                     if ((i + 1) > currentLastElement) {
                         currentLastElement = i;
                     }
@@ -138,6 +157,11 @@ public class StatementMetricArray {
 
             statementNames = newStatementNames;
             metrics = newMetrics;
+            if (latencies != null) {
+                StatementLatencyHistograms[] newLatencies = new StatementLatencyHistograms[newSize];
+                System.arraycopy(latencies, 0, newLatencies, 0, latencies.length);
+                latencies = newLatencies;
+            }
 
             currentLastElement++;
             statementNames[currentLastElement] = statement;
@@ -202,6 +226,35 @@ public class StatementMetricArray {
         }
     }
 
+    /**
+     * Returns the latency histograms for reporting, releasing the histograms of statements that were removed.
+     * <p>
+     * The histograms are retained and the caller drains them when reporting, so that histograms are not reallocated each interval.
+     * Returns null to indicate no reports to do or if latency histograms are not recorded.
+     *
+     * @return latency histograms
+     */
+    public StatementLatencyHistograms[] flushLatencies() {
+        if (latencies == null) {
+            return null;
+        }
+        rwLock.acquireWriteLock();
+        try {
+            if (currentLastElement == -1) {
+                return null;
+            }
+            StatementLatencyHistograms[] current = latencies;
+            for (int i = 0; i < current.length; i++) {
+                if (statementNames[i] == null) {
+                    current[i] = null;
+                }
+            }
+            return current;
+        } finally {
+            rwLock.releaseWriteLock();
+        }
+    }
+
     /**
      * Returns the read-write lock, for read-lock when modifications are made.
      *
@@ -226,6 +279,37 @@ public class StatementMetricArray {
         return metric;
     }
 
+    /**
+     * Returns existing or creates new latency histograms for the index, or null if latency histograms are not recorded.
+     *
+     * @param index of statement
+     * @return latency histograms to modify under read lock
+     */
+    public StatementLatencyHistograms getAddLatencies(int index) {
+        StatementLatencyHistograms[] current = latencies;
+        if (current == null) {
+            return null;
+        }
+        StatementLatencyHistograms histograms = current[index];
+        if (histograms == null) {
+            synchronized (current) {
+                histograms = current[index];
+                if (histograms == null) {
+                    histograms = new StatementLatencyHistograms(runtimeURI, statementNames[index].getDeploymentId(), statementNames[index].getName());
+                    current[index] = histograms;
+                }
+            }
+        }
+        return histograms;
+    }
+
+    // the slot may previously have held the histograms of a removed statement
+    private void releaseLatencies(int index) {
+        if (latencies != null) {
+            latencies[index] = null;
+        }
+    }
+
     /**
      * Returns maximum collection size (last used element), which may not truely reflect the number
      * of actual statements held as some slots may empty up when statements are removed.
@@ -43,7 +43,7 @@ public class StatementMetricRepository {
         this.groupMetrics = new StatementMetricArray[numGroups];
 
         // default group
-        groupMetrics[0] = new StatementMetricArray(runtimeURI, "group-default", 100, false);
+        groupMetrics[0] = new StatementMetricArray(runtimeURI, "group-default", 100, false, specification.isLatencyHistograms());
 
         // initialize all other groups
         int countGroups = 1;
@@ -54,7 +54,7 @@ public class StatementMetricRepository {
             if (initialNumStmts < 10) {
                 initialNumStmts = 10;
             }
-            groupMetrics[countGroups] = new StatementMetricArray(runtimeURI, "group-" + countGroups, initialNumStmts, config.isReportInactive());
+            groupMetrics[countGroups] = new StatementMetricArray(runtimeURI, "group-" + countGroups, initialNumStmts, config.isReportInactive(), specification.isLatencyHistograms());
             countGroups++;
         }
 
@@ -127,6 +127,33 @@ public class StatementMetricRepository {
         }
     }
 
+    /**
+     * Account statement times and record the wall time as the processing latency of the agent instance,
+     * if recording latency histograms.
+     *
+     * @param handle          statement handle
+     * @param agentInstanceId agent instance id
+     * @param cpu             time
+     * @param wall            time
+     * @param numInput        number of input rows
+     */
+    public void accountTimes(StatementMetricHandle handle, int agentInstanceId, long cpu, long wall, int numInput) {
+        StatementMetricArray array = groupMetrics[handle.getGroupNum()];
+        array.getRwLock().acquireReadLock();
+        try {
+            StatementMetric metric = array.getAddMetric(handle.getIndex());
+            metric.addCPUTime(cpu);
+            metric.addWallTime(wall);
+            metric.addNumInput(numInput);
+            StatementLatencyHistograms latencies = array.getAddLatencies(handle.getIndex());
+            if (latencies != null) {
+                latencies.record(agentInstanceId, wall);
+            }
+        } finally {
+            array.getRwLock().releaseReadLock();
+        }
+    }
+
     /**
      * Account row output.
      *
@@ -155,4 +182,14 @@ public class StatementMetricRepository {
     public StatementMetric[] reportGroup(int group) {
         return groupMetrics[group].flushMetrics();
     }
+
+    /**
+     * Report latency for a given statement group.
+     *
+     * @param group to report
+     * @return latency histograms or null if none
+     */
+    public StatementLatencyHistograms[] reportGroupLatencies(int group) {
+        return groupMetrics[group].flushLatencies();
+    }
 }
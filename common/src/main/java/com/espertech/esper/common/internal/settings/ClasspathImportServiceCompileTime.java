@@ -198,6 +198,9 @@ public class ClasspathImportServiceCompileTime extends ClasspathImportServiceBas
         if (nameLowerCase.equals("nth")) {
             return new ExprNthAggNode(isDistinct);
         }
+        if (nameLowerCase.equals("percentile")) {
+            return new ExprPercentileAggNode(isDistinct);
+        }
         if (nameLowerCase.equals("leaving")) {
             return new ExprLeavingAggNode(isDistinct);
         }
@@ -12,7 +12,7 @@ package com.espertech.esper.common.internal.view.exttimedwin;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventType;
-import com.espertech.esper.common.internal.collection.TimeWindow;
+import com.espertech.esper.common.internal.collection.TimeWindowCompact;
 import com.espertech.esper.common.internal.collection.ViewUpdatedCollection;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
 import com.espertech.esper.common.internal.epl.expression.time.eval.TimePeriodProvide;
@@ -44,7 +44,7 @@ public class ExternallyTimedWindowView extends ViewSupport implements DataWindow
     private final ExternallyTimedWindowViewFactory factory;
 
     private final EventBean[] eventsPerStream = new EventBean[1];
-    protected final TimeWindow timeWindow;
+    protected final TimeWindowCompact timeWindow;
     private ViewUpdatedCollection viewUpdatedCollection;
     protected AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
     private final TimePeriodProvide timePeriodProvide;
@@ -55,7 +55,7 @@ public class ExternallyTimedWindowView extends ViewSupport implements DataWindow
                                      TimePeriodProvide timePeriodProvide) {
         this.factory = factory;
         this.viewUpdatedCollection = viewUpdatedCollection;
-        this.timeWindow = new TimeWindow(agentInstanceViewFactoryContext.isRemoveStream());
+        this.timeWindow = new TimeWindowCompact(agentInstanceViewFactoryContext.isRemoveStream());
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
         this.timePeriodProvide = timePeriodProvide;
     }
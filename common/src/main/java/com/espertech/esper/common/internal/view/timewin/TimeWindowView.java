@@ -12,7 +12,7 @@ package com.espertech.esper.common.internal.view.timewin;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventType;
-import com.espertech.esper.common.internal.collection.TimeWindow;
+import com.espertech.esper.common.internal.collection.TimeWindowCompact;
 import com.espertech.esper.common.internal.collection.ViewUpdatedCollection;
 import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
 import com.espertech.esper.common.internal.context.util.AgentInstanceStopCallback;
@@ -39,7 +39,7 @@ import java.util.Iterator;
  */
 public class TimeWindowView extends ViewSupport implements DataWindowView, AgentInstanceStopCallback {
     private final TimeWindowViewFactory timeWindowViewFactory;
-    private final TimeWindow timeWindow;
+    private final TimeWindowCompact timeWindow;
     private final ViewUpdatedCollection viewUpdatedCollection;
     private final AgentInstanceContext agentInstanceContext;
     private final EPStatementHandleCallbackSchedule handle;
@@ -50,7 +50,7 @@ public class TimeWindowView extends ViewSupport implements DataWindowView, Agent
         this.agentInstanceContext = agentInstanceContext.getAgentInstanceContext();
         this.timeWindowViewFactory = timeWindowViewFactory;
         this.viewUpdatedCollection = viewUpdatedCollection;
-        this.timeWindow = new TimeWindow(agentInstanceContext.isRemoveStream());
+        this.timeWindow = new TimeWindowCompact(agentInstanceContext.isRemoveStream());
         this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
         this.timePeriodProvide = timePeriodProvide;
 
@@ -80,6 +80,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(EventTypeBusModifier.NONBUS, byteCode.getBusModifierEventType());
         assertEquals(8, byteCode.getThreadPoolCompilerNumThreads());
         assertNull(byteCode.getThreadPoolCompilerCapacity());
+        assertNull(byteCode.getCacheDirectory());
         assertEquals(StreamSelector.ISTREAM_ONLY, compiler.getStreamSelection().getDefaultStreamSelector());
         assertFalse(compiler.getLanguage().isSortUsingCollator());
         assertFalse(compiler.getExpression().isIntegerDivision());
@@ -110,10 +111,21 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(2, runtime.getThreading().getThreadPoolTimerExecNumThreads());
         assertNull(runtime.getThreading().getThreadPoolInboundCapacity());
         assertNull(runtime.getThreading().getThreadPoolOutboundCapacity());
+        assertFalse(runtime.getThreading().isThreadPoolInboundRingBuffer());
+        assertFalse(runtime.getThreading().isThreadPoolOutboundRingBuffer());
+        assertEquals(RingBufferWaitStrategy.PARK, runtime.getThreading().getThreadPoolInboundWaitStrategy());
+        assertFalse(runtime.getThreading().isThreadPoolInboundPartitioned());
+        assertTrue(runtime.getThreading().getThreadPoolInboundPartitionProperties().isEmpty());
+        assertEquals(RingBufferWaitStrategy.PARK, runtime.getThreading().getThreadPoolOutboundWaitStrategy());
+        assertNull(runtime.getThreading().getThreadPoolOutboundMailboxCapacity());
+        assertEquals(OutboundOverflowPolicy.BLOCK, runtime.getThreading().getThreadPoolOutboundOverflowPolicy());
+        assertNull(runtime.getThreading().getThreadPoolOutboundSpillDirectory());
         assertNull(runtime.getThreading().getThreadPoolRouteExecCapacity());
         assertNull(runtime.getThreading().getThreadPoolTimerExecCapacity());
         assertFalse(runtime.getThreading().isRuntimeFairlock());
         assertFalse(runtime.getMetricsReporting().isJmxRuntimeMetrics());
+        assertFalse(runtime.getMetricsReporting().isLatencyHistograms());
+        assertFalse(runtime.getMetricsReporting().isFilterMetrics());
         assertTrue(runtime.getThreading().isNamedWindowConsumerDispatchPreserveOrder());
         assertEquals(Long.MAX_VALUE, runtime.getThreading().getNamedWindowConsumerDispatchTimeout());
         assertEquals(Locking.SPIN, runtime.getThreading().getNamedWindowConsumerDispatchLocking());
@@ -121,15 +133,21 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(runtime.getLogging().isEnableTimerDebug());
         assertNull(runtime.getLogging().getAuditPattern());
         assertEquals(15000, runtime.getVariables().getMsecVersionRelease());
+        assertFalse(runtime.getVariables().isLockFreeReads());
+        assertNull(runtime.getCheckpoint().getDirectory());
+        assertEquals(1000, runtime.getCheckpoint().getIntervalMSec());
         assertNull(runtime.getPatterns().getMaxSubexpressions());
         assertTrue(runtime.getPatterns().isMaxSubexpressionPreventStart());
+        assertFalse(runtime.getPatterns().isShareCorrelatedFilters());
         assertNull(runtime.getMatchRecognize().getMaxStates());
         assertTrue(runtime.getMatchRecognize().isMaxStatesPreventStart());
         assertEquals(TimeSourceType.MILLI, runtime.getTimeSource().getTimeSourceType());
         assertFalse(runtime.getExecution().isPrioritized());
         assertFalse(runtime.getExecution().isDisableLocking());
         assertEquals(FilterServiceProfile.READMOSTLY, runtime.getExecution().getFilterServiceProfile());
+        assertEquals(SchedulingServiceProfile.SORTED, runtime.getExecution().getSchedulingServiceProfile());
         assertEquals(1, runtime.getExecution().getDeclaredExprValueCacheSize());
+        assertEquals(0, runtime.getExecution().getFilterServiceReorderIntervalMSec());
         assertTrue(runtime.getExpression().isSelfSubselectPreeval());
         assertEquals(TimeZone.getDefault(), runtime.getExpression().getTimeZone());
         assertNull(runtime.getExceptionHandling().getHandlerFactories());
@@ -313,6 +331,11 @@ public class TestConfigurationParser extends TestCase {
         assertEquals("mypassword", dsFactory.getProperties().getProperty("password"));
         assertEquals("com.mysql.jdbc.Driver", dsFactory.getProperties().getProperty("driverClassName"));
         assertEquals("2", dsFactory.getProperties().getProperty("initialSize"));
+        ConfigurationCommonCacheShared sharedCache = (ConfigurationCommonCacheShared) configDBRef.getDataCacheDesc();
+        assertEquals(5000, sharedCache.getMaxWeight());
+        assertEquals(0.0, sharedCache.getMaxAgeSeconds());
+        assertEquals(0.0, sharedCache.getRefreshAfterSeconds());
+        assertEquals(4, configDBRef.getParallelPollThreads());
 
         assertEquals(PropertyResolutionStyle.DISTINCT_CASE_INSENSITIVE, common.getEventMeta().getClassPropertyResolutionStyle());
         assertEquals(AccessorStyle.PUBLIC, common.getEventMeta().getDefaultAccessorStyle());
@@ -342,7 +365,7 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(variable.isConstant());
 
         // method references
-        assertEquals(2, common.getMethodInvocationReferences().size());
+        assertEquals(3, common.getMethodInvocationReferences().size());
         ConfigurationCommonMethodRef methodRef = common.getMethodInvocationReferences().get("abc");
         expCache = (ConfigurationCommonCacheExpiryTime) methodRef.getDataCacheDesc();
         assertEquals(91.0, expCache.getMaxAgeSeconds());
@@ -352,6 +375,14 @@ public class TestConfigurationParser extends TestCase {
         methodRef = common.getMethodInvocationReferences().get("def");
         lruCache = (ConfigurationCommonCacheLRU) methodRef.getDataCacheDesc();
         assertEquals(20, lruCache.getSize());
+        assertEquals(0, methodRef.getParallelPollThreads());
+
+        methodRef = common.getMethodInvocationReferences().get("ghi");
+        sharedCache = (ConfigurationCommonCacheShared) methodRef.getDataCacheDesc();
+        assertEquals(10000, sharedCache.getMaxWeight());
+        assertEquals(60.0, sharedCache.getMaxAgeSeconds());
+        assertEquals(30.0, sharedCache.getRefreshAfterSeconds());
+        assertEquals(2, methodRef.getParallelPollThreads());
 
         // variance types
         assertEquals(1, common.getVariantStreams().size());
@@ -478,6 +509,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(EventTypeBusModifier.BUS, byteCode.getBusModifierEventType());
         assertEquals(1234, byteCode.getThreadPoolCompilerNumThreads());
         assertEquals(4321, (int) byteCode.getThreadPoolCompilerCapacity());
+        assertEquals("/var/esper/compilecache", byteCode.getCacheDirectory());
         assertEquals(StreamSelector.RSTREAM_ISTREAM_BOTH, compiler.getStreamSelection().getDefaultStreamSelector());
 
         assertEquals(100, compiler.getExecution().getFilterServiceMaxFilterWidth());
@@ -522,6 +554,16 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(4, runtime.getThreading().getThreadPoolRouteExecNumThreads());
         assertEquals(1000, (int) runtime.getThreading().getThreadPoolInboundCapacity());
         assertEquals(1500, (int) runtime.getThreading().getThreadPoolOutboundCapacity());
+        assertTrue(runtime.getThreading().isThreadPoolInboundRingBuffer());
+        assertFalse(runtime.getThreading().isThreadPoolOutboundRingBuffer());
+        assertEquals(RingBufferWaitStrategy.YIELD, runtime.getThreading().getThreadPoolInboundWaitStrategy());
+        assertTrue(runtime.getThreading().isThreadPoolInboundPartitioned());
+        assertEquals(1, runtime.getThreading().getThreadPoolInboundPartitionProperties().size());
+        assertEquals("myString", runtime.getThreading().getThreadPoolInboundPartitionProperties().get("MyMapEvent"));
+        assertEquals(RingBufferWaitStrategy.PARK, runtime.getThreading().getThreadPoolOutboundWaitStrategy());
+        assertEquals(100, (int) runtime.getThreading().getThreadPoolOutboundMailboxCapacity());
+        assertEquals(OutboundOverflowPolicy.DROP_OLDEST, runtime.getThreading().getThreadPoolOutboundOverflowPolicy());
+        assertEquals("/var/esper/spill", runtime.getThreading().getThreadPoolOutboundSpillDirectory());
         assertNull(runtime.getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) runtime.getThreading().getThreadPoolRouteExecCapacity());
         assertTrue(runtime.getThreading().isRuntimeFairlock());
@@ -532,8 +574,12 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(runtime.getLogging().isEnableTimerDebug());
         assertEquals("[%u] %m", runtime.getLogging().getAuditPattern());
         assertEquals(30000, runtime.getVariables().getMsecVersionRelease());
+        assertTrue(runtime.getVariables().isLockFreeReads());
+        assertEquals("/var/esper/checkpoint", runtime.getCheckpoint().getDirectory());
+        assertEquals(2000, runtime.getCheckpoint().getIntervalMSec());
         assertEquals(3L, (long) runtime.getPatterns().getMaxSubexpressions());
         assertFalse(runtime.getPatterns().isMaxSubexpressionPreventStart());
+        assertTrue(runtime.getPatterns().isShareCorrelatedFilters());
         assertEquals(3L, (long) runtime.getMatchRecognize().getMaxStates());
         assertFalse(runtime.getMatchRecognize().isMaxStatesPreventStart());
 
@@ -558,7 +604,9 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(runtime.getExecution().isFairlock());
         assertTrue(runtime.getExecution().isDisableLocking());
         assertEquals(FilterServiceProfile.READWRITE, runtime.getExecution().getFilterServiceProfile());
+        assertEquals(SchedulingServiceProfile.TIMINGWHEEL, runtime.getExecution().getSchedulingServiceProfile());
         assertEquals(101, runtime.getExecution().getDeclaredExprValueCacheSize());
+        assertEquals(60000, runtime.getExecution().getFilterServiceReorderIntervalMSec());
 
         ConfigurationRuntimeMetricsReporting metrics = runtime.getMetricsReporting();
         assertTrue(metrics.isEnableMetricsReporting());
@@ -567,6 +615,8 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(metrics.isThreading());
         assertEquals(2, metrics.getStatementGroups().size());
         assertTrue(metrics.isJmxRuntimeMetrics());
+        assertTrue(metrics.isLatencyHistograms());
+        assertTrue(metrics.isFilterMetrics());
         ConfigurationRuntimeMetricsReporting.StmtGroupMetrics def = metrics.getStatementGroups().get("MyStmtGroup");
         assertEquals(5000, def.getInterval());
         assertTrue(def.isDefaultInclude());
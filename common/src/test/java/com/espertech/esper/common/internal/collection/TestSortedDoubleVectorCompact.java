@@ -0,0 +1,121 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TestSortedDoubleVectorCompact extends TestCase {
+    private SortedDoubleVectorCompact vector;
+
+    public void setUp() {
+        vector = new SortedDoubleVectorCompact();
+    }
+
+    public void testAdd() {
+        assertEquals(0, vector.size());
+
+        vector.add(10);
+        vector.add(0);
+        vector.add(5);
+        compare(new double[]{0, 5, 10}, vector);
+
+        vector.add(10);
+        vector.add(1);
+        vector.add(5.5);
+        compare(new double[]{0, 1, 5, 5.5, 10, 10}, vector);
+
+        vector.add(Double.NaN);
+        compare(new double[]{0, 1, 5, 5.5, 10, 10}, vector);
+
+        try {
+            vector.getValue(6);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+    }
+
+    public void testRemove() {
+        vector.add(5);
+        vector.add(1);
+        vector.add(0);
+        vector.add(-1);
+        vector.add(1);
+        vector.add(0.5);
+        compare(new double[]{-1, 0, 0.5, 1, 1, 5}, vector);
+
+        vector.remove(1);
+        compare(new double[]{-1, 0, 0.5, 1, 5}, vector);
+
+        vector.remove(-1);
+        vector.add(5);
+        compare(new double[]{0, 0.5, 1, 5, 5}, vector);
+
+        vector.remove(5);
+        vector.remove(5);
+        vector.remove(99);
+        vector.remove(Double.NaN);
+        compare(new double[]{0, 0.5, 1}, vector);
+
+        vector.clear();
+        assertEquals(0, vector.size());
+        vector.remove(1);
+        assertEquals(0, vector.size());
+    }
+
+    public void testSlidingWindowRandom() {
+        Random random = new Random(1);
+        List<Double> expected = new ArrayList<>();
+        List<Double> window = new ArrayList<>();
+
+        for (int i = 0; i < 20000; i++) {
+            double value = random.nextInt(500) / 4d;
+            window.add(value);
+            expected.add(value);
+            vector.add(value);
+            if (window.size() > 3000) {
+                double leaving = window.remove(0);
+                expected.remove(leaving);
+                vector.remove(leaving);
+            }
+            if (i % 997 == 0) {
+                Collections.sort(expected);
+                assertEquals(expected.size(), vector.size());
+                for (int j = 0; j < expected.size(); j++) {
+                    assertEquals(expected.get(j), vector.getValue(j));
+                }
+            }
+        }
+        assertTrue(vector.getNumChunks() > 1);
+
+        // drain
+        while (!window.isEmpty()) {
+            vector.remove(window.remove(0));
+        }
+        assertEquals(0, vector.size());
+        assertEquals(1, vector.getNumChunks());
+        assertEquals(0, vector.toArray().length);
+    }
+
+    private void compare(double[] expected, SortedDoubleVectorCompact vector) {
+        assertEquals(expected.length, vector.size());
+        double[] values = vector.toArray();
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], vector.getValue(i));
+            assertEquals(expected[i], values[i]);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.collection;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestTimeWindowCompact extends TestCase {
+    private final TimeWindowCompact window = new TimeWindowCompact(false);
+    private final TimeWindowCompact windowRemovable = new TimeWindowCompact(true);
+    private final EventBean[] beans = new EventBean[6];
+
+    public void setUp() {
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = createBean();
+        }
+    }
+
+    public void testAdd() {
+        assertNull(window.getOldestTimestamp());
+        assertTrue(window.isEmpty());
+
+        window.add(19, beans[0]);
+        assertEquals(19L, (long) window.getOldestTimestamp());
+        assertFalse(window.isEmpty());
+        window.add(19, beans[1]);
+        window.add(20, beans[2]);
+        window.add(20, beans[3]);
+        window.add(21, beans[4]);
+        window.add(22, beans[5]);
+        assertEquals(19L, (long) window.getOldestTimestamp());
+        assertEquals(6, window.size());
+        assertIterator(window, beans);
+
+        assertNull(window.expireEvents(19));
+        assertExpired(window.expireEvents(20), beans[0], beans[1]);
+        assertExpired(window.expireEvents(21), beans[2], beans[3]);
+        assertEquals(21L, (long) window.getOldestTimestamp());
+        assertExpired(window.expireEvents(22), beans[4]);
+        assertExpired(window.expireEvents(23), beans[5]);
+        assertTrue(window.isEmpty());
+        assertNull(window.getOldestTimestamp());
+        assertNull(window.expireEvents(23));
+
+        try {
+            window.remove(beans[0]);
+            fail();
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+    }
+
+    public void testAddRemove() {
+        windowRemovable.add(19, beans[0]);
+        windowRemovable.add(19, beans[1]);
+        windowRemovable.add(20, beans[2]);
+        windowRemovable.add(20, beans[3]);
+        windowRemovable.add(21, beans[4]);
+        windowRemovable.add(22, beans[5]);
+        assertNull(windowRemovable.getReverseIndex());
+
+        windowRemovable.remove(beans[4]);
+        windowRemovable.remove(beans[0]);
+        windowRemovable.remove(beans[3]);
+        windowRemovable.remove(beans[3]);
+        assertEquals(3, windowRemovable.size());
+        assertEquals(19L, (long) windowRemovable.getOldestTimestamp());
+        assertIterator(windowRemovable, beans[1], beans[2], beans[5]);
+
+        assertNull(windowRemovable.expireEvents(19));
+        assertExpired(windowRemovable.expireEvents(20), beans[1]);
+        assertExpired(windowRemovable.expireEvents(21), beans[2]);
+        assertEquals(22L, (long) windowRemovable.getOldestTimestamp());
+        assertNull(windowRemovable.expireEvents(22));
+        assertExpired(windowRemovable.expireEvents(23), beans[5]);
+        assertTrue(windowRemovable.isEmpty());
+        assertNull(windowRemovable.getOldestTimestamp());
+        assertEquals(0, windowRemovable.getReverseIndex().size());
+    }
+
+    public void testCompact() {
+        EventBean[] events = new EventBean[1000];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = createBean();
+            windowRemovable.add(i, events[i]);
+        }
+        assertEquals(1024, windowRemovable.getCapacity());
+
+        List<EventBean> expected = new ArrayList<>();
+        for (int i = 0; i < events.length; i++) {
+            if (i % 10 == 0) {
+                expected.add(events[i]);
+            } else {
+                windowRemovable.remove(events[i]);
+            }
+        }
+        assertEquals(100, windowRemovable.size());
+        assertTrue(windowRemovable.getCapacity() < 1024);
+        assertIterator(windowRemovable, expected.toArray(new EventBean[0]));
+
+        // positions remain valid after compaction
+        windowRemovable.remove(events[500]);
+        expected.remove(events[500]);
+        assertIterator(windowRemovable, expected.toArray(new EventBean[0]));
+        assertEquals(expected.subList(0, 50), new ArrayList<>(windowRemovable.expireEvents(501)));
+        assertEquals(510L, (long) windowRemovable.getOldestTimestamp());
+    }
+
+    public void testAdjust() {
+        window.add(10, beans[0]);
+        window.add(20, beans[1]);
+        window.adjust(5);
+        assertEquals(15L, (long) window.getOldestTimestamp());
+        assertNull(window.expireEvents(15));
+        assertExpired(window.expireEvents(16), beans[0]);
+        assertExpired(window.expireEvents(26), beans[1]);
+    }
+
+    public void testCompareTimeWindow() {
+        Random random = new Random(1);
+        TimeWindow reference = new TimeWindow(true);
+        List<EventBean> added = new ArrayList<>();
+        long time = 0;
+        for (int iteration = 0; iteration < 20000; iteration++) {
+            int action = random.nextInt(10);
+            if (action < 5) {
+                time += random.nextInt(3);
+                EventBean event = createBean();
+                reference.add(time, event);
+                windowRemovable.add(time, event);
+                added.add(event);
+            } else if (action < 7 && !added.isEmpty()) {
+                EventBean event = added.get(random.nextInt(added.size()));
+                reference.remove(event);
+                windowRemovable.remove(event);
+            } else {
+                long expireBefore = time - random.nextInt(20);
+                assertEquals(toList(reference.expireEvents(expireBefore)), toList(windowRemovable.expireEvents(expireBefore)));
+            }
+            assertEquals(reference.getOldestTimestamp(), windowRemovable.getOldestTimestamp());
+            assertEquals(reference.isEmpty(), windowRemovable.isEmpty());
+            if (iteration % 100 == 0) {
+                assertEquals(toList(reference.iterator()), toList(windowRemovable.iterator()));
+            }
+        }
+    }
+
+    private static List<EventBean> toList(ArrayDeque<EventBean> events) {
+        return events == null ? Collections.<EventBean>emptyList() : new ArrayList<>(events);
+    }
+
+    private static List<EventBean> toList(Iterator<EventBean> it) {
+        List<EventBean> events = new ArrayList<>();
+        while (it.hasNext()) {
+            events.add(it.next());
+        }
+        return events;
+    }
+
+    private static void assertExpired(ArrayDeque<EventBean> expired, EventBean... expected) {
+        assertEquals(Arrays.asList(expected), new ArrayList<>(expired));
+    }
+
+    private static void assertIterator(TimeWindowCompact window, EventBean... expected) {
+        assertEquals(Arrays.asList(expected), toList(window.iterator()));
+    }
+
+    private EventBean createBean() {
+        return SupportEventBeanFactory.createObject(new SupportBean());
+    }
+}
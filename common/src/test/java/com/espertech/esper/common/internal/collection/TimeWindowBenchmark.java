@@ -0,0 +1,115 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.collection;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.supportunit.event.SupportEventBeanFactory;
+
+/**
+ * Compares the memory use and throughput of the time window implementations for a window holding many events,
+ * with a configurable number of events arriving per millisecond.
+ * <p>
+ * Run as a main program with optional arguments for the number of events in the window and the number of events per millisecond.
+ */
+public class TimeWindowBenchmark {
+
+    public static void main(String[] args) {
+        int numEvents = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        int eventsPerMsec = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+        EventBean[] events = new EventBean[numEvents];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SupportEventBeanFactory.createObject(new SupportBean());
+        }
+
+        for (int run = 0; run < 3; run++) {
+            reportMemory("timewindow", new TimeWindowFill() {
+                public Object fill() {
+                    TimeWindow window = new TimeWindow(false);
+                    for (int i = 0; i < events.length; i++) {
+                        window.add(i / eventsPerMsec, events[i]);
+                    }
+                    return window;
+                }
+            });
+            reportMemory("timewindow-removable", new TimeWindowFill() {
+                public Object fill() {
+                    TimeWindow window = new TimeWindow(true);
+                    for (int i = 0; i < events.length; i++) {
+                        window.add(i / eventsPerMsec, events[i]);
+                    }
+                    return window;
+                }
+            });
+            reportMemory("compact", new TimeWindowFill() {
+                public Object fill() {
+                    TimeWindowCompact window = new TimeWindowCompact(true);
+                    for (int i = 0; i < events.length; i++) {
+                        window.add(i / eventsPerMsec, events[i]);
+                    }
+                    return window;
+                }
+            });
+
+            reportThroughput("timewindow", runTimeWindow(new TimeWindow(false), events, eventsPerMsec), events.length * 2);
+            reportThroughput("compact", runCompact(new TimeWindowCompact(false), events, eventsPerMsec), events.length * 2);
+        }
+    }
+
+    private static long runTimeWindow(TimeWindow window, EventBean[] events, int eventsPerMsec) {
+        int windowSize = events.length / 2;
+        long start = System.nanoTime();
+        for (int i = 0; i < events.length * 2; i++) {
+            long time = i / eventsPerMsec;
+            window.add(time, events[i % events.length]);
+            window.expireEvents(time - windowSize / eventsPerMsec);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runCompact(TimeWindowCompact window, EventBean[] events, int eventsPerMsec) {
+        int windowSize = events.length / 2;
+        long start = System.nanoTime();
+        for (int i = 0; i < events.length * 2; i++) {
+            long time = i / eventsPerMsec;
+            window.add(time, events[i % events.length]);
+            window.expireEvents(time - windowSize / eventsPerMsec);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void reportMemory(String name, TimeWindowFill fill) {
+        long before = usedMemory();
+        Object window = fill.fill();
+        long after = usedMemory();
+        System.out.println(String.format("%-22s %8d KB retained", name, (after - before) / 1024));
+        if (window.hashCode() == 0) {
+            System.out.println();
+        }
+    }
+
+    private static void reportThroughput(String name, long deltaNanos, int numOperations) {
+        System.out.println(String.format("%-22s %8d ms %12.0f events/sec", name, deltaNanos / 1000000, numOperations / (deltaNanos / 1e9)));
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private interface TimeWindowFill {
+        Object fill();
+    }
+}
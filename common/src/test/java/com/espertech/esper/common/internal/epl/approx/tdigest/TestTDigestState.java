@@ -0,0 +1,141 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.approx.tdigest;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class TestTDigestState extends TestCase {
+
+    public void testSmall() {
+        TDigestState digest = new TDigestState();
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+
+        digest.add(10);
+        assertEquals(10d, digest.quantile(0.5));
+
+        digest.add(20);
+        digest.add(30);
+        assertEquals(10d, digest.quantile(0));
+        assertEquals(20d, digest.quantile(0.5));
+        assertEquals(30d, digest.quantile(1));
+
+        digest.remove(10);
+        assertEquals(2d, digest.size());
+        assertEquals(25d, digest.quantile(0.5));
+        assertEquals(20d, digest.quantile(0));
+
+        digest.remove(20);
+        digest.remove(30);
+        assertEquals(0d, digest.size());
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+
+        digest.add(Double.NaN);
+        assertEquals(0d, digest.size());
+    }
+
+    public void testAccuracy() {
+        Random random = new Random(1);
+        TDigestState digest = new TDigestState();
+        double[] values = new double[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() * 10 + 100;
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertTrue(digest.getNumCentroids() <= TDigestState.DEFAULT_COMPRESSION + 1);
+        for (double q : new double[]{0.01, 0.1, 0.5, 0.9, 0.99}) {
+            double rank = rankOf(values, digest.quantile(q));
+            assertEquals("for q " + q, q, rank, 0.01);
+        }
+    }
+
+    public void testSlidingWindow() {
+        Random random = new Random(1);
+        TDigestState digest = new TDigestState();
+        List<Double> window = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            double value = random.nextDouble() * 1000;
+            window.add(value);
+            digest.add(value);
+            if (window.size() > 10000) {
+                digest.remove(window.remove(0));
+            }
+        }
+        assertEquals(10000d, digest.size());
+
+        double[] values = new double[window.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = window.get(i);
+        }
+        Arrays.sort(values);
+        for (double q : new double[]{0.1, 0.5, 0.9}) {
+            double rank = rankOf(values, digest.quantile(q));
+            assertEquals("for q " + q, q, rank, 0.05);
+        }
+    }
+
+    public void testRemoveBuffered() {
+        TDigestState digest = new TDigestState();
+        for (int i = 0; i < 1000; i++) {
+            digest.add(i);
+        }
+        for (int i = 0; i < 10; i++) {
+            digest.remove(i);
+        }
+        assertEquals(10, digest.getNumBufferedRemovals());
+        assertEquals(990d, digest.size());
+
+        digest.quantile(0.5);
+        assertEquals(0, digest.getNumBufferedRemovals());
+        assertEquals(990d, digest.size());
+
+        // removals are applied when the buffer is full
+        for (int i = 10; i < 10 + 5 * (int) TDigestState.DEFAULT_COMPRESSION + 1; i++) {
+            digest.remove(i);
+        }
+        assertEquals(1, digest.getNumBufferedRemovals());
+    }
+
+    public void testWriteRead() throws Exception {
+        TDigestState digest = new TDigestState();
+        for (int i = 0; i < 1000; i++) {
+            digest.add(i);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        digest.write(new DataOutputStream(bytes));
+        TDigestState read = TDigestState.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(digest.size(), read.size());
+        assertEquals(digest.getNumCentroids(), read.getNumCentroids());
+        for (double q : new double[]{0, 0.25, 0.5, 0.75, 1}) {
+            assertEquals(digest.quantile(q), read.quantile(q));
+        }
+    }
+
+    private static double rankOf(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index / (double) sorted.length;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.datacache;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.ExecutorService;
+
+public class TestHistoricalDataCacheFactory extends TestCase {
+
+    public void testPollExecutorShared() throws Exception {
+        HistoricalDataCacheFactory factory = new HistoricalDataCacheFactory();
+        ExecutorService executor = factory.getPollExecutor("database-db1", 2, "default");
+        assertSame(executor, factory.getPollExecutor("database-db1", 2, "default"));
+        ExecutorService other = factory.getPollExecutor("method-svc", 2, "default");
+        assertNotSame(executor, other);
+
+        String threadName = executor.submit(() -> Thread.currentThread().getName()).get();
+        assertTrue(threadName.startsWith("com.espertech.esper.HistoricalPoll-default-database-db1-"));
+
+        factory.destroy();
+        assertTrue(executor.isShutdown());
+        assertTrue(other.isShutdown());
+        try {
+            factory.getPollExecutor("database-db1", 2, "default");
+            fail();
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+}
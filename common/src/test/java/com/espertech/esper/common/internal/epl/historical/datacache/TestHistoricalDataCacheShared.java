@@ -0,0 +1,223 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.historical.datacache;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.epl.historical.indexingstrategy.PollResultIndexingStrategy;
+import com.espertech.esper.common.internal.epl.historical.indexingstrategy.UnindexedEventTableList;
+import com.espertech.esper.common.internal.epl.index.base.EventTable;
+import com.espertech.esper.common.internal.schedule.TimeProvider;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestHistoricalDataCacheShared extends TestCase {
+    private SupportTimeProvider time;
+
+    public void setUp() {
+        time = new SupportTimeProvider();
+    }
+
+    public void testWeight() {
+        HistoricalDataCacheShared cache = makeCache(20, 0, 0);
+
+        cache.put("a", makeRows(9));
+        cache.put("b", makeRows(9));
+        assertEquals(20, cache.getWeight());
+        assertEquals(2, cache.getSize());
+
+        // larger than the maximum weight is not cached
+        cache.put("c", makeRows(20));
+        assertNull(cache.getCached("c"));
+
+        // replacing adjusts the weight
+        cache.put("a", makeRows(4));
+        assertEquals(15, cache.getWeight());
+
+        // least-recently used is evicted
+        cache.getCached("a");
+        cache.put("d", makeRows(5));
+        assertNotNull(cache.getCached("a"));
+        assertNull(cache.getCached("b"));
+        assertNotNull(cache.getCached("d"));
+        assertEquals(11, cache.getWeight());
+    }
+
+    public void testAdmission() {
+        HistoricalDataCacheShared cache = makeCache(100, 0, 0);
+        for (int i = 0; i < 10; i++) {
+            cache.getCached("hot" + i);
+            cache.put("hot" + i, makeRows(1));
+        }
+        for (int repeat = 0; repeat < 10; repeat++) {
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(cache.getCached("hot" + i));
+            }
+        }
+
+        // keys that are looked up once do not displace frequently-used keys
+        for (int i = 0; i < 1000; i++) {
+            if (cache.getCached("once" + i) == null) {
+                cache.put("once" + i, makeRows(1));
+            }
+            assertTrue(cache.getWeight() <= 100);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(cache.getCached("hot" + i));
+        }
+    }
+
+    public void testMaxAge() {
+        HistoricalDataCacheShared cache = makeCache(100, 1000, 0);
+        time.time = 5000;
+        EventTable[] rows = makeRows(1);
+        cache.put("a", rows);
+
+        time.time = 6000;
+        assertSame(rows, cache.getCached("a"));
+
+        time.time = 6001;
+        assertNull(cache.getCached("a"));
+        assertEquals(0, cache.getWeight());
+    }
+
+    public void testRefresh() throws Exception {
+        HistoricalDataCacheShared cache = makeCache(100, 1000, 500);
+        SupportRefresher refresher = new SupportRefresher();
+        EventTable[] rows = makeRows(1);
+        cache.put("a", rows, refresher, "lookup", null);
+
+        // not yet due for refresh
+        time.time = 499;
+        assertSame(rows, cache.getCached("a"));
+        assertEquals(0, refresher.count.get());
+
+        // due for refresh, returns the cached rows and refreshes in the background
+        time.time = 500;
+        CountDownLatch latch = refresher.expect();
+        assertSame(rows, cache.getCached("a"));
+        assertSame(rows, cache.getCached("a"));
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals("lookup", refresher.lookupValue);
+        EventTable[] refreshed = awaitReplaced(cache, "a", rows);
+        assertEquals(3, cache.getWeight());
+        assertEquals(1, refresher.count.get());
+
+        // refreshed entry is not due for refresh and does not expire at the original time
+        time.time = 999;
+        assertSame(refreshed, cache.getCached("a"));
+        assertEquals(1, refresher.count.get());
+
+        // a stopped refresher evicts the entry, so that the next lookup polls again
+        refresher.stopped = true;
+        time.time = 1000;
+        latch = refresher.expect();
+        assertSame(refreshed, cache.getCached("a"));
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (cache.getSize() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertNull(cache.getCached("a"));
+        assertEquals(0, cache.getWeight());
+
+        cache.destroy();
+    }
+
+    public void testRefreshFailure() throws Exception {
+        HistoricalDataCacheShared cache = makeCache(100, 0, 100);
+        SupportRefresher refresher = new SupportRefresher();
+        refresher.fail = true;
+        EventTable[] rows = makeRows(1);
+        cache.put("a", rows, refresher, "lookup", null);
+
+        time.time = 100;
+        CountDownLatch latch = refresher.expect();
+        assertSame(rows, cache.getCached("a"));
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        // a failed refresh is retried upon the next lookup
+        refresher.fail = false;
+        latch = refresher.expect();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (latch.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            assertSame(rows, cache.getCached("a"));
+            latch.await(10, TimeUnit.MILLISECONDS);
+        }
+        awaitReplaced(cache, "a", rows);
+        cache.destroy();
+    }
+
+    private EventTable[] awaitReplaced(HistoricalDataCacheShared cache, Object key, EventTable[] rows) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            EventTable[] current = cache.getCached(key);
+            if (current != rows) {
+                assertNotNull(current);
+                return current;
+            }
+            Thread.sleep(1);
+        }
+        fail("Entry not refreshed");
+        return null;
+    }
+
+    private HistoricalDataCacheShared makeCache(long maxWeight, long maxAgeMSec, long refreshAfterMSec) {
+        return new HistoricalDataCacheShared(new HistoricalDataCacheFactory(), "test", time, maxWeight, maxAgeMSec, refreshAfterMSec);
+    }
+
+    private static EventTable[] makeRows(int numRows) {
+        List<EventBean> events = new ArrayList<>(Collections.<EventBean>nCopies(numRows, null));
+        return new EventTable[]{new UnindexedEventTableList(events, -1)};
+    }
+
+    private static class SupportTimeProvider implements TimeProvider {
+        private volatile long time;
+
+        public long getTime() {
+            return time;
+        }
+    }
+
+    private static class SupportRefresher implements HistoricalDataCacheRefresher {
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile boolean stopped;
+        private volatile boolean fail;
+        private volatile Object lookupValue;
+        private volatile CountDownLatch latch = new CountDownLatch(1);
+
+        CountDownLatch expect() {
+            latch = new CountDownLatch(1);
+            return latch;
+        }
+
+        public EventTable[] refresh(Object lookupValue, PollResultIndexingStrategy indexingStrategy) {
+            try {
+                this.lookupValue = lookupValue;
+                if (stopped) {
+                    return null;
+                }
+                if (fail) {
+                    throw new RuntimeException("Failed for testing");
+                }
+                count.incrementAndGet();
+                return makeRows(2);
+            } finally {
+                latch.countDown();
+            }
+        }
+    }
+}
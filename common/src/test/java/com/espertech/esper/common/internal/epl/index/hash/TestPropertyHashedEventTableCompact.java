@@ -0,0 +1,206 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.index.hash;
+
+import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventPropertyValueGetter;
+import com.espertech.esper.common.internal.epl.index.base.EventTable;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestPropertyHashedEventTableCompact extends TestCase {
+
+    public void testFactoryKeyTypes() {
+        assertEquals(Long.class, PropertyHashedEventTableFactory.getCompactKeyType(new Class[]{long.class}));
+        assertEquals(Integer.class, PropertyHashedEventTableFactory.getCompactKeyType(new Class[]{Integer.class}));
+        assertEquals(String.class, PropertyHashedEventTableFactory.getCompactKeyType(new Class[]{String.class}));
+        assertNull(PropertyHashedEventTableFactory.getCompactKeyType(new Class[]{Object.class}));
+        assertNull(PropertyHashedEventTableFactory.getCompactKeyType(new Class[]{long.class, long.class}));
+        assertNull(PropertyHashedEventTableFactory.getCompactKeyType(null));
+
+        EventPropertyValueGetter getter = eventBean -> ((SupportBean) eventBean.getUnderlying()).getLongPrimitive();
+        assertTrue(makeTable(getter, long.class, false) instanceof PropertyHashedEventTableUnadornedCompact);
+        assertTrue(makeTable(getter, String.class, true) instanceof PropertyHashedEventTableUniqueCompact);
+        assertTrue(makeTable(getter, Object.class, false) instanceof PropertyHashedEventTableUnadorned);
+        assertTrue(new PropertyHashedEventTableFactory(0, new String[]{"p"}, true, null, getter, null).makeEventTables(null, null)[0] instanceof PropertyHashedEventTableUnique);
+    }
+
+    public void testNonUnique() {
+        EventPropertyValueGetter getter = eventBean -> ((SupportBean) eventBean.getUnderlying()).getLongBoxed();
+        PropertyHashedEventTable table = makeTable(getter, Long.class, false);
+        EventBean[] events = makeEvents(new Long[]{1L, 2L, 1L, null, 1L});
+
+        table.add(events, null);
+        assertEquals(3, table.getNumKeys());
+        assertEquals(5, (int) table.getNumberOfEvents());
+        assertEquals(set(events[0], events[2], events[4]), table.lookup(1L));
+        assertEquals(set(events[1]), table.lookup(2L));
+        assertSame(table.lookup(2L), table.lookup(2L));
+        assertEquals(set(events[3]), table.lookup(null));
+        assertNull(table.lookup(3L));
+        assertNull(table.lookup(1));
+        assertEquals(set(events), toSet(table.iterator()));
+
+        // removing an event not in the index has no effect
+        table.remove(makeEvents(new Long[]{2L})[0], null);
+        assertEquals(5, (int) table.getNumberOfEvents());
+
+        table.remove(new EventBean[]{events[0], events[4], events[3]}, null);
+        assertEquals(set(events[2]), table.lookup(1L));
+        assertNull(table.lookup(null));
+        assertEquals(2, table.getNumKeys());
+        assertEquals(set(events[1], events[2]), toSet(table.iterator()));
+
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertFalse(table.iterator().hasNext());
+    }
+
+    public void testUnique() {
+        EventPropertyValueGetter getter = eventBean -> ((SupportBean) eventBean.getUnderlying()).getTheString();
+        PropertyHashedEventTableUniqueCompact table = (PropertyHashedEventTableUniqueCompact) makeTable(getter, String.class, true);
+        EventBean[] events = SupportEventBeanFactory.makeEvents(new String[]{"a", "b", "c"});
+
+        table.add(events, null);
+        assertEquals(3, (int) table.getNumberOfEvents());
+        assertEquals(set(events[1]), table.lookup("b"));
+        assertNull(table.lookup("x"));
+        assertEquals(set(events), table.allValues());
+
+        try {
+            table.add(SupportEventBeanFactory.makeEvents(new String[]{"b"})[0], null);
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Unique index violation, index is a unique index and key 'b' already exists", ex.getMessage());
+        }
+
+        EventBean replacement = SupportEventBeanFactory.makeEvents(new String[]{"a"})[0];
+        table.remove(events[0], null);
+        table.add(replacement, null);
+        assertEquals(set(replacement), table.lookup("a"));
+    }
+
+    public void testCompareGeneric() {
+        Random random = new Random(1);
+        Class[] keyTypes = new Class[]{Long.class, Integer.class, Double.class, String.class};
+        for (Class keyType : keyTypes) {
+            Map<EventBean, Object> keys = new IdentityHashMap<>();
+            EventPropertyValueGetter getter = keys::get;
+            PropertyHashedEventTable compact = makeTable(getter, keyType, false);
+            PropertyHashedEventTable generic = makeTable(getter, Object.class, false);
+            List<EventBean> added = new ArrayList<>();
+
+            for (int i = 0; i < 20000; i++) {
+                if (added.isEmpty() || random.nextInt(3) > 0) {
+                    EventBean event = SupportEventBeanFactory.createObject(new SupportBean());
+                    keys.put(event, randomKey(random, keyType));
+                    compact.add(event, null);
+                    generic.add(event, null);
+                    added.add(event);
+                } else {
+                    EventBean event = added.remove(random.nextInt(added.size()));
+                    compact.remove(event, null);
+                    generic.remove(event, null);
+                }
+
+                Object lookup = randomKey(random, keyType);
+                assertEquals(toSet(generic.lookup(lookup)), toSet(compact.lookup(lookup)));
+                if (i % 1000 == 0) {
+                    assertEquals(generic.getNumKeys(), compact.getNumKeys());
+                    assertEquals(toSet(generic.iterator()), toSet(compact.iterator()));
+                }
+            }
+            assertEquals(added.size(), (int) compact.getNumberOfEvents());
+        }
+    }
+
+    public void testStoreRemoveShift() {
+        PropertyHashedIndexStoreLong store = new PropertyHashedIndexStoreLong(Long.class);
+        for (long i = 0; i < 1000; i++) {
+            store.put(i * 1024, i);
+        }
+        assertEquals(1000, store.size());
+        for (long i = 0; i < 1000; i += 2) {
+            assertEquals(i, store.remove(i * 1024));
+        }
+        for (long i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? null : (Object) i, store.get(i * 1024));
+        }
+        assertEquals(500, store.size());
+
+        int capacity = store.getCapacity();
+        store.clear();
+        assertTrue(store.getCapacity() < capacity);
+        assertNull(store.get(1024L));
+    }
+
+    public void testFloatingPointKeys() {
+        PropertyHashedIndexStoreLong store = new PropertyHashedIndexStoreLong(Double.class);
+        store.put(0.0d, "zero");
+        store.put(-0.0d, "negzero");
+        store.put(Double.NaN, "nan");
+        assertEquals("zero", store.get(0.0d));
+        assertEquals("negzero", store.get(-0.0d));
+        assertEquals("nan", store.get(Double.NaN));
+        assertNull(store.get(0.0f));
+    }
+
+    private static Object randomKey(Random random, Class keyType) {
+        int value = random.nextInt(200) - 5;
+        if (value < 0) {
+            return value == -1 ? null : (Object) ("other" + value);
+        }
+        if (keyType == Long.class) {
+            return (long) value;
+        } else if (keyType == Integer.class) {
+            return value;
+        } else if (keyType == Double.class) {
+            return value / 4d;
+        }
+        return "k" + value;
+    }
+
+    private static PropertyHashedEventTable makeTable(EventPropertyValueGetter getter, Class keyType, boolean unique) {
+        PropertyHashedEventTableFactory factory = new PropertyHashedEventTableFactory(0, new String[]{"p"}, unique, null, getter, null, new Class[]{keyType});
+        EventTable[] tables = factory.makeEventTables(null, null);
+        return (PropertyHashedEventTable) tables[0];
+    }
+
+    private static EventBean[] makeEvents(Long[] keys) {
+        EventBean[] events = new EventBean[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            SupportBean bean = new SupportBean();
+            bean.setLongBoxed(keys[i]);
+            events[i] = SupportEventBeanFactory.createObject(bean);
+        }
+        return events;
+    }
+
+    private static Set<EventBean> set(EventBean... events) {
+        return new HashSet<>(Arrays.asList(events));
+    }
+
+    private static Set<EventBean> toSet(Collection<EventBean> events) {
+        return events == null ? Collections.emptySet() : new HashSet<>(events);
+    }
+
+    private static Set<EventBean> toSet(Iterator<EventBean> it) {
+        Set<EventBean> events = new HashSet<>();
+        while (it.hasNext()) {
+            events.add(it.next());
+        }
+        return events;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.index.hash;
+
+import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventPropertyValueGetter;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+public class TestPropertyHashedEventTableUniqueConcurrent extends TestCase {
+
+    private static final EventPropertyValueGetter GETTER = eventBean -> ((SupportBean) eventBean.getUnderlying()).getTheString();
+
+    public void testAddRemoveLookup() {
+        PropertyHashedEventTableUniqueConcurrent table = makeTable();
+        assertTrue(table.getPropertyIndex() instanceof ConcurrentHashMap);
+        assertEquals(PropertyHashedEventTableUnique.class, table.getProviderClass());
+
+        EventBean[] events = SupportEventBeanFactory.makeEvents(new String[]{"a", "b"});
+        EventBean eventNullKey = SupportEventBeanFactory.createObject(new SupportBean(null, 0));
+        table.add(events, null);
+        table.add(eventNullKey, null);
+
+        assertEquals(3, (int) table.getNumberOfEvents());
+        assertEquals(Collections.singleton(events[0]), table.lookup("a"));
+        assertEquals(Collections.singleton(eventNullKey), table.lookup(null));
+        assertNull(table.lookup("c"));
+
+        try {
+            table.add(SupportEventBeanFactory.createObject(new SupportBean(null, 1)), null);
+            fail();
+        } catch (EPException ex) {
+            // expected
+        }
+
+        table.remove(eventNullKey, null);
+        assertNull(table.lookup(null));
+        table.remove(events[0], null);
+        assertEquals(Collections.singleton(events[1]), table.allValues());
+    }
+
+    public void testIndexKey() {
+        assertNull(PropertyHashedEventTableUniqueConcurrent.fromIndexKey(PropertyHashedEventTableUniqueConcurrent.toIndexKey(null)));
+        assertNotNull(PropertyHashedEventTableUniqueConcurrent.toIndexKey(null));
+        assertEquals("a", PropertyHashedEventTableUniqueConcurrent.toIndexKey("a"));
+        assertEquals("a", PropertyHashedEventTableUniqueConcurrent.fromIndexKey("a"));
+    }
+
+    public void testMultithreadedAdd() throws Exception {
+        final PropertyHashedEventTableUniqueConcurrent table = makeTable();
+        final int numThreads = 4;
+        final int numKeys = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = thread; i < numKeys; i += numThreads) {
+                    table.add(SupportEventBeanFactory.createObject(new SupportBean("k" + i, i)), null);
+                    assertNotNull(table.lookup("k" + i));
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(numKeys, table.getNumKeys());
+        Set<String> keys = new HashSet<>();
+        for (EventBean event : table) {
+            keys.add(((SupportBean) event.getUnderlying()).getTheString());
+        }
+        assertEquals(numKeys, keys.size());
+    }
+
+    private static PropertyHashedEventTableUniqueConcurrent makeTable() {
+        return new PropertyHashedEventTableUniqueConcurrent(new PropertyHashedEventTableFactory(0, new String[]{"theString"}, true, null, GETTER, null));
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.pattern.filter;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventPropertyValueGetter;
+import com.espertech.esper.common.internal.context.util.StatementContextFilterEvalEnv;
+import com.espertech.esper.common.internal.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.common.internal.epl.expression.core.ExprFilterSpecLookupable;
+import com.espertech.esper.common.internal.filterspec.FilterOperator;
+import com.espertech.esper.common.internal.filterspec.FilterSpecParam;
+import com.espertech.esper.common.internal.filterspec.MatchedEventMap;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallback;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.Collection;
+
+public class TestEvalFilterCorrelationIndex extends TestCase {
+    private SupportCorrelationIndex index;
+
+    public void setUp() {
+        EventPropertyValueGetter getter = new EventPropertyValueGetter() {
+            public Object get(EventBean eventBean) {
+                return ((SupportBean) eventBean.getUnderlying()).getTheString();
+            }
+        };
+        FilterSpecParam keyParam = new SupportFilterSpecParam(new ExprFilterSpecLookupable("theString", getter, String.class, false), FilterOperator.EQUAL);
+        FilterSpecParam otherParam = new SupportFilterSpecParam(new ExprFilterSpecLookupable("intPrimitive", null, int.class, false), FilterOperator.EQUAL);
+        index = new SupportCorrelationIndex(new FilterSpecParam[]{otherParam, keyParam});
+    }
+
+    public void testAddRemove() {
+        SupportFilterStateNode nodeOne = new SupportFilterStateNode();
+        EvalFilterCorrelatedHandle handleOne = add(nodeOne, "K1", 0);
+        assertEquals(1, index.getNumWaiting());
+        assertEquals(1, index.getNumKeys());
+        assertEquals(1, index.numStarted);
+
+        SupportFilterStateNode nodeTwo = new SupportFilterStateNode();
+        EvalFilterCorrelatedHandle handleTwo = add(nodeTwo, "K2", 0);
+        assertEquals(2, index.getNumWaiting());
+        assertEquals(2, index.getNumKeys());
+        assertEquals(1, index.numStarted);
+
+        index.match(makeEvent("K1"), 1, null);
+        assertEquals(1, nodeOne.numMatches);
+        assertEquals(0, nodeTwo.numMatches);
+
+        index.match(makeEvent("K3"), 2, null);
+        assertEquals(1, nodeOne.numMatches);
+        assertEquals(0, nodeTwo.numMatches);
+
+        index.remove(handleOne);
+        assertEquals(1, index.getNumWaiting());
+        assertEquals(1, index.getNumKeys());
+        index.match(makeEvent("K1"), 3, null);
+        assertEquals(1, nodeOne.numMatches);
+
+        // removing again has no effect
+        index.remove(handleOne);
+        assertEquals(1, index.getNumWaiting());
+        assertEquals(0, index.numStopped);
+
+        index.match(makeEvent("K2"), 4, null);
+        assertEquals(1, nodeTwo.numMatches);
+        index.remove(handleTwo);
+        assertEquals(0, index.getNumWaiting());
+        assertEquals(0, index.getNumKeys());
+    }
+
+    public void testListCollapse() {
+        SupportFilterStateNode[] nodes = new SupportFilterStateNode[3];
+        EvalFilterCorrelatedHandle[] handles = new EvalFilterCorrelatedHandle[3];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new SupportFilterStateNode();
+            handles[i] = add(nodes[i], "K1", 0);
+        }
+        assertEquals(3, index.getNumWaiting());
+        assertEquals(1, index.getNumKeys());
+
+        index.match(makeEvent("K1"), 1, null);
+        assertMatches(nodes, 1, 1, 1);
+
+        index.remove(handles[1]);
+        index.match(makeEvent("K1"), 2, null);
+        assertMatches(nodes, 2, 1, 2);
+
+        // list of one collapses to the single handle
+        index.remove(handles[0]);
+        assertEquals(1, index.getNumWaiting());
+        assertEquals(1, index.getNumKeys());
+        index.match(makeEvent("K1"), 3, null);
+        assertMatches(nodes, 2, 1, 3);
+
+        // a list handle that was removed already has no effect
+        index.remove(handles[0]);
+        assertEquals(1, index.getNumWaiting());
+
+        index.remove(handles[2]);
+        assertEquals(0, index.getNumWaiting());
+        assertEquals(0, index.getNumKeys());
+    }
+
+    public void testNullKey() {
+        SupportFilterStateNode node = new SupportFilterStateNode();
+        EvalFilterCorrelatedHandle handle = add(node, null, 0);
+        assertEquals(0, index.getNumWaiting());
+        assertEquals(0, index.getNumKeys());
+        assertEquals(0, index.numStarted);
+
+        index.match(makeEvent(null), 1, null);
+        assertEquals(0, node.numMatches);
+
+        index.remove(handle);
+        assertEquals(0, index.numStopped);
+    }
+
+    public void testSameEventSequence() {
+        SupportFilterStateNode nodeOne = new SupportFilterStateNode();
+        add(nodeOne, "K1", 0);
+        // started while the event of sequence number 1 was being processed
+        SupportFilterStateNode nodeTwo = new SupportFilterStateNode();
+        add(nodeTwo, "K1", 1);
+        SupportFilterStateNode nodeThree = new SupportFilterStateNode();
+        add(nodeThree, "K2", 1);
+
+        EventBean event = makeEvent("K1");
+        index.match(event, 1, null);
+        assertEquals(1, nodeOne.numMatches);
+        assertEquals(0, nodeTwo.numMatches);
+
+        index.match(makeEvent("K2"), 1, null);
+        assertEquals(0, nodeThree.numMatches);
+
+        index.match(makeEvent("K1"), 2, null);
+        assertEquals(2, nodeOne.numMatches);
+        assertEquals(1, nodeTwo.numMatches);
+        index.match(makeEvent("K2"), 2, null);
+        assertEquals(1, nodeThree.numMatches);
+    }
+
+    public void testStopFilteringLastWaiter() {
+        EvalFilterCorrelatedHandle handleOne = add(new SupportFilterStateNode(), "K1", 0);
+        EvalFilterCorrelatedHandle handleTwo = add(new SupportFilterStateNode(), "K1", 0);
+        EvalFilterCorrelatedHandle handleThree = add(new SupportFilterStateNode(), "K2", 0);
+        assertEquals(1, index.numStarted);
+
+        index.remove(handleOne);
+        index.remove(handleThree);
+        assertEquals(0, index.numStopped);
+
+        index.remove(handleTwo);
+        assertEquals(1, index.numStopped);
+
+        // the next waiter starts filtering again
+        EvalFilterCorrelatedHandle handleFour = add(new SupportFilterStateNode(), "K3", 0);
+        assertEquals(2, index.numStarted);
+        index.remove(handleFour);
+        assertEquals(2, index.numStopped);
+    }
+
+    private EvalFilterCorrelatedHandle add(SupportFilterStateNode node, Object key, long sequence) {
+        EvalFilterCorrelatedHandle handle = new EvalFilterCorrelatedHandle(null, node, key, sequence);
+        node.handle = handle;
+        index.add(handle, null);
+        return handle;
+    }
+
+    private static EventBean makeEvent(String theString) {
+        return SupportEventBeanFactory.createObject(new SupportBean(theString, 0));
+    }
+
+    private static void assertMatches(SupportFilterStateNode[] nodes, int... numMatches) {
+        for (int i = 0; i < nodes.length; i++) {
+            assertEquals(numMatches[i], nodes[i].numMatches);
+        }
+    }
+
+    private static class SupportCorrelationIndex extends EvalFilterCorrelationIndex {
+        private int numStarted;
+        private int numStopped;
+
+        SupportCorrelationIndex(FilterSpecParam[] params) {
+            super(null, params, 1);
+        }
+
+        void startFiltering(MatchedEventMap beginState) {
+            numStarted++;
+        }
+
+        void stopFiltering() {
+            numStopped++;
+        }
+    }
+
+    private static class SupportFilterSpecParam extends FilterSpecParam {
+        SupportFilterSpecParam(ExprFilterSpecLookupable lookupable, FilterOperator filterOperator) {
+            super(lookupable, filterOperator);
+        }
+
+        public Object getFilterValue(MatchedEventMap matchedEvents, ExprEvaluatorContext exprEvaluatorContext, StatementContextFilterEvalEnv filterEvalEnv) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class SupportFilterStateNode extends EvalFilterStateNode {
+        private int numMatches;
+
+        SupportFilterStateNode() {
+            super(null, null);
+        }
+
+        public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+            numMatches++;
+        }
+    }
+}
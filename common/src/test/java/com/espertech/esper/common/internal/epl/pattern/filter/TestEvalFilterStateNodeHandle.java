@@ -0,0 +1,56 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.pattern.filter;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallback;
+import junit.framework.TestCase;
+
+import java.util.Collection;
+
+public class TestEvalFilterStateNodeHandle extends TestCase {
+
+    public void testMatchOnlyForCurrentActivation() {
+        SupportFilterStateNode node = new SupportFilterStateNode();
+        EvalFilterStateNodeHandle first = new EvalFilterStateNodeHandle(null, node);
+        assertSame(first, first.getFilterCallback());
+        assertSame(node, first.getStateNode());
+
+        node.handle = first;
+        first.matchFound(null, null);
+        assertEquals(1, node.numMatches);
+
+        // activation ended and node started again
+        EvalFilterStateNodeHandle second = new EvalFilterStateNodeHandle(null, node);
+        node.handle = second;
+        first.matchFound(null, null);
+        assertEquals(1, node.numMatches);
+        second.matchFound(null, null);
+        assertEquals(2, node.numMatches);
+
+        // activation ended
+        node.handle = null;
+        second.matchFound(null, null);
+        assertEquals(2, node.numMatches);
+    }
+
+    private static class SupportFilterStateNode extends EvalFilterStateNode {
+        private int numMatches;
+
+        SupportFilterStateNode() {
+            super(null, null);
+        }
+
+        public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+            numMatches++;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.rowrecog.core;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+public class TestRowRecogMultimatchState extends TestCase {
+    private final EventBean[] beans = new EventBean[10];
+
+    public void setUp() {
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = SupportEventBeanFactory.createObject(new SupportBean("E" + i, i));
+        }
+    }
+
+    public void testAddGrow() {
+        RowRecogMultimatchState state = new RowRecogMultimatchState(beans[0]);
+        for (int i = 1; i < beans.length; i++) {
+            state.add(beans[i]);
+        }
+        assertEquals(beans.length, state.getCount());
+        assertEvents(state, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertTrue(state.containsEvent(beans[9]));
+    }
+
+    public void testCopySharesBuffer() {
+        RowRecogMultimatchState state = new RowRecogMultimatchState(beans[0]);
+        state.add(beans[1]);
+
+        RowRecogMultimatchState copy = new RowRecogMultimatchState(state);
+        assertSame(state.getBuffer(), copy.getBuffer());
+
+        // the same event added by both continues to share
+        copy.add(beans[2]);
+        state.add(beans[2]);
+        assertSame(state.getBuffer(), copy.getBuffer());
+        assertEvents(state, 0, 1, 2);
+        assertEvents(copy, 0, 1, 2);
+    }
+
+    public void testCopyDiverges() {
+        RowRecogMultimatchState state = new RowRecogMultimatchState(beans[0]);
+        RowRecogMultimatchState copy = new RowRecogMultimatchState(state);
+        RowRecogMultimatchState copyTwo = new RowRecogMultimatchState(state);
+
+        copy.add(beans[1]);
+        state.add(beans[2]);
+        assertNotSame(state.getBuffer(), copy.getBuffer());
+        assertEvents(copy, 0, 1);
+        assertEvents(state, 0, 2);
+        assertFalse(state.containsEvent(beans[1]));
+
+        // not added to, sees only its own events
+        assertEvents(copyTwo, 0);
+        assertFalse(copyTwo.containsEvent(beans[1]));
+
+        copyTwo.add(beans[3]);
+        assertEvents(copyTwo, 0, 3);
+        assertEvents(copy, 0, 1);
+        assertEvents(state, 0, 2);
+    }
+
+    public void testShrinkRetained() {
+        RowRecogMultimatchState state = new RowRecogMultimatchState(beans[0]);
+        state.add(beans[1]);
+        RowRecogMultimatchState copy = new RowRecogMultimatchState(state);
+        copy.add(beans[2]);
+
+        EventBean[] shrunk = state.getShrinkEventArray();
+        assertEquals(2, shrunk.length);
+        assertSame(shrunk, state.getShrinkEventArray());
+
+        state.add(beans[3]);
+        assertEvents(state, 0, 1, 3);
+        assertEvents(copy, 0, 1, 2);
+        assertSame(beans[1], shrunk[1]);
+        assertEquals(2, shrunk.length);
+    }
+
+    private void assertEvents(RowRecogMultimatchState state, int... expected) {
+        EventBean[] events = state.getShrinkEventArray();
+        assertEquals(expected.length, events.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(beans[expected[i]], events[i]);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.epl.variable.core;
+
+import junit.framework.TestCase;
+
+public class TestVersionedValueListLockFree extends TestCase {
+    private VariableVersionThreadLocal versionThreadLocal;
+    private VersionedValueListLockFree<String> list;
+
+    public void setUp() {
+        versionThreadLocal = new VariableVersionThreadLocal(true);
+        list = new VersionedValueListLockFree<String>("abc", 2, "a", 1000, 10000, versionThreadLocal, 10, true);
+    }
+
+    public void testFlowNoReaders() {
+        tryInvalid(1);
+        assertEquals("a", list.getVersion(2));
+        assertEquals("a", list.getVersion(3));
+
+        assertEquals("a", list.addValue(4, "b", 0));
+        assertEquals(2, list.getNumVersions());
+        assertEquals("a", list.getVersion(3));
+        assertEquals("b", list.getVersion(4));
+
+        // no thread reads version 3 or older, only the prior version that was current is retained
+        assertEquals("b", list.addValue(6, "c", 0));
+        assertEquals(2, list.getNumVersions());
+        tryInvalid(3);
+        assertEquals("b", list.getVersion(5));
+        assertEquals("c", list.getVersion(6));
+
+        CurrentValue<String> current = list.getCurrentAndPriorValue();
+        assertEquals("c", current.getCurrentVersion().getValue());
+        assertEquals(4, current.getPriorVersion().getVersion());
+    }
+
+    public void testReaderRetainsVersions() {
+        VariableVersionThreadEntry entry = versionThreadLocal.getCurrentThread();
+        entry.setReadVersion(3);
+
+        list.addValue(4, "b", 0);
+        list.addValue(6, "c", 0);
+        list.addValue(7, "d", 0);
+        assertEquals(4, list.getNumVersions());
+        assertEquals("a", list.getVersion(3));
+        assertEquals("b", list.getVersion(5));
+        assertEquals("c", list.getVersion(6));
+        assertEquals("d", list.getVersion(7));
+
+        // reader moves on to the current version, releasing all older versions upon the next write
+        entry.setReadVersion(7);
+        list.addValue(8, "e", 0);
+        assertEquals(2, list.getNumVersions());
+        tryInvalid(6);
+        assertEquals("d", list.getVersion(7));
+        assertEquals("e", list.getVersion(8));
+
+        // a version published before a roll-over is newer then the current version and is ignored
+        entry.setReadVersion(Integer.MAX_VALUE - 10);
+        list.addValue(9, "f", 0);
+        assertEquals(2, list.getNumVersions());
+    }
+
+    public void testReaderThreadEnds() throws Exception {
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                versionThreadLocal.getCurrentThread().setReadVersion(2);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        list.addValue(4, "b", 0);
+        list.addValue(6, "c", 0);
+        assertEquals(2, list.getNumVersions());
+        tryInvalid(3);
+    }
+
+    public void testHighWatermark() {
+        versionThreadLocal.getCurrentThread().setReadVersion(2);
+
+        for (int i = 0; i < 12; i++) {
+            list.addValue(3 + i, "v" + i, 1000 + i * 100);
+        }
+        assertEquals(13, list.getNumVersions());
+        assertEquals("a", list.getVersion(2));
+
+        // expire versions older then 10 seconds even though a thread published an older version
+        list.addValue(20, "x", 15500);
+        assertEquals(10, list.getNumVersions());
+        tryInvalid(2);
+        tryInvalid(5);
+        assertEquals("v3", list.getVersion(6));
+        assertEquals("x", list.getVersion(20));
+    }
+
+    private void tryInvalid(int version) {
+        try {
+            list.getVersion(version);
+            fail();
+        } catch (IllegalStateException ex) {
+        }
+    }
+}
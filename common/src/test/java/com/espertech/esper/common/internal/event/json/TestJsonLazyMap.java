@@ -0,0 +1,213 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.event.json;
+
+import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.internal.event.core.TypeBeanOrUnderlying;
+import com.espertech.esper.common.internal.event.map.MapEventType;
+import com.espertech.esper.common.internal.supportunit.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TestJsonLazyMap extends TestCase {
+    private Map<String, Object> types;
+
+    public void setUp() {
+        Map<String, Object> nestedTypes = new HashMap<>();
+        nestedTypes.put("city", String.class);
+        nestedTypes.put("zip", int.class);
+
+        types = new HashMap<>();
+        types.put("id", String.class);
+        types.put("qty", int.class);
+        types.put("price", double.class);
+        types.put("amount", BigDecimal.class);
+        types.put("active", Boolean.class);
+        types.put("scores", long[].class);
+        types.put("tags", String[].class);
+        types.put("address", nestedTypes);
+    }
+
+    public void testDecodeOnAccess() {
+        String json = "{\"id\": \"E1\", \"qty\": 10, \"price\": 1.5, \"amount\": \"12.30\", \"active\": true,\n" +
+            " \"scores\": [1, 2, 3], \"tags\": [\"a\", \"b\\\"c\"], \"address\": {\"city\": \"X\", \"zip\": 100},\n" +
+            " \"other\": {\"deep\": [1, {\"x\": [2]}]}}";
+        JsonLazyMap map = JsonLazyMap.parse(json, types);
+        assertEquals(9, map.size());
+        assertEquals(0, map.getNumDecoded());
+
+        assertEquals(10, map.get("qty"));
+        assertEquals(1, map.getNumDecoded());
+        assertEquals("E1", map.get("id"));
+        assertEquals(1.5d, map.get("price"));
+        assertEquals(new BigDecimal("12.30"), map.get("amount"));
+        assertEquals(true, map.get("active"));
+        assertTrue(Arrays.equals(new long[]{1, 2, 3}, (long[]) map.get("scores")));
+        assertTrue(Arrays.equals(new String[]{"a", "b\"c"}, (String[]) map.get("tags")));
+
+        Map<String, Object> address = (Map<String, Object>) map.get("address");
+        assertEquals("X", address.get("city"));
+        assertEquals(100, address.get("zip"));
+        assertSame(address, map.get("address"));
+
+        Map<String, Object> other = (Map<String, Object>) map.get("other");
+        Object[] deep = (Object[]) other.get("deep");
+        assertEquals(1L, deep[0]);
+        assertTrue(Arrays.equals(new Object[]{2L}, (Object[]) ((Map) deep[1]).get("x")));
+
+        assertNull(map.get("none"));
+        assertFalse(map.containsKey("none"));
+        assertTrue(map.containsKey("id"));
+    }
+
+    public void testUntyped() {
+        JsonLazyMap map = JsonLazyMap.parse("{\"s\":\"\\u0041\\n\",\"l\":-5,\"d\":1e3,\"b\":false,\"n\":null,\"big\":123456789012345678901234}", (JsonMapLayout) null);
+        assertEquals("A\n", map.get("s"));
+        assertEquals(-5L, map.get("l"));
+        assertEquals(1000d, map.get("d"));
+        assertEquals(false, map.get("b"));
+        assertNull(map.get("n"));
+        assertTrue(map.containsKey("n"));
+        assertEquals(1.2345678901234568E23, map.get("big"));
+    }
+
+    public void testNamedNestedTypes() {
+        Map<String, Object> itemTypes = new HashMap<>();
+        itemTypes.put("sku", String.class);
+        itemTypes.put("count", int.class);
+        MapEventType itemType = (MapEventType) SupportEventTypeFactory.createMapType(itemTypes);
+
+        Map<String, Object> orderTypes = new HashMap<>();
+        orderTypes.put("first", new TypeBeanOrUnderlying(itemType));
+        orderTypes.put("items", new TypeBeanOrUnderlying[]{new TypeBeanOrUnderlying(itemType)});
+        MapEventType orderType = (MapEventType) SupportEventTypeFactory.createMapType(orderTypes);
+        assertSame(orderType.getJsonLayout(), orderType.getJsonLayout());
+
+        JsonLazyMap map = JsonLazyMap.parse("{\"first\":{\"sku\":\"A\",\"count\":\"1\"},\"items\":[{\"sku\":\"B\",\"count\":2},{\"count\":3}]}", orderType.getJsonLayout());
+        assertEquals(1, ((Map) map.get("first")).get("count"));
+        Map[] items = (Map[]) map.get("items");
+        assertEquals(2, items.length);
+        assertEquals("B", items[0].get("sku"));
+        assertEquals(2, items[0].get("count"));
+        assertEquals(3, items[1].get("count"));
+        assertNull(items[1].get("sku"));
+    }
+
+    public void testManyUndeclared() {
+        StringBuilder json = new StringBuilder("{\"id\":\"E1\"");
+        for (int i = 0; i < 20; i++) {
+            json.append(",\"p").append(i).append("\":").append(i);
+        }
+        json.append(",\"p5\":50,\"id\":\"E2\"}");
+        JsonLazyMap map = JsonLazyMap.parse(json.toString(), types);
+        assertEquals(21, map.size());
+        assertEquals("E2", map.get("id"));
+        assertEquals(50L, map.get("p5"));
+        assertEquals(19L, map.get("p19"));
+        assertFalse(map.containsKey("p20"));
+    }
+
+    public void testTextInput() {
+        String json = " { \"id\" : \"E2\" , \"qty\" : 7 } ";
+        assertEquals(7, JsonLazyMap.parse(json.getBytes(StandardCharsets.UTF_8), types).get("qty"));
+        ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        assertEquals("E2", JsonLazyMap.parse(buffer, types).get("id"));
+        assertEquals(0, buffer.position());
+
+        assertTrue(JsonLazyMap.parse("{}", types).isEmpty());
+    }
+
+    public void testEntriesAndDuplicates() {
+        JsonLazyMap map = JsonLazyMap.parse("{\"id\":\"E1\",\"qty\":1,\"id\":\"E3\"}", types);
+        assertEquals(2, map.size());
+        assertEquals("E3", map.get("id"));
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("id", "E3");
+        expected.put("qty", 1);
+        assertEquals(expected, map);
+        assertEquals(expected.keySet(), map.keySet());
+    }
+
+    public void testConcurrentFirstAccess() throws Exception {
+        int numThreads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            for (int i = 0; i < 200; i++) {
+                JsonLazyMap map = JsonLazyMap.parse("{\"nested\": {\"id\": \"N" + i + "\", \"inner\": {\"v\": " + i + "}}, \"arr\": [{\"a\": 1}, {\"a\": 2}]}", (JsonMapLayout) null);
+                CyclicBarrier barrier = new CyclicBarrier(numThreads);
+                List<Future<Object[]>> futures = new ArrayList<>();
+                for (int t = 0; t < numThreads; t++) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        Map<String, Object> nested = (Map<String, Object>) map.get("nested");
+                        Object[] arr = (Object[]) map.get("arr");
+                        return new Object[]{nested, arr, nested.get("id"), ((Map) nested.get("inner")).get("v"), ((Map) arr[1]).get("a")};
+                    }));
+                }
+                Object[] first = futures.get(0).get();
+                for (Future<Object[]> future : futures) {
+                    Object[] result = future.get();
+                    assertSame(first[0], result[0]);
+                    assertSame(first[1], result[1]);
+                    assertEquals("N" + i, result[2]);
+                    assertEquals((long) i, result[3]);
+                    assertEquals(2L, result[4]);
+                }
+                assertEquals(2, map.getNumDecoded());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testInvalid() {
+        tryInvalid("", "Failed to parse JSON text, unexpected end of text at position 0");
+        tryInvalid("[1]", "Failed to parse JSON text, expected '{' at position 0 but found '['");
+        tryInvalid("{\"id\" 1}", "Failed to parse JSON text, expected ':' at position 6 but found '1'");
+        tryInvalid("{\"id\":\"a\" \"qty\":1}", "Failed to parse JSON text, expected ',' or '}' at position 10 but found '\"'");
+        tryInvalid("{\"id\":{\"a\":1}", "Failed to parse JSON text, unexpected end of text at position 13");
+        tryInvalid("{\"id\":\"a}", "Failed to parse JSON text, unexpected end of text at position 9");
+        tryInvalid("{} x", "Failed to parse JSON text, expected end of text at position 3 but found 'x'");
+
+        JsonLazyMap map = JsonLazyMap.parse("{\"qty\":\"abc\"}", types);
+        try {
+            map.get("qty");
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Failed to parse JSON value 'abc' as Integer", ex.getMessage());
+        }
+
+        try {
+            JsonLazyMap.parse(10, types);
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Unexpected JSON text of type java.lang.Integer, expected String, byte[] or java.nio.ByteBuffer", ex.getMessage());
+        }
+    }
+
+    private void tryInvalid(String json, String message) {
+        try {
+            JsonLazyMap.parse(json, types);
+            fail();
+        } catch (EPException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+}
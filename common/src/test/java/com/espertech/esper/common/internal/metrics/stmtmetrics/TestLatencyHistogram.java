@@ -0,0 +1,147 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.common.internal.metrics.stmtmetrics;
+
+import com.espertech.esper.common.client.metric.StatementLatencyMetric;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestLatencyHistogram extends TestCase {
+    public void testBuckets() {
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i, LatencyHistogram.bucketIndex(i));
+            assertEquals(i, LatencyHistogram.bucketHighestValue(i));
+        }
+        assertEquals(0, LatencyHistogram.bucketIndex(-1));
+
+        // buckets are contiguous and their highest value maps back to the bucket
+        for (int i = 1; i < LatencyHistogram.NUM_BUCKETS; i++) {
+            long high = LatencyHistogram.bucketHighestValue(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(high));
+            assertEquals(i, LatencyHistogram.bucketIndex(LatencyHistogram.bucketHighestValue(i - 1) + 1));
+        }
+        assertEquals(LatencyHistogram.NUM_BUCKETS - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LatencyHistogram.Snapshot empty = histogram.snapshot();
+        assertEquals(0, empty.getCount());
+        assertEquals(0, empty.getMax());
+        assertEquals(0, empty.getValueAtPercentile(99));
+
+        for (long i = 1; i <= 100000; i++) {
+            histogram.record(i * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100000, snapshot.getCount());
+        assertEquals(100000000, snapshot.getMax());
+        assertWithin(50000000, snapshot.getValueAtPercentile(50));
+        assertWithin(99000000, snapshot.getValueAtPercentile(99));
+        assertWithin(99900000, snapshot.getValueAtPercentile(99.9));
+        assertEquals(100000000, snapshot.getValueAtPercentile(100));
+    }
+
+    public void testMultithreaded() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final long value = (i + 1) * 100;
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        histogram.record(value);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(40000, snapshot.getCount());
+        assertEquals(400, snapshot.getMax());
+        assertWithin(200, snapshot.getValueAtPercentile(50));
+    }
+
+    public void testStatementReport() {
+        StatementLatencyHistograms histograms = new StatementLatencyHistograms("uri", "dep", "s0");
+        List<StatementLatencyMetric> metrics = new ArrayList<>();
+        histograms.report(1000, metrics);
+        assertTrue(metrics.isEmpty());
+
+        histograms.record(-1, 500);
+        histograms.report(1000, metrics);
+        assertEquals(1, metrics.size());
+        assertMetric(metrics.get(0), null, 1, 500);
+
+        // reporting drains the histograms, and agent instances without latencies are not reported
+        histograms.record(1, 2000);
+        histograms.record(2, 3000);
+        histograms.record(2, 1000);
+        metrics.clear();
+        histograms.report(2000, metrics);
+        assertEquals(3, metrics.size());
+        assertMetric(metrics.get(0), null, 3, 3000);
+        assertEquals(2000, metrics.get(0).getTimestamp());
+        assertEquals("dep", metrics.get(0).getDeploymentId());
+        assertEquals("s0", metrics.get(0).getStatementName());
+        for (int i = 1; i < 3; i++) {
+            assertNotNull(metrics.get(i).getAgentInstanceId());
+        }
+
+        histograms.record(2, 100);
+        metrics.clear();
+        histograms.report(3000, metrics);
+        assertEquals(1, metrics.size());
+        assertMetric(metrics.get(0), null, 1, 100);
+
+        metrics.clear();
+        histograms.report(4000, metrics);
+        assertTrue(metrics.isEmpty());
+    }
+
+    public void testDrain() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram.Snapshot();
+        histogram.record(100);
+        histogram.record(200);
+        histogram.drainTo(snapshot);
+        assertEquals(2, snapshot.getCount());
+        assertEquals(200, snapshot.getMax());
+
+        histogram.drainTo(snapshot);
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+
+        histogram.record(50);
+        histogram.drainTo(snapshot);
+        assertEquals(1, snapshot.getCount());
+        assertEquals(50, snapshot.getMax());
+        assertEquals(0, histogram.snapshot().getCount());
+    }
+
+    private static void assertMetric(StatementLatencyMetric metric, Integer agentInstanceId, long count, long max) {
+        assertEquals(agentInstanceId, metric.getAgentInstanceId());
+        assertEquals(count, metric.getCount());
+        assertEquals(max, metric.getMax());
+        assertTrue(metric.getP50() <= metric.getP99());
+        assertTrue(metric.getP99() <= metric.getP999());
+        assertTrue(metric.getP999() <= metric.getMax());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual, Math.abs(actual - expected) <= expected / 16);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.compiler.internal.util;
+
+import com.espertech.esper.common.client.EPCompiled;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.client.module.Module;
+import com.espertech.esper.common.client.module.ModuleItem;
+import com.espertech.esper.common.internal.util.SerializerUtil;
+import com.espertech.esper.compiler.client.CompilerArguments;
+import com.espertech.esper.compiler.client.CompilerOptions;
+import com.espertech.esper.compiler.client.util.EPCompiledIOUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static com.espertech.esper.compiler.internal.util.CompilerVersion.COMPILER_VERSION;
+
+/**
+ * On-disk cache of compiled modules.
+ * <p>
+ * A compiled module is stored as a jar file named by a hash of the compiler version, the module text,
+ * the configuration and the compiled modules of the path.
+ * Compilations that provide compiler options, path pathables, transient configuration or a compile-time user object
+ * are not cached as those cannot be hashed.
+ */
+class CompilerCache {
+    private final static Logger log = LoggerFactory.getLogger(CompilerCache.class);
+
+    private final File file;
+
+    private CompilerCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the cache entry for a module text, or null if not caching.
+     *
+     * @param epl       module text
+     * @param arguments arguments
+     * @return entry or null
+     */
+    static CompilerCache make(String epl, CompilerArguments arguments) {
+        return make(arguments, output -> writeString(output, epl));
+    }
+
+    /**
+     * Returns the cache entry for a module, or null if not caching.
+     *
+     * @param module    module
+     * @param arguments arguments
+     * @return entry or null
+     */
+    static CompilerCache make(Module module, CompilerArguments arguments) {
+        if (module.getModuleUserObjectCompileTime() != null) {
+            return null;
+        }
+        return make(arguments, output -> {
+            writeNullable(output, module.getName());
+            writeNullable(output, module.getArchiveName());
+            writeNullable(output, module.getUri());
+            writeNullable(output, module.getModuleText());
+            writeSet(output, module.getUses());
+            writeSet(output, module.getImports());
+            for (ModuleItem item : module.getItems()) {
+                output.writeBoolean(item.isCommentOnly());
+                output.writeInt(item.getLineNumber());
+                writeNullable(output, item.getExpression());
+                writeNullable(output, item.getModel() == null ? null : item.getModel().toEPL());
+            }
+        });
+    }
+
+    /**
+     * Returns the cached compiled module or null if not cached or unreadable.
+     *
+     * @return compiled or null
+     */
+    EPCompiled read() {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return EPCompiledIOUtil.read(file);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to read compilation cache file '" + file.getAbsolutePath() + "', compiling instead: " + ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a compiled module.
+     *
+     * @param compiled compiled
+     */
+    void write(EPCompiled compiled) {
+        File temp = new File(file.getParentFile(), file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            EPCompiledIOUtil.write(compiled, temp);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to write compilation cache file '" + file.getAbsolutePath() + "': " + ex.getMessage(), ex);
+            temp.delete();
+        }
+    }
+
+    private static CompilerCache make(CompilerArguments arguments, KeyWriter moduleWriter) {
+        Configuration configuration = arguments.getConfiguration();
+        String directoryName = configuration.getCompiler().getByteCode().getCacheDirectory();
+        if (directoryName == null || !isCacheable(arguments)) {
+            return null;
+        }
+        File directory = new File(directoryName);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.warn("Failed to create compilation cache directory '" + directory.getAbsolutePath() + "', compiling without cache");
+            return null;
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (DataOutputStream output = new DataOutputStream(new DigestOutputStream(NullOutputStream.INSTANCE, digest))) {
+                writeString(output, COMPILER_VERSION);
+                moduleWriter.write(output);
+                output.write(SerializerUtil.objectToByteArr(configuration));
+                for (EPCompiled compiled : arguments.getPath().getCompileds()) {
+                    writeNullable(output, compiled.getManifest().getCompilerVersion());
+                    writeNullable(output, compiled.getManifest().getModuleProviderClassName());
+                    writeNullable(output, compiled.getManifest().getQueryProviderClassName());
+                    for (Map.Entry<String, byte[]> entry : new TreeMap<>(compiled.getClasses()).entrySet()) {
+                        writeString(output, entry.getKey());
+                        output.writeInt(entry.getValue().length);
+                        output.write(entry.getValue());
+                    }
+                }
+            }
+            return new CompilerCache(new File(directory, toHex(digest.digest()) + ".jar"));
+        } catch (IOException | NoSuchAlgorithmException | RuntimeException ex) {
+            log.debug("Failed to determine compilation cache key, compiling without cache: " + ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    private static boolean isCacheable(CompilerArguments arguments) {
+        CompilerOptions options = arguments.getOptions();
+        if (options.getAccessModifierContext() != null || options.getAccessModifierEventType() != null || options.getAccessModifierExpression() != null ||
+            options.getAccessModifierNamedWindow() != null || options.getAccessModifierScript() != null || options.getAccessModifierTable() != null ||
+            options.getAccessModifierVariable() != null || options.getBusModifierEventType() != null || options.getStatementName() != null ||
+            options.getStatementUserObject() != null || options.getModuleName() != null || options.getModuleUses() != null) {
+            return false;
+        }
+        Map<String, Object> transientConfiguration = arguments.getConfiguration().getCommon().getTransientConfiguration();
+        if (transientConfiguration != null && !transientConfiguration.isEmpty()) {
+            return false;
+        }
+        return arguments.getPath().getCompilerPathables().isEmpty();
+    }
+
+    private static void writeNullable(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            writeString(output, value);
+        }
+    }
+
+    private static void writeSet(DataOutputStream output, Set<String> values) throws IOException {
+        output.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (String value : new TreeSet<>(values)) {
+                writeString(output, value);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    private interface KeyWriter {
+        void write(DataOutputStream output) throws IOException;
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        private final static NullOutputStream INSTANCE = new NullOutputStream();
+
+        public void write(int b) {
+        }
+
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
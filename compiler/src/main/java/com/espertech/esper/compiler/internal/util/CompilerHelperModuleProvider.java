@@ -57,6 +57,7 @@ import com.espertech.esper.compiler.client.CompilerOptions;
 import com.espertech.esper.compiler.client.EPCompileException;
 import com.espertech.esper.compiler.client.EPCompileExceptionItem;
 import com.espertech.esper.compiler.client.EPCompileExceptionSyntaxItem;
+import com.espertech.esper.compiler.internal.parse.ParseResult;
 
 import java.io.IOException;
 import java.util.*;
@@ -92,6 +93,7 @@ public class CompilerHelperModuleProvider {
         Set<String> statementNames = new HashSet<>();
         List<EPCompileExceptionItem> exceptions = new ArrayList<>();
         CompilerPool compilerPool = new CompilerPool(compilables.size(), compileTimeServices, moduleBytes);
+        compilerPool.parseAhead(compilables);
 
         try {
             int statementNumber = 0;
@@ -101,7 +103,8 @@ public class CompilerHelperModuleProvider {
 
                 try {
                     StatementCompileTimeServices statementCompileTimeServices = new StatementCompileTimeServices(statementNumber, compileTimeServices);
-                    CompilableItem compilableItem = compileItem(compilable, optionalModuleName, moduleIdentPostfix, statementNumber, packageName, statementNames, statementCompileTimeServices, compilerOptions);
+                    ParseResult parseResult = compilerPool.takeParsed(statementNumber);
+                    CompilableItem compilableItem = compileItem(compilable, parseResult, optionalModuleName, moduleIdentPostfix, statementNumber, packageName, statementNames, statementCompileTimeServices, compilerOptions);
                     className = compilableItem.getProviderClassName();
                     compilerPool.submit(statementNumber, compilableItem);
                 } catch (StatementSpecCompileException ex) {
@@ -17,6 +17,7 @@ import com.espertech.esper.common.internal.compile.stage1.spec.StatementSpecRaw;
 import com.espertech.esper.common.internal.compile.stage1.specmapper.StatementSpecMapEnv;
 import com.espertech.esper.common.internal.compile.stage1.specmapper.StatementSpecMapper;
 import com.espertech.esper.common.internal.compile.stage2.StatementSpecCompileException;
+import com.espertech.esper.common.internal.compile.stage2.StatementSpecCompileSyntaxException;
 import com.espertech.esper.common.internal.compile.stage3.StatementCompileTimeServices;
 import com.espertech.esper.common.internal.util.ValidationException;
 import com.espertech.esper.compiler.internal.generated.EsperEPL2GrammarParser;
@@ -41,11 +42,16 @@ public class CompilerHelperSingleEPL {
 
     protected static StatementSpecRaw parseWalk(Compilable compilable, StatementCompileTimeServices compileTimeServices)
             throws StatementSpecCompileException {
+        return parseWalk(compilable, null, compileTimeServices);
+    }
+
+    protected static StatementSpecRaw parseWalk(Compilable compilable, ParseResult optionalParseResult, StatementCompileTimeServices compileTimeServices)
+            throws StatementSpecCompileException {
         StatementSpecRaw specRaw;
         try {
             if (compilable instanceof CompilableEPL) {
                 CompilableEPL compilableEPL = (CompilableEPL) compilable;
-                specRaw = parseWalk(compilableEPL.getEpl(), compileTimeServices.getStatementSpecMapEnv());
+                specRaw = parseWalk(compilableEPL.getEpl(), optionalParseResult, compileTimeServices.getStatementSpecMapEnv());
             } else if (compilable instanceof CompilableSODA) {
                 EPStatementObjectModel soda = ((CompilableSODA) compilable).getSoda();
                 specRaw = StatementSpecMapper.map(soda, compileTimeServices.getStatementSpecMapEnv());
@@ -62,7 +68,24 @@ public class CompilerHelperSingleEPL {
 
     public static StatementSpecRaw parseWalk(String epl, StatementSpecMapEnv mapEnv)
             throws StatementSpecCompileException {
-        ParseResult parseResult = ParseHelper.parse(epl, epl, true, EPL_PARSE_RULE, true);
+        return parseWalk(epl, null, mapEnv);
+    }
+
+    /**
+     * Parses a statement, without walking the parse tree, for use by parse-ahead of module statements.
+     * Parsing does not depend on compile-time services and statements can be parsed concurrently.
+     *
+     * @param epl statement text
+     * @return parse result
+     * @throws StatementSpecCompileSyntaxException for syntax errors
+     */
+    protected static ParseResult parse(String epl) throws StatementSpecCompileSyntaxException {
+        return ParseHelper.parse(epl, epl, true, EPL_PARSE_RULE, true);
+    }
+
+    private static StatementSpecRaw parseWalk(String epl, ParseResult optionalParseResult, StatementSpecMapEnv mapEnv)
+            throws StatementSpecCompileException {
+        ParseResult parseResult = optionalParseResult != null ? optionalParseResult : parse(epl);
         Tree ast = parseResult.getTree();
 
         SelectClauseStreamSelectorEnum defaultStreamSelector = StatementSpecMapper.mapFromSODA(mapEnv.getConfiguration().getCompiler().getStreamSelection().getDefaultStreamSelector());
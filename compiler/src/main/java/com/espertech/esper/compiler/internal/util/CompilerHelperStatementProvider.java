@@ -61,6 +61,7 @@ import com.espertech.esper.common.internal.settings.ClasspathImportUtil;
 import com.espertech.esper.compiler.client.CompilerOptions;
 import com.espertech.esper.compiler.client.option.StatementNameContext;
 import com.espertech.esper.compiler.client.option.StatementUserObjectContext;
+import com.espertech.esper.compiler.internal.parse.ParseResult;
 
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
@@ -72,6 +73,7 @@ import static com.espertech.esper.compiler.internal.util.CompilerHelperValidator
 public class CompilerHelperStatementProvider {
 
     static CompilableItem compileItem(Compilable compilable,
+                                      ParseResult optionalParseResult,
                                       String optionalModuleName,
                                       String moduleIdentPostfix,
                                       int statementNumber,
@@ -82,7 +84,7 @@ public class CompilerHelperStatementProvider {
         throws StatementSpecCompileException {
 
         // Stage 1 - parse statement
-        StatementSpecRaw raw = parseWalk(compilable, compileTimeServices);
+        StatementSpecRaw raw = parseWalk(compilable, optionalParseResult, compileTimeServices);
 
         try {
             // Stage 2(a) - precompile: compile annotations
@@ -12,9 +12,12 @@ package com.espertech.esper.compiler.internal.util;
 
 import com.espertech.esper.common.client.configuration.compiler.ConfigurationCompilerByteCode;
 import com.espertech.esper.common.internal.bytecodemodel.core.CodegenClass;
+import com.espertech.esper.common.internal.compile.stage1.Compilable;
 import com.espertech.esper.common.internal.compile.stage3.ModuleCompileTimeServices;
 import com.espertech.esper.compiler.client.EPCompileException;
+import com.espertech.esper.compiler.internal.parse.ParseResult;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
 
@@ -24,6 +27,7 @@ class CompilerPool {
 
     private ExecutorService compilerThreadPool;
     private Future<CompilableItemResult>[] futures;
+    private Future<ParseResult>[] parseFutures;
     private Semaphore semaphore;
 
     CompilerPool(int size, ModuleCompileTimeServices compileTimeServices, Map<String, byte[]> moduleBytes) {
@@ -41,6 +45,36 @@ class CompilerPool {
         }
     }
 
+    void parseAhead(List<Compilable> compilables) {
+        if (compilerThreadPool == null) {
+            return;
+        }
+
+        // parsing does not depend on prior statements, walking and validating does and remains sequential
+        parseFutures = new Future[compilables.size()];
+        for (int i = 0; i < compilables.size(); i++) {
+            Compilable compilable = compilables.get(i);
+            if (compilable instanceof CompilableEPL) {
+                String epl = ((CompilableEPL) compilable).getEpl();
+                parseFutures[i] = compilerThreadPool.submit(() -> CompilerHelperSingleEPL.parse(epl));
+            }
+        }
+    }
+
+    ParseResult takeParsed(int statementNumber) throws InterruptedException {
+        if (parseFutures == null || parseFutures[statementNumber] == null) {
+            return null;
+        }
+        Future<ParseResult> future = parseFutures[statementNumber];
+        parseFutures[statementNumber] = null;
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // parsed again in statement order to report the error
+            return null;
+        }
+    }
+
     void submit(int statementNumber, CompilableItem item) throws InterruptedException {
         // no thread pool, compile right there
         if (compilerThreadPool == null) {
@@ -66,6 +66,14 @@ public class EPCompilerImpl implements EPCompilerSPI {
             arguments = new CompilerArguments(new Configuration());
         }
 
+        CompilerCache cache = CompilerCache.make(epl, arguments);
+        if (cache != null) {
+            EPCompiled cached = cache.read();
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         try {
             Module module = EPLModuleUtil.parseInternal(epl, null);
             List<Compilable> compilables = new ArrayList<>();
@@ -82,7 +90,11 @@ public class EPCompilerImpl implements EPCompilerSPI {
             ModuleCompileTimeServices compileTimeServices = getCompileTimeServices(arguments, moduleName, moduleUses);
 
             // compile
-            return CompilerHelperModuleProvider.compile(compilables, moduleName, Collections.emptyMap(), compileTimeServices, arguments.getOptions());
+            EPCompiled compiled = CompilerHelperModuleProvider.compile(compilables, moduleName, Collections.emptyMap(), compileTimeServices, arguments.getOptions());
+            if (cache != null) {
+                cache.write(compiled);
+            }
+            return compiled;
         } catch (EPCompileException ex) {
             throw ex;
         } catch (ParseException t) {
@@ -121,6 +133,14 @@ public class EPCompilerImpl implements EPCompilerSPI {
             arguments = new CompilerArguments(new Configuration());
         }
 
+        CompilerCache cache = CompilerCache.make(module, arguments);
+        if (cache != null) {
+            EPCompiled cached = cache.read();
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         // determine module name
         String moduleName = determineModuleName(arguments.getOptions(), module);
         Set<String> moduleUses = determineModuleUses(moduleName, arguments.getOptions(), module);
@@ -166,7 +186,11 @@ public class EPCompilerImpl implements EPCompilerSPI {
         addModuleProperty(moduleProperties, ModuleProperty.IMPORTS, toNullOrArray(module.getImports()));
 
         // compile
-        return CompilerHelperModuleProvider.compile(compilables, moduleName, moduleProperties, compileTimeServices, arguments.getOptions());
+        EPCompiled compiled = CompilerHelperModuleProvider.compile(compilables, moduleName, moduleProperties, compileTimeServices, arguments.getOptions());
+        if (cache != null) {
+            cache.write(compiled);
+        }
+        return compiled;
     }
 
     public Module readModule(InputStream stream, String uri) throws IOException, ParseException {
@@ -0,0 +1,121 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.compile;
+
+import com.espertech.esper.common.client.EPCompiled;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.compiler.client.CompilerArguments;
+import com.espertech.esper.compiler.client.EPCompileException;
+import com.espertech.esper.compiler.client.EPCompilerProvider;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ClientCompileCache {
+    public static List<RegressionExecution> executions() {
+        List<RegressionExecution> execs = new ArrayList<>();
+        execs.add(new ClientCompileCacheWarmStart());
+        execs.add(new ClientCompileCacheParseAheadError());
+        return execs;
+    }
+
+    private static class ClientCompileCacheWarmStart implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            File directory = makeDirectory();
+            try {
+                String epl = "@name('s0') select * from SupportBean;\n" +
+                    "@name('s1') select theString from SupportBean(intPrimitive > 10);\n";
+                EPCompiled first = compile(epl, directory);
+                assertEquals(1, directory.listFiles().length);
+
+                EPCompiled second = compile(epl, directory);
+                assertEquals(1, directory.listFiles().length);
+                assertSameClasses(first, second);
+
+                env.deploy(second).addListener("s0").addListener("s1");
+                env.sendEventBean(new SupportBean("E1", 20));
+                assertEquals("E1", env.listener("s1").assertOneGetNewAndReset().get("theString"));
+                env.undeployAll();
+
+                compile(epl + "@name('s2') select * from SupportBean;\n", directory);
+                assertEquals(2, directory.listFiles().length);
+            } finally {
+                deleteDirectory(directory);
+            }
+        }
+    }
+
+    private static class ClientCompileCacheParseAheadError implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            File directory = makeDirectory();
+            try {
+                String epl = "select * from SupportBean;\n" +
+                    "select * from SupportBean where;\n" +
+                    "select * from SupportBean;\n";
+                try {
+                    compile(epl, directory);
+                    fail();
+                } catch (RuntimeException ex) {
+                    EPCompileException compileException = (EPCompileException) ex.getCause();
+                    assertEquals(1, compileException.getItems().size());
+                    assertEquals(2, compileException.getItems().get(0).getLineNumber());
+                }
+                assertEquals(0, directory.listFiles().length);
+            } finally {
+                deleteDirectory(directory);
+            }
+        }
+    }
+
+    private static EPCompiled compile(String epl, File directory) {
+        Configuration configuration = new Configuration();
+        configuration.getCommon().addEventType(SupportBean.class);
+        configuration.getCompiler().getByteCode().setCacheDirectory(directory.getAbsolutePath());
+        try {
+            return EPCompilerProvider.getCompiler().compile(epl, new CompilerArguments(configuration));
+        } catch (EPCompileException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static void assertSameClasses(EPCompiled expected, EPCompiled received) {
+        assertEquals(expected.getManifest().getModuleProviderClassName(), received.getManifest().getModuleProviderClassName());
+        assertEquals(expected.getClasses().keySet(), received.getClasses().keySet());
+        for (Map.Entry<String, byte[]> entry : expected.getClasses().entrySet()) {
+            assertTrue(Arrays.equals(entry.getValue(), received.getClasses().get(entry.getKey())));
+        }
+    }
+
+    private static File makeDirectory() {
+        try {
+            return Files.createTempDirectory("esper-compile-cache").toFile();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void deleteDirectory(File directory) {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.runtime;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.support.SupportBean_S0;
+import com.espertech.esper.runtime.client.EPDeployment;
+import com.espertech.esper.runtime.client.EPRuntime;
+import com.espertech.esper.runtime.client.EPRuntimeProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.espertech.esper.regressionlib.support.client.SupportCompileDeployUtil.compileDeploy;
+import static org.junit.Assert.assertEquals;
+
+public class ClientRuntimeCheckpoint {
+    private static final String EPL = "module Ckp;\n" +
+        "@name('window') @public create window MyWindow#keepall as SupportBean;\n" +
+        "insert into MyWindow select * from SupportBean;\n" +
+        "@name('mapwindow') @public create window MyMapWindow#keepall as (id string, qty long);\n" +
+        "insert into MyMapWindow select theString as id, longPrimitive as qty from SupportBean;\n" +
+        "@name('consumer') select count(*) as cnt from MyWindow;\n" +
+        "@public create variable int myvar = 0;\n" +
+        "on SupportBean_S0 set myvar = id;\n";
+
+    public void run(Configuration configuration) {
+        File directory;
+        try {
+            directory = Files.createTempDirectory("esper-checkpoint").toFile();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        try {
+            configuration.getCommon().addEventType(SupportBean.class);
+            configuration.getCommon().addEventType(SupportBean_S0.class);
+            configuration.getRuntime().getCheckpoint().setDirectory(directory.getAbsolutePath());
+            configuration.getRuntime().getCheckpoint().setIntervalMSec(100000);
+            String uri = ClientRuntimeCheckpoint.class.getSimpleName();
+
+            // destroying the runtime takes a final checkpoint
+            EPRuntime runtime = EPRuntimeProvider.getRuntime(uri, configuration);
+            EPDeployment deployment = compileDeploy(EPL, runtime, configuration);
+            sendSupportBean(runtime, "E1", 1);
+            sendSupportBean(runtime, "E2", 2);
+            runtime.getEventService().sendEventBean(new SupportBean_S0(100), "SupportBean_S0");
+            assertWindow(runtime, deployment.getDeploymentId(), "E1", "E2");
+            runtime.destroy();
+
+            // a new runtime restores the state upon deployment, without dispatching restored events to consuming statements
+            runtime = EPRuntimeProvider.getRuntime(uri, configuration);
+            deployment = compileDeploy(EPL, runtime, configuration);
+            assertWindow(runtime, deployment.getDeploymentId(), "E1", "E2");
+            assertMapWindow(runtime, deployment.getDeploymentId(), "E1", 1L, "E2", 2L);
+            assertEquals(100, runtime.getVariableService().getVariableValue(deployment.getDeploymentId(), "myvar"));
+            assertConsumerCount(runtime, deployment.getDeploymentId(), 0L);
+
+            // undeploy and redeploy restores the state as of undeploy
+            sendSupportBean(runtime, "E3", 3);
+            assertConsumerCount(runtime, deployment.getDeploymentId(), 1L);
+            runtime.getDeploymentService().undeployAll();
+            deployment = compileDeploy(EPL, runtime, configuration);
+            assertWindow(runtime, deployment.getDeploymentId(), "E1", "E2", "E3");
+            runtime.destroy();
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    private static void sendSupportBean(EPRuntime runtime, String theString, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, (int) longPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        runtime.getEventService().sendEventBean(bean, "SupportBean");
+    }
+
+    private static void assertConsumerCount(EPRuntime runtime, String deploymentId, long expected) {
+        assertEquals(expected, runtime.getDeploymentService().getStatement(deploymentId, "consumer").iterator().next().get("cnt"));
+    }
+
+    private static void assertMapWindow(EPRuntime runtime, String deploymentId, Object... expectedIdAndQty) {
+        List<Object> received = new ArrayList<>();
+        for (Iterator<EventBean> it = runtime.getDeploymentService().getStatement(deploymentId, "mapwindow").iterator(); it.hasNext(); ) {
+            EventBean event = it.next();
+            received.add(event.get("id"));
+            received.add(event.get("qty"));
+        }
+        assertEquals(Arrays.asList(expectedIdAndQty), received);
+    }
+
+    private static void assertWindow(EPRuntime runtime, String deploymentId, String... expected) {
+        List<String> received = new ArrayList<>();
+        for (Iterator<EventBean> it = runtime.getDeploymentService().getStatement(deploymentId, "window").iterator(); it.hasNext(); ) {
+            received.add((String) it.next().get("theString"));
+        }
+        assertEquals(expected.length, received.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], received.get(i));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.runtime;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ClientRuntimeSendEventBatch {
+
+    public static List<RegressionExecution> executions() {
+        List<RegressionExecution> execs = new ArrayList<>();
+        execs.add(new ClientRuntimeSendEventBatchBeanDispatchPerEvent());
+        execs.add(new ClientRuntimeSendEventBatchBeanDispatchAtEnd());
+        execs.add(new ClientRuntimeSendEventBatchObjectArrayAndMap());
+        execs.add(new ClientRuntimeSendEventBatchInsertInto());
+        execs.add(new ClientRuntimeSendEventBatchInvalid());
+        return execs;
+    }
+
+    private static class ClientRuntimeSendEventBatchBeanDispatchPerEvent implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            env.compileDeploy("@name('s0') select theString, sum(intPrimitive) as total from SupportBean").addListener("s0");
+
+            env.eventService().sendEventBeans(Arrays.asList(new SupportBean("E1", 1), new SupportBean("E2", 2), new SupportBean("E3", 3)), "SupportBean");
+            List<EventBean[]> received = env.listener("s0").getNewDataList();
+            assertEquals(3, received.size());
+            EPAssertionUtil.assertPropsPerRow(env.listener("s0").getNewDataListFlattened(), "theString,total".split(","),
+                new Object[][]{{"E1", 1}, {"E2", 3}, {"E3", 6}});
+
+            env.undeployAll();
+        }
+    }
+
+    private static class ClientRuntimeSendEventBatchBeanDispatchAtEnd implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            env.compileDeploy("@name('s0') select theString from SupportBean(intPrimitive > 0)").addListener("s0");
+
+            env.eventService().sendEventBeans(Arrays.asList(new SupportBean("E1", 1), new SupportBean("E2", -1), new SupportBean("E3", 3)), "SupportBean", false);
+            assertEquals(1, env.listener("s0").getNewDataList().size());
+            EPAssertionUtil.assertPropsPerRow(env.listener("s0").getAndResetLastNewData(), "theString".split(","),
+                new Object[][]{{"E1"}, {"E3"}});
+
+            env.eventService().sendEventBeans(Collections.emptyList(), "SupportBean", false);
+            assertEquals(0, env.listener("s0").getNewDataList().size());
+
+            env.undeployAll();
+        }
+    }
+
+    private static class ClientRuntimeSendEventBatchObjectArrayAndMap implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl = "@name('oa') select ident from " + ClientRuntimeListener.OA_TYPENAME + ";\n" +
+                "@name('map') select ident from " + ClientRuntimeListener.MAP_TYPENAME + ";\n";
+            env.compileDeploy(epl).addListener("oa").addListener("map");
+
+            env.eventService().sendEventsObjectArray(new Object[][]{{"A1"}, {"A2"}}, ClientRuntimeListener.OA_TYPENAME);
+            EPAssertionUtil.assertPropsPerRow(env.listener("oa").getNewDataListFlattened(), "ident".split(","), new Object[][]{{"A1"}, {"A2"}});
+            assertEquals(2, env.listener("oa").getNewDataList().size());
+
+            List<Map<String, Object>> maps = new ArrayList<>();
+            maps.add(Collections.singletonMap("ident", "M1"));
+            maps.add(Collections.singletonMap("ident", "M2"));
+            env.eventService().sendEventsMap(maps, ClientRuntimeListener.MAP_TYPENAME, false);
+            assertEquals(1, env.listener("map").getNewDataList().size());
+            EPAssertionUtil.assertPropsPerRow(env.listener("map").getNewDataListFlattened(), "ident".split(","), new Object[][]{{"M1"}, {"M2"}});
+
+            env.undeployAll();
+        }
+    }
+
+    private static class ClientRuntimeSendEventBatchInsertInto implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String epl = "insert into MyStream select theString, intPrimitive from SupportBean;\n" +
+                "create window MyWindow#keepall as (theString string, intPrimitive int);\n" +
+                "insert into MyWindow select theString, intPrimitive from MyStream;\n" +
+                "@name('s0') select (select sum(intPrimitive) from MyWindow) as total, theString from SupportBean;\n";
+            env.compileDeploy(epl).addListener("s0");
+
+            // each event sees the named window state produced by the previous events of the same batch
+            env.eventService().sendEventBeans(Arrays.asList(new SupportBean("E1", 10), new SupportBean("E2", 20), new SupportBean("E3", 30)), "SupportBean", false);
+            EPAssertionUtil.assertPropsPerRow(env.listener("s0").getNewDataListFlattened(), "theString,total".split(","),
+                new Object[][]{{"E1", null}, {"E2", 10}, {"E3", 30}});
+
+            env.undeployAll();
+        }
+    }
+
+    private static class ClientRuntimeSendEventBatchInvalid implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            try {
+                env.eventService().sendEventsObjectArray(null, ClientRuntimeListener.OA_TYPENAME);
+                fail();
+            } catch (IllegalArgumentException ex) {
+                assertEquals("Invalid null event batch", ex.getMessage());
+            }
+
+            try {
+                env.eventService().sendEventsObjectArray(new Object[][]{{"A1"}, null}, ClientRuntimeListener.OA_TYPENAME);
+                fail();
+            } catch (IllegalArgumentException ex) {
+                assertEquals("Invalid null event object", ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.runtime;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.client.metric.OutboundMailboxMetric;
+import com.espertech.esper.common.client.util.OutboundOverflowPolicy;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecutionWithConfigure;
+import com.espertech.esper.runtime.client.EPRuntime;
+import com.espertech.esper.runtime.client.EPStatement;
+import com.espertech.esper.runtime.client.UpdateListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ClientRuntimeThreadedConfigMailbox implements RegressionExecutionWithConfigure {
+    public void configure(Configuration configuration) {
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        configuration.getRuntime().getThreading().setThreadPoolOutbound(true);
+        configuration.getRuntime().getThreading().setThreadPoolOutboundNumThreads(1);
+        configuration.getRuntime().getThreading().setThreadPoolOutboundMailboxCapacity(5);
+        configuration.getRuntime().getThreading().setThreadPoolOutboundOverflowPolicy(OutboundOverflowPolicy.SPILL);
+        configuration.getCommon().addEventType("SupportBean", SupportBean.class);
+    }
+
+    public void run(RegressionEnvironment env) {
+        CountDownLatch latch = new CountDownLatch(1);
+        MyGatedListener listener = new MyGatedListener(latch);
+        env.compileDeploy("@name('s0') select intPrimitive from SupportBean").statement("s0").addListener(listener);
+        assertEquals(0, env.runtime().getMetricsService().getOutboundMailboxMetrics().length);
+
+        // the listener holds the first output so that the mailbox fills and the remaining output spills
+        env.sendEventBean(new SupportBean("E0", 0));
+        awaitLatch(listener.getEntered());
+        for (int i = 1; i < 20; i++) {
+            env.sendEventBean(new SupportBean("E" + i, i));
+        }
+        OutboundMailboxMetric[] metrics = env.runtime().getMetricsService().getOutboundMailboxMetrics();
+        assertEquals(1, metrics.length);
+        assertEquals(env.deploymentId("s0"), metrics[0].getDeploymentId());
+        assertEquals("s0", metrics[0].getStatementName());
+        assertEquals(5, metrics[0].getCapacity());
+        assertEquals(19, metrics[0].getDepth());
+        assertEquals(14, metrics[0].getSpillDepth());
+        assertEquals(14, metrics[0].getSpilledCount());
+        assertEquals(0, metrics[0].getDroppedCount());
+        assertEquals(0, metrics[0].getBlockedCount());
+
+        latch.countDown();
+        awaitDelivered(listener, 20);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, listener.getReceived().get(i));
+        }
+        awaitDepth(env.runtime(), 0);
+
+        env.undeployAll();
+        assertEquals(0, env.runtime().getMetricsService().getOutboundMailboxMetrics().length);
+    }
+
+    private static void awaitDelivered(MyGatedListener listener, int count) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.getReceived().size() < count && System.currentTimeMillis() < deadline) {
+            sleep();
+        }
+        assertEquals(count, listener.getReceived().size());
+    }
+
+    private static void awaitDepth(EPRuntime runtime, int depth) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (runtime.getMetricsService().getOutboundMailboxMetrics()[0].getDepth() != depth && System.currentTimeMillis() < deadline) {
+            sleep();
+        }
+        assertEquals(depth, runtime.getMetricsService().getOutboundMailboxMetrics()[0].getDepth());
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class MyGatedListener implements UpdateListener {
+        private final CountDownLatch latch;
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final List<Object> received = new CopyOnWriteArrayList<>();
+
+        MyGatedListener(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents, EPStatement statement, EPRuntime runtime) {
+            entered.countDown();
+            awaitLatch(latch);
+            for (EventBean event : newEvents) {
+                received.add(event.get("intPrimitive"));
+            }
+        }
+
+        List<Object> getReceived() {
+            return received;
+        }
+
+        CountDownLatch getEntered() {
+            return entered;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.runtime;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.internal.collection.Pair;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecutionWithConfigure;
+import com.espertech.esper.regressionlib.support.util.SupportListenerTimerHRes;
+import com.espertech.esper.runtime.internal.kernel.service.EPRuntimeSPI;
+import com.espertech.esper.runtime.internal.kernel.thread.ThreadingServiceImpl;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ClientRuntimeThreadedConfigPartitioned implements RegressionExecutionWithConfigure {
+    private final static int NUM_KEYS = 10;
+    private final static int NUM_EVENTS_PER_KEY = 100;
+
+    public void configure(Configuration configuration) {
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        configuration.getRuntime().getThreading().setThreadPoolInbound(true);
+        configuration.getRuntime().getThreading().setThreadPoolInboundNumThreads(4);
+        configuration.getRuntime().getThreading().setThreadPoolInboundPartitioned(true);
+        configuration.getRuntime().getThreading().addThreadPoolInboundPartitionProperty("MyPartitionedMap", "key");
+        Map<String, Object> mapType = new HashMap<>();
+        mapType.put("key", String.class);
+        mapType.put("value", int.class);
+        configuration.getCommon().addEventType("MyPartitionedMap", mapType);
+        configuration.getCommon().addEventType("SupportBean", SupportBean.class);
+    }
+
+    public void run(RegressionEnvironment env) {
+        SupportListenerTimerHRes listenerContext = new SupportListenerTimerHRes();
+        SupportListenerTimerHRes listenerProperty = new SupportListenerTimerHRes();
+        env.compileDeploy("create context ByKey partition by theString from SupportBean;\n" +
+            "@name('s0') context ByKey select theString as key, intPrimitive as value from SupportBean;\n");
+        env.statement("s0").addListener(listenerContext);
+        env.compileDeploy("@name('s1') select key, value from MyPartitionedMap").statement("s1").addListener(listenerProperty);
+
+        // partition key from the keyed context for SupportBean, from the configured property for the map type
+        for (int i = 0; i < NUM_EVENTS_PER_KEY; i++) {
+            for (int key = 0; key < NUM_KEYS; key++) {
+                env.sendEventBean(new SupportBean("K" + key, i));
+                Map<String, Object> map = new HashMap<>();
+                map.put("key", "K" + key);
+                map.put("value", i);
+                env.sendEventMap(map, "MyPartitionedMap");
+            }
+        }
+
+        assertPerKeyOrder(listenerContext);
+        assertPerKeyOrder(listenerProperty);
+
+        EPRuntimeSPI spi = (EPRuntimeSPI) env.runtime();
+        ThreadingServiceImpl threadingService = (ThreadingServiceImpl) spi.getServicesContext().getThreadingService();
+        assertNull(threadingService.getInboundThreadPool());
+        assertEquals(4, threadingService.getInboundPartitionQueueSizes().length);
+
+        env.undeployAll();
+    }
+
+    private static void assertPerKeyOrder(SupportListenerTimerHRes listener) {
+        int expectedCount = NUM_KEYS * NUM_EVENTS_PER_KEY;
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.getNewEvents().size() < expectedCount && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        assertEquals(expectedCount, listener.getNewEvents().size());
+
+        Map<String, Integer> lastPerKey = new HashMap<>();
+        synchronized (listener.getNewEvents()) {
+            for (Pair<Long, EventBean[]> received : listener.getNewEvents()) {
+                EventBean event = received.getSecond()[0];
+                String key = (String) event.get("key");
+                int value = (Integer) event.get("value");
+                Integer last = lastPerKey.put(key, value);
+                assertEquals(last == null ? 0 : last + 1, value);
+            }
+        }
+        assertEquals(NUM_KEYS, lastPerKey.size());
+    }
+}
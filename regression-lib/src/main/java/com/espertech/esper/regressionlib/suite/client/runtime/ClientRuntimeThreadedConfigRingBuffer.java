@@ -0,0 +1,81 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.client.runtime;
+
+import com.espertech.esper.common.client.EventSender;
+import com.espertech.esper.common.client.configuration.Configuration;
+import com.espertech.esper.common.client.util.RingBufferWaitStrategy;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecutionWithConfigure;
+import com.espertech.esper.regressionlib.support.util.SupportListenerTimerHRes;
+import com.espertech.esper.runtime.internal.kernel.service.EPRuntimeSPI;
+import com.espertech.esper.runtime.internal.kernel.thread.ThreadingServiceImpl;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+public class ClientRuntimeThreadedConfigRingBuffer implements RegressionExecutionWithConfigure {
+    public void configure(Configuration configuration) {
+        configuration.getRuntime().getThreading().setInternalTimerEnabled(false);
+        configuration.getRuntime().getThreading().setThreadPoolInbound(true);
+        configuration.getRuntime().getThreading().setThreadPoolInboundNumThreads(3);
+        configuration.getRuntime().getThreading().setThreadPoolInboundCapacity(10);
+        configuration.getRuntime().getThreading().setThreadPoolInboundRingBuffer(true);
+        configuration.getRuntime().getThreading().setThreadPoolInboundWaitStrategy(RingBufferWaitStrategy.YIELD);
+        configuration.getRuntime().getThreading().setThreadPoolOutbound(true);
+        configuration.getRuntime().getThreading().setThreadPoolOutboundNumThreads(2);
+        configuration.getRuntime().getThreading().setThreadPoolOutboundRingBuffer(true);
+        configuration.getCommon().addEventType("MyMap", new HashMap<>());
+        configuration.getCommon().addEventType("MyOA", new String[]{"p0"}, new Object[]{String.class});
+        configuration.getCommon().addEventType("SupportBean", SupportBean.class);
+    }
+
+    public void run(RegressionEnvironment env) {
+        SupportListenerTimerHRes listenerMap = new SupportListenerTimerHRes();
+        SupportListenerTimerHRes listenerOA = new SupportListenerTimerHRes();
+        SupportListenerTimerHRes listenerBean = new SupportListenerTimerHRes();
+        env.compileDeploy("@name('s0') select * from MyMap").statement("s0").addListener(listenerMap);
+        env.compileDeploy("@name('s1') select * from MyOA").statement("s1").addListener(listenerOA);
+        env.compileDeploy("@name('s2') select * from SupportBean").statement("s2").addListener(listenerBean);
+
+        // more events than the ring buffer has slots
+        EventSender sender = env.eventService().getEventSender("SupportBean");
+        for (int i = 0; i < 100; i++) {
+            env.sendEventMap(new HashMap<String, Object>(), "MyMap");
+            env.sendEventObjectArray(new Object[]{"E" + i}, "MyOA");
+            env.sendEventBean(new SupportBean());
+            sender.sendEvent(new SupportBean());
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listenerBean.getNewEvents().size() < 200 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        assertEquals(200, listenerBean.getNewEvents().size());
+        assertEquals(100, listenerMap.getNewEvents().size());
+        assertEquals(100, listenerOA.getNewEvents().size());
+
+        EPRuntimeSPI spi = (EPRuntimeSPI) env.runtime();
+        ThreadingServiceImpl threadingService = (ThreadingServiceImpl) spi.getServicesContext().getThreadingService();
+        assertNull(threadingService.getInboundThreadPool());
+        assertNull(threadingService.getOutboundThreadPool());
+        assertEquals(0, threadingService.getInboundRingBuffer().size());
+        assertNotNull(threadingService.getOutboundRingBuffer());
+
+        env.undeployAll();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.epl.fromclausemethod;
+
+import com.espertech.esper.common.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.support.SupportBean_S0;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class EPLFromClauseMethodCacheShared implements RegressionExecution {
+
+    public void run(RegressionEnvironment env) {
+        String epl = "create context PartitionByInt partition by intPrimitive from SupportBean;\n" +
+            "@name('s0') context PartitionByInt select id, p00, theString from " +
+            "SupportBean#lastevent as s1, " +
+            " method:MySharedCacheService.fetch(theString)";
+        env.advanceTime(0);
+        env.compileDeploy(epl).addListener("s0");
+        MySharedCacheService.INVOCATIONS.set(0);
+        String[] fields = new String[]{"id", "p00", "theString"};
+
+        // the cache is shared by the context partitions
+        sendBeanEvent(env, "E1", 1);
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{1, "E1-1", "E1"});
+        sendBeanEvent(env, "E1", 2);
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{1, "E1-1", "E1"});
+        assertEquals(1, MySharedCacheService.INVOCATIONS.get());
+
+        // after the refresh-after time the cached result is returned and refreshed in the background
+        env.advanceTime(6000);
+        sendBeanEvent(env, "E1", 1);
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{1, "E1-1", "E1"});
+        awaitInvocations(2);
+
+        sendBeanEvent(env, "E1", 2);
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{2, "E1-2", "E1"});
+        assertEquals(2, MySharedCacheService.INVOCATIONS.get());
+
+        // after the maximum age the result is polled again
+        env.advanceTime(20000);
+        sendBeanEvent(env, "E1", 3);
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{3, "E1-3", "E1"});
+
+        env.undeployAll();
+    }
+
+    private static void awaitInvocations(int expected) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (MySharedCacheService.INVOCATIONS.get() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Refresh did not take place");
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        // the refreshed result replaces the cached result after the invocation returns
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void sendBeanEvent(RegressionEnvironment env, String theString, int intPrimitive) {
+        env.sendEventBean(new SupportBean(theString, intPrimitive));
+    }
+
+    public static class MySharedCacheService {
+        public final static AtomicInteger INVOCATIONS = new AtomicInteger();
+
+        public static SupportBean_S0 fetch(String fetchId) {
+            int invocation = INVOCATIONS.incrementAndGet();
+            return new SupportBean_S0(invocation, fetchId + "-" + invocation);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.epl.fromclausemethod;
+
+import com.espertech.esper.common.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.support.SupportBean_S0;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EPLFromClauseMethodParallelPoll implements RegressionExecution {
+
+    public void run(RegressionEnvironment env) {
+        String epl = "@name('s0') select theString, id, p00 from " +
+            "SupportBean#length_batch(5) as s1, " +
+            " method:MyParallelPollService.fetch(theString)";
+        env.compileDeploy(epl).addListener("s0");
+        MyParallelPollService.reset();
+
+        // the batch looks up five rows, the distinct keys are polled concurrently and the result is in the order of rows
+        String[] keys = new String[]{"E1", "E2", "E1", "E3", "E4"};
+        for (int i = 0; i < keys.length; i++) {
+            env.sendEventBean(new SupportBean(keys[i], i));
+        }
+        Object[][] expected = new Object[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            expected[i] = new Object[]{keys[i], keys[i].hashCode(), keys[i]};
+        }
+        EPAssertionUtil.assertPropsPerRow(env.listener("s0").getAndResetLastNewData(), "theString,id,p00".split(","), expected);
+
+        List<String> invocations = MyParallelPollService.getInvocations();
+        Collections.sort(invocations);
+        assertEquals("[E1, E2, E3, E4]", invocations.toString());
+        assertTrue(MyParallelPollService.MAX_CONCURRENT.get() > 1);
+
+        // a second statement polls on the same threads
+        env.compileDeploy(epl.replace("'s0'", "'s1'")).addListener("s1");
+        for (int i = 0; i < keys.length; i++) {
+            env.sendEventBean(new SupportBean("F" + i, i));
+        }
+        assertEquals(2 * keys.length, env.listener("s0").getAndResetLastNewData().length + env.listener("s1").getAndResetLastNewData().length);
+        Set<String> threads = MyParallelPollService.getThreads();
+        threads.remove(Thread.currentThread().getName());
+        assertTrue(threads.size() <= 4);
+        for (String thread : threads) {
+            assertTrue(thread, thread.startsWith("com.espertech.esper.HistoricalPoll-"));
+        }
+
+        env.undeployAll();
+    }
+
+    public static class MyParallelPollService {
+        private final static List<String> INVOCATIONS = new ArrayList<>();
+        private final static Set<String> THREADS = new HashSet<>();
+        private final static AtomicInteger CONCURRENT = new AtomicInteger();
+        private final static AtomicInteger MAX_CONCURRENT = new AtomicInteger();
+
+        public static SupportBean_S0 fetch(String fetchId) {
+            int concurrent = CONCURRENT.incrementAndGet();
+            MAX_CONCURRENT.accumulateAndGet(concurrent, Math::max);
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            synchronized (INVOCATIONS) {
+                INVOCATIONS.add(fetchId);
+                THREADS.add(Thread.currentThread().getName());
+            }
+            CONCURRENT.decrementAndGet();
+            return new SupportBean_S0(fetchId.hashCode(), fetchId);
+        }
+
+        static void reset() {
+            synchronized (INVOCATIONS) {
+                INVOCATIONS.clear();
+                THREADS.clear();
+            }
+            MAX_CONCURRENT.set(0);
+        }
+
+        static List<String> getInvocations() {
+            synchronized (INVOCATIONS) {
+                return new ArrayList<>(INVOCATIONS);
+            }
+        }
+
+        static Set<String> getThreads() {
+            synchronized (INVOCATIONS) {
+                return new HashSet<>(THREADS);
+            }
+        }
+    }
+}
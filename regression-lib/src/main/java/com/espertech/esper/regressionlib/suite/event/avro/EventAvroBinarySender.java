@@ -0,0 +1,57 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.event.avro;
+
+import com.espertech.esper.common.client.EventSender;
+import com.espertech.esper.common.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.common.internal.avro.core.AvroLazyRecord;
+import com.espertech.esper.common.internal.avro.core.AvroSchemaUtil;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+
+import java.nio.ByteBuffer;
+
+import static com.espertech.esper.common.internal.avro.support.SupportAvroUtil.avroToBinary;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventAvroBinarySender implements RegressionExecution {
+
+    public void run(RegressionEnvironment env) {
+        String fields = "name,favorite_color";
+        env.compileDeploy("@name('s0') select " + fields + " from User(favorite_number > 0)").addListener("s0");
+
+        Schema schema = AvroSchemaUtil.resolveAvroSchema(env.runtime().getEventTypeService().getEventTypePreconfigured("User"));
+        EventSender sender = env.eventService().getEventSender("User");
+
+        sender.sendEvent(avroToBinary(schema, makeUser(schema, "Jane", 256, "red")));
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNew(), fields.split(","), new Object[]{"Jane", "red"});
+        assertTrue(env.listener("s0").assertOneGetNewAndReset().getUnderlying() instanceof AvroLazyRecord);
+
+        sender.sendEvent(ByteBuffer.wrap(avroToBinary(schema, makeUser(schema, "Hans", -1, "green"))));
+        assertFalse(env.listener("s0").isInvoked());
+
+        sender.sendEvent(ByteBuffer.wrap(avroToBinary(schema, makeUser(schema, "Kim", 1, "blue"))));
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields.split(","), new Object[]{"Kim", "blue"});
+
+        env.undeployAll();
+    }
+
+    private static GenericData.Record makeUser(Schema schema, String name, int favoriteNumber, String favoriteColor) {
+        GenericData.Record record = new GenericData.Record(schema);
+        record.put("name", name);
+        record.put("favorite_number", favoriteNumber);
+        record.put("favorite_color", favoriteColor);
+        return record;
+    }
+}
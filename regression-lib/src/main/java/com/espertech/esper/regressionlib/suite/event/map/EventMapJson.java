@@ -0,0 +1,52 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.event.map;
+
+import com.espertech.esper.common.client.EPException;
+import com.espertech.esper.common.client.EventSender;
+import com.espertech.esper.common.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class EventMapJson implements RegressionExecution {
+    public void run(RegressionEnvironment env) {
+        String epl = "@buseventtype @public create map schema JsonNested(city string, zip int);\n" +
+            "@buseventtype @public create map schema JsonOrder(orderId string, qty int, price double, tags string[], address JsonNested);\n" +
+            "@name('s0') select orderId, qty * price as total, tags[1] as tag, address.zip as zip from JsonOrder;\n";
+        env.compileDeploy(epl).addListener("s0");
+        String[] fields = "orderId,total,tag,zip".split(",");
+
+        env.eventService().sendEventJson("{\"orderId\": \"O1\", \"qty\": 2, \"price\": 10.5, \"tags\": [\"a\", \"b\"], \"address\": {\"city\": \"X\", \"zip\": 1000}, \"comment\": \"not read\"}", "JsonOrder");
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{"O1", 21d, "b", 1000});
+
+        EventSender sender = env.eventService().getEventSender("JsonOrder");
+        sender.sendEvent("{\"orderId\": \"O2\", \"qty\": 1, \"price\": 3}".getBytes(StandardCharsets.UTF_8));
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{"O2", 3d, null, null});
+
+        sender.sendEvent(ByteBuffer.wrap("{\"orderId\": \"O3\", \"qty\": 4, \"price\": 1, \"address\": null}".getBytes(StandardCharsets.UTF_8)));
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{"O3", 4d, null, null});
+
+        try {
+            env.eventService().sendEventJson("{\"orderId\": \"O4\"", "JsonOrder");
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Failed to parse JSON text, unexpected end of text at position 16", ex.getMessage());
+        }
+
+        env.undeployAll();
+    }
+}
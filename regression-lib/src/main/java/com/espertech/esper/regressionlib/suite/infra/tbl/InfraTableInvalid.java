@@ -172,6 +172,17 @@ public class InfraTableInvalid {
             // unknown type provided
             tryInvalidCompile(env, "create table v1 (abc window(*) @type(xx))",
                 "For column 'abc' failed to find event type 'xx' [");
+
+            // concurrent table without primary key
+            tryInvalidCompile(env, "@Concurrent create table v1 (abc count(*))",
+                "Tables without primary key column(s) cannot be declared concurrent [");
+
+            // concurrent table with index
+            RegressionPath path = new RegressionPath();
+            env.compileDeploy("@Concurrent create table v2 (k string primary key, abc count(*))", path);
+            tryInvalidCompile(env, path, "create index idx on v2(abc)",
+                "Concurrent tables do not allow creating an index [");
+            env.undeployAll();
         }
     }
 
@@ -0,0 +1,197 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.infra.tbl;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.support.SupportBean_S0;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+import com.espertech.esper.regressionlib.framework.RegressionPath;
+import com.espertech.esper.runtime.client.scopetest.SupportListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+/**
+ * NOTE: More table-related tests in "nwtable"
+ */
+public class InfraTableMTGroupedAccessReadWriteConcurrent implements RegressionExecution {
+    private static final Logger log = LoggerFactory.getLogger(InfraTableMTGroupedAccessReadWriteConcurrent.class);
+
+    @Override
+    public boolean excludeWhenInstrumented() {
+        return true;
+    }
+
+    /**
+     * Table:
+     * "@Concurrent create table totals (key string primary key, cnt count(*), items sorted(intPrimitive) @type('SupportBean'))"
+     * <p>
+     * Writers, each with its own statement and data window, update the same groups while a reader iterates the table
+     * and another reader joins to the table. Since count and sorted change together, each row that is read must have
+     * as many sorted items as its count.
+     */
+    public void run(RegressionEnvironment env) {
+        try {
+            tryMT(env, 3, 20000, 5);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void tryMT(RegressionEnvironment env, int numWriters, int numEvents, int numGroups) throws InterruptedException {
+        RegressionPath path = new RegressionPath();
+        env.compileDeploy("@name('tbl') @Concurrent create table totals (key string primary key, cnt count(*), items sorted(intPrimitive) @type('SupportBean'))", path);
+        env.compileDeploy("@name('join') select t.cnt as c0, t.items as c1 from SupportBean_S0, totals as t where t.key = p00", path).addListener("join");
+        for (int i = 0; i < numWriters; i++) {
+            env.compileDeploy("into table totals select count(*) as cnt, sorted(*) as items from SupportBean(longPrimitive=" + i + ")#length(10) group by theString", path);
+        }
+
+        Thread[] threads = new Thread[numWriters];
+        WriteRunnable[] runnables = new WriteRunnable[numWriters];
+        for (int i = 0; i < threads.length; i++) {
+            runnables[i] = new WriteRunnable(env, numEvents, numGroups, i);
+            threads[i] = new Thread(runnables[i], InfraTableMTGroupedAccessReadWriteConcurrent.class.getSimpleName() + "-write");
+        }
+        ReadRunnable reader = new ReadRunnable(env, numGroups);
+        Thread readThread = new Thread(reader, InfraTableMTGroupedAccessReadWriteConcurrent.class.getSimpleName() + "-read");
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        readThread.start();
+
+        // join
+        log.info("Waiting for completion");
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+            assertNull(runnables[i].getException());
+        }
+        reader.setShutdown(true);
+        readThread.join();
+        assertNull(reader.getException());
+        assertTrue(reader.getNumRowsRead() > 0);
+
+        env.undeployAll();
+    }
+
+    private static void assertRow(Object count, Object items) {
+        int numItems;
+        if (items == null) {
+            numItems = 0;
+        } else if (items instanceof Collection) {
+            numItems = ((Collection) items).size();
+        } else {
+            numItems = Array.getLength(items);
+        }
+        assertEquals(((Number) count).intValue(), numItems);
+    }
+
+    public static class WriteRunnable implements Runnable {
+
+        private final RegressionEnvironment env;
+        private final int numEvents;
+        private final int numGroups;
+        private final int threadNum;
+
+        private RuntimeException exception;
+
+        public WriteRunnable(RegressionEnvironment env, int numEvents, int numGroups, int threadNum) {
+            this.env = env;
+            this.numEvents = numEvents;
+            this.numGroups = numGroups;
+            this.threadNum = threadNum;
+        }
+
+        public void run() {
+            log.info("Started event send for write");
+
+            try {
+                for (int i = 0; i < numEvents; i++) {
+                    SupportBean bean = new SupportBean("G" + (i % numGroups), i);
+                    bean.setLongPrimitive(threadNum);
+                    env.sendEventBean(bean);
+                }
+            } catch (RuntimeException ex) {
+                log.error("Exception encountered: " + ex.getMessage(), ex);
+                exception = ex;
+            }
+
+            log.info("Completed event send for write");
+        }
+
+        public RuntimeException getException() {
+            return exception;
+        }
+    }
+
+    public static class ReadRunnable implements Runnable {
+
+        private final RegressionEnvironment env;
+        private final int numGroups;
+
+        private volatile boolean shutdown;
+        private int numRowsRead;
+        private Throwable exception;
+
+        public ReadRunnable(RegressionEnvironment env, int numGroups) {
+            this.env = env;
+            this.numGroups = numGroups;
+        }
+
+        public void run() {
+            log.info("Started reads");
+
+            try {
+                SupportListener listener = env.listener("join");
+                int count = 0;
+                while (!shutdown) {
+                    for (Iterator<EventBean> it = env.iterator("tbl"); it.hasNext(); ) {
+                        EventBean row = it.next();
+                        assertRow(row.get("cnt"), row.get("items"));
+                        numRowsRead++;
+                    }
+
+                    env.sendEventBean(new SupportBean_S0(0, "G" + (count++ % numGroups)));
+                    EventBean[] joined = listener.getAndResetLastNewData();
+                    if (joined != null) {
+                        for (EventBean event : joined) {
+                            assertRow(event.get("c0"), event.get("c1"));
+                            numRowsRead++;
+                        }
+                    }
+                }
+            } catch (Throwable t) {
+                log.error("Exception encountered: " + t.getMessage(), t);
+                exception = t;
+            }
+
+            log.info("Completed reads");
+        }
+
+        public void setShutdown(boolean shutdown) {
+            this.shutdown = shutdown;
+        }
+
+        public int getNumRowsRead() {
+            return numRowsRead;
+        }
+
+        public Throwable getException() {
+            return exception;
+        }
+    }
+}
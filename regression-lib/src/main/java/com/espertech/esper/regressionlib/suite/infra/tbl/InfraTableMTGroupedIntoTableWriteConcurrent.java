@@ -0,0 +1,129 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.infra.tbl;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.support.SupportBean_S0;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+import com.espertech.esper.regressionlib.framework.RegressionPath;
+import com.espertech.esper.runtime.client.scopetest.SupportListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * NOTE: More table-related tests in "nwtable"
+ */
+public class InfraTableMTGroupedIntoTableWriteConcurrent implements RegressionExecution {
+    private static final Logger log = LoggerFactory.getLogger(InfraTableMTGroupedIntoTableWriteConcurrent.class);
+
+    @Override
+    public boolean excludeWhenInstrumented() {
+        return true;
+    }
+
+    /**
+     * Table:
+     * "@Concurrent create table totals (key string primary key, cnt count(*), total sum(int))"
+     * <p>
+     * Configurable number of into-writers, each with its own statement, update the same groups.
+     * At the end of the test we read and assert the count and total of each group.
+     */
+    public void run(RegressionEnvironment env) {
+        try {
+            tryMT(env, 4, 20000, 10);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void tryMT(RegressionEnvironment env, int numThreads, int numEvents, int numGroups) throws InterruptedException {
+        RegressionPath path = new RegressionPath();
+        env.compileDeploy("@Concurrent create table totals (key string primary key, cnt count(*), total sum(int))", path);
+
+        Thread[] threads = new Thread[numThreads];
+        WriteRunnable[] runnables = new WriteRunnable[numThreads];
+        for (int i = 0; i < threads.length; i++) {
+            runnables[i] = new WriteRunnable(env, path, numEvents, numGroups, i);
+            threads[i] = new Thread(runnables[i], InfraTableMTGroupedIntoTableWriteConcurrent.class.getSimpleName() + "-write");
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        // join
+        log.info("Waiting for completion");
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+            assertNull(runnables[i].getException());
+        }
+
+        // verify
+        env.compileDeploy("@name('s0') select totals[p00].cnt as c0, totals[p00].total as c1 from SupportBean_S0", path).addListener("s0");
+        SupportListener listener = env.listener("s0");
+        long expected = (long) numThreads * numEvents / numGroups;
+        for (int i = 0; i < numGroups; i++) {
+            env.sendEventBean(new SupportBean_S0(0, "G" + i));
+            EventBean event = listener.assertOneGetNewAndReset();
+            assertEquals(expected, event.get("c0"));
+            assertEquals((int) expected, event.get("c1"));
+        }
+
+        env.undeployAll();
+    }
+
+    public static class WriteRunnable implements Runnable {
+
+        private final RegressionEnvironment env;
+        private final RegressionPath path;
+        private final int numEvents;
+        private final int numGroups;
+        private final int threadNum;
+
+        private RuntimeException exception;
+
+        public WriteRunnable(RegressionEnvironment env, RegressionPath path, int numEvents, int numGroups, int threadNum) {
+            this.env = env;
+            this.path = path;
+            this.numEvents = numEvents;
+            this.numGroups = numGroups;
+            this.threadNum = threadNum;
+        }
+
+        public void run() {
+            log.info("Started event send for write");
+
+            try {
+                String eplInto = "into table totals select count(*) as cnt, sum(intPrimitive) as total from SupportBean(longPrimitive=" + threadNum + ") group by theString";
+                env.compileDeploy(eplInto, path);
+
+                for (int i = 0; i < numEvents; i++) {
+                    SupportBean bean = new SupportBean("G" + (i % numGroups), 1);
+                    bean.setLongPrimitive(threadNum);
+                    env.sendEventBean(bean);
+                }
+            } catch (RuntimeException ex) {
+                log.error("Exception encountered: " + ex.getMessage(), ex);
+                exception = ex;
+            }
+
+            log.info("Completed event send for write");
+        }
+
+        public RuntimeException getException() {
+            return exception;
+        }
+    }
+}
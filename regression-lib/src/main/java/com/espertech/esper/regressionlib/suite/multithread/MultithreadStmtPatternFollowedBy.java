@@ -26,6 +26,7 @@ public class MultithreadStmtPatternFollowedBy {
     public void run(Configuration configuration) {
         runAssertionPatternFollowedBy(FilterServiceProfile.READMOSTLY, configuration);
         runAssertionPatternFollowedBy(FilterServiceProfile.READWRITE, configuration);
+        runAssertionPatternFollowedBy(FilterServiceProfile.READLOCKFREE, configuration);
     }
 
     private static void runAssertionPatternFollowedBy(FilterServiceProfile profile, Configuration config) {
@@ -0,0 +1,139 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.pattern;
+
+import com.espertech.esper.common.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+import com.espertech.esper.regressionlib.support.bean.SupportBean_A;
+import com.espertech.esper.regressionlib.support.bean.SupportBean_B;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import static org.junit.Assert.assertFalse;
+
+public class PatternOperatorFollowedByShareCorrelated {
+
+    public static Collection<RegressionExecution> executions() {
+        ArrayList<RegressionExecution> execs = new ArrayList<>();
+        execs.add(new PatternFollowedByShareCorrelatedKeys());
+        execs.add(new PatternFollowedByShareCorrelatedSameType());
+        execs.add(new PatternFollowedByShareCorrelatedWithin());
+        execs.add(new PatternFollowedByShareCorrelatedConstant());
+        return execs;
+    }
+
+    private static class PatternFollowedByShareCorrelatedKeys implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String[] fields = "a,b".split(",");
+            String epl = "@name('s0') select a.id as a, b.id as b from pattern [every a=SupportBean_A -> b=SupportBean_B(id=a.id)]";
+            env.compileDeploy(epl).addListener("s0");
+
+            env.sendEventBean(new SupportBean_A("K1"));
+            env.sendEventBean(new SupportBean_A("K2"));
+            env.sendEventBean(new SupportBean_A("K1"));
+
+            env.milestone(0);
+
+            env.sendEventBean(new SupportBean_B("K3"));
+            assertFalse(env.listener("s0").isInvoked());
+
+            env.sendEventBean(new SupportBean_B("K1"));
+            EPAssertionUtil.assertPropsPerRow(env.listener("s0").getAndResetLastNewData(), fields, new Object[][]{{"K1", "K1"}, {"K1", "K1"}});
+
+            env.sendEventBean(new SupportBean_B("K1"));
+            assertFalse(env.listener("s0").isInvoked());
+
+            env.sendEventBean(new SupportBean_B("K2"));
+            EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{"K2", "K2"});
+
+            env.sendEventBean(new SupportBean_B("K2"));
+            assertFalse(env.listener("s0").isInvoked());
+
+            env.undeployAll();
+        }
+    }
+
+    private static class PatternFollowedByShareCorrelatedSameType implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String[] fields = "a,b".split(",");
+            String epl = "@name('s0') select a.id as a, b.id as b from pattern [every a=SupportBean_A -> b=SupportBean_A(id=a.id)]";
+            env.compileDeploy(epl).addListener("s0");
+
+            // the event that starts waiting does not itself match
+            env.sendEventBean(new SupportBean_A("K1"));
+            assertFalse(env.listener("s0").isInvoked());
+
+            env.milestone(0);
+
+            env.sendEventBean(new SupportBean_A("K1"));
+            EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{"K1", "K1"});
+
+            env.sendEventBean(new SupportBean_A("K1"));
+            EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{"K1", "K1"});
+
+            env.undeployAll();
+        }
+    }
+
+    private static class PatternFollowedByShareCorrelatedWithin implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String[] fields = "a,b".split(",");
+            env.advanceTime(0);
+            String epl = "@name('s0') select a.id as a, b.id as b from pattern [every a=SupportBean_A -> (b=SupportBean_B(id=a.id) where timer:within(10 sec))]";
+            env.compileDeploy(epl).addListener("s0");
+
+            env.sendEventBean(new SupportBean_A("K1"));
+            env.advanceTime(5000);
+            env.sendEventBean(new SupportBean_A("K2"));
+
+            env.milestone(0);
+
+            env.advanceTime(10000);
+            env.sendEventBean(new SupportBean_B("K1"));
+            assertFalse(env.listener("s0").isInvoked());
+
+            env.sendEventBean(new SupportBean_B("K2"));
+            EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{"K2", "K2"});
+
+            env.sendEventBean(new SupportBean_A("K1"));
+            env.advanceTime(20000);
+            env.sendEventBean(new SupportBean_B("K1"));
+            assertFalse(env.listener("s0").isInvoked());
+
+            env.undeployAll();
+        }
+    }
+
+    private static class PatternFollowedByShareCorrelatedConstant implements RegressionExecution {
+        public void run(RegressionEnvironment env) {
+            String[] fields = "a,b".split(",");
+            String epl = "@name('s0') select a.id as a, b.intPrimitive as b from pattern [every a=SupportBean_A -> b=SupportBean(theString=a.id, intPrimitive=1)]";
+            env.compileDeploy(epl).addListener("s0");
+
+            env.sendEventBean(new SupportBean_A("K1"));
+            env.sendEventBean(new SupportBean("K1", 2));
+            assertFalse(env.listener("s0").isInvoked());
+
+            env.milestone(0);
+
+            env.sendEventBean(new SupportBean("K2", 1));
+            assertFalse(env.listener("s0").isInvoked());
+
+            env.sendEventBean(new SupportBean("K1", 1));
+            EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{"K1", 1});
+
+            env.undeployAll();
+        }
+    }
+}
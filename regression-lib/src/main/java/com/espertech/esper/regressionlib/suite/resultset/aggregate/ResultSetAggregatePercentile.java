@@ -0,0 +1,70 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regressionlib.suite.resultset.aggregate;
+
+import com.espertech.esper.common.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.regressionlib.framework.RegressionEnvironment;
+import com.espertech.esper.regressionlib.framework.RegressionExecution;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.espertech.esper.regressionlib.framework.SupportMessageAssertUtil.tryInvalidCompile;
+
+public class ResultSetAggregatePercentile implements RegressionExecution {
+
+    public void run(RegressionEnvironment env) {
+        AtomicInteger milestone = new AtomicInteger();
+
+        String epl = "@name('s0') select " +
+            "percentile(intPrimitive,50) as p50, " +
+            "percentile(intPrimitive,90) as p90, " +
+            "median(intPrimitive) as med " +
+            "from SupportBean#length(3)";
+        env.compileDeploy(epl).addListener("s0");
+
+        runAssertion(env, milestone);
+
+        env.milestoneInc(milestone);
+        env.undeployAll();
+
+        env.eplToModelCompileDeploy(epl).addListener("s0");
+
+        runAssertion(env, milestone);
+
+        env.undeployAll();
+
+        tryInvalidCompile(env, "select percentile(intPrimitive) from SupportBean",
+            "Failed to validate select-clause expression 'percentile(intPrimitive)': The percentile aggregation function requires two parameters, an expression returning numeric values and a numeric percentile constant between 0 and 100 [select percentile(intPrimitive) from SupportBean]");
+        tryInvalidCompile(env, "select percentile(intPrimitive,101) from SupportBean",
+            "Failed to validate select-clause expression 'percentile(intPrimitive,101)': The percentile aggregation function requires two parameters, an expression returning numeric values and a numeric percentile constant between 0 and 100 [select percentile(intPrimitive,101) from SupportBean]");
+        tryInvalidCompile(env, "select percentile(theString,50) from SupportBean",
+            "Failed to validate select-clause expression 'percentile(theString,50)': Implicit conversion from datatype 'String' to numeric is not allowed for aggregation function 'percentile' [select percentile(theString,50) from SupportBean]");
+    }
+
+    private static void runAssertion(RegressionEnvironment env, AtomicInteger milestone) {
+        String[] fields = "p50,p90,med".split(",");
+
+        env.sendEventBean(new SupportBean("E1", 10));
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{10d, 10d, 10d});
+
+        env.sendEventBean(new SupportBean("E2", 20));
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{15d, 20d, 15d});
+
+        env.milestoneInc(milestone);
+
+        env.sendEventBean(new SupportBean("E3", 30));
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{20d, 30d, 20d});
+
+        env.sendEventBean(new SupportBean("E4", 40));
+        EPAssertionUtil.assertProps(env.listener("s0").assertOneGetNewAndReset(), fields, new Object[]{30d, 40d, 30d});
+    }
+}
@@ -78,6 +78,10 @@ public class TestSuiteClientCompile extends TestCase {
         RegressionRunner.run(session, ClientCompileEnginePath.executions());
     }
 
+    public void testClientCompileCache() {
+        RegressionRunner.run(session, ClientCompileCache.executions());
+    }
+
     public void testClientCompileEventTypeAutoName() {
         RegressionRunner.run(session, ClientCompileEventTypeAutoName.executions());
     }
@@ -73,6 +73,18 @@ public class TestSuiteClientRuntimeWConfig extends TestCase {
         RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigOutbound());
     }
 
+    public void testClientRuntimeThreadedConfigRingBuffer() {
+        RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigRingBuffer());
+    }
+
+    public void testClientRuntimeThreadedConfigMailbox() {
+        RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigMailbox());
+    }
+
+    public void testClientRuntimeThreadedConfigPartitioned() {
+        RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigPartitioned());
+    }
+
     public void testClientRuntimeThreadedConfigRoute() {
         RegressionRunner.runConfigurable(new ClientRuntimeThreadedConfigRoute());
     }
@@ -85,6 +97,10 @@ public class TestSuiteClientRuntimeWConfig extends TestCase {
         new ClientRuntimeTimeControlClockType().run(SupportConfigFactory.getConfiguration());
     }
 
+    public void testClientRuntimeCheckpoint() {
+        new ClientRuntimeCheckpoint().run(SupportConfigFactory.getConfiguration());
+    }
+
     public void testClientSubscriberDisallowed() {
         RegressionSession session = RegressionRunner.session();
         session.getConfiguration().getCommon().addEventType(SupportBean.class);
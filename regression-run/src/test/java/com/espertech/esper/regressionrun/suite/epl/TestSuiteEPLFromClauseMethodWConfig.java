@@ -55,6 +55,34 @@ public class TestSuiteEPLFromClauseMethodWConfig extends TestCase {
         session.destroy();
     }
 
+    public void testEPLFromClauseMethodCacheShared() {
+        RegressionSession session = RegressionRunner.session();
+
+        ConfigurationCommonMethodRef methodConfig = new ConfigurationCommonMethodRef();
+        methodConfig.setSharedCache(100, 10, 5);
+        session.getConfiguration().getCommon().addMethodRef(EPLFromClauseMethodCacheShared.MySharedCacheService.class, methodConfig);
+        session.getConfiguration().getCommon().addImport(EPLFromClauseMethodCacheShared.MySharedCacheService.class);
+        session.getConfiguration().getCommon().addEventType(SupportBean.class);
+
+        RegressionRunner.run(session, new EPLFromClauseMethodCacheShared());
+
+        session.destroy();
+    }
+
+    public void testEPLFromClauseMethodParallelPoll() {
+        RegressionSession session = RegressionRunner.session();
+
+        ConfigurationCommonMethodRef methodConfig = new ConfigurationCommonMethodRef();
+        methodConfig.setParallelPollThreads(4);
+        session.getConfiguration().getCommon().addMethodRef(EPLFromClauseMethodParallelPoll.MyParallelPollService.class, methodConfig);
+        session.getConfiguration().getCommon().addImport(EPLFromClauseMethodParallelPoll.MyParallelPollService.class);
+        session.getConfiguration().getCommon().addEventType(SupportBean.class);
+
+        RegressionRunner.run(session, new EPLFromClauseMethodParallelPoll());
+
+        session.destroy();
+    }
+
     public void testEPLFromClauseMethodJoinPerformance() {
         RegressionSession session = RegressionRunner.session();
 
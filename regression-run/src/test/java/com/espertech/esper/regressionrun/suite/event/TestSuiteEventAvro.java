@@ -12,6 +12,7 @@ package com.espertech.esper.regressionrun.suite.event;
 
 import com.espertech.esper.common.client.configuration.Configuration;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonEventTypeAvro;
+import com.espertech.esper.regressionlib.suite.event.avro.EventAvroBinarySender;
 import com.espertech.esper.regressionlib.suite.event.avro.EventAvroEventBean;
 import com.espertech.esper.regressionlib.suite.event.avro.EventAvroJsonWithSchema;
 import com.espertech.esper.regressionlib.suite.event.avro.EventAvroSampleConfigDocOutputSchema;
@@ -50,6 +51,10 @@ public class TestSuiteEventAvro extends TestCase {
         RegressionRunner.run(session, new EventAvroEventBean());
     }
 
+    public void testEventAvroBinarySender() {
+        RegressionRunner.run(session, new EventAvroBinarySender());
+    }
+
     private static void configure(Configuration configuration) {
         for (Class clazz : new Class[]{SupportBean.class}) {
             configuration.getCommon().addEventType(clazz);
@@ -68,6 +68,10 @@ public class TestSuiteEventMap extends TestCase {
         RegressionRunner.run(session, EventMapProperties.executions());
     }
 
+    public void testEventMapJson() {
+        RegressionRunner.run(session, new EventMapJson());
+    }
+
     private static void configure(Configuration configuration) {
         for (Class clazz : new Class[]{SupportBean.class}) {
             configuration.getCommon().addEventType(clazz);
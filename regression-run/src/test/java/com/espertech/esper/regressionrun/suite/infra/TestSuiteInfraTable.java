@@ -153,6 +153,14 @@ public class TestSuiteInfraTable extends TestCase {
         RegressionRunner.run(session, new InfraTableMTGroupedAccessReadIntoTableWriteNewRowCreation());
     }
 
+    public void testInfraTableMTGroupedIntoTableWriteConcurrent() {
+        RegressionRunner.run(session, new InfraTableMTGroupedIntoTableWriteConcurrent());
+    }
+
+    public void testInfraTableMTGroupedAccessReadWriteConcurrent() {
+        RegressionRunner.run(session, new InfraTableMTGroupedAccessReadWriteConcurrent());
+    }
+
     public void testInfraTableMTGroupedFAFReadFAFWriteChain() {
         RegressionRunner.run(session, new InfraTableMTGroupedFAFReadFAFWriteChain());
     }
@@ -67,6 +67,16 @@ public class TestSuitePatternWConfig extends TestCase {
         session.destroy();
     }
 
+    public void testFollowedByShareCorrelated() {
+        RegressionSession session = RegressionRunner.session();
+        session.getConfiguration().getRuntime().getPatterns().setShareCorrelatedFilters(true);
+        for (Class clazz : new Class[]{SupportBean_A.class, SupportBean_B.class, SupportBean.class}) {
+            session.getConfiguration().getCommon().addEventType(clazz.getSimpleName(), clazz);
+        }
+        RegressionRunner.run(session, PatternOperatorFollowedByShareCorrelated.executions());
+        session.destroy();
+    }
+
     private void configure(long max, boolean preventStart, Configuration configuration) {
         configuration.getRuntime().getConditionHandling().addClass(SupportConditionHandlerFactory.class);
         configuration.getRuntime().getPatterns().setMaxSubexpressions(max);
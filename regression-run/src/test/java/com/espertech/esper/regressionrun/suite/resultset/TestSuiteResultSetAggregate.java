@@ -50,6 +50,10 @@ public class TestSuiteResultSetAggregate extends TestCase {
         RegressionRunner.run(session, new ResultSetAggregateNTh());
     }
 
+    public void testResultSetAggregatePercentile() {
+        RegressionRunner.run(session, new ResultSetAggregatePercentile());
+    }
+
     public void testResultSetAggregateRate() {
         RegressionRunner.run(session, ResultSetAggregateRate.executions());
     }
@@ -13,6 +13,7 @@ package com.espertech.esper.runtime.client;
 import com.espertech.esper.common.client.EPException;
 import org.w3c.dom.Node;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -64,6 +65,18 @@ public interface EPEventServiceSendEvent {
      */
     void sendEventMap(Map<String, Object> event, String eventTypeName);
 
+    /**
+     * Send JSON object text as an event of a map event type to the runtime.
+     * <p>
+     * Member values of the JSON object are decoded upon first access to the respective property,
+     * to the property types declared by the map event type.
+     *
+     * @param json          JSON object text as String, UTF-8 encoded byte[] or UTF-8 encoded java.nio.ByteBuffer
+     * @param eventTypeName name of a map event type
+     * @throws EPException - when the text is not a JSON object, the event type is not a map event type or the processing of the event leads to an error
+     */
+    void sendEventJson(Object json, String eventTypeName);
+
     /**
      * Send an event represented by a DOM node to the runtime.
      * <p>
@@ -89,4 +102,86 @@ public interface EPEventServiceSendEvent {
      * @throws EPException is thrown when the processing of the event lead to an error
      */
     void sendEventAvro(Object avroGenericDataDotRecord, String avroEventTypeName);
+
+    /**
+     * Send a batch of object arrays containing event property values to the runtime, dispatching results
+     * to listeners and subscribers after each event.
+     * <p>
+     * The outcome is the same as calling {@link #sendEventObjectArray(Object[], String)} for each element in order.
+     * The runtime resolves the event type and obtains per-thread processing state once for the whole batch.
+     * </p>
+     *
+     * @param events        - array of event property value arrays, each following the declared property order of the event type
+     * @param eventTypeName - event type name
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    void sendEventsObjectArray(Object[][] events, String eventTypeName);
+
+    /**
+     * Send a batch of object arrays containing event property values to the runtime.
+     * <p>
+     * When not dispatching per event, results are delivered to listeners and subscribers once at the end of the batch
+     * and the runtime holds its event processing lock for as long as no insert-into or routed events require it to be released.
+     * Listeners thereby receive the results of multiple events in a single invocation.
+     * </p>
+     *
+     * @param events           - array of event property value arrays, each following the declared property order of the event type
+     * @param eventTypeName    - event type name
+     * @param dispatchPerEvent - true to dispatch results after each event, false to dispatch results at the end of the batch
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    void sendEventsObjectArray(Object[][] events, String eventTypeName, boolean dispatchPerEvent);
+
+    /**
+     * Send a batch of event objects to the runtime, dispatching results to listeners and subscribers after each event.
+     * <p>
+     * The outcome is the same as calling {@link #sendEventBean(Object, String)} for each element in order.
+     * The runtime resolves the event type and obtains per-thread processing state once for the whole batch.
+     * </p>
+     *
+     * @param events        - list of event objects
+     * @param eventTypeName - event type name
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    void sendEventBeans(List<?> events, String eventTypeName);
+
+    /**
+     * Send a batch of event objects to the runtime.
+     * <p>
+     * See {@link #sendEventsObjectArray(Object[][], String, boolean)} for the dispatch behavior.
+     * </p>
+     *
+     * @param events           - list of event objects
+     * @param eventTypeName    - event type name
+     * @param dispatchPerEvent - true to dispatch results after each event, false to dispatch results at the end of the batch
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    void sendEventBeans(List<?> events, String eventTypeName, boolean dispatchPerEvent);
+
+    /**
+     * Send a batch of maps containing event property values to the runtime, dispatching results to listeners
+     * and subscribers after each event.
+     * <p>
+     * The outcome is the same as calling {@link #sendEventMap(Map, String)} for each element in order.
+     * The runtime resolves the event type and obtains per-thread processing state once for the whole batch.
+     * </p>
+     *
+     * @param events        - list of maps that contain event property values
+     * @param eventTypeName - event type name
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    void sendEventsMap(List<Map<String, Object>> events, String eventTypeName);
+
+    /**
+     * Send a batch of maps containing event property values to the runtime.
+     * <p>
+     * See {@link #sendEventsObjectArray(Object[][], String, boolean)} for the dispatch behavior.
+     * </p>
+     *
+     * @param events           - list of maps that contain event property values
+     * @param eventTypeName    - event type name
+     * @param dispatchPerEvent - true to dispatch results after each event, false to dispatch results at the end of the batch
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    void sendEventsMap(List<Map<String, Object>> events, String eventTypeName, boolean dispatchPerEvent);
 }
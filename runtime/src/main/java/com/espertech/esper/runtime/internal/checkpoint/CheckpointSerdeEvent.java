@@ -0,0 +1,99 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.checkpoint;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.serde.DataInputOutputSerde;
+import com.espertech.esper.common.internal.event.arr.ObjectArrayEventType;
+import com.espertech.esper.common.internal.event.bean.core.BeanEventType;
+import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactory;
+import com.espertech.esper.common.internal.event.map.MapEventType;
+import com.espertech.esper.common.internal.serde.EventBeanCollatedWriter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Serde for checkpointed events of a given map, object-array or bean event type, and for null.
+ * <p>
+ * Map and object-array events are written property by property using {@link CheckpointSerdeValue}.
+ * Bean events are written as their underlying object, which must be serializable.
+ */
+public class CheckpointSerdeEvent implements DataInputOutputSerde<EventBean> {
+    private final EventType eventType;
+    private final EventBeanTypedEventFactory eventBeanTypedEventFactory;
+
+    /**
+     * Ctor.
+     *
+     * @param eventType                  event type
+     * @param eventBeanTypedEventFactory event factory for restoring events
+     */
+    public CheckpointSerdeEvent(EventType eventType, EventBeanTypedEventFactory eventBeanTypedEventFactory) {
+        this.eventType = eventType;
+        this.eventBeanTypedEventFactory = eventBeanTypedEventFactory;
+    }
+
+    /**
+     * Returns true if events of the type can be checkpointed.
+     *
+     * @param eventType event type
+     * @return indicator
+     */
+    public static boolean isSupported(EventType eventType) {
+        return eventType instanceof MapEventType || eventType instanceof ObjectArrayEventType || eventType instanceof BeanEventType;
+    }
+
+    public void write(EventBean event, DataOutput output, byte[] unitKey, EventBeanCollatedWriter writer) throws IOException {
+        if (event == null) {
+            output.writeBoolean(false);
+            return;
+        }
+        output.writeBoolean(true);
+        if (eventType instanceof MapEventType) {
+            CheckpointSerdeValue.INSTANCE.writeMap((Map<?, ?>) event.getUnderlying(), output);
+        } else if (eventType instanceof ObjectArrayEventType) {
+            CheckpointSerdeValue.INSTANCE.writeArray((Object[]) event.getUnderlying(), output);
+        } else if (eventType instanceof BeanEventType) {
+            CheckpointSerdeValue.INSTANCE.write(event.getUnderlying(), output, unitKey, writer);
+        } else {
+            throw new IOException("Event type '" + eventType.getName() + "' is not a map, object-array or bean event type");
+        }
+    }
+
+    public EventBean read(DataInput input, byte[] unitKey) throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        if (eventType instanceof MapEventType) {
+            Map map = CheckpointSerdeValue.INSTANCE.readMap(input);
+            return eventBeanTypedEventFactory.adapterForTypedMap(map, eventType);
+        }
+        if (eventType instanceof ObjectArrayEventType) {
+            Object[] props = CheckpointSerdeValue.INSTANCE.readArray(input);
+            if (props.length != eventType.getPropertyNames().length) {
+                throw new IOException("Checkpointed event does not match event type '" + eventType.getName() + "'");
+            }
+            return eventBeanTypedEventFactory.adapterForTypedObjectArray(props, eventType);
+        }
+        if (eventType instanceof BeanEventType) {
+            Object underlying = CheckpointSerdeValue.INSTANCE.read(input, unitKey);
+            if (!((BeanEventType) eventType).getUnderlyingType().isInstance(underlying)) {
+                throw new IOException("Checkpointed event does not match event type '" + eventType.getName() + "'");
+            }
+            return eventBeanTypedEventFactory.adapterForTypedBean(underlying, eventType);
+        }
+        throw new IOException("Event type '" + eventType.getName() + "' is not a map, object-array or bean event type");
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.checkpoint;
+
+import com.espertech.esper.common.client.serde.DataInputOutputSerde;
+import com.espertech.esper.common.internal.serde.DIOSerdeBigDecimalBigInteger;
+import com.espertech.esper.common.internal.serde.EventBeanCollatedWriter;
+import com.espertech.esper.common.internal.util.SerializerUtil;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serde for checkpointed values of any type, such as variable values and event property values.
+ * <p>
+ * Writes a type tag followed by the value. Boxed primitives, strings, big decimal and big integer values are written
+ * in binary. Maps and object arrays are written entry by entry, so that map implementations such as lazily-decoded
+ * JSON maps are restored as hash maps. Other values must be serializable and are written using Java serialization.
+ */
+public class CheckpointSerdeValue implements DataInputOutputSerde<Object> {
+    /**
+     * Instance.
+     */
+    public final static CheckpointSerdeValue INSTANCE = new CheckpointSerdeValue();
+
+    private final static byte NULL = 0;
+    private final static byte BOOLEAN = 1;
+    private final static byte BYTE = 2;
+    private final static byte SHORT = 3;
+    private final static byte INTEGER = 4;
+    private final static byte LONG = 5;
+    private final static byte FLOAT = 6;
+    private final static byte DOUBLE = 7;
+    private final static byte CHARACTER = 8;
+    private final static byte STRING = 9;
+    private final static byte BIGDECIMAL = 10;
+    private final static byte BIGINTEGER = 11;
+    private final static byte MAP = 12;
+    private final static byte OBJECTARRAY = 13;
+    private final static byte SERIALIZED = 14;
+
+    private CheckpointSerdeValue() {
+    }
+
+    public void write(Object object, DataOutput output, byte[] unitKey, EventBeanCollatedWriter writer) throws IOException {
+        if (object == null) {
+            output.writeByte(NULL);
+        } else if (object instanceof Boolean) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean((Boolean) object);
+        } else if (object instanceof Byte) {
+            output.writeByte(BYTE);
+            output.writeByte((Byte) object);
+        } else if (object instanceof Short) {
+            output.writeByte(SHORT);
+            output.writeShort((Short) object);
+        } else if (object instanceof Integer) {
+            output.writeByte(INTEGER);
+            output.writeInt((Integer) object);
+        } else if (object instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) object);
+        } else if (object instanceof Float) {
+            output.writeByte(FLOAT);
+            output.writeFloat((Float) object);
+        } else if (object instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) object);
+        } else if (object instanceof Character) {
+            output.writeByte(CHARACTER);
+            output.writeChar((Character) object);
+        } else if (object instanceof String) {
+            output.writeByte(STRING);
+            writeBytes(((String) object).getBytes(StandardCharsets.UTF_8), output);
+        } else if (object instanceof BigDecimal) {
+            output.writeByte(BIGDECIMAL);
+            DIOSerdeBigDecimalBigInteger.writeBigDec((BigDecimal) object, output);
+        } else if (object instanceof BigInteger) {
+            output.writeByte(BIGINTEGER);
+            DIOSerdeBigDecimalBigInteger.writeBigInt((BigInteger) object, output);
+        } else if (object instanceof Map) {
+            output.writeByte(MAP);
+            writeMap((Map<?, ?>) object, output);
+        } else if (object.getClass() == Object[].class) {
+            output.writeByte(OBJECTARRAY);
+            writeArray((Object[]) object, output);
+        } else if (object instanceof Serializable) {
+            output.writeByte(SERIALIZED);
+            writeBytes(SerializerUtil.objectToByteArr(object), output);
+        } else {
+            throw new IOException("Value of type '" + object.getClass().getName() + "' cannot be checkpointed as it is not serializable");
+        }
+    }
+
+    public Object read(DataInput input, byte[] unitKey) throws IOException {
+        byte tag = input.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case BOOLEAN:
+                return input.readBoolean();
+            case BYTE:
+                return input.readByte();
+            case SHORT:
+                return input.readShort();
+            case INTEGER:
+                return input.readInt();
+            case LONG:
+                return input.readLong();
+            case FLOAT:
+                return input.readFloat();
+            case DOUBLE:
+                return input.readDouble();
+            case CHARACTER:
+                return input.readChar();
+            case STRING:
+                return new String(readBytes(input), StandardCharsets.UTF_8);
+            case BIGDECIMAL:
+                return DIOSerdeBigDecimalBigInteger.readBigDec(input);
+            case BIGINTEGER:
+                return DIOSerdeBigDecimalBigInteger.readBigInt(input);
+            case MAP:
+                return readMap(input);
+            case OBJECTARRAY:
+                return readArray(input);
+            case SERIALIZED:
+                return SerializerUtil.byteArrToObject(readBytes(input));
+            default:
+                throw new IOException("Unrecognized value tag " + tag);
+        }
+    }
+
+    /**
+     * Writes a map entry by entry.
+     *
+     * @param map    map
+     * @param output output
+     * @throws IOException when a key or value cannot be written
+     */
+    public void writeMap(Map<?, ?> map, DataOutput output) throws IOException {
+        output.writeInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            write(entry.getKey(), output, null, null);
+            write(entry.getValue(), output, null, null);
+        }
+    }
+
+    /**
+     * Reads a map written by {@link #writeMap(Map, DataOutput)}.
+     *
+     * @param input input
+     * @return map
+     * @throws IOException when reading fails
+     */
+    public Map<Object, Object> readMap(DataInput input) throws IOException {
+        int size = input.readInt();
+        Map<Object, Object> map = new HashMap<>((int) Math.ceil(size / 0.75));
+        for (int i = 0; i < size; i++) {
+            Object key = read(input, null);
+            map.put(key, read(input, null));
+        }
+        return map;
+    }
+
+    /**
+     * Writes an object array element by element.
+     *
+     * @param array  array
+     * @param output output
+     * @throws IOException when an element cannot be written
+     */
+    public void writeArray(Object[] array, DataOutput output) throws IOException {
+        output.writeInt(array.length);
+        for (Object value : array) {
+            write(value, output, null, null);
+        }
+    }
+
+    /**
+     * Reads an object array written by {@link #writeArray(Object[], DataOutput)}.
+     *
+     * @param input input
+     * @return array
+     * @throws IOException when reading fails
+     */
+    public Object[] readArray(DataInput input) throws IOException {
+        Object[] array = new Object[input.readInt()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = read(input, null);
+        }
+        return array;
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutput output) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInput input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+}
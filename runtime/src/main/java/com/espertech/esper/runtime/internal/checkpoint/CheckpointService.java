@@ -0,0 +1,338 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.checkpoint;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.configuration.ConfigurationException;
+import com.espertech.esper.common.client.configuration.runtime.ConfigurationRuntimeCheckpoint;
+import com.espertech.esper.common.internal.context.util.AgentInstanceContext;
+import com.espertech.esper.common.internal.context.util.StatementAgentInstanceLock;
+import com.espertech.esper.common.internal.epl.namedwindow.core.NamedWindow;
+import com.espertech.esper.common.internal.epl.namedwindow.core.NamedWindowInstance;
+import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactory;
+import com.espertech.esper.runtime.internal.kernel.service.EPServicesContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkpoints the values of non-constant variables and the contents of named windows to snapshot files in a local directory
+ * and restores them upon deployment.
+ * <p>
+ * A checkpoint thread takes a checkpoint at the configured interval. It copies references to the current events of each
+ * named window while holding the runtime lock for reading, and then serializes and writes outside of any lock.
+ * Checkpoints are incremental by snapshot file: the variables file is only written when a variable changed and the file
+ * of a named window is only written when its events changed.
+ * <p>
+ * Variable values and events are written using {@link CheckpointSerdeValue} and {@link CheckpointSerdeEvent}.
+ * <p>
+ * Named windows are restored after deployment, under the deployment lock, by loading the checkpointed events
+ * into the data window of the named window as of the current time. Loading does not output to listeners of the named window
+ * and does not dispatch to consuming statements, as these have already seen the events before the checkpoint.
+ * Only named windows that are not declared for a context, that do not have a batch data window,
+ * and that hold map, object-array or serializable bean events are checkpointed.
+ * State is matched by module name and name, and is retained when undeployed.
+ */
+public class CheckpointService {
+    private static final Logger log = LoggerFactory.getLogger(CheckpointService.class);
+
+    private static final String VARIABLES_FILE = "variables.ckp";
+    private static final String WINDOW_PREFIX = "window-";
+
+    private final File directory;
+    private final long intervalMSec;
+    private final EventBeanTypedEventFactory eventBeanTypedEventFactory;
+    private final CheckpointVariableStateHandler variableStateHandler;
+    private final ConcurrentHashMap<String, WindowCapture> undeployed = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, EventBean[]> written = new ConcurrentHashMap<>();
+    private final Set<String> unsupported = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private EPServicesContext services;
+    private ScheduledExecutorService executor;
+
+    private CheckpointService(File directory, long intervalMSec, EventBeanTypedEventFactory eventBeanTypedEventFactory, Map<String, byte[]> variables) {
+        this.directory = directory;
+        this.intervalMSec = intervalMSec;
+        this.eventBeanTypedEventFactory = eventBeanTypedEventFactory;
+        this.variableStateHandler = new CheckpointVariableStateHandler(eventBeanTypedEventFactory, variables);
+    }
+
+    /**
+     * Returns the checkpoint service for the configuration, or null if checkpointing is not enabled.
+     *
+     * @param config                     checkpoint settings
+     * @param eventBeanTypedEventFactory event factory
+     * @return service or null
+     * @throws ConfigurationException if the directory cannot be used
+     */
+    public static CheckpointService make(ConfigurationRuntimeCheckpoint config, EventBeanTypedEventFactory eventBeanTypedEventFactory) throws ConfigurationException {
+        if (config.getDirectory() == null) {
+            return null;
+        }
+        if (config.getIntervalMSec() <= 0) {
+            throw new ConfigurationException("Checkpoint interval must be a positive number of milliseconds");
+        }
+        File directory = new File(config.getDirectory());
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new ConfigurationException("Failed to create checkpoint directory '" + directory.getAbsolutePath() + "'");
+        }
+
+        Map<String, byte[]> variables = Collections.emptyMap();
+        try {
+            byte[] bytes = CheckpointUtil.read(directory, VARIABLES_FILE);
+            if (bytes != null) {
+                variables = CheckpointUtil.readKeyed(bytes);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to read checkpointed variables, variables start with their initial values: " + ex.getMessage(), ex);
+        }
+        return new CheckpointService(directory, config.getIntervalMSec(), eventBeanTypedEventFactory, variables);
+    }
+
+    /**
+     * Returns the variable state handler.
+     *
+     * @return handler
+     */
+    public CheckpointVariableStateHandler getVariableStateHandler() {
+        return variableStateHandler;
+    }
+
+    /**
+     * Starts the checkpoint thread.
+     *
+     * @param services runtime services
+     */
+    public void start(EPServicesContext services) {
+        this.services = services;
+        String threadName = "com.espertech.esper.Checkpoint-" + services.getRuntimeURI();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (Throwable t) {
+                log.error("Unexpected error taking checkpoint: " + t.getMessage(), t);
+            }
+        }, intervalMSec, intervalMSec, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the checkpoint thread and takes a last checkpoint.
+     */
+    public void destroy() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            log.error("Interrupted awaiting checkpoint thread termination", e);
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        checkpoint();
+    }
+
+    /**
+     * Restores the named windows of a deployment from their checkpointed events, if any.
+     * Invoked after deployment while holding the runtime lock for writing.
+     *
+     * @param deploymentId deployment id
+     * @param moduleName   module name, or null if none
+     */
+    public void restore(String deploymentId, String moduleName) {
+        List<NamedWindow> windows = new ArrayList<>();
+        services.getNamedWindowManagementService().traverseNamedWindows((namedWindowDeploymentId, namedWindow) -> {
+            if (namedWindowDeploymentId.equals(deploymentId)) {
+                windows.add(namedWindow);
+            }
+        });
+
+        for (NamedWindow namedWindow : windows) {
+            NamedWindowInstance instance = namedWindow.getNamedWindowInstanceNoContext();
+            if (instance == null) {
+                continue;
+            }
+            String key = windowKey(moduleName, namedWindow.getName());
+            try {
+                WindowCapture pending = undeployed.remove(key);
+                if (pending != null && !sameEvents(pending.events, written.get(key))) {
+                    writeWindow(pending);
+                    written.put(key, pending.events);
+                }
+                restoreWindow(key, instance);
+            } catch (IOException | RuntimeException ex) {
+                log.error("Failed to restore named window '" + namedWindow.getName() + "' from checkpoint, named window starts empty: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Retains the events of the named windows of a deployment for the next checkpoint.
+     * Invoked before undeployment while holding the runtime lock for writing.
+     *
+     * @param deploymentId deployment id
+     */
+    public void undeploying(String deploymentId) {
+        services.getNamedWindowManagementService().traverseNamedWindows((namedWindowDeploymentId, namedWindow) -> {
+            if (namedWindowDeploymentId.equals(deploymentId)) {
+                WindowCapture capture = capture(namedWindow);
+                if (capture != null) {
+                    undeployed.put(capture.key, capture);
+                }
+            }
+        });
+    }
+
+    /**
+     * Takes a checkpoint, writing the snapshot files of the state that changed since the last checkpoint.
+     */
+    public synchronized void checkpoint() {
+        Map<String, byte[]> variables = variableStateHandler.takeChanged();
+        if (variables != null) {
+            try {
+                CheckpointUtil.write(directory, VARIABLES_FILE, CheckpointUtil.writeKeyed(variables));
+            } catch (IOException | RuntimeException ex) {
+                log.error("Failed to checkpoint variables: " + ex.getMessage(), ex);
+            }
+        }
+
+        Map<String, WindowCapture> captures = new LinkedHashMap<>(undeployed);
+        services.getEventProcessingRWLock().acquireReadLock();
+        try {
+            services.getNamedWindowManagementService().traverseNamedWindows((deploymentId, namedWindow) -> {
+                WindowCapture capture = capture(namedWindow);
+                if (capture != null) {
+                    captures.put(capture.key, capture);
+                }
+            });
+        } finally {
+            services.getEventProcessingRWLock().releaseReadLock();
+        }
+
+        for (WindowCapture capture : captures.values()) {
+            undeployed.remove(capture.key, capture);
+            if (sameEvents(capture.events, written.get(capture.key))) {
+                continue;
+            }
+            written.put(capture.key, capture.events);
+            try {
+                writeWindow(capture);
+            } catch (IOException | RuntimeException ex) {
+                if (unsupported.add(capture.key)) {
+                    log.warn("Failed to checkpoint named window '" + capture.key + "': " + ex.getMessage(), ex);
+                }
+            }
+        }
+    }
+
+    private WindowCapture capture(NamedWindow namedWindow) {
+        NamedWindowInstance instance = namedWindow.getNamedWindowInstanceNoContext();
+        if (instance == null || instance.getRootViewInstance().isParentBatchWindow()) {
+            return null;
+        }
+        String key = windowKey(namedWindow.getStatementContext().getModuleName(), namedWindow.getName());
+        EventType eventType = namedWindow.getRootView().getEventType();
+        if (!CheckpointSerdeEvent.isSupported(eventType)) {
+            if (unsupported.add(key)) {
+                log.warn("Named window '" + key + "' is not checkpointed as event type '" + eventType.getName() + "' is not a map, object-array or bean event type");
+            }
+            return null;
+        }
+        List<EventBean> events = new ArrayList<>();
+        for (EventBean event : instance.getTailViewInstance()) {
+            events.add(event);
+        }
+        return new WindowCapture(key, eventType, events.toArray(new EventBean[events.size()]));
+    }
+
+    private void writeWindow(WindowCapture capture) throws IOException {
+        CheckpointSerdeEvent serde = new CheckpointSerdeEvent(capture.eventType, eventBeanTypedEventFactory);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(capture.events.length);
+        for (EventBean event : capture.events) {
+            serde.write(event, output, null, null);
+        }
+        output.flush();
+        CheckpointUtil.write(directory, CheckpointUtil.fileName(WINDOW_PREFIX, capture.key), bytes.toByteArray());
+    }
+
+    private void restoreWindow(String key, NamedWindowInstance instance) throws IOException {
+        byte[] bytes = CheckpointUtil.read(directory, CheckpointUtil.fileName(WINDOW_PREFIX, key));
+        if (bytes == null) {
+            return;
+        }
+
+        EventType eventType = instance.getRootViewInstance().getEventType();
+        if (!CheckpointSerdeEvent.isSupported(eventType)) {
+            return;
+        }
+        CheckpointSerdeEvent serde = new CheckpointSerdeEvent(eventType, eventBeanTypedEventFactory);
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        EventBean[] events = new EventBean[input.readInt()];
+        if (events.length == 0) {
+            return;
+        }
+        for (int i = 0; i < events.length; i++) {
+            events[i] = serde.read(input, null);
+        }
+
+        AgentInstanceContext agentInstanceContext = instance.getTailViewInstance().getAgentInstanceContext();
+        StatementAgentInstanceLock lock = agentInstanceContext.getAgentInstanceLock();
+        lock.acquireWriteLock();
+        try {
+            instance.getTailViewInstance().load(events);
+        } finally {
+            lock.releaseWriteLock();
+        }
+        written.put(key, events);
+    }
+
+    private static boolean sameEvents(EventBean[] events, EventBean[] prior) {
+        if (prior == null || events.length != prior.length) {
+            return false;
+        }
+        for (int i = 0; i < events.length; i++) {
+            if (events[i] != prior[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String windowKey(String moduleName, String namedWindowName) {
+        return (moduleName == null ? "" : moduleName) + "." + namedWindowName;
+    }
+
+    private static class WindowCapture {
+        private final String key;
+        private final EventType eventType;
+        private final EventBean[] events;
+
+        WindowCapture(String key, EventType eventType, EventBean[] events) {
+            this.key = key;
+            this.eventType = eventType;
+            this.events = events;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.checkpoint;
+
+import com.espertech.esper.common.client.serde.DataInputOutputSerde;
+
+import java.io.*;
+import java.net.URLEncoder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Snapshot file access and serialization for checkpoints.
+ * <p>
+ * A snapshot file is written in full to a temporary file through a memory-mapped buffer and then moved in place of the
+ * prior snapshot file, so that a snapshot file is always complete.
+ */
+public class CheckpointUtil {
+    private static final String SNAPSHOT_SUFFIX = ".ckp";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Returns the snapshot file name for a kind of state and a key, encoding characters that are not safe in file names.
+     *
+     * @param prefix kind of state
+     * @param key    key
+     * @return file name
+     */
+    public static String fileName(String prefix, String key) {
+        try {
+            return prefix + URLEncoder.encode(key, "UTF-8").replace("*", "%2A") + SNAPSHOT_SUFFIX;
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes a snapshot file.
+     *
+     * @param directory directory
+     * @param fileName  file name
+     * @param bytes     contents
+     * @throws IOException when writing fails
+     */
+    public static void write(File directory, String fileName, byte[] bytes) throws IOException {
+        File temp = new File(directory, fileName + TEMP_SUFFIX);
+        try (RandomAccessFile file = new RandomAccessFile(temp, "rw"); FileChannel channel = file.getChannel()) {
+            file.setLength(bytes.length);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes.length);
+            buffer.put(bytes);
+            buffer.force();
+        }
+        Files.move(temp.toPath(), new File(directory, fileName).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @param directory directory
+     * @param fileName  file name
+     * @return contents or null if there is no such file
+     * @throws IOException when reading fails
+     */
+    public static byte[] read(File directory, String fileName) throws IOException {
+        File file = new File(directory, fileName);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+    }
+
+    /**
+     * Returns the bytes of a value written by a serde.
+     *
+     * @param serde serde
+     * @param value value
+     * @param <E>   value type
+     * @return bytes
+     * @throws IOException when the value cannot be written
+     */
+    public static <E> byte[] serialize(DataInputOutputSerde<E> serde, E value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        serde.write(value, output, null, null);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the value read by a serde from bytes.
+     *
+     * @param serde serde
+     * @param bytes bytes
+     * @param <E>   value type
+     * @return value
+     * @throws IOException when the value cannot be read
+     */
+    public static <E> E deserialize(DataInputOutputSerde<E> serde, byte[] bytes) throws IOException {
+        return serde.read(new DataInputStream(new ByteArrayInputStream(bytes)), null);
+    }
+
+    /**
+     * Returns the bytes of values by key, each value already serialized.
+     *
+     * @param values values by key
+     * @return bytes
+     * @throws IOException when writing fails
+     */
+    public static byte[] writeKeyed(Map<String, byte[]> values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(values.size());
+        for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+            output.writeUTF(entry.getKey());
+            output.writeInt(entry.getValue().length);
+            output.write(entry.getValue());
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the values by key from bytes written by {@link #writeKeyed(Map)}.
+     *
+     * @param bytes bytes
+     * @return serialized values by key
+     * @throws IOException when reading fails
+     */
+    public static Map<String, byte[]> readKeyed(byte[] bytes) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        int size = input.readInt();
+        Map<String, byte[]> values = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = input.readUTF();
+            byte[] value = new byte[input.readInt()];
+            input.readFully(value);
+            values.put(key, value);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.checkpoint;
+
+import com.espertech.esper.common.client.serde.DataInputOutputSerde;
+import com.espertech.esper.common.internal.epl.variable.compiletime.VariableMetaData;
+import com.espertech.esper.common.internal.epl.variable.core.Variable;
+import com.espertech.esper.common.internal.epl.variable.core.VariableStateNonConstHandler;
+import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactory;
+import com.espertech.esper.common.internal.util.NullableObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Variable state handler that tracks the current value of each non-constant variable for checkpoints
+ * and that provides checkpointed values as the initial value of variables.
+ * <p>
+ * Setting a value only records the value and marks the state changed, the checkpoint thread takes the values.
+ * Values are checkpointed by variable module name, variable name and agent instance id, using the serde
+ * of the variable, which is {@link CheckpointSerdeEvent} for event-typed variables and {@link CheckpointSerdeValue} otherwise.
+ * The value of a variable that is undeployed is retained so that a later deployment of the variable starts with it.
+ */
+public class CheckpointVariableStateHandler implements VariableStateNonConstHandler {
+    private static final Logger log = LoggerFactory.getLogger(CheckpointVariableStateHandler.class);
+
+    private final EventBeanTypedEventFactory eventBeanTypedEventFactory;
+    private final ConcurrentHashMap<String, byte[]> retained;
+    private final ConcurrentHashMap<Variable, VariableStates> current = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    /**
+     * Ctor.
+     *
+     * @param eventBeanTypedEventFactory for restoring event-typed values
+     * @param checkpointed               checkpointed values by key, as written by the serde of the variable
+     */
+    public CheckpointVariableStateHandler(EventBeanTypedEventFactory eventBeanTypedEventFactory, Map<String, byte[]> checkpointed) {
+        this.eventBeanTypedEventFactory = eventBeanTypedEventFactory;
+        this.retained = new ConcurrentHashMap<>(checkpointed);
+    }
+
+    public DataInputOutputSerde getVariableSerde(String deploymentId, VariableMetaData metaData) {
+        if (metaData.getEventType() != null) {
+            return new CheckpointSerdeEvent(metaData.getEventType(), eventBeanTypedEventFactory);
+        }
+        return CheckpointSerdeValue.INSTANCE;
+    }
+
+    public void addVariable(String deploymentId, String variableName, Variable variable, DataInputOutputSerde serde) {
+        current.put(variable, new VariableStates(serde == null ? getVariableSerde(deploymentId, variable.getMetaData()) : serde));
+    }
+
+    public NullableObject<Object> getHasState(Variable variable, int agentInstanceId) {
+        VariableStates states = current.get(variable);
+        if (states != null) {
+            NullableObject<Object> state = states.values.get(agentInstanceId);
+            if (state != null) {
+                return state;
+            }
+        }
+
+        String key = key(variable, agentInstanceId);
+        byte[] checkpointed = retained.remove(key);
+        if (checkpointed == null) {
+            return null;
+        }
+        DataInputOutputSerde serde = states != null ? states.serde : getVariableSerde(variable.getDeploymentId(), variable.getMetaData());
+        NullableObject<Object> state;
+        try {
+            state = new NullableObject<>(CheckpointUtil.deserialize(serde, checkpointed));
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to restore checkpointed value of variable '" + key + "', variable starts with its initial value: " + ex.getMessage(), ex);
+            return null;
+        }
+        if (states != null) {
+            states.values.put(agentInstanceId, state);
+        }
+        return state;
+    }
+
+    public void setState(Variable variable, int agentInstanceId, Object newValue) {
+        VariableStates states = current.get(variable);
+        if (states != null) {
+            states.values.put(agentInstanceId, new NullableObject<>(newValue));
+            changed = true;
+        }
+    }
+
+    public void removeState(Variable variable, int agentInstanceId) {
+        VariableStates states = current.get(variable);
+        if (states == null) {
+            return;
+        }
+        NullableObject<Object> state = states.values.remove(agentInstanceId);
+        if (state != null) {
+            retain(key(variable, agentInstanceId), states.serde, state);
+            changed = true;
+        }
+    }
+
+    public void removeVariable(Variable variable, String deploymentId, Set<Integer> cps) {
+        VariableStates states = current.remove(variable);
+        if (states == null) {
+            return;
+        }
+        for (Map.Entry<Integer, NullableObject<Object>> entry : states.values.entrySet()) {
+            retain(key(variable, entry.getKey()), states.serde, entry.getValue());
+        }
+        changed = true;
+    }
+
+    /**
+     * Returns the values by key as written by the serde of each variable if any changed since the last call, or null if none changed.
+     * Values that cannot be written are logged and left out.
+     *
+     * @return values or null
+     */
+    public Map<String, byte[]> takeChanged() {
+        if (!changed) {
+            return null;
+        }
+        changed = false;
+        Map<String, byte[]> values = new HashMap<>(retained);
+        for (Map.Entry<Variable, VariableStates> variable : current.entrySet()) {
+            VariableStates states = variable.getValue();
+            for (Map.Entry<Integer, NullableObject<Object>> entry : states.values.entrySet()) {
+                String key = key(variable.getKey(), entry.getKey());
+                byte[] bytes = serialize(key, states.serde, entry.getValue());
+                if (bytes != null) {
+                    values.put(key, bytes);
+                }
+            }
+        }
+        return values;
+    }
+
+    private void retain(String key, DataInputOutputSerde serde, NullableObject<Object> state) {
+        byte[] bytes = serialize(key, serde, state);
+        if (bytes != null) {
+            retained.put(key, bytes);
+        }
+    }
+
+    private static byte[] serialize(String key, DataInputOutputSerde serde, NullableObject<Object> state) {
+        try {
+            return CheckpointUtil.serialize(serde, state.getObject());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to checkpoint value of variable '" + key + "': " + ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    private static String key(Variable variable, int agentInstanceId) {
+        VariableMetaData metaData = variable.getMetaData();
+        String moduleName = metaData.getVariableModuleName() == null ? "" : metaData.getVariableModuleName();
+        return moduleName + "." + metaData.getVariableName() + "#" + agentInstanceId;
+    }
+
+    private static class VariableStates {
+        private final DataInputOutputSerde serde;
+        private final ConcurrentHashMap<Integer, NullableObject<Object>> values = new ConcurrentHashMap<>();
+
+        VariableStates(DataInputOutputSerde serde) {
+            this.serde = serde;
+        }
+    }
+}
@@ -30,12 +30,22 @@ import java.util.concurrent.locks.ReadWriteLock;
 public class EventTypeIndex implements EventEvaluator {
     private Map<EventType, FilterHandleSetNode> eventTypes;
     private ReadWriteLock eventTypesRWLock;
+    private volatile FilterServiceMetrics metrics;
 
     public EventTypeIndex(FilterServiceGranularLockFactory lockFactory) {
         eventTypes = new HashMap<EventType, FilterHandleSetNode>();
         eventTypesRWLock = lockFactory.obtainNew();
     }
 
+    /**
+     * Sets the filter metrics to count evaluations into, or null to not count.
+     *
+     * @param metrics filter metrics
+     */
+    public void setMetrics(FilterServiceMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Destroy the service.
      */
@@ -93,6 +103,20 @@ public class EventTypeIndex implements EventEvaluator {
         }
     }
 
+    /**
+     * Replaces the root node of the subtree for an event type, adding the event type if not already in the index.
+     *
+     * @param eventType is the event type
+     * @param rootNode  is the new root node of the subtree for filter constant indizes and callbacks
+     */
+    public void replace(EventType eventType, FilterHandleSetNode rootNode) {
+        eventTypesRWLock.writeLock().lock();
+        try {
+            eventTypes.put(eventType, rootNode);
+        } finally {
+            eventTypesRWLock.writeLock().unlock();
+        }
+    }
 
     public void removeType(EventType type) {
         eventTypesRWLock.writeLock().lock();
@@ -175,6 +199,28 @@ public class EventTypeIndex implements EventEvaluator {
             return;
         }
 
-        rootNode.matchEvent(eventBean, matches);
+        FilterServiceMetrics metrics = this.metrics;
+        if (metrics == null) {
+            rootNode.matchEvent(eventBean, matches);
+            return;
+        }
+        matchTypeMetrics(metrics, eventType, rootNode, eventBean, matches);
+    }
+
+    private void matchTypeMetrics(FilterServiceMetrics metrics, EventType eventType, FilterHandleSetNode rootNode, EventBean eventBean, Collection<FilterHandle> matches) {
+        FilterMetricsVisit visit = FilterMetricsVisit.current();
+        FilterServiceMetrics enclosingMetrics = visit.getMetrics();
+        EventType enclosingEventType = visit.getEventType();
+        long nodesBefore = visit.getNumNodesVisited();
+        int matchesBefore = matches.size();
+        long start = System.nanoTime();
+        visit.begin(metrics, eventType);
+        try {
+            rootNode.matchEvent(eventBean, matches);
+        } finally {
+            visit.end(enclosingMetrics, enclosingEventType);
+        }
+        long nanos = System.nanoTime() - start;
+        metrics.getTypeCounters(eventType).account(nanos, visit.getNumNodesVisited() - nodesBefore, matches.size() - matchesBefore);
     }
 }
@@ -106,6 +106,21 @@ public class EventTypeIndexBuilder {
         }
     }
 
+    /**
+     * Rebuild the filter subtree for an event type from the filters passed, replacing the current subtree.
+     *
+     * @param eventType   event type
+     * @param filters     filter information per filter callback, in the parameter order to build the subtree
+     * @param lockFactory lock factory
+     */
+    public final void rebuild(EventType eventType, Map<FilterHandle, FilterValueSetParam[][]> filters, FilterServiceGranularLockFactory lockFactory) {
+        FilterHandleSetNode rootNode = new FilterHandleSetNode(lockFactory.obtainNew());
+        for (Map.Entry<FilterHandle, FilterValueSetParam[][]> entry : filters.entrySet()) {
+            IndexTreeBuilderAdd.add(entry.getValue(), entry.getKey(), rootNode, lockFactory);
+        }
+        eventTypeIndex.replace(eventType, rootNode);
+    }
+
     public boolean isSupportsTakeApply() {
         return false;
     }
@@ -86,8 +86,19 @@ public final class FilterHandleSetNode implements EventEvaluator, FilterHandleSi
      * @param matches  is the list of callbacks to add to for any matches found
      */
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        FilterMetricsVisit visit = null;
+        if (FilterMetricsVisit.ENABLED) {
+            visit = FilterMetricsVisit.current();
+            if (!visit.isActive()) {
+                visit = null;
+            }
+        }
+
         nodeRWLock.readLock().lock();
         try {
+            if (visit != null) {
+                visit.visitNode();
+            }
             if (InstrumentationHelper.ENABLED) {
                 if (!indizes.isEmpty()) {
                     InstrumentationHelper.get().qFilterHandleSetIndexes(indizes);
@@ -96,7 +107,11 @@ public final class FilterHandleSetNode implements EventEvaluator, FilterHandleSi
 
             // Ask each of the indizes to match against the attribute values
             for (FilterParamIndexBase index : indizes) {
-                index.matchEvent(theEvent, matches);
+                if (visit == null) {
+                    index.matchEvent(theEvent, matches);
+                } else {
+                    matchEventMetrics(index, theEvent, matches, visit);
+                }
             }
 
             if (InstrumentationHelper.ENABLED) {
@@ -114,6 +129,15 @@ public final class FilterHandleSetNode implements EventEvaluator, FilterHandleSi
         }
     }
 
+    private static void matchEventMetrics(FilterParamIndexBase index, EventBean theEvent, Collection<FilterHandle> matches, FilterMetricsVisit visit) {
+        long nodesBefore = visit.getNumNodesVisited();
+        int matchesBefore = matches.size();
+        long start = System.nanoTime();
+        index.matchEvent(theEvent, matches);
+        long nanos = System.nanoTime() - start;
+        visit.getCounters(index).account(nanos, visit.getNumNodesVisited() - nodesBefore, matches.size() - matchesBefore);
+    }
+
     /**
      * Returns an indication whether the filter callback exists in this node.
      * NOTE: the client to this method must use the read-write lock of this object to lock, if required by the client
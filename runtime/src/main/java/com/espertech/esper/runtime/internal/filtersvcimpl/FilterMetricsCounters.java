@@ -0,0 +1,85 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filter evaluation counters for an event type or for the filter indexes of an event type that share the same
+ * expression and filter operator.
+ */
+public class FilterMetricsCounters {
+    private final String expression;
+    private final String filterOperator;
+    private final LongAdder numEventsEvaluated = new LongAdder();
+    private final LongAdder numNodesVisited = new LongAdder();
+    private final LongAdder numMatches = new LongAdder();
+    private final LongAdder nanoTime = new LongAdder();
+
+    /**
+     * Ctor.
+     *
+     * @param expression     filter index expression, or null for the event type
+     * @param filterOperator filter index operator, or null for the event type
+     */
+    public FilterMetricsCounters(String expression, String filterOperator) {
+        this.expression = expression;
+        this.filterOperator = filterOperator;
+    }
+
+    /**
+     * Account for the evaluation of an event.
+     *
+     * @param nanos        time spent in nanoseconds
+     * @param nodesVisited number of filter nodes visited
+     * @param matches      number of matches produced
+     */
+    public void account(long nanos, long nodesVisited, long matches) {
+        numEventsEvaluated.increment();
+        numNodesVisited.add(nodesVisited);
+        numMatches.add(matches);
+        nanoTime.add(nanos);
+    }
+
+    /**
+     * Reset counters.
+     */
+    public void reset() {
+        numEventsEvaluated.reset();
+        numNodesVisited.reset();
+        numMatches.reset();
+        nanoTime.reset();
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public String getFilterOperator() {
+        return filterOperator;
+    }
+
+    public long getNumEventsEvaluated() {
+        return numEventsEvaluated.sum();
+    }
+
+    public long getNumNodesVisited() {
+        return numNodesVisited.sum();
+    }
+
+    public long getNumMatches() {
+        return numMatches.sum();
+    }
+
+    public long getNanoTime() {
+        return nanoTime.sum();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.EventType;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-thread state of a filter evaluation for which filter metrics are counted, so that the nodes of a filter tree
+ * can account for the filter indexes that they evaluate without carrying the metrics in the tree itself.
+ * <p>
+ * The {@link #ENABLED} flag is set as long as any filter service counts filter metrics, and nodes only
+ * look up the per-thread state when it is set.
+ */
+public final class FilterMetricsVisit {
+    /**
+     * Set when any filter service counts filter metrics.
+     */
+    public static volatile boolean ENABLED;
+
+    private static final AtomicInteger NUM_ENABLED = new AtomicInteger();
+    private static final ThreadLocal<FilterMetricsVisit> VISITS = ThreadLocal.withInitial(FilterMetricsVisit::new);
+
+    private FilterServiceMetrics metrics;
+    private EventType eventType;
+    private long numNodesVisited;
+
+    private FilterMetricsVisit() {
+    }
+
+    /**
+     * Registers a filter service that counts filter metrics.
+     */
+    public static void enable() {
+        NUM_ENABLED.incrementAndGet();
+        ENABLED = true;
+    }
+
+    /**
+     * Unregisters a filter service that counts filter metrics.
+     */
+    public static void disable() {
+        ENABLED = NUM_ENABLED.decrementAndGet() > 0;
+    }
+
+    /**
+     * Returns the state for the current thread.
+     *
+     * @return visit
+     */
+    public static FilterMetricsVisit current() {
+        return VISITS.get();
+    }
+
+    /**
+     * Starts counting for an event type.
+     *
+     * @param metrics   metrics of the filter service
+     * @param eventType event type whose filter tree is evaluated
+     */
+    public void begin(FilterServiceMetrics metrics, EventType eventType) {
+        this.metrics = metrics;
+        this.eventType = eventType;
+    }
+
+    /**
+     * Stops counting, restoring the state of an enclosing evaluation if any.
+     *
+     * @param metrics   metrics of the enclosing evaluation or null
+     * @param eventType event type of the enclosing evaluation or null
+     */
+    public void end(FilterServiceMetrics metrics, EventType eventType) {
+        this.metrics = metrics;
+        this.eventType = eventType;
+    }
+
+    /**
+     * Returns true if counting.
+     *
+     * @return indicator
+     */
+    public boolean isActive() {
+        return metrics != null;
+    }
+
+    /**
+     * Counts a visited node.
+     */
+    public void visitNode() {
+        numNodesVisited++;
+    }
+
+    /**
+     * Returns the number of nodes visited by this thread.
+     *
+     * @return number of nodes
+     */
+    public long getNumNodesVisited() {
+        return numNodesVisited;
+    }
+
+    /**
+     * Returns the counters of a filter index, resolving and caching them on the index first if needed.
+     *
+     * @param index filter index
+     * @return counters
+     */
+    public FilterMetricsCounters getCounters(FilterParamIndexBase index) {
+        FilterMetricsCounters counters = index.getMetricsCounters();
+        if (counters == null) {
+            counters = metrics.getIndexCounters(eventType, index);
+            index.setMetricsCounters(counters);
+        }
+        return counters;
+    }
+
+    public FilterServiceMetrics getMetrics() {
+        return metrics;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+}
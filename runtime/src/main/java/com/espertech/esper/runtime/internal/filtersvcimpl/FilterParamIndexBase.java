@@ -27,6 +27,7 @@ import java.util.concurrent.locks.ReadWriteLock;
  */
 public abstract class FilterParamIndexBase implements EventEvaluator, FilterHandleSize {
     private final FilterOperator filterOperator;
+    private FilterMetricsCounters metricsCounters;
 
     /**
      * Constructor.
@@ -102,6 +103,24 @@ public abstract class FilterParamIndexBase implements EventEvaluator, FilterHand
         return filterOperator;
     }
 
+    /**
+     * Returns the filter metrics counters of the index, or null if not yet resolved.
+     *
+     * @return counters
+     */
+    public FilterMetricsCounters getMetricsCounters() {
+        return metricsCounters;
+    }
+
+    /**
+     * Sets the filter metrics counters of the index.
+     *
+     * @param metricsCounters counters
+     */
+    public void setMetricsCounters(FilterMetricsCounters metricsCounters) {
+        this.metricsCounters = metricsCounters;
+    }
+
     public int getFilterCallbackCount() {
         return sizeExpensive();
     }
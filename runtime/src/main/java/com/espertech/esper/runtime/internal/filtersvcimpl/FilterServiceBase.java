@@ -13,6 +13,7 @@ package com.espertech.esper.runtime.internal.filtersvcimpl;
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.EventType;
 import com.espertech.esper.common.client.meta.EventTypeIdPair;
+import com.espertech.esper.common.client.metric.FilterMetric;
 import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
 import com.espertech.esper.common.internal.filtersvc.FilterHandle;
 import com.espertech.esper.common.internal.metrics.audit.AuditPath;
@@ -40,12 +41,19 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
     private final AtomicLong numEventsEvaluated = new AtomicLong();
     private volatile long filtersVersion = 1;
     private final CopyOnWriteArraySet<FilterServiceListener> filterServiceListeners;
+    private final FilterServiceReorder reorder;
+    private volatile FilterServiceMetrics metrics;
 
     protected FilterServiceBase(FilterServiceGranularLockFactory lockFactory, boolean allowIsolation) {
+        this(lockFactory, allowIsolation, 0);
+    }
+
+    protected FilterServiceBase(FilterServiceGranularLockFactory lockFactory, boolean allowIsolation, long reorderIntervalMSec) {
         this.lockFactory = lockFactory;
         eventTypeIndex = new EventTypeIndex(lockFactory);
         indexBuilder = new EventTypeIndexBuilder(eventTypeIndex, allowIsolation);
         filterServiceListeners = new CopyOnWriteArraySet<FilterServiceListener>();
+        reorder = reorderIntervalMSec > 0 ? new FilterServiceReorder(reorderIntervalMSec) : null;
     }
 
     public long getFiltersVersion() {
@@ -54,6 +62,10 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
 
     public void destroy() {
         log.debug("Destroying filter service");
+        if (reorder != null) {
+            reorder.destroy();
+        }
+        setMetricsEnabled(false);
         eventTypeIndex.destroy();
         indexBuilder.destroy();
     }
@@ -63,7 +75,16 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
             InstrumentationHelper.get().qFilterAdd(eventType, valueSet, filterCallback);
         }
 
-        indexBuilder.add(eventType, valueSet, filterCallback, lockFactory);
+        if (reorder == null) {
+            indexBuilder.add(eventType, valueSet, filterCallback, lockFactory);
+        } else {
+            reorder.getLock().lock();
+            try {
+                indexBuilder.add(eventType, reorder.added(eventType, valueSet, filterCallback), filterCallback, lockFactory);
+            } finally {
+                reorder.getLock().unlock();
+            }
+        }
         filtersVersion++;
 
         if (InstrumentationHelper.ENABLED) {
@@ -76,7 +97,17 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
             InstrumentationHelper.get().qFilterRemove(filterCallback, eventType, valueSet);
         }
 
-        indexBuilder.remove(filterCallback, eventType, valueSet);
+        if (reorder == null) {
+            indexBuilder.remove(filterCallback, eventType, valueSet);
+        } else {
+            reorder.getLock().lock();
+            try {
+                indexBuilder.remove(filterCallback, eventType, valueSet);
+                reorder.removed(filterCallback);
+            } finally {
+                reorder.getLock().unlock();
+            }
+        }
         filtersVersion++;
 
         if (InstrumentationHelper.ENABLED) {
@@ -94,6 +125,9 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
 
         // Finds all matching filters and return their callbacks.
         retryableMatchEvent(theEvent, matches);
+        if (reorder != null) {
+            reorder.sample(theEvent);
+        }
 
         if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
             for (FilterServiceListener listener : filterServiceListeners) {
@@ -116,6 +150,9 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
 
         // Finds all matching filters
         retryableMatchEvent(theEvent, allMatches);
+        if (reorder != null) {
+            reorder.sample(theEvent);
+        }
 
         // Add statement matches to collection passed
         for (FilterHandle match : allMatches) {
@@ -138,9 +175,40 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
         return numEventsEvaluated.get();
     }
 
-    @JmxOperation(description = "Reset number of events evaluated")
+    @JmxOperation(description = "Reset number of events evaluated and filter metrics")
     public void resetStats() {
         numEventsEvaluated.set(0);
+        FilterServiceMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.reset();
+        }
+    }
+
+    @JmxGetter(name = "FilterMetrics", description = "Events evaluated, nodes visited, matches and nanoseconds per event type and filter index, if filter metrics are enabled")
+    public String[] getFilterMetrics() {
+        FilterServiceMetrics metrics = this.metrics;
+        return metrics == null ? new String[0] : metrics.toLines();
+    }
+
+    public synchronized void setMetricsEnabled(boolean enabled) {
+        if (enabled == (metrics != null)) {
+            return;
+        }
+        if (enabled) {
+            metrics = new FilterServiceMetrics();
+            FilterMetricsVisit.enable();
+        } else {
+            metrics = null;
+            FilterMetricsVisit.disable();
+        }
+        eventTypeIndex.setMetrics(metrics);
+    }
+
+    public void collectMetrics(String runtimeURI, long timestamp, List<FilterMetric> metricsList) {
+        FilterServiceMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.collect(runtimeURI, timestamp, metricsList);
+        }
     }
 
     public void addFilterServiceListener(FilterServiceListener filterServiceListener) {
@@ -166,11 +234,43 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
     }
 
     public void init(Supplier<Collection<EventType>> availableTypes) {
-        // no initialization required
+        if (reorder != null) {
+            reorder.start(this::reorderFilters);
+        }
+    }
+
+    public void reorderFilters() {
+        if (reorder == null) {
+            return;
+        }
+        acquireWriteLock();
+        reorder.getLock().lock();
+        try {
+            reorder.reorder((eventType, filters) -> indexBuilder.rebuild(eventType, filters, lockFactory));
+        } finally {
+            reorder.getLock().unlock();
+            releaseWriteLock();
+        }
     }
 
     protected void removeTypeInternal(EventType type) {
         eventTypeIndex.removeType(type);
+        FilterServiceMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.removeType(type);
+        }
+        if (reorder != null) {
+            reorder.removedType(type);
+        }
+    }
+
+    /**
+     * Returns the filter reorder, or null if reordering is disabled.
+     *
+     * @return filter reorder
+     */
+    protected FilterServiceReorder getReorder() {
+        return reorder;
     }
 
     private void retryableMatchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
@@ -26,7 +26,11 @@ public final class FilterServiceLockCoarse extends FilterServiceBase {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
     public FilterServiceLockCoarse(boolean allowIsolation) {
-        super(FilterServiceGranularLockFactoryNone.INSTANCE, allowIsolation);
+        this(allowIsolation, 0);
+    }
+
+    public FilterServiceLockCoarse(boolean allowIsolation, long reorderIntervalMSec) {
+        super(FilterServiceGranularLockFactoryNone.INSTANCE, allowIsolation, reorderIntervalMSec);
     }
 
     public void acquireWriteLock() {
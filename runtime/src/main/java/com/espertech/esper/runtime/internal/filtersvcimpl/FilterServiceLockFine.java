@@ -26,7 +26,11 @@ public final class FilterServiceLockFine extends FilterServiceBase {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
     public FilterServiceLockFine(boolean allowIsolation) {
-        super(new FilterServiceGranularLockFactoryReentrant(), allowIsolation);
+        this(allowIsolation, 0);
+    }
+
+    public FilterServiceLockFine(boolean allowIsolation, long reorderIntervalMSec) {
+        super(new FilterServiceGranularLockFactoryReentrant(), allowIsolation, reorderIntervalMSec);
     }
 
     public void acquireWriteLock() {
@@ -0,0 +1,392 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.meta.EventTypeIdPair;
+import com.espertech.esper.common.client.metric.FilterMetric;
+import com.espertech.esper.common.internal.filterspec.FilterLockBackoffException;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
+import com.espertech.esper.common.internal.filtersvc.FilterHandle;
+import com.espertech.esper.common.internal.metrics.audit.AuditPath;
+import com.espertech.esper.runtime.internal.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.runtime.internal.metrics.jmx.JmxGetter;
+import com.espertech.esper.runtime.internal.metrics.jmx.JmxOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Filter service that matches events without acquiring any lock, for filters that change rarely.
+ * <p>
+ * The service keeps two copies of the event type index. Matching threads only read the published copy
+ * and never see a copy that is being changed. Writers are serialized: a writer changes the unpublished copy,
+ * publishes it, waits for matching threads that still read the previously-published copy and then
+ * applies the same changes to that copy.
+ * Adding and removing filters thus costs twice the index work plus the wait for in-flight matching.
+ * <p>
+ * Changes made between {@link #acquireWriteLock()} and {@link #releaseWriteLock()} are published together
+ * upon release. Matching threads do not block during that time and instead see the filters as before the changes.
+ */
+public final class FilterServiceLockFree implements FilterServiceSPI {
+    private static final Logger log = LoggerFactory.getLogger(FilterServiceLockFree.class);
+
+    private final IndexCopy[] copies;
+    private final LongAdder[] readIngress;
+    private final LongAdder[] readEgress;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<Consumer<IndexCopy>> pendingChanges = new ArrayList<>();
+    private final LongAdder numEventsEvaluated = new LongAdder();
+    private final CopyOnWriteArraySet<FilterServiceListener> filterServiceListeners = new CopyOnWriteArraySet<>();
+    private volatile int publishedIndex;
+    private volatile int readIndicatorIndex;
+    private volatile long filtersVersion = 1;
+    private volatile long filtersVersionPending = 1;
+    private final FilterServiceReorder reorder;
+    private volatile FilterServiceMetrics metrics;
+
+    public FilterServiceLockFree(boolean allowIsolation) {
+        this(allowIsolation, 0);
+    }
+
+    public FilterServiceLockFree(boolean allowIsolation, long reorderIntervalMSec) {
+        copies = new IndexCopy[]{new IndexCopy(allowIsolation), new IndexCopy(allowIsolation)};
+        readIngress = new LongAdder[]{new LongAdder(), new LongAdder()};
+        readEgress = new LongAdder[]{new LongAdder(), new LongAdder()};
+        reorder = reorderIntervalMSec > 0 ? new FilterServiceReorder(reorderIntervalMSec) : null;
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilter(theEvent);
+        }
+
+        // the version must be read before the published copy, see publish
+        long version = filtersVersion;
+        numEventsEvaluated.increment();
+
+        matchEvent(theEvent, matches);
+        if (reorder != null) {
+            reorder.sample(theEvent);
+        }
+
+        if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
+            for (FilterServiceListener listener : filterServiceListeners) {
+                listener.filtering(theEvent, matches, null);
+            }
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilter(matches);
+        }
+
+        return version;
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
+        long version = filtersVersion;
+        numEventsEvaluated.increment();
+
+        ArrayDeque<FilterHandle> allMatches = new ArrayDeque<FilterHandle>();
+        matchEvent(theEvent, allMatches);
+        if (reorder != null) {
+            reorder.sample(theEvent);
+        }
+
+        for (FilterHandle match : allMatches) {
+            if (match.getStatementId() == statementId) {
+                matches.add(match);
+            }
+        }
+
+        if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
+            for (FilterServiceListener listener : filterServiceListeners) {
+                listener.filtering(theEvent, matches, statementId);
+            }
+        }
+
+        return version;
+    }
+
+    public void add(EventType eventType, FilterValueSetParam[][] valueSet, FilterHandle callback) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterAdd(eventType, valueSet, callback);
+        }
+
+        acquireWriteLock();
+        try {
+            FilterValueSetParam[][] ordered = reorder == null ? valueSet : reorder.added(eventType, valueSet, callback);
+            change(copy -> copy.indexBuilder.add(eventType, ordered, callback, FilterServiceGranularLockFactoryNone.INSTANCE));
+            filtersVersionPending++;
+        } finally {
+            releaseWriteLock();
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterAdd();
+        }
+    }
+
+    public void remove(FilterHandle callback, EventType eventType, FilterValueSetParam[][] valueSet) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterRemove(callback, eventType, valueSet);
+        }
+
+        acquireWriteLock();
+        try {
+            change(copy -> copy.indexBuilder.remove(callback, eventType, valueSet));
+            if (reorder != null) {
+                reorder.removed(callback);
+            }
+            filtersVersionPending++;
+        } finally {
+            releaseWriteLock();
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterRemove();
+        }
+    }
+
+    public void removeType(EventType type) {
+        acquireWriteLock();
+        try {
+            change(copy -> copy.eventTypeIndex.removeType(type));
+            if (reorder != null) {
+                reorder.removedType(type);
+            }
+            FilterServiceMetrics metrics = this.metrics;
+            if (metrics != null) {
+                metrics.removeType(type);
+            }
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    public void acquireWriteLock() {
+        writeLock.lock();
+    }
+
+    public void releaseWriteLock() {
+        try {
+            if (writeLock.getHoldCount() == 1 && !pendingChanges.isEmpty()) {
+                publish();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the version that filters have after all changes made so far are published.
+     * Statements that changed filters receive this version so that events matched against the previously-published
+     * copy are treated as filter faults.
+     *
+     * @return filter version
+     */
+    public long getFiltersVersion() {
+        return filtersVersionPending;
+    }
+
+    public Map<EventTypeIdPair, Map<Integer, List<FilterItem[]>>> get(Set<Integer> statementId) {
+        writeLock.lock();
+        try {
+            return copies[publishedIndex].indexBuilder.get(statementId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @JmxGetter(name = "NumEventsEvaluated", description = "Number of events evaluated (main)")
+    public long getNumEventsEvaluated() {
+        return numEventsEvaluated.sum();
+    }
+
+    @JmxOperation(description = "Reset number of events evaluated and filter metrics")
+    public void resetStats() {
+        numEventsEvaluated.reset();
+        FilterServiceMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.reset();
+        }
+    }
+
+    @JmxGetter(name = "FilterMetrics", description = "Events evaluated, nodes visited, matches and nanoseconds per event type and filter index, if filter metrics are enabled")
+    public String[] getFilterMetrics() {
+        FilterServiceMetrics metrics = this.metrics;
+        return metrics == null ? new String[0] : metrics.toLines();
+    }
+
+    public synchronized void setMetricsEnabled(boolean enabled) {
+        if (enabled == (metrics != null)) {
+            return;
+        }
+        if (enabled) {
+            metrics = new FilterServiceMetrics();
+            FilterMetricsVisit.enable();
+        } else {
+            metrics = null;
+            FilterMetricsVisit.disable();
+        }
+        for (IndexCopy copy : copies) {
+            copy.eventTypeIndex.setMetrics(metrics);
+        }
+    }
+
+    public void collectMetrics(String runtimeURI, long timestamp, List<FilterMetric> metricsList) {
+        FilterServiceMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.collect(runtimeURI, timestamp, metricsList);
+        }
+    }
+
+    @JmxGetter(name = "NumFiltersApprox", description = "Number of filters managed (approximately)")
+    public int getFilterCountApprox() {
+        writeLock.lock();
+        try {
+            return copies[publishedIndex].eventTypeIndex.getFilterCountApprox();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @JmxGetter(name = "NumEventTypes", description = "Number of event types considered")
+    public int getCountTypes() {
+        writeLock.lock();
+        try {
+            return copies[publishedIndex].eventTypeIndex.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void addFilterServiceListener(FilterServiceListener filterServiceListener) {
+        filterServiceListeners.add(filterServiceListener);
+    }
+
+    public void removeFilterServiceListener(FilterServiceListener filterServiceListener) {
+        filterServiceListeners.remove(filterServiceListener);
+    }
+
+    public void init(Supplier<Collection<EventType>> availableTypes) {
+        if (reorder != null) {
+            reorder.start(this::reorderFilters);
+        }
+    }
+
+    public void reorderFilters() {
+        if (reorder == null) {
+            return;
+        }
+        acquireWriteLock();
+        try {
+            reorder.reorder((eventType, filters) -> change(copy -> copy.indexBuilder.rebuild(eventType, filters, FilterServiceGranularLockFactoryNone.INSTANCE)));
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    /**
+     * Returns the filter reorder, or null if reordering is disabled.
+     *
+     * @return filter reorder
+     */
+    FilterServiceReorder getReorder() {
+        return reorder;
+    }
+
+    public void destroy() {
+        log.debug("Destroying filter service");
+        if (reorder != null) {
+            reorder.destroy();
+        }
+        setMetricsEnabled(false);
+        for (IndexCopy copy : copies) {
+            copy.indexBuilder.destroy();
+        }
+    }
+
+    private void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        long delayNs = 10;
+        while (true) {
+            int indicator = readIndicatorIndex;
+            readIngress[indicator].increment();
+            try {
+                copies[publishedIndex].eventTypeIndex.matchEvent(theEvent, matches);
+                return;
+            } catch (FilterLockBackoffException ex) {
+                // lock-backoff may occur when stateful evaluations take place such as boolean expressions that are subqueries
+                matches.clear();
+            } finally {
+                readEgress[indicator].increment();
+            }
+
+            // back off outside of the read indicator so that a waiting writer can publish
+            LockSupport.parkNanos(delayNs);
+            if (delayNs < 1000000000) {
+                delayNs = delayNs * 2;
+            }
+        }
+    }
+
+    private void change(Consumer<IndexCopy> change) {
+        change.accept(copies[1 - publishedIndex]);
+        pendingChanges.add(change);
+    }
+
+    private void publish() {
+        int previous = publishedIndex;
+        publishedIndex = 1 - previous;
+
+        // the version is incremented only after the copy that reflects the changes is published
+        filtersVersion = filtersVersionPending;
+
+        // toggle the read indicator and wait for matching threads that may still read the previous copy
+        int previousIndicator = readIndicatorIndex;
+        int nextIndicator = 1 - previousIndicator;
+        awaitNoReaders(nextIndicator);
+        readIndicatorIndex = nextIndicator;
+        awaitNoReaders(previousIndicator);
+
+        // bring the previous copy up-to-date
+        IndexCopy copy = copies[previous];
+        for (Consumer<IndexCopy> change : pendingChanges) {
+            change.accept(copy);
+        }
+        pendingChanges.clear();
+    }
+
+    private void awaitNoReaders(int indicator) {
+        // egress must be read before ingress
+        while (readEgress[indicator].sum() != readIngress[indicator].sum()) {
+            Thread.yield();
+        }
+    }
+
+    private static class IndexCopy {
+        private final EventTypeIndex eventTypeIndex;
+        private final EventTypeIndexBuilder indexBuilder;
+
+        IndexCopy(boolean allowIsolation) {
+            eventTypeIndex = new EventTypeIndex(FilterServiceGranularLockFactoryNone.INSTANCE);
+            indexBuilder = new EventTypeIndexBuilder(eventTypeIndex, allowIsolation);
+        }
+    }
+}
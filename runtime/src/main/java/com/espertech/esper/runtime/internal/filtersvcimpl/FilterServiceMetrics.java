@@ -0,0 +1,132 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.metric.FilterMetric;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filter metrics of a filter service, holding counters per event type and, per event type,
+ * counters per filter index expression and filter operator.
+ * <p>
+ * Filter indexes that share the same expression and operator, such as the indexes nested below the different constants
+ * of an enclosing index, share their counters.
+ */
+public class FilterServiceMetrics {
+    private final ConcurrentHashMap<EventType, FilterMetricsCounters> typeCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<EventType, ConcurrentHashMap<String, FilterMetricsCounters>> indexCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the counters for an event type.
+     *
+     * @param eventType event type
+     * @return counters
+     */
+    public FilterMetricsCounters getTypeCounters(EventType eventType) {
+        FilterMetricsCounters counters = typeCounters.get(eventType);
+        if (counters == null) {
+            counters = typeCounters.computeIfAbsent(eventType, type -> new FilterMetricsCounters(null, null));
+        }
+        return counters;
+    }
+
+    /**
+     * Returns the counters for a filter index of an event type.
+     *
+     * @param eventType event type
+     * @param index     filter index
+     * @return counters
+     */
+    public FilterMetricsCounters getIndexCounters(EventType eventType, FilterParamIndexBase index) {
+        String expression = index instanceof FilterParamIndexLookupableBase ?
+            ((FilterParamIndexLookupableBase) index).getLookupable().getExpression() :
+            index.getFilterOperator().getTextualOp();
+        String filterOperator = index.getFilterOperator().name();
+        ConcurrentHashMap<String, FilterMetricsCounters> countersPerIndex = indexCounters.computeIfAbsent(eventType, type -> new ConcurrentHashMap<>());
+        return countersPerIndex.computeIfAbsent(expression + " " + filterOperator, key -> new FilterMetricsCounters(expression, filterOperator));
+    }
+
+    /**
+     * Removes the counters of an event type.
+     *
+     * @param eventType event type
+     */
+    public void removeType(EventType eventType) {
+        typeCounters.remove(eventType);
+        indexCounters.remove(eventType);
+    }
+
+    /**
+     * Adds a metric event for each event type and for each filter index of each event type.
+     *
+     * @param runtimeURI runtime URI
+     * @param timestamp  runtime timestamp
+     * @param metrics    list to add to
+     */
+    public void collect(String runtimeURI, long timestamp, List<FilterMetric> metrics) {
+        for (Map.Entry<EventType, FilterMetricsCounters> entry : typeCounters.entrySet()) {
+            String eventTypeName = entry.getKey().getName();
+            metrics.add(toMetric(runtimeURI, timestamp, eventTypeName, entry.getValue()));
+            Map<String, FilterMetricsCounters> countersPerIndex = indexCounters.get(entry.getKey());
+            if (countersPerIndex == null) {
+                continue;
+            }
+            for (FilterMetricsCounters counters : countersPerIndex.values()) {
+                metrics.add(toMetric(runtimeURI, timestamp, eventTypeName, counters));
+            }
+        }
+    }
+
+    /**
+     * Returns a line of text for each event type and for each filter index of each event type, for management purposes.
+     *
+     * @return lines
+     */
+    public String[] toLines() {
+        List<FilterMetric> metrics = new ArrayList<>();
+        collect(null, 0, metrics);
+        String[] lines = new String[metrics.size()];
+        for (int i = 0; i < lines.length; i++) {
+            FilterMetric metric = metrics.get(i);
+            String name = metric.getExpression() == null ? metric.getEventTypeName() : metric.getEventTypeName() + " " + metric.getExpression() + " " + metric.getFilterOperator();
+            lines[i] = name +
+                " numEventsEvaluated=" + metric.getNumEventsEvaluated() +
+                " numNodesVisited=" + metric.getNumNodesVisited() +
+                " numMatches=" + metric.getNumMatches() +
+                " nanoTime=" + metric.getNanoTime();
+        }
+        return lines;
+    }
+
+    /**
+     * Reset all counters.
+     */
+    public void reset() {
+        for (FilterMetricsCounters counters : typeCounters.values()) {
+            counters.reset();
+        }
+        for (Map<String, FilterMetricsCounters> countersPerIndex : indexCounters.values()) {
+            for (FilterMetricsCounters counters : countersPerIndex.values()) {
+                counters.reset();
+            }
+        }
+    }
+
+    private static FilterMetric toMetric(String runtimeURI, long timestamp, String eventTypeName, FilterMetricsCounters counters) {
+        return new FilterMetric(runtimeURI, timestamp, eventTypeName, counters.getExpression(), counters.getFilterOperator(),
+            counters.getNumEventsEvaluated(), counters.getNumNodesVisited(), counters.getNumMatches(), counters.getNanoTime());
+    }
+}
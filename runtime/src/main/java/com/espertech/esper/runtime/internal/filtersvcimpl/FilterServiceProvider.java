@@ -25,10 +25,24 @@ public final class FilterServiceProvider {
      * @return implementation
      */
     public static FilterServiceSPI newService(FilterServiceProfile filterServiceProfile, boolean allowIsolation) {
+        return newService(filterServiceProfile, allowIsolation, 0);
+    }
+
+    /**
+     * Creates an implementation of the FilterEvaluationService interface.
+     *
+     * @param filterServiceProfile config
+     * @param allowIsolation       whether isolation is supported
+     * @param reorderIntervalMSec  interval for reordering filters by selectivity, or zero for no reordering
+     * @return implementation
+     */
+    public static FilterServiceSPI newService(FilterServiceProfile filterServiceProfile, boolean allowIsolation, long reorderIntervalMSec) {
         if (filterServiceProfile == FilterServiceProfile.READMOSTLY) {
-            return new FilterServiceLockCoarse(allowIsolation);
+            return new FilterServiceLockCoarse(allowIsolation, reorderIntervalMSec);
+        } else if (filterServiceProfile == FilterServiceProfile.READLOCKFREE) {
+            return new FilterServiceLockFree(allowIsolation, reorderIntervalMSec);
         } else {
-            return new FilterServiceLockFine(allowIsolation);
+            return new FilterServiceLockFine(allowIsolation, reorderIntervalMSec);
         }
     }
 }
@@ -0,0 +1,460 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.collection.Pair;
+import com.espertech.esper.common.internal.epl.expression.core.ExprFilterSpecLookupable;
+import com.espertech.esper.common.internal.filterspec.FilterOperator;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParamImpl;
+import com.espertech.esper.common.internal.filtersvc.FilterHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Orders the filter parameters of each filter so that the most selective attributes are evaluated first,
+ * based on statistics observed at runtime.
+ * <p>
+ * The filter service samples one in {@link #SAMPLE_EVERY} events per event type at random, retaining the last {@link #SAMPLE_SIZE}
+ * sampled events until the next re-plan.
+ * When re-planning, for each attribute (lookupable and filter operator) of an event type the sampled events are matched
+ * against an index that holds the distinct filter constants of all filters for that attribute, yielding the fan-out
+ * (number of distinct constants), the hit ratio (fraction of sampled events that match any constant) and the
+ * selectivity (average fraction of filters that the attribute lets through).
+ * Filter parameters are then ordered by ascending selectivity, with attributes that cannot be ranked retaining their
+ * relative order followed by boolean expressions, and the filter tree of an event type is rebuilt when the order of any
+ * of its filters changed.
+ * <p>
+ * Filters added between re-plans are ordered using the ranking of the last re-plan.
+ */
+public class FilterServiceReorder {
+    private static final Logger log = LoggerFactory.getLogger(FilterServiceReorder.class);
+
+    /**
+     * Sample one in n events.
+     */
+    public static final int SAMPLE_EVERY = 16;
+
+    /**
+     * Number of sampled events retained per event type.
+     */
+    public static final int SAMPLE_SIZE = 64;
+
+    /**
+     * Minimal number of sampled events for an event type to be re-planned.
+     */
+    public static final int MIN_SAMPLES = 16;
+
+    private static final int RANK_UNRANKED = Integer.MAX_VALUE - 1;
+    private static final int RANK_BOOLEAN_EXPRESSION = Integer.MAX_VALUE;
+
+    private final long intervalMSec;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<FilterHandle, Registration> filters = new ConcurrentHashMap<>();
+    private final Map<EventType, TypeState> types = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+
+    /**
+     * Ctor.
+     *
+     * @param intervalMSec re-plan interval
+     */
+    public FilterServiceReorder(long intervalMSec) {
+        this.intervalMSec = intervalMSec;
+    }
+
+    /**
+     * Returns the lock that serializes adding and removing filters with re-planning.
+     *
+     * @return lock
+     */
+    public ReentrantLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Registers a filter and returns the filter parameters in the order of the current ranking.
+     *
+     * @param eventType event type
+     * @param valueSet  filter parameters
+     * @param handle    filter handle
+     * @return ordered filter parameters
+     */
+    public FilterValueSetParam[][] added(EventType eventType, FilterValueSetParam[][] valueSet, FilterHandle handle) {
+        TypeState state = types.computeIfAbsent(eventType, key -> new TypeState());
+        FilterValueSetParam[][] ordered = order(valueSet, state.ranking);
+        filters.put(handle, new Registration(eventType, ordered));
+        return ordered;
+    }
+
+    /**
+     * Unregisters a filter.
+     *
+     * @param handle filter handle
+     */
+    public void removed(FilterHandle handle) {
+        filters.remove(handle);
+    }
+
+    /**
+     * Unregisters an event type and its filters.
+     *
+     * @param eventType event type
+     */
+    public void removedType(EventType eventType) {
+        types.remove(eventType);
+        filters.values().removeIf(registration -> registration.eventType == eventType);
+    }
+
+    /**
+     * Samples an event for the event type of the event and its supertypes.
+     *
+     * @param theEvent event
+     */
+    public void sample(EventBean theEvent) {
+        EventType eventType = theEvent.getEventType();
+        sample(eventType, theEvent);
+        if (eventType.getSuperTypes() == null) {
+            return;
+        }
+        for (Iterator<EventType> it = eventType.getDeepSuperTypes(); it.hasNext(); ) {
+            sample(it.next(), theEvent);
+        }
+    }
+
+    /**
+     * Re-plans all event types that have sufficient samples, invoking the rebuild callback
+     * with the filters of each event type whose order changed, and discards the sampled events. The caller must hold the lock.
+     *
+     * @param rebuild rebuild callback receiving the event type and its ordered filters
+     */
+    public void reorder(BiConsumer<EventType, Map<FilterHandle, FilterValueSetParam[][]>> rebuild) {
+        for (Map.Entry<EventType, TypeState> entry : types.entrySet()) {
+            EventType eventType = entry.getKey();
+            TypeState state = entry.getValue();
+            EventBean[] samples = state.takeSamples();
+            if (samples.length < MIN_SAMPLES) {
+                continue;
+            }
+
+            Map<FilterHandle, FilterValueSetParam[][]> typeFilters = new LinkedHashMap<>();
+            for (Map.Entry<FilterHandle, Registration> filter : filters.entrySet()) {
+                if (filter.getValue().eventType == eventType) {
+                    typeFilters.put(filter.getKey(), filter.getValue().valueSet);
+                }
+            }
+
+            List<AttributeStatistics> statistics = computeStatistics(typeFilters.values(), samples);
+            state.statistics = statistics;
+            Map<Pair<ExprFilterSpecLookupable, FilterOperator>, Integer> ranking = new HashMap<>();
+            for (int i = 0; i < statistics.size(); i++) {
+                AttributeStatistics attribute = statistics.get(i);
+                ranking.put(new Pair<>(attribute.lookupable, attribute.filterOperator), i);
+            }
+
+            boolean changed = false;
+            for (Map.Entry<FilterHandle, FilterValueSetParam[][]> filter : typeFilters.entrySet()) {
+                FilterValueSetParam[][] ordered = order(filter.getValue(), ranking);
+                if (ordered != filter.getValue()) {
+                    filter.setValue(ordered);
+                    changed = true;
+                }
+            }
+            state.ranking = ranking;
+            if (!changed) {
+                continue;
+            }
+
+            rebuild.accept(eventType, typeFilters);
+            for (Map.Entry<FilterHandle, FilterValueSetParam[][]> filter : typeFilters.entrySet()) {
+                filters.put(filter.getKey(), new Registration(eventType, filter.getValue()));
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Reordered " + typeFilters.size() + " filters for event type '" + eventType.getName() + "' using " + statistics);
+            }
+        }
+    }
+
+    /**
+     * Returns the attribute statistics of the last re-plan for an event type, most selective first.
+     *
+     * @param eventType event type
+     * @return statistics, empty if not re-planned
+     */
+    public List<AttributeStatistics> getStatistics(EventType eventType) {
+        TypeState state = types.get(eventType);
+        return state == null ? Collections.emptyList() : state.statistics;
+    }
+
+    /**
+     * Starts the re-plan thread.
+     *
+     * @param task re-plan task
+     */
+    public void start(Runnable task) {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "com.espertech.esper.FilterReorder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.error("Unexpected error reordering filters: " + t.getMessage(), t);
+            }
+        }, intervalMSec, intervalMSec, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the re-plan thread.
+     */
+    public void destroy() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            log.error("Interrupted awaiting filter reorder thread termination", e);
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    private void sample(EventType eventType, EventBean theEvent) {
+        TypeState state = types.get(eventType);
+        if (state != null && ThreadLocalRandom.current().nextInt(SAMPLE_EVERY) == 0) {
+            state.add(theEvent);
+        }
+    }
+
+    private static List<AttributeStatistics> computeStatistics(Collection<FilterValueSetParam[][]> typeFilters, EventBean[] samples) {
+        // count the filters per distinct constant for each attribute
+        Map<Pair<ExprFilterSpecLookupable, FilterOperator>, Map<Object, int[]>> constants = new LinkedHashMap<>();
+        for (FilterValueSetParam[][] valueSet : typeFilters) {
+            for (FilterValueSetParam[] row : valueSet) {
+                for (FilterValueSetParam param : row) {
+                    FilterOperator filterOperator = param.getFilterOperator();
+                    if (filterOperator == FilterOperator.BOOLEAN_EXPRESSION || filterOperator == FilterOperator.ADVANCED_INDEX) {
+                        continue;
+                    }
+                    Pair<ExprFilterSpecLookupable, FilterOperator> key = new Pair<>(param.getLookupable(), filterOperator);
+                    constants.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(param.getFilterForValue(), k -> new int[1])[0]++;
+                }
+            }
+        }
+        if (constants.size() < 2) {
+            return Collections.emptyList();
+        }
+
+        List<AttributeStatistics> statistics = new ArrayList<>(constants.size());
+        for (Map.Entry<Pair<ExprFilterSpecLookupable, FilterOperator>, Map<Object, int[]>> entry : constants.entrySet()) {
+            try {
+                statistics.add(computeStatistics(entry.getKey(), entry.getValue(), samples));
+            } catch (RuntimeException ex) {
+                log.debug("Failed to compute statistics for attribute " + entry.getKey().getFirst() + ", attribute remains unranked: " + ex.getMessage(), ex);
+            }
+        }
+        statistics.sort(Comparator.comparingDouble(AttributeStatistics::getSelectivity));
+        return statistics;
+    }
+
+    private static AttributeStatistics computeStatistics(Pair<ExprFilterSpecLookupable, FilterOperator> key, Map<Object, int[]> counts, EventBean[] samples) {
+        // index the distinct constants, with a marker handle per constant that carries the number of filters
+        FilterHandleSetNode root = new FilterHandleSetNode(FilterServiceGranularLockFactoryNone.INSTANCE.obtainNew());
+        int numFilters = 0;
+        for (Map.Entry<Object, int[]> constant : counts.entrySet()) {
+            FilterValueSetParam[][] valueSet = new FilterValueSetParam[][]{{new FilterValueSetParamImpl(key.getFirst(), key.getSecond(), constant.getKey())}};
+            IndexTreeBuilderAdd.add(valueSet, new CountingHandle(constant.getValue()[0]), root, FilterServiceGranularLockFactoryNone.INSTANCE);
+            numFilters += constant.getValue()[0];
+        }
+
+        int hits = 0;
+        double passed = 0;
+        List<FilterHandle> matches = new ArrayList<>();
+        for (EventBean sample : samples) {
+            matches.clear();
+            root.matchEvent(sample, matches);
+            if (!matches.isEmpty()) {
+                hits++;
+            }
+            for (FilterHandle match : matches) {
+                passed += ((CountingHandle) match).count;
+            }
+        }
+        double hitRatio = hits / (double) samples.length;
+        double selectivity = passed / ((double) samples.length * numFilters);
+        return new AttributeStatistics(key.getFirst(), key.getSecond(), counts.size(), hitRatio, selectivity);
+    }
+
+    private static FilterValueSetParam[][] order(FilterValueSetParam[][] valueSet, Map<Pair<ExprFilterSpecLookupable, FilterOperator>, Integer> ranking) {
+        if (ranking.isEmpty()) {
+            return valueSet;
+        }
+        FilterValueSetParam[][] ordered = null;
+        for (int i = 0; i < valueSet.length; i++) {
+            FilterValueSetParam[] row = valueSet[i];
+            FilterValueSetParam[] sorted = row.clone();
+            Arrays.sort(sorted, Comparator.comparingInt(param -> rank(param, ranking)));
+            if (Arrays.equals(row, sorted)) {
+                continue;
+            }
+            if (ordered == null) {
+                ordered = valueSet.clone();
+            }
+            ordered[i] = sorted;
+        }
+        return ordered == null ? valueSet : ordered;
+    }
+
+    private static int rank(FilterValueSetParam param, Map<Pair<ExprFilterSpecLookupable, FilterOperator>, Integer> ranking) {
+        if (param.getFilterOperator() == FilterOperator.BOOLEAN_EXPRESSION) {
+            return RANK_BOOLEAN_EXPRESSION;
+        }
+        Integer rank = ranking.get(new Pair<>(param.getLookupable(), param.getFilterOperator()));
+        return rank == null ? RANK_UNRANKED : rank;
+    }
+
+    /**
+     * Statistics for an attribute of the filters of an event type.
+     */
+    public static class AttributeStatistics {
+        private final ExprFilterSpecLookupable lookupable;
+        private final FilterOperator filterOperator;
+        private final int fanOut;
+        private final double hitRatio;
+        private final double selectivity;
+
+        AttributeStatistics(ExprFilterSpecLookupable lookupable, FilterOperator filterOperator, int fanOut, double hitRatio, double selectivity) {
+            this.lookupable = lookupable;
+            this.filterOperator = filterOperator;
+            this.fanOut = fanOut;
+            this.hitRatio = hitRatio;
+            this.selectivity = selectivity;
+        }
+
+        /**
+         * Returns the attribute expression.
+         *
+         * @return expression
+         */
+        public String getExpression() {
+            return lookupable.getExpression();
+        }
+
+        /**
+         * Returns the filter operator.
+         *
+         * @return filter operator
+         */
+        public FilterOperator getFilterOperator() {
+            return filterOperator;
+        }
+
+        /**
+         * Returns the number of distinct filter constants.
+         *
+         * @return fan-out
+         */
+        public int getFanOut() {
+            return fanOut;
+        }
+
+        /**
+         * Returns the fraction of sampled events that match any filter constant.
+         *
+         * @return hit ratio
+         */
+        public double getHitRatio() {
+            return hitRatio;
+        }
+
+        /**
+         * Returns the average fraction of filters that match sampled events, smaller is more selective.
+         *
+         * @return selectivity
+         */
+        public double getSelectivity() {
+            return selectivity;
+        }
+
+        public String toString() {
+            return lookupable.getExpression() + filterOperator.getTextualOp() + "(fanOut=" + fanOut + ", hitRatio=" + hitRatio + ", selectivity=" + selectivity + ")";
+        }
+    }
+
+    private static class Registration {
+        private final EventType eventType;
+        private final FilterValueSetParam[][] valueSet;
+
+        Registration(EventType eventType, FilterValueSetParam[][] valueSet) {
+            this.eventType = eventType;
+            this.valueSet = valueSet;
+        }
+    }
+
+    private static class TypeState {
+        private final EventBean[] ring = new EventBean[SAMPLE_SIZE];
+        private int next;
+        private int size;
+        private volatile Map<Pair<ExprFilterSpecLookupable, FilterOperator>, Integer> ranking = Collections.emptyMap();
+        private volatile List<AttributeStatistics> statistics = Collections.emptyList();
+
+        synchronized void add(EventBean theEvent) {
+            ring[next] = theEvent;
+            next = (next + 1) % SAMPLE_SIZE;
+            if (size < SAMPLE_SIZE) {
+                size++;
+            }
+        }
+
+        synchronized EventBean[] takeSamples() {
+            EventBean[] samples = new EventBean[size];
+            System.arraycopy(ring, 0, samples, 0, size);
+            Arrays.fill(ring, null);
+            next = 0;
+            size = 0;
+            return samples;
+        }
+    }
+
+    private static class CountingHandle implements FilterHandle {
+        private final int count;
+
+        CountingHandle(int count) {
+            this.count = count;
+        }
+
+        public int getStatementId() {
+            return -1;
+        }
+
+        public int getAgentInstanceId() {
+            return -1;
+        }
+    }
+}
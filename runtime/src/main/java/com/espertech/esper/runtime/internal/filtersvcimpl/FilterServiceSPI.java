@@ -56,4 +56,17 @@ public interface FilterServiceSPI extends FilterService {
      * @param availableTypes type information
      */
     public void init(Supplier<Collection<EventType>> availableTypes);
+
+    /**
+     * Rebuilds the filter trees of event types so that the most selective filter parameters are evaluated first,
+     * if filter reordering is enabled.
+     */
+    public void reorderFilters();
+
+    /**
+     * Enables or disables counting filter metrics per event type and per filter index.
+     *
+     * @param enabled indicator
+     */
+    public void setMetricsEnabled(boolean enabled);
 }
\ No newline at end of file
@@ -90,6 +90,11 @@ public class EPDeploymentServiceImpl implements EPDeploymentServiceSPI {
             deployerResult = Deployer.deployFresh(deploymentId, currentStatementId, compiled, options.getStatementNameRuntime(), options.getStatementUserObjectRuntime(), options.getStatementSubstitutionParameter(), runtime);
             statementIdRecovery.setCurrentStatementId(currentStatementId + deployerResult.getStatements().length);
 
+            // restore checkpointed state
+            if (services.getCheckpointService() != null) {
+                services.getCheckpointService().restore(deploymentId, deployerResult.getModuleProvider().getModuleName());
+            }
+
             // dispatch event
             dispatchOnDeploymentEvent(deployerResult);
         } finally {
@@ -254,6 +259,11 @@ public class EPDeploymentServiceImpl implements EPDeploymentServiceSPI {
                 throw new EPUndeployException("Precondition not satisfied for undeploy: " + t.getMessage(), t);
             }
 
+            // retain checkpointed state
+            if (services.getCheckpointService() != null) {
+                services.getCheckpointService().undeploying(deploymentId);
+            }
+
             // disassociate statements
             Undeployer.disassociate(statements);
 
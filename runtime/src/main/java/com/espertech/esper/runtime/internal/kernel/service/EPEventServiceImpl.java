@@ -27,7 +27,9 @@ import com.espertech.esper.common.internal.event.avro.AvroSchemaEventType;
 import com.espertech.esper.common.internal.event.avro.EventSenderAvro;
 import com.espertech.esper.common.internal.event.bean.core.BeanEventType;
 import com.espertech.esper.common.internal.event.bean.core.EventSenderBean;
+import com.espertech.esper.common.internal.event.core.EventTypeUtility;
 import com.espertech.esper.common.internal.event.core.NaturalEventBean;
+import com.espertech.esper.common.internal.event.json.JsonLazyMap;
 import com.espertech.esper.common.internal.event.map.EventSenderMap;
 import com.espertech.esper.common.internal.event.map.MapEventType;
 import com.espertech.esper.common.internal.event.util.EPRuntimeEventProcessWrapped;
@@ -89,7 +91,8 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
     private ThreadWorkQueue threadWorkQueue;
     protected ThreadLocal<ArrayBackedCollection<FilterHandle>> matchesArrayThreadLocal;
     private ThreadLocal<ArrayBackedCollection<ScheduleHandle>> scheduleArrayThreadLocal;
-    private ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> matchesPerStmtThreadLocal;
+    private ThreadLocal<MatchesPerStatement> matchesPerStmtThreadLocal;
+    private ThreadLocal<FilterFaultMatches> filterFaultMatchesThreadLocal;
     private ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> schedulePerStmtThreadLocal;
 
     /**
@@ -218,7 +221,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
 
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendAvro(avroGenericDataDotRecord, avroEventTypeName, this));
+            services.getThreadingService().submitInboundAvro(avroGenericDataDotRecord, avroEventTypeName, this);
         } else {
             EventBean eventBean = wrapEventAvro(avroGenericDataDotRecord, avroEventTypeName);
             processWrappedEvent(eventBean);
@@ -236,7 +239,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
 
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, eventTypeName, this));
+            services.getThreadingService().submitInboundBean(theEvent, eventTypeName, this);
         } else {
             EventBean eventBean = services.getEventTypeResolvingBeanFactory().adapterForBean(theEvent, eventTypeName);
             processWrappedEvent(eventBean);
@@ -328,7 +331,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
 
         // Process event
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendDOM(node, eventTypeName, this));
+            services.getThreadingService().submitInboundDOM(node, eventTypeName, this);
         } else {
             EventBean eventBean = wrapEventBeanXMLDOM(node, eventTypeName);
             processWrappedEvent(eventBean);
@@ -345,7 +348,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
 
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, eventTypeName, this));
+            services.getThreadingService().submitInboundObjectArray(propertyValues, eventTypeName, this);
         } else {
             EventBean eventBean = wrapEventObjectArray(propertyValues, eventTypeName);
             processWrappedEvent(eventBean);
@@ -362,13 +365,117 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
 
         if (inboundThreading) {
-            services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, this));
+            services.getThreadingService().submitInboundMap(map, mapEventTypeName, this);
         } else {
             EventBean eventBean = wrapEventMap(map, mapEventTypeName);
             processWrappedEvent(eventBean);
         }
     }
 
+    public void sendEventJson(Object json, String eventTypeName) throws EPException {
+        if (json == null) {
+            throw new IllegalArgumentException("Invalid null event object");
+        }
+        EventType eventType = services.getEventTypeRepositoryBus().getTypeByName(eventTypeName);
+        EventTypeUtility.validateTypeMap(eventTypeName, eventType);
+        sendEventMap(JsonLazyMap.parse(json, ((MapEventType) eventType).getJsonLayout()), eventTypeName);
+    }
+
+    public void sendEventsObjectArray(Object[][] events, String eventTypeName) throws EPException {
+        sendEventsObjectArray(events, eventTypeName, true);
+    }
+
+    public void sendEventsObjectArray(Object[][] events, String eventTypeName, boolean dispatchPerEvent) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+        for (Object[] event : events) {
+            if (event == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+        }
+
+        if (inboundThreading) {
+            for (Object[] event : events) {
+                services.getThreadingService().submitInboundObjectArray(event, eventTypeName, this);
+            }
+            return;
+        }
+
+        EventType eventType = services.getEventTypeRepositoryBus().getTypeByName(eventTypeName);
+        EventTypeUtility.validateTypeObjectArray(eventTypeName, eventType);
+        EventBean[] eventBeans = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            eventBeans[i] = services.getEventBeanTypedEventFactory().adapterForTypedObjectArray(events[i], eventType);
+        }
+        processWrappedEvents(eventBeans, dispatchPerEvent);
+    }
+
+    public void sendEventBeans(List<?> events, String eventTypeName) {
+        sendEventBeans(events, eventTypeName, true);
+    }
+
+    public void sendEventBeans(List<?> events, String eventTypeName, boolean dispatchPerEvent) {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+
+        if (inboundThreading) {
+            for (Object event : events) {
+                if (event == null) {
+                    log.error(".sendEventBeans Null object supplied");
+                    continue;
+                }
+                services.getThreadingService().submitInboundBean(event, eventTypeName, this);
+            }
+            return;
+        }
+
+        EventType eventType = services.getEventTypeRepositoryBus().getTypeByName(eventTypeName);
+        EventTypeUtility.validateTypeBean(eventTypeName, eventType);
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object event : events) {
+            if (event == null) {
+                log.error(".sendEventBeans Null object supplied");
+                continue;
+            }
+            eventBeans[count++] = services.getEventBeanTypedEventFactory().adapterForTypedBean(event, eventType);
+        }
+        processWrappedEvents(eventBeans, dispatchPerEvent);
+    }
+
+    public void sendEventsMap(List<Map<String, Object>> events, String eventTypeName) {
+        sendEventsMap(events, eventTypeName, true);
+    }
+
+    public void sendEventsMap(List<Map<String, Object>> events, String eventTypeName, boolean dispatchPerEvent) {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event batch");
+        }
+        for (Map<String, Object> event : events) {
+            if (event == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+        }
+
+        if (inboundThreading) {
+            for (Map<String, Object> event : events) {
+                services.getThreadingService().submitInboundMap(event, eventTypeName, this);
+            }
+            return;
+        }
+
+        EventType eventType = services.getEventTypeRepositoryBus().getTypeByName(eventTypeName);
+        EventTypeUtility.validateTypeMap(eventTypeName, eventType);
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Map<String, Object> event : events) {
+            eventBeans[count++] = services.getEventBeanTypedEventFactory().adapterForTypedMap(event, eventType);
+        }
+        processWrappedEvents(eventBeans, dispatchPerEvent);
+    }
+
     public void routeEventBean(EventBean theEvent) {
         threadWorkQueue.addBack(theEvent);
     }
@@ -446,12 +553,85 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
     }
 
+    /**
+     * Processes a batch of wrapped events in order.
+     * <p>
+     * The matches collections and the work queue are obtained once for the batch.
+     * When dispatching at the end of the batch the event processing read lock is held across events
+     * and only released when insert-into or routed events are waiting to be processed.
+     * Null entries are skipped.
+     * </p>
+     *
+     * @param eventBeans       events
+     * @param dispatchPerEvent indicator whether to dispatch after each event or at the end of the batch
+     */
+    private void processWrappedEvents(EventBean[] eventBeans, boolean dispatchPerEvent) {
+        // preprocessing and instrumentation operate per event
+        if (InstrumentationHelper.ENABLED || internalEventRouter.isHasPreprocessing()) {
+            for (EventBean eventBean : eventBeans) {
+                if (eventBean != null) {
+                    processWrappedEvent(eventBean);
+                }
+            }
+            return;
+        }
+
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        MatchesPerStatement stmtCallbacks = matchesPerStmtThreadLocal.get();
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+
+        int index = 0;
+        while (index < eventBeans.length) {
+            services.getEventProcessingRWLock().acquireReadLock();
+            try {
+                while (index < eventBeans.length) {
+                    EventBean eventBean = eventBeans[index++];
+                    if (eventBean == null) {
+                        continue;
+                    }
+                    processMatches(eventBean, matches, stmtCallbacks);
+                    if (dispatchPerEvent) {
+                        break;
+                    }
+
+                    // named window consumers and routed events must see the results of this event before the next event
+                    services.getNamedWindowDispatchService().dispatch();
+                    if (!queues.getFrontQueue().isEmpty() || !queues.getBackQueue().isEmpty()) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                matches.clear();
+                stmtCallbacks.clear();
+                throw new EPException(ex);
+            } finally {
+                services.getEventProcessingRWLock().releaseReadLock();
+            }
+
+            // Dispatch results to listeners
+            // Done outside of the read-lock to prevent lockups when listeners create statements
+            if (dispatchPerEvent) {
+                dispatch();
+            }
+
+            // Work off the event queue if any events accumulated in there via a route() or insert-into
+            processThreadWorkQueue(queues);
+        }
+
+        if (!dispatchPerEvent) {
+            dispatch();
+            processThreadWorkQueue(queues);
+        }
+    }
+
     /**
      * Works off the thread's work queue.
      */
     public void processThreadWorkQueue() {
-        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+        processThreadWorkQueue(threadWorkQueue.getThreadQueue());
+    }
 
+    private void processThreadWorkQueue(DualWorkQueue queues) {
         if (queues.getFrontQueue().isEmpty()) {
             boolean haveDispatched = services.getNamedWindowDispatchService().dispatch();
             if (haveDispatched) {
@@ -581,8 +761,11 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
     }
 
     protected void processMatches(EventBean theEvent) {
+        processMatches(theEvent, matchesArrayThreadLocal.get(), matchesPerStmtThreadLocal.get());
+    }
+
+    private void processMatches(EventBean theEvent, ArrayBackedCollection<FilterHandle> matches, MatchesPerStatement stmtCallbacks) {
         // get matching filters
-        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
         long version = services.getFilterService().evaluate(theEvent, matches);
 
         if (ThreadLogUtil.ENABLED_TRACE) {
@@ -604,7 +787,6 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
             return;
         }
 
-        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
         Object[] matchArray = matches.getArray();
         int entryCount = matches.size();
 
@@ -615,18 +797,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
             // Self-joins require that the internal dispatch happens after all streams are evaluated.
             // Priority or preemptive settings also require special ordering.
             if (handle.isCanSelfJoin() || isPrioritized) {
-                Object callbacks = stmtCallbacks.get(handle);
-                if (callbacks == null) {
-                    stmtCallbacks.put(handle, handleCallback.getFilterCallback());
-                } else if (callbacks instanceof ArrayDeque) {
-                    ArrayDeque<FilterHandleCallback> q = (ArrayDeque<FilterHandleCallback>) callbacks;
-                    q.add(handleCallback.getFilterCallback());
-                } else {
-                    ArrayDeque<FilterHandleCallback> q = new ArrayDeque<>(4);
-                    q.add((FilterHandleCallback) callbacks);
-                    q.add(handleCallback.getFilterCallback());
-                    stmtCallbacks.put(handle, q);
-                }
+                stmtCallbacks.add(handle, handleCallback.getFilterCallback());
                 continue;
             }
 
@@ -640,7 +811,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
                 long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
                 long deltaCPU = cpuTimeAfter - cpuTimeBefore;
                 long deltaWall = wallTimeAfter - wallTimeBefore;
-                services.getMetricReportingService().accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
+                services.getMetricReportingService().accountTime(handle.getStatementHandle().getMetricsHandle(), handle.getAgentInstanceId(), deltaCPU, deltaWall, 1);
             } else {
                 if (routeThreading) {
                     services.getThreadingService().submitRoute(new RouteUnitSingle(this, handleCallback, theEvent, version));
@@ -653,10 +824,14 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         if (stmtCallbacks.isEmpty()) {
             return;
         }
+        if (isPrioritized) {
+            stmtCallbacks.sort(EPStatementAgentInstanceHandleComparator.INSTANCE);
+        }
 
-        for (Map.Entry<EPStatementAgentInstanceHandle, Object> entry : stmtCallbacks.entrySet()) {
-            EPStatementAgentInstanceHandle handle = entry.getKey();
-            Object callbackList = entry.getValue();
+        int numStmts = stmtCallbacks.size();
+        for (int i = 0; i < numStmts; i++) {
+            EPStatementAgentInstanceHandle handle = stmtCallbacks.getHandle(i);
+            Object callbackList = stmtCallbacks.getCallbacks(i);
 
             if (handle.getStatementHandle().getMetricsHandle().isEnabled()) {
                 long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
@@ -672,10 +847,10 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
                 if (callbackList instanceof Collection) {
                     size = ((Collection) callbackList).size();
                 }
-                services.getMetricReportingService().accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, size);
+                services.getMetricReportingService().accountTime(handle.getStatementHandle().getMetricsHandle(), handle.getAgentInstanceId(), deltaCPU, deltaWall, size);
             } else {
                 if (routeThreading) {
-                    services.getThreadingService().submitRoute(new RouteUnitMultiple(this, callbackList, theEvent, handle, version));
+                    services.getThreadingService().submitRoute(new RouteUnitMultiple(this, stmtCallbacks.getCallbacksCopy(i), theEvent, handle, version));
                 } else {
                     processStatementFilterMultiple(handle, callbackList, theEvent, version, 0);
                 }
@@ -831,42 +1006,38 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
     }
 
     protected void handleFilterFault(EPStatementAgentInstanceHandle faultingHandle, EventBean theEvent, int filterFaultCount) {
-        ArrayDeque<FilterHandle> callbacksForStatement = new ArrayDeque<FilterHandle>();
+        // filter faults may nest, each level uses its own buffers
+        FilterFaultMatches faultMatches = filterFaultMatchesThreadLocal.get();
+        ArrayBackedCollection<FilterHandle> callbacksForStatement = faultMatches.getMatches(filterFaultCount);
+        MatchesPerStatement stmtCallbacks = faultMatches.getStmtCallbacks(filterFaultCount);
+        try {
+            handleFilterFault(faultingHandle, theEvent, filterFaultCount, callbacksForStatement, stmtCallbacks);
+        } finally {
+            callbacksForStatement.clear();
+            stmtCallbacks.clear();
+        }
+    }
+
+    private void handleFilterFault(EPStatementAgentInstanceHandle faultingHandle, EventBean theEvent, int filterFaultCount, ArrayBackedCollection<FilterHandle> callbacksForStatement, MatchesPerStatement stmtCallbacks) {
         long version = services.getFilterService().evaluate(theEvent, callbacksForStatement, faultingHandle.getStatementId());
 
-        if (callbacksForStatement.size() == 1) {
-            EPStatementHandleCallbackFilter handleCallback = (EPStatementHandleCallbackFilter) callbacksForStatement.getFirst();
+        Object[] matchArray = callbacksForStatement.getArray();
+        int entryCount = callbacksForStatement.size();
+        if (entryCount == 1) {
+            EPStatementHandleCallbackFilter handleCallback = (EPStatementHandleCallbackFilter) matchArray[0];
             processStatementFilterSingle(handleCallback.getAgentInstanceHandle(), handleCallback, theEvent, version, filterFaultCount + 1);
             return;
         }
-        if (callbacksForStatement.isEmpty()) {
+        if (entryCount == 0) {
             return;
         }
 
-        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks;
-        if (isPrioritized) {
-            stmtCallbacks = new TreeMap<EPStatementAgentInstanceHandle, Object>(EPStatementAgentInstanceHandleComparator.INSTANCE);
-        } else {
-            stmtCallbacks = new HashMap<EPStatementAgentInstanceHandle, Object>();
-        }
-
-        for (FilterHandle filterHandle : callbacksForStatement) {
-            EPStatementHandleCallbackFilter handleCallback = (EPStatementHandleCallbackFilter) filterHandle;
+        for (int i = 0; i < entryCount; i++) {
+            EPStatementHandleCallbackFilter handleCallback = (EPStatementHandleCallbackFilter) matchArray[i];
             EPStatementAgentInstanceHandle handle = handleCallback.getAgentInstanceHandle();
 
             if (handle.isCanSelfJoin() || isPrioritized) {
-                Object callbacks = stmtCallbacks.get(handle);
-                if (callbacks == null) {
-                    stmtCallbacks.put(handle, handleCallback.getFilterCallback());
-                } else if (callbacks instanceof ArrayDeque) {
-                    ArrayDeque<FilterHandleCallback> q = (ArrayDeque<FilterHandleCallback>) callbacks;
-                    q.add(handleCallback.getFilterCallback());
-                } else {
-                    ArrayDeque<FilterHandleCallback> q = new ArrayDeque<>(4);
-                    q.add((FilterHandleCallback) callbacks);
-                    q.add(handleCallback.getFilterCallback());
-                    stmtCallbacks.put(handle, q);
-                }
+                stmtCallbacks.add(handle, handleCallback.getFilterCallback());
                 continue;
             }
 
@@ -876,10 +1047,14 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         if (stmtCallbacks.isEmpty()) {
             return;
         }
+        if (isPrioritized) {
+            stmtCallbacks.sort(EPStatementAgentInstanceHandleComparator.INSTANCE);
+        }
 
-        for (Map.Entry<EPStatementAgentInstanceHandle, Object> entry : stmtCallbacks.entrySet()) {
-            EPStatementAgentInstanceHandle handle = entry.getKey();
-            Object callbackList = entry.getValue();
+        int numStmts = stmtCallbacks.size();
+        for (int i = 0; i < numStmts; i++) {
+            EPStatementAgentInstanceHandle handle = stmtCallbacks.getHandle(i);
+            Object callbackList = stmtCallbacks.getCallbacks(i);
 
             processStatementFilterMultiple(handle, callbackList, theEvent, version, filterFaultCount + 1);
 
@@ -913,6 +1088,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         removeFromThreadLocals();
         matchesArrayThreadLocal = null;
         matchesPerStmtThreadLocal = null;
+        filterFaultMatchesThreadLocal = null;
         scheduleArrayThreadLocal = null;
         schedulePerStmtThreadLocal = null;
     }
@@ -945,6 +1121,9 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         if (matchesPerStmtThreadLocal != null) {
             matchesPerStmtThreadLocal.remove();
         }
+        if (filterFaultMatchesThreadLocal != null) {
+            filterFaultMatchesThreadLocal.remove();
+        }
         if (scheduleArrayThreadLocal != null) {
             scheduleArrayThreadLocal.remove();
         }
@@ -968,16 +1147,17 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
             }
         };
 
-        matchesPerStmtThreadLocal =
-            new ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>>() {
-                protected synchronized Map<EPStatementAgentInstanceHandle, Object> initialValue() {
-                    if (isPrioritized) {
-                        return new TreeMap<>(EPStatementAgentInstanceHandleComparator.INSTANCE);
-                    } else {
-                        return new HashMap<>();
-                    }
-                }
-            };
+        matchesPerStmtThreadLocal = new ThreadLocal<MatchesPerStatement>() {
+            protected synchronized MatchesPerStatement initialValue() {
+                return new MatchesPerStatement();
+            }
+        };
+
+        filterFaultMatchesThreadLocal = new ThreadLocal<FilterFaultMatches>() {
+            protected synchronized FilterFaultMatches initialValue() {
+                return new FilterFaultMatches();
+            }
+        };
 
         schedulePerStmtThreadLocal = new ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>>() {
             protected synchronized Map<EPStatementAgentInstanceHandle, Object> initialValue() {
@@ -1045,7 +1225,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
                 long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
                 long deltaCPU = cpuTimeAfter - cpuTimeBefore;
                 long deltaWall = wallTimeAfter - wallTimeBefore;
-                services.getMetricReportingService().accountTime(handle.getAgentInstanceHandle().getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
+                services.getMetricReportingService().accountTime(handle.getAgentInstanceHandle().getStatementHandle().getMetricsHandle(), handle.getAgentInstanceHandle().getAgentInstanceId(), deltaCPU, deltaWall, 1);
             } else {
                 if (timerThreading) {
                     services.getThreadingService().submitTimerWork(new TimerUnitSingle(services, this, handle));
@@ -1108,7 +1288,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
                 long deltaCPU = cpuTimeAfter - cpuTimeBefore;
                 long deltaWall = wallTimeAfter - wallTimeBefore;
                 int numInput = (callbackObject instanceof Collection) ? ((Collection) callbackObject).size() : 1;
-                services.getMetricReportingService().accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, numInput);
+                services.getMetricReportingService().accountTime(handle.getStatementHandle().getMetricsHandle(), handle.getAgentInstanceId(), deltaCPU, deltaWall, numInput);
             } else {
                 if (timerThreading) {
                     services.getThreadingService().submitTimerWork(new TimerUnitMultiple(services, this, handle, callbackObject));
@@ -1237,7 +1417,7 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
             return new EventSenderXMLDOM(this, (BaseXMLEventType) eventType, services.getEventBeanTypedEventFactory(), threadingService);
         }
         if (eventType instanceof AvroSchemaEventType) {
-            return new EventSenderAvro(this, eventType, services.getEventBeanTypedEventFactory(), threadingService);
+            return new EventSenderAvro(this, eventType, services.getEventBeanTypedEventFactory(), threadingService, services.getEventTypeAvroHandler());
         }
 
         throw new EventTypeException("An event sender for event type named '" + eventTypeName + "' could not be created as the type is not known");
@@ -1303,4 +1483,23 @@ public class EPEventServiceImpl implements EPEventServiceSPI, InternalEventRoute
         }
         threadWorkQueue.addBack(theEvent);
     }
+
+    private static class FilterFaultMatches {
+        private final ArrayBackedCollection<FilterHandle>[] matches = new ArrayBackedCollection[MAX_FILTER_FAULT_COUNT];
+        private final MatchesPerStatement[] stmtCallbacks = new MatchesPerStatement[MAX_FILTER_FAULT_COUNT];
+
+        ArrayBackedCollection<FilterHandle> getMatches(int filterFaultCount) {
+            if (matches[filterFaultCount] == null) {
+                matches[filterFaultCount] = new ArrayBackedCollection<>(10);
+            }
+            return matches[filterFaultCount];
+        }
+
+        MatchesPerStatement getStmtCallbacks(int filterFaultCount) {
+            if (stmtCallbacks[filterFaultCount] == null) {
+                stmtCallbacks[filterFaultCount] = new MatchesPerStatement();
+            }
+            return stmtCallbacks[filterFaultCount];
+        }
+    }
 }
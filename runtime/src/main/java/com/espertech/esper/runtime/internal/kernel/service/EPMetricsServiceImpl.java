@@ -12,6 +12,7 @@ package com.espertech.esper.runtime.internal.kernel.service;
 
 import com.espertech.esper.common.client.configuration.ConfigurationException;
 import com.espertech.esper.common.client.metric.EPMetricsService;
+import com.espertech.esper.common.client.metric.OutboundMailboxMetric;
 
 public class EPMetricsServiceImpl implements EPMetricsService {
     private final EPServicesContext services;
@@ -60,4 +61,7 @@ public class EPMetricsServiceImpl implements EPMetricsService {
         }
     }
 
+    public OutboundMailboxMetric[] getOutboundMailboxMetrics() {
+        return services.getThreadingService().getOutboundMailboxMetrics();
+    }
 }
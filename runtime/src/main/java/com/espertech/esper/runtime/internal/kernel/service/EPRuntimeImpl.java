@@ -441,6 +441,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI {
             startEngineMetrics(services, eventService);
         }
 
+        // Start checkpointing, if any
+        if (services.getCheckpointService() != null) {
+            services.getCheckpointService().start(services);
+        }
+
         // call initialize listeners
         for (EPRuntimeStateListener listener : serviceListeners) {
             try {
@@ -75,6 +75,7 @@ import com.espertech.esper.common.internal.util.ManagedReadWriteLock;
 import com.espertech.esper.common.internal.view.core.ViewFactoryService;
 import com.espertech.esper.common.internal.view.previous.ViewServicePreviousFactory;
 import com.espertech.esper.runtime.client.EPRuntime;
+import com.espertech.esper.runtime.internal.checkpoint.CheckpointService;
 import com.espertech.esper.runtime.internal.deploymentlifesvc.DeploymentLifecycleService;
 import com.espertech.esper.runtime.internal.deploymentlifesvc.DeploymentRecoveryService;
 import com.espertech.esper.runtime.internal.deploymentlifesvc.ListenerRecoveryService;
@@ -89,6 +90,7 @@ public class EPServicesContext {
     private final AggregationServiceFactoryService aggregationServiceFactoryService;
     private final BeanEventTypeFactoryPrivate beanEventTypeFactoryPrivate;
     private final BeanEventTypeStemService beanEventTypeStemService;
+    private final CheckpointService checkpointService;
     private final ClassForNameProvider classForNameProvider;
     private final Configuration configSnapshot;
     private final ContextManagementService contextManagementService;
@@ -160,10 +162,11 @@ public class EPServicesContext {
     private StatementContextRuntimeServices statementContextRuntimeServices;
     private InternalEventRouteDest internalEventRouteDest;
 
-    public EPServicesContext(AggregationServiceFactoryService aggregationServiceFactoryService, BeanEventTypeFactoryPrivate beanEventTypeFactoryPrivate, BeanEventTypeStemService beanEventTypeStemService, ClassForNameProvider classForNameProvider, Configuration configSnapshot, ContextManagementService contextManagementService, PathRegistry<String, ContextMetaData> contextPathRegistry, ContextServiceFactory contextServiceFactory, EPDataFlowServiceImpl dataflowService, DataFlowFilterServiceAdapter dataFlowFilterServiceAdapter, DataInputOutputSerdeProvider dataInputOutputSerdeProvider, DatabaseConfigServiceRuntime databaseConfigServiceRuntime, DeploymentLifecycleService deploymentLifecycleService, DispatchService dispatchService, RuntimeEnvContext runtimeEnvContext, RuntimeSettingsService runtimeSettingsService, String runtimeURI, ClasspathImportServiceRuntime classpathImportServiceRuntime, EPStatementFactory epStatementFactory, PathRegistry<String, ExpressionDeclItem> exprDeclaredPathRegistry, ManagedReadWriteLock eventProcessingRWLock, EPServicesHA epServicesHA, EPRuntimeSPI epRuntime, EventBeanService eventBeanService, EventBeanTypedEventFactory eventBeanTypedEventFactory, EPRenderEventServiceImpl eventRenderer, EventTableIndexService eventTableIndexService, EventTypeAvroHandler eventTypeAvroHandler, EventTypeFactory eventTypeFactory, PathRegistry<String, EventType> eventTypePathRegistry, EventTypeRepositoryImpl eventTypeRepositoryBus, EventTypeResolvingBeanFactory eventTypeResolvingBeanFactory, ExceptionHandlingService exceptionHandlingService, ExpressionResultCacheService expressionResultCacheService, FilterBooleanExpressionFactory filterBooleanExpressionFactory, FilterServiceSPI filterService, FilterSharedBoolExprRepository filterSharedBoolExprRepository, FilterSharedLookupableRepository filterSharedLookupableRepository, HistoricalDataCacheFactory historicalDataCacheFactory, InternalEventRouterImpl internalEventRouter, MetricReportingService metricReportingService, MultiMatchHandlerFactory multiMatchHandlerFactory, NamedWindowConsumerManagementService namedWindowConsumerManagementService, NamedWindowDispatchService namedWindowDispatchService, NamedWindowFactoryService namedWindowFactoryService, NamedWindowManagementService namedWindowManagementService, PathRegistry<String, NamedWindowMetaData> namedWindowPathRegistry, PatternFactoryService patternFactoryService, PatternSubexpressionPoolRuntimeSvc patternSubexpressionPoolEngineSvc, ResultSetProcessorHelperFactory resultSetProcessorHelperFactory, RowRecogStateRepoFactory rowRecogStateRepoFactory, RowRecogStatePoolRuntimeSvc rowRecogStatePoolEngineSvc, SchedulingServiceSPI schedulingService, PathRegistry<NameAndParamNum, ExpressionScriptProvided> scriptPathRegistry, StatementLifecycleService statementLifecycleService, StatementAgentInstanceLockFactory statementAgentInstanceLockFactory, StatementResourceHolderBuilder statementResourceHolderBuilder, TableExprEvaluatorContext tableExprEvaluatorContext, TableManagementService tableManagementService, PathRegistry<String, TableMetaData> tablePathRegistry, ThreadingService threadingService, TimeAbacus timeAbacus, TimeSourceService timeSourceService, TimerService timerService, VariableManagementService variableManagementService, PathRegistry<String, VariableMetaData> variablePathRegistry, ViewableActivatorFactory viewableActivatorFactory, ViewFactoryService viewFactoryService, ViewServicePreviousFactory viewServicePreviousFactory, XMLFragmentEventTypeFactory xmlFragmentEventTypeFactory) {
+    public EPServicesContext(AggregationServiceFactoryService aggregationServiceFactoryService, BeanEventTypeFactoryPrivate beanEventTypeFactoryPrivate, BeanEventTypeStemService beanEventTypeStemService, CheckpointService checkpointService, ClassForNameProvider classForNameProvider, Configuration configSnapshot, ContextManagementService contextManagementService, PathRegistry<String, ContextMetaData> contextPathRegistry, ContextServiceFactory contextServiceFactory, EPDataFlowServiceImpl dataflowService, DataFlowFilterServiceAdapter dataFlowFilterServiceAdapter, DataInputOutputSerdeProvider dataInputOutputSerdeProvider, DatabaseConfigServiceRuntime databaseConfigServiceRuntime, DeploymentLifecycleService deploymentLifecycleService, DispatchService dispatchService, RuntimeEnvContext runtimeEnvContext, RuntimeSettingsService runtimeSettingsService, String runtimeURI, ClasspathImportServiceRuntime classpathImportServiceRuntime, EPStatementFactory epStatementFactory, PathRegistry<String, ExpressionDeclItem> exprDeclaredPathRegistry, ManagedReadWriteLock eventProcessingRWLock, EPServicesHA epServicesHA, EPRuntimeSPI epRuntime, EventBeanService eventBeanService, EventBeanTypedEventFactory eventBeanTypedEventFactory, EPRenderEventServiceImpl eventRenderer, EventTableIndexService eventTableIndexService, EventTypeAvroHandler eventTypeAvroHandler, EventTypeFactory eventTypeFactory, PathRegistry<String, EventType> eventTypePathRegistry, EventTypeRepositoryImpl eventTypeRepositoryBus, EventTypeResolvingBeanFactory eventTypeResolvingBeanFactory, ExceptionHandlingService exceptionHandlingService, ExpressionResultCacheService expressionResultCacheService, FilterBooleanExpressionFactory filterBooleanExpressionFactory, FilterServiceSPI filterService, FilterSharedBoolExprRepository filterSharedBoolExprRepository, FilterSharedLookupableRepository filterSharedLookupableRepository, HistoricalDataCacheFactory historicalDataCacheFactory, InternalEventRouterImpl internalEventRouter, MetricReportingService metricReportingService, MultiMatchHandlerFactory multiMatchHandlerFactory, NamedWindowConsumerManagementService namedWindowConsumerManagementService, NamedWindowDispatchService namedWindowDispatchService, NamedWindowFactoryService namedWindowFactoryService, NamedWindowManagementService namedWindowManagementService, PathRegistry<String, NamedWindowMetaData> namedWindowPathRegistry, PatternFactoryService patternFactoryService, PatternSubexpressionPoolRuntimeSvc patternSubexpressionPoolEngineSvc, ResultSetProcessorHelperFactory resultSetProcessorHelperFactory, RowRecogStateRepoFactory rowRecogStateRepoFactory, RowRecogStatePoolRuntimeSvc rowRecogStatePoolEngineSvc, SchedulingServiceSPI schedulingService, PathRegistry<NameAndParamNum, ExpressionScriptProvided> scriptPathRegistry, StatementLifecycleService statementLifecycleService, StatementAgentInstanceLockFactory statementAgentInstanceLockFactory, StatementResourceHolderBuilder statementResourceHolderBuilder, TableExprEvaluatorContext tableExprEvaluatorContext, TableManagementService tableManagementService, PathRegistry<String, TableMetaData> tablePathRegistry, ThreadingService threadingService, TimeAbacus timeAbacus, TimeSourceService timeSourceService, TimerService timerService, VariableManagementService variableManagementService, PathRegistry<String, VariableMetaData> variablePathRegistry, ViewableActivatorFactory viewableActivatorFactory, ViewFactoryService viewFactoryService, ViewServicePreviousFactory viewServicePreviousFactory, XMLFragmentEventTypeFactory xmlFragmentEventTypeFactory) {
         this.aggregationServiceFactoryService = aggregationServiceFactoryService;
         this.beanEventTypeFactoryPrivate = beanEventTypeFactoryPrivate;
         this.beanEventTypeStemService = beanEventTypeStemService;
+        this.checkpointService = checkpointService;
         this.classForNameProvider = classForNameProvider;
         this.configSnapshot = configSnapshot;
         this.contextManagementService = contextManagementService;
@@ -234,6 +237,15 @@ public class EPServicesContext {
     }
 
     public void destroy() {
+        if (checkpointService != null) {
+            checkpointService.destroy();
+        }
+        if (filterService != null) {
+            filterService.destroy();
+        }
+        if (historicalDataCacheFactory != null) {
+            historicalDataCacheFactory.destroy();
+        }
         if (epServicesHA != null) {
             epServicesHA.destroy();
         }
@@ -322,6 +334,10 @@ public class EPServicesContext {
         return beanEventTypeStemService;
     }
 
+    public CheckpointService getCheckpointService() {
+        return checkpointService;
+    }
+
     public ClassForNameProvider getClassForNameProvider() {
         return classForNameProvider;
     }
@@ -100,6 +100,7 @@ import com.espertech.esper.common.internal.util.JavaClassHelper;
 import com.espertech.esper.common.internal.util.ManagedReadWriteLock;
 import com.espertech.esper.common.internal.view.core.ViewFactoryService;
 import com.espertech.esper.common.internal.view.previous.ViewServicePreviousFactory;
+import com.espertech.esper.runtime.internal.checkpoint.CheckpointService;
 import com.espertech.esper.runtime.internal.deploymentlifesvc.DeploymentLifecycleServiceImpl;
 import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceSPI;
 import com.espertech.esper.runtime.internal.kernel.statement.EPStatementFactory;
@@ -172,7 +173,9 @@ public abstract class EPServicesContextFactoryBase implements EPServicesContextF
 
     protected abstract RowRecogStateRepoFactory makeRowRecogStateRepoFactory();
 
-    protected abstract VariableManagementService makeVariableManagementService(Configuration configs, SchedulingServiceSPI schedulingService, EventBeanTypedEventFactory eventBeanTypedEventFactory, RuntimeSettingsService runtimeSettingsService, EPServicesHA epServicesHA);
+    protected abstract VariableManagementService makeVariableManagementService(Configuration configs, SchedulingServiceSPI schedulingService, EventBeanTypedEventFactory eventBeanTypedEventFactory, RuntimeSettingsService runtimeSettingsService, EPServicesHA epServicesHA, CheckpointService checkpointService);
+
+    protected abstract CheckpointService makeCheckpointService(Configuration configs, EventBeanTypedEventFactory eventBeanTypedEventFactory);
 
     protected abstract TableManagementService makeTableManagementService(RuntimeExtensionServices runtimeExt, TableExprEvaluatorContext tableExprEvaluatorContext);
 
@@ -275,7 +278,8 @@ public abstract class EPServicesContextFactoryBase implements EPServicesContextF
 
         VariableRepositoryPreconfigured variableRepositoryPreconfigured = new VariableRepositoryPreconfigured();
         VariableUtil.configureVariables(variableRepositoryPreconfigured, configs.getCommon().getVariables(), classpathImportServiceRuntime, eventBeanTypedEventFactory, eventTypeRepositoryPreconfigured, beanEventTypeFactoryPrivate);
-        VariableManagementService variableManagementService = makeVariableManagementService(configs, schedulingService, eventBeanTypedEventFactory, runtimeSettingsService, epServicesHA);
+        CheckpointService checkpointService = makeCheckpointService(configs, eventBeanTypedEventFactory);
+        VariableManagementService variableManagementService = makeVariableManagementService(configs, schedulingService, eventBeanTypedEventFactory, runtimeSettingsService, epServicesHA, checkpointService);
         for (Map.Entry<String, VariableMetaData> publicVariable : variableRepositoryPreconfigured.getMetadata().entrySet()) {
             variableManagementService.addVariable(null, publicVariable.getValue(), null);
             variableManagementService.allocateVariableState(null, publicVariable.getKey(), DEFAULT_AGENT_INSTANCE_ID, false, null, eventBeanTypedEventFactory);
@@ -329,6 +333,7 @@ public abstract class EPServicesContextFactoryBase implements EPServicesContextF
         return new EPServicesContext(aggregationServiceFactoryService,
                 beanEventTypeFactoryPrivate,
                 beanEventTypeStemService,
+                checkpointService,
                 ClassForNameProviderDefault.INSTANCE,
                 configs,
                 contextManagementService,
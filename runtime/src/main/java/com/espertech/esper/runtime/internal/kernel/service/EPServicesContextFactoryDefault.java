@@ -12,6 +12,7 @@ package com.espertech.esper.runtime.internal.kernel.service;
 
 import com.espertech.esper.common.client.configuration.Configuration;
 import com.espertech.esper.common.client.configuration.common.ConfigurationCommonEventTypeMeta;
+import com.espertech.esper.common.client.configuration.runtime.ConfigurationRuntimeExecution;
 import com.espertech.esper.common.internal.context.activator.ViewableActivatorFactory;
 import com.espertech.esper.common.internal.context.activator.ViewableActivatorFactoryImpl;
 import com.espertech.esper.common.internal.context.mgr.ContextServiceFactory;
@@ -38,6 +39,7 @@ import com.espertech.esper.common.internal.epl.table.core.TableManagementService
 import com.espertech.esper.common.internal.epl.table.core.TableManagementServiceImpl;
 import com.espertech.esper.common.internal.epl.variable.core.VariableManagementService;
 import com.espertech.esper.common.internal.epl.variable.core.VariableManagementServiceImpl;
+import com.espertech.esper.common.internal.epl.variable.core.VariableStateNonConstHandler;
 import com.espertech.esper.common.internal.event.avro.EventTypeAvroHandler;
 import com.espertech.esper.common.internal.event.avro.EventTypeAvroHandlerFactory;
 import com.espertech.esper.common.internal.event.core.*;
@@ -62,18 +64,19 @@ import com.espertech.esper.common.internal.view.core.ViewFactoryService;
 import com.espertech.esper.common.internal.view.core.ViewFactoryServiceImpl;
 import com.espertech.esper.common.internal.view.previous.ViewServicePreviousFactory;
 import com.espertech.esper.common.internal.view.previous.ViewServicePreviousFactoryImpl;
+import com.espertech.esper.runtime.internal.checkpoint.CheckpointService;
 import com.espertech.esper.runtime.internal.deploymentlifesvc.DeploymentLifecycleServiceImpl;
 import com.espertech.esper.runtime.internal.deploymentlifesvc.DeploymentRecoveryServiceImpl;
 import com.espertech.esper.runtime.internal.deploymentlifesvc.ListenerRecoveryServiceImpl;
 import com.espertech.esper.runtime.internal.deploymentlifesvc.StatementIdRecoveryServiceImpl;
-import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceLockCoarse;
+import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceProvider;
 import com.espertech.esper.runtime.internal.filtersvcimpl.FilterServiceSPI;
 import com.espertech.esper.runtime.internal.kernel.statement.EPStatementFactory;
 import com.espertech.esper.runtime.internal.kernel.statement.EPStatementFactoryDefault;
 import com.espertech.esper.runtime.internal.kernel.thread.ThreadingService;
 import com.espertech.esper.runtime.internal.kernel.thread.ThreadingServiceImpl;
 import com.espertech.esper.runtime.internal.namedwindow.NamedWindowDispatchServiceImpl;
-import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceImpl;
+import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceProvider;
 import com.espertech.esper.runtime.internal.schedulesvcimpl.SchedulingServiceSPI;
 import com.espertech.esper.runtime.internal.statementlifesvc.StatementLifecycleServiceImpl;
 
@@ -94,7 +97,10 @@ public class EPServicesContextFactoryDefault extends EPServicesContextFactoryBas
     }
 
     protected FilterServiceSPI makeFilterService(RuntimeExtensionServices runtimeExt, EventTypeRepository eventTypeRepository, StatementLifecycleServiceImpl statementLifecycleService, RuntimeSettingsService runtimeSettingsService, EventTypeIdResolver eventTypeIdResolver, FilterSharedLookupableRepository filterSharedLookupableRepository) {
-        return new FilterServiceLockCoarse(false);
+        ConfigurationRuntimeExecution execution = runtimeSettingsService.getConfigurationRuntime().getExecution();
+        FilterServiceSPI filterService = FilterServiceProvider.newService(execution.getFilterServiceProfile(), false, execution.getFilterServiceReorderIntervalMSec());
+        filterService.setMetricsEnabled(runtimeSettingsService.getConfigurationRuntime().getMetricsReporting().isFilterMetrics());
+        return filterService;
     }
 
     public EPEventServiceImpl createEPRuntime(EPServicesContext services, AtomicBoolean serviceStatusProvider) {
@@ -130,7 +136,7 @@ public class EPServicesContextFactoryDefault extends EPServicesContextFactoryBas
     }
 
     protected SchedulingServiceSPI makeSchedulingService(EPServicesHA epServicesHA, TimeSourceService timeSourceService, RuntimeExtensionServices runtimeExt, RuntimeSettingsService runtimeSettingsService, StatementContextResolver statementContextResolver) {
-        return new SchedulingServiceImpl(timeSourceService);
+        return SchedulingServiceProvider.newService(runtimeSettingsService.getConfigurationRuntime().getExecution().getSchedulingServiceProfile(), timeSourceService);
     }
 
     protected FilterBooleanExpressionFactory makeFilterBooleanExpressionFactory(StatementLifecycleServiceImpl statementLifecycleService) {
@@ -186,8 +192,13 @@ public class EPServicesContextFactoryDefault extends EPServicesContextFactoryBas
         return FilterSharedBoolExprRepositoryImpl.INSTANCE;
     }
 
-    protected VariableManagementService makeVariableManagementService(Configuration configs, SchedulingServiceSPI schedulingService, EventBeanTypedEventFactory eventBeanTypedEventFactory, RuntimeSettingsService runtimeSettingsService, EPServicesHA epServicesHA) {
-        return new VariableManagementServiceImpl(configs.getRuntime().getVariables().getMsecVersionRelease(), schedulingService, eventBeanTypedEventFactory, null);
+    protected VariableManagementService makeVariableManagementService(Configuration configs, SchedulingServiceSPI schedulingService, EventBeanTypedEventFactory eventBeanTypedEventFactory, RuntimeSettingsService runtimeSettingsService, EPServicesHA epServicesHA, CheckpointService checkpointService) {
+        VariableStateNonConstHandler stateHandler = checkpointService == null ? null : checkpointService.getVariableStateHandler();
+        return new VariableManagementServiceImpl(configs.getRuntime().getVariables().getMsecVersionRelease(), configs.getRuntime().getVariables().isLockFreeReads(), schedulingService, eventBeanTypedEventFactory, stateHandler);
+    }
+
+    protected CheckpointService makeCheckpointService(Configuration configs, EventBeanTypedEventFactory eventBeanTypedEventFactory) {
+        return CheckpointService.make(configs.getRuntime().getCheckpoint(), eventBeanTypedEventFactory);
     }
 
     protected TableManagementService makeTableManagementService(RuntimeExtensionServices runtimeExt, TableExprEvaluatorContext tableExprEvaluatorContext) {
@@ -0,0 +1,230 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.service;
+
+import com.espertech.esper.common.internal.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallback;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+
+/**
+ * Collects the filter callbacks matching an event per statement agent instance handle, for dispatch after
+ * all matches are known, reusing its arrays and callback lists from event to event so that collecting does not allocate.
+ * <p>
+ * Handles are kept in the order they were first added, in parallel arrays, and are found by means of an open-addressing
+ * table of entry positions that is keyed by the handle hash code.
+ * The callbacks of an entry are either a single {@link FilterHandleCallback} or, when a statement matches more than once,
+ * an {@link ArrayDeque} of callbacks that is pooled per entry position and that is only valid until the next clear.
+ * <p>
+ * Not synchronized and not thread-safe.
+ */
+public class MatchesPerStatement {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_LIST_CAPACITY = 4;
+
+    private EPStatementAgentInstanceHandle[] handles;
+    private Object[] callbacks;
+    private ArrayDeque<FilterHandleCallback>[] lists;
+    private int[] slots;
+    private int[] table;
+    private int mask;
+    private int size;
+
+    /**
+     * Ctor.
+     */
+    public MatchesPerStatement() {
+        this.handles = new EPStatementAgentInstanceHandle[INITIAL_CAPACITY];
+        this.callbacks = new Object[INITIAL_CAPACITY];
+        this.lists = new ArrayDeque[INITIAL_CAPACITY];
+        this.slots = new int[INITIAL_CAPACITY];
+        this.table = new int[INITIAL_CAPACITY * 2];
+        this.mask = table.length - 1;
+    }
+
+    /**
+     * Adds a callback for a handle.
+     *
+     * @param handle   statement agent instance handle
+     * @param callback callback
+     */
+    public void add(EPStatementAgentInstanceHandle handle, FilterHandleCallback callback) {
+        int slot = mix(handle.hashCode()) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == 0) {
+                break;
+            }
+            EPStatementAgentInstanceHandle existing = handles[entry - 1];
+            if (existing == handle || existing.equals(handle)) {
+                addCallback(entry - 1, callback);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == handles.length) {
+            grow();
+            add(handle, callback);
+            return;
+        }
+        handles[size] = handle;
+        callbacks[size] = callback;
+        slots[size] = slot;
+        table[slot] = ++size;
+    }
+
+    /**
+     * Returns the number of handles.
+     *
+     * @return number of handles
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if there are no handles.
+     *
+     * @return true for empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the handle at the position.
+     *
+     * @param index position
+     * @return handle
+     */
+    public EPStatementAgentInstanceHandle getHandle(int index) {
+        return handles[index];
+    }
+
+    /**
+     * Returns the callbacks at the position, either a single {@link FilterHandleCallback} or an {@link ArrayDeque} of callbacks
+     * that is only valid until the next clear.
+     *
+     * @param index position
+     * @return callback or callbacks
+     */
+    public Object getCallbacks(int index) {
+        return callbacks[index];
+    }
+
+    /**
+     * Returns the callbacks at the position, copying a list of callbacks, for use when processing
+     * is handed to another thread.
+     *
+     * @param index position
+     * @return callback or callbacks
+     */
+    public Object getCallbacksCopy(int index) {
+        Object value = callbacks[index];
+        if (value instanceof ArrayDeque) {
+            return new ArrayDeque<>((ArrayDeque<FilterHandleCallback>) value);
+        }
+        return value;
+    }
+
+    /**
+     * Sorts the handles, using an insertion sort as there are usually few handles.
+     *
+     * @param comparator handle comparator
+     */
+    public void sort(Comparator<EPStatementAgentInstanceHandle> comparator) {
+        for (int i = 1; i < size; i++) {
+            EPStatementAgentInstanceHandle handle = handles[i];
+            Object callback = callbacks[i];
+            ArrayDeque<FilterHandleCallback> list = lists[i];
+            int slot = slots[i];
+            int j = i - 1;
+            while (j >= 0 && comparator.compare(handles[j], handle) > 0) {
+                handles[j + 1] = handles[j];
+                callbacks[j + 1] = callbacks[j];
+                lists[j + 1] = lists[j];
+                slots[j + 1] = slots[j];
+                j--;
+            }
+            handles[j + 1] = handle;
+            callbacks[j + 1] = callback;
+            lists[j + 1] = list;
+            slots[j + 1] = slot;
+        }
+        for (int i = 0; i < size; i++) {
+            table[slots[i]] = i + 1;
+        }
+    }
+
+    /**
+     * Removes all handles and callbacks, retaining the arrays and callback lists for reuse.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            table[slots[i]] = 0;
+            handles[i] = null;
+            if (callbacks[i] instanceof ArrayDeque) {
+                lists[i].clear();
+            }
+            callbacks[i] = null;
+        }
+        size = 0;
+    }
+
+    private void addCallback(int index, FilterHandleCallback callback) {
+        Object value = callbacks[index];
+        if (value instanceof ArrayDeque) {
+            ((ArrayDeque<FilterHandleCallback>) value).add(callback);
+            return;
+        }
+        ArrayDeque<FilterHandleCallback> list = lists[index];
+        if (list == null) {
+            list = new ArrayDeque<>(INITIAL_LIST_CAPACITY);
+            lists[index] = list;
+        }
+        list.add((FilterHandleCallback) value);
+        list.add(callback);
+        callbacks[index] = list;
+    }
+
+    private void grow() {
+        int capacity = handles.length * 2;
+        EPStatementAgentInstanceHandle[] newHandles = new EPStatementAgentInstanceHandle[capacity];
+        Object[] newCallbacks = new Object[capacity];
+        ArrayDeque<FilterHandleCallback>[] newLists = new ArrayDeque[capacity];
+        int[] newSlots = new int[capacity];
+        System.arraycopy(handles, 0, newHandles, 0, size);
+        System.arraycopy(callbacks, 0, newCallbacks, 0, size);
+        System.arraycopy(lists, 0, newLists, 0, lists.length);
+        handles = newHandles;
+        callbacks = newCallbacks;
+        lists = newLists;
+        slots = newSlots;
+
+        table = new int[capacity * 2];
+        mask = table.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = mix(handles[i].hashCode()) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[i] = slot;
+            table[slot] = i + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -24,7 +24,6 @@ import com.espertech.esper.runtime.client.EPSubscriberException;
 import com.espertech.esper.runtime.client.UpdateListener;
 import com.espertech.esper.runtime.internal.kernel.statement.EPStatementListenerSet;
 import com.espertech.esper.runtime.internal.kernel.statement.EPStatementSPI;
-import com.espertech.esper.runtime.internal.kernel.thread.OutboundUnitRunnable;
 import com.espertech.esper.runtime.internal.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.runtime.internal.subscriber.ResultDeliveryStrategy;
 import com.espertech.esper.runtime.internal.subscriber.ResultDeliveryStrategyFactory;
@@ -115,6 +114,10 @@ public class StatementResultServiceImpl implements StatementResultService {
         return epStatement.getName();
     }
 
+    public String getDeploymentId() {
+        return epStatement.getDeploymentId();
+    }
+
     public EPStatementListenerSet getStatementListenerSet() {
         return statementListenerSet;
     }
@@ -177,7 +180,7 @@ public class StatementResultServiceImpl implements StatementResultService {
         }
 
         if (outboundThreading) {
-            epServicesContext.getThreadingService().submitOutbound(new OutboundUnitRunnable(events, this));
+            epServicesContext.getThreadingService().submitOutbound(events, this);
         } else {
             processDispatch(events);
         }
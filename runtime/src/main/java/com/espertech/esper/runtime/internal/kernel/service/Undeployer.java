@@ -100,6 +100,9 @@ public class Undeployer {
                 services.getRowRecogStatePoolEngineSvc().removeStatement(new DeploymentIdNamePair(statement.getDeploymentId(), statement.getStatementName()));
             }
 
+            // discard any outbound mailbox
+            services.getThreadingService().removeOutboundMailbox(statement.getStatementId());
+
             Iterator<StatementFinalizeCallback> it = statement.getFinalizeCallbacks();
             while (it.hasNext()) {
                 it.next().statementDestroyed(statement);
@@ -0,0 +1,162 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventPropertyGetter;
+import com.espertech.esper.common.client.EventPropertyValueGetter;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.context.controller.core.ContextControllerFactory;
+import com.espertech.esper.common.internal.context.controller.keyed.ContextControllerDetailKeyedItem;
+import com.espertech.esper.common.internal.context.controller.keyed.ContextControllerKeyedFactory;
+import com.espertech.esper.common.internal.context.mgr.ContextDeployment;
+import com.espertech.esper.common.internal.context.mgr.ContextManagementService;
+import com.espertech.esper.common.internal.context.mgr.ContextManager;
+import com.espertech.esper.common.internal.context.mgr.ContextManagerResident;
+import com.espertech.esper.common.internal.util.ManagedReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns inbound events to a fixed partition by partition key, for partitioned inbound threading.
+ * <p>
+ * The partition key is the value of the configured partition property for the event type or,
+ * when there is none, the partition key of the first keyed segmented context declared for the event type or a supertype.
+ * Events of a type without a partition property or keyed context are assigned to partitions in turn.
+ * Events whose partition key value is null all go to the same partition, keeping them in order, as a keyed context
+ * treats null as a key value like any other.
+ * <p>
+ * The getter for each event type is cached. The cache is tagged with the contexts version it was created for
+ * and is replaced, rather than cleared, when contexts are created or destroyed, so that a getter resolved
+ * for an earlier contexts version cannot end up in the cache for the current version.
+ */
+public class InboundPartitioner {
+    private static final Logger log = LoggerFactory.getLogger(InboundPartitioner.class);
+
+    private static final EventPropertyValueGetter NO_KEY = eventBean -> null;
+    private static final int NULL_KEY_PARTITION = 0;
+
+    private final int numPartitions;
+    private final Map<String, String> partitionProperties;
+    private final ContextManagementService contextManagementService;
+    private final ManagedReadWriteLock eventProcessingRWLock;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile GetterCache getters = new GetterCache(-1);
+
+    /**
+     * Ctor.
+     *
+     * @param numPartitions            number of partitions
+     * @param partitionProperties      partition property per event type name
+     * @param contextManagementService contexts
+     * @param eventProcessingRWLock    runtime lock held for reading when inspecting contexts
+     */
+    public InboundPartitioner(int numPartitions, Map<String, String> partitionProperties, ContextManagementService contextManagementService, ManagedReadWriteLock eventProcessingRWLock) {
+        this.numPartitions = numPartitions;
+        this.partitionProperties = partitionProperties;
+        this.contextManagementService = contextManagementService;
+        this.eventProcessingRWLock = eventProcessingRWLock;
+    }
+
+    /**
+     * Returns the partition for an event.
+     *
+     * @param eventBean event
+     * @return partition number
+     */
+    public int partition(EventBean eventBean) {
+        long version = contextManagementService.getContextsVersion();
+        GetterCache cache = getters;
+        if (cache.version != version) {
+            cache = new GetterCache(version);
+            getters = cache;
+        }
+
+        EventType eventType = eventBean.getEventType();
+        EventPropertyValueGetter getter = cache.getters.get(eventType);
+        if (getter == null) {
+            getter = resolveGetter(eventType);
+            cache.getters.put(eventType, getter);
+        }
+
+        if (getter == NO_KEY) {
+            return nextPartition();
+        }
+        Object key = getter.get(eventBean);
+        if (key == null) {
+            return NULL_KEY_PARTITION;
+        }
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % numPartitions;
+    }
+
+    /**
+     * Returns the next partition in turn, for work that does not have a partition key.
+     *
+     * @return partition number
+     */
+    public int nextPartition() {
+        return (next.getAndIncrement() & Integer.MAX_VALUE) % numPartitions;
+    }
+
+    private EventPropertyValueGetter resolveGetter(EventType eventType) {
+        String propertyName = partitionProperties.get(eventType.getName());
+        if (propertyName != null) {
+            EventPropertyGetter getter = eventType.getGetter(propertyName);
+            if (getter != null) {
+                return getter;
+            }
+            log.warn("Partition property '" + propertyName + "' not found for event type '" + eventType.getName() + "', assigning events of the type to partitions in turn");
+            return NO_KEY;
+        }
+
+        eventProcessingRWLock.acquireReadLock();
+        try {
+            for (ContextDeployment deployment : contextManagementService.getDeployments().values()) {
+                for (ContextManager contextManager : deployment.getContexts().values()) {
+                    if (!(contextManager instanceof ContextManagerResident)) {
+                        continue;
+                    }
+                    for (ContextControllerFactory factory : ((ContextManagerResident) contextManager).getContextDefinition().getControllerFactories()) {
+                        if (!(factory instanceof ContextControllerKeyedFactory)) {
+                            continue;
+                        }
+                        for (ContextControllerDetailKeyedItem item : ((ContextControllerKeyedFactory) factory).getKeyedSpec().getItems()) {
+                            EventType keyedType = item.getFilterSpecActivatable().getFilterForEventType();
+                            Set<EventType> superTypes = eventType.getDeepSuperTypesAsSet();
+                            if (keyedType == eventType || (superTypes != null && superTypes.contains(keyedType))) {
+                                return item.getGetter();
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            eventProcessingRWLock.releaseReadLock();
+        }
+        return NO_KEY;
+    }
+
+    private static class GetterCache {
+        private final long version;
+        private final ConcurrentHashMap<EventType, EventPropertyValueGetter> getters = new ConcurrentHashMap<>();
+
+        GetterCache(long version) {
+            this.version = version;
+        }
+    }
+}
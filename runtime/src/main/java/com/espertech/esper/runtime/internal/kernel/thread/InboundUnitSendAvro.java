@@ -38,6 +38,17 @@ public class InboundUnitSendAvro implements InboundUnitRunnable {
     }
 
     public void run() {
+        process(genericRecordDotData, eventTypeName, runtime);
+    }
+
+    /**
+     * Process an Avro event.
+     *
+     * @param genericRecordDotData to send
+     * @param eventTypeName        type name
+     * @param runtime              to process
+     */
+    public static void process(Object genericRecordDotData, String eventTypeName, EPEventServiceImpl runtime) {
         try {
             EventBean eventBean = runtime.getServices().getEventTypeResolvingBeanFactory().adapterForAvro(genericRecordDotData, eventTypeName);
             runtime.processWrappedEvent(eventBean);
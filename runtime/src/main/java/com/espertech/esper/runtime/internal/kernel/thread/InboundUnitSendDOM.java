@@ -39,6 +39,17 @@ public class InboundUnitSendDOM implements InboundUnitRunnable {
     }
 
     public void run() {
+        process(theEvent, eventTypeName, runtime);
+    }
+
+    /**
+     * Process a DOM event.
+     *
+     * @param theEvent      document
+     * @param eventTypeName type name
+     * @param runtime       runtime to process
+     */
+    public static void process(org.w3c.dom.Node theEvent, String eventTypeName, EPEventServiceImpl runtime) {
         try {
             EventBean eventBean = runtime.getServices().getEventTypeResolvingBeanFactory().adapterForXMLDOM(theEvent, eventTypeName);
             runtime.processWrappedEvent(eventBean);
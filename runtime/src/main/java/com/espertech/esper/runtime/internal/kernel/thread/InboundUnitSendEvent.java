@@ -38,6 +38,17 @@ public class InboundUnitSendEvent implements InboundUnitRunnable {
     }
 
     public void run() {
+        process(theEvent, eventTypeName, runtime);
+    }
+
+    /**
+     * Process an unwrapped event.
+     *
+     * @param theEvent      to process
+     * @param eventTypeName type name
+     * @param runtime       to process event
+     */
+    public static void process(Object theEvent, String eventTypeName, EPEventServiceImpl runtime) {
         try {
             EventBean eventBean = runtime.getServices().getEventTypeResolvingBeanFactory().adapterForBean(theEvent, eventTypeName);
             runtime.processWrappedEvent(eventBean);
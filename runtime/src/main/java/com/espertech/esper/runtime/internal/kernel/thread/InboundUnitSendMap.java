@@ -40,6 +40,17 @@ public class InboundUnitSendMap implements InboundUnitRunnable {
     }
 
     public void run() {
+        process(map, eventTypeName, runtime);
+    }
+
+    /**
+     * Process a map event.
+     *
+     * @param map           to send
+     * @param eventTypeName type name
+     * @param runtime       to process
+     */
+    public static void process(Map map, String eventTypeName, EPEventServiceImpl runtime) {
         try {
             EventBean eventBean = runtime.getServices().getEventTypeResolvingBeanFactory().adapterForMap(map, eventTypeName);
             runtime.processWrappedEvent(eventBean);
@@ -38,6 +38,17 @@ public class InboundUnitSendObjectArray implements InboundUnitRunnable {
     }
 
     public void run() {
+        process(properties, eventTypeName, runtime);
+    }
+
+    /**
+     * Process an object-array event.
+     *
+     * @param properties    to send
+     * @param eventTypeName type name
+     * @param runtime       to process
+     */
+    public static void process(Object[] properties, String eventTypeName, EPEventServiceImpl runtime) {
         try {
             EventBean eventBean = runtime.getServices().getEventTypeResolvingBeanFactory().adapterForObjectArray(properties, eventTypeName);
             runtime.processWrappedEvent(eventBean);
@@ -39,6 +39,17 @@ public class InboundUnitSendWrapped implements InboundUnitRunnable {
     }
 
     public void run() {
+        process(eventBean, services, runtime);
+    }
+
+    /**
+     * Process a wrapped event.
+     *
+     * @param eventBean inbound event, wrapped
+     * @param services  services
+     * @param runtime   to process
+     */
+    public static void process(EventBean eventBean, EPServicesContext services, EPRuntimeEventProcessWrapped runtime) {
         try {
             runtime.processWrappedEvent(eventBean);
         } catch (RuntimeException e) {
@@ -0,0 +1,303 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.metric.OutboundMailboxMetric;
+import com.espertech.esper.common.client.util.OutboundOverflowPolicy;
+import com.espertech.esper.common.internal.collection.UniformPair;
+import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactory;
+import com.espertech.esper.runtime.internal.kernel.service.StatementResultServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded mailbox of the output of a statement, for outbound threading.
+ * <p>
+ * Output is added by the threads processing events and is delivered to listeners, in the order it was added,
+ * by one outbound thread at a time that runs the mailbox until it is empty.
+ * When output arrives while the mailbox is full the overflow policy applies:
+ * block the adding thread until there is capacity, discard the oldest output, discard all output but the latest,
+ * or write the output to a spill file. Output that cannot be spilled blocks instead.
+ * The queue holds, in the order output was added, the output held in memory and a marker for each run of output written to the spill file,
+ * so that output that cannot be spilled is delivered after the output spilled before it.
+ * A thread delivering output of the statement, such as a listener sending an event, does not block on the mailbox it runs.
+ */
+public class OutboundMailbox implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(OutboundMailbox.class);
+
+    private final StatementResultServiceImpl statementResultService;
+    private final String deploymentId;
+    private final String statementName;
+    private final int capacity;
+    private final OutboundOverflowPolicy overflowPolicy;
+    private final File spillDirectory;
+    private final EventBeanTypedEventFactory eventBeanTypedEventFactory;
+
+    private final ArrayDeque<Object> queue = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private OutboundMailboxSpill spill;
+    private int numQueued;
+    private boolean scheduled;
+    private boolean destroyed;
+    private Thread runningThread;
+    private long droppedCount;
+    private long spilledCount;
+    private long blockedCount;
+
+    /**
+     * Ctor.
+     *
+     * @param statementResultService     handles result indicate
+     * @param deploymentId               deployment id
+     * @param statementName              statement name
+     * @param capacity                   mailbox capacity
+     * @param overflowPolicy             overflow policy
+     * @param spillDirectory             directory for spill files, or null for the temporary-file directory
+     * @param eventBeanTypedEventFactory event factory for reading spilled output
+     */
+    public OutboundMailbox(StatementResultServiceImpl statementResultService, String deploymentId, String statementName, int capacity, OutboundOverflowPolicy overflowPolicy, File spillDirectory, EventBeanTypedEventFactory eventBeanTypedEventFactory) {
+        this.statementResultService = statementResultService;
+        this.deploymentId = deploymentId;
+        this.statementName = statementName;
+        this.capacity = Math.max(1, capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.spillDirectory = spillDirectory;
+        this.eventBeanTypedEventFactory = eventBeanTypedEventFactory;
+    }
+
+    /**
+     * Adds output to the mailbox, applying the overflow policy if the mailbox is full.
+     *
+     * @param events output
+     * @return true if the mailbox must be scheduled to run, false if it is already scheduled
+     */
+    public boolean add(UniformPair<EventBean[]> events) {
+        lock.lock();
+        try {
+            if (destroyed) {
+                return false;
+            }
+            if (spill != null && spill.size() > 0) {
+                // once output is spilled, later output is spilled as well, output that cannot be spilled queues behind it
+                if (!spill(events) && awaitCapacity()) {
+                    enqueue(events);
+                }
+            } else if (numQueued < capacity) {
+                enqueue(events);
+            } else {
+                overflow(events);
+            }
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delivers the output in the mailbox until the mailbox is empty.
+     */
+    public void run() {
+        lock.lock();
+        try {
+            runningThread = Thread.currentThread();
+        } finally {
+            lock.unlock();
+        }
+
+        while (true) {
+            UniformPair<EventBean[]> events;
+            lock.lock();
+            try {
+                events = poll();
+                if (events == null) {
+                    scheduled = false;
+                    runningThread = null;
+                    return;
+                }
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            OutboundUnitRunnable.process(events, statementResultService);
+        }
+    }
+
+    /**
+     * Discards the output in the mailbox and deletes the spill file, if any, releasing threads waiting for capacity.
+     */
+    public void destroy() {
+        lock.lock();
+        try {
+            destroyed = true;
+            queue.clear();
+            numQueued = 0;
+            if (spill != null) {
+                spill.destroy();
+                spill = null;
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current queue depth and counters.
+     *
+     * @return metric
+     */
+    public OutboundMailboxMetric getMetric() {
+        lock.lock();
+        try {
+            int spillDepth = spill == null ? 0 : spill.size();
+            return new OutboundMailboxMetric(deploymentId, statementName, capacity, numQueued + spillDepth, spillDepth, droppedCount, spilledCount, blockedCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the statement result service.
+     *
+     * @return statement result service
+     */
+    public StatementResultServiceImpl getStatementResultService() {
+        return statementResultService;
+    }
+
+    private void overflow(UniformPair<EventBean[]> events) {
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                queue.poll();
+                numQueued--;
+                droppedCount++;
+                enqueue(events);
+                return;
+            case COALESCE:
+                droppedCount += numQueued;
+                queue.clear();
+                numQueued = 0;
+                enqueue(events);
+                return;
+            case SPILL:
+                if (spill(events)) {
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+        if (awaitCapacity()) {
+            enqueue(events);
+        }
+    }
+
+    private void enqueue(UniformPair<EventBean[]> events) {
+        queue.add(events);
+        numQueued++;
+    }
+
+    private boolean awaitCapacity() {
+        if (numQueued < capacity || runningThread == Thread.currentThread()) {
+            return true;
+        }
+        blockedCount++;
+        try {
+            while (numQueued >= capacity && !destroyed) {
+                notFull.await();
+            }
+        } catch (InterruptedException e) {
+            log.info("Interrupted awaiting outbound mailbox capacity for statement '" + statementName + "'");
+            Thread.currentThread().interrupt();
+        }
+        return !destroyed;
+    }
+
+    private boolean spill(UniformPair<EventBean[]> events) {
+        try {
+            if (spill == null) {
+                spill = new OutboundMailboxSpill(spillDirectory, "esper-outbound-", eventBeanTypedEventFactory);
+            }
+            if (spill.write(events)) {
+                spilledCount++;
+                Object last = queue.peekLast();
+                if (last instanceof SpillRun) {
+                    ((SpillRun) last).count++;
+                } else {
+                    queue.add(new SpillRun());
+                }
+                return true;
+            }
+        } catch (IOException e) {
+            log.error("Failed to spill output for statement '" + statementName + "': " + e.getMessage(), e);
+        }
+        return false;
+    }
+
+    private UniformPair<EventBean[]> poll() {
+        Object next = queue.peek();
+        if (next == null) {
+            return null;
+        }
+        if (!(next instanceof SpillRun)) {
+            queue.poll();
+            numQueued--;
+            return (UniformPair<EventBean[]>) next;
+        }
+        SpillRun run = (SpillRun) next;
+        if (--run.count == 0) {
+            queue.poll();
+        }
+        try {
+            return spill.read();
+        } catch (IOException e) {
+            log.error("Failed to read spilled output for statement '" + statementName + "', discarding spilled output: " + e.getMessage(), e);
+            droppedCount += spill.size();
+            spill.destroy();
+            spill = null;
+            queue.removeIf(entry -> entry instanceof SpillRun);
+            return poll();
+        }
+    }
+
+    /**
+     * Removes and returns the next output in delivery order, for testing purposes.
+     *
+     * @return output or null if the mailbox is empty
+     */
+    UniformPair<EventBean[]> take() {
+        lock.lock();
+        try {
+            return poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the position, in the order of output, of a run of consecutive output in the spill file.
+     */
+    private static class SpillRun {
+        private int count = 1;
+    }
+}
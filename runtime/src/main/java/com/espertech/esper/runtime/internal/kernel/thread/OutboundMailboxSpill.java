@@ -0,0 +1,189 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.collection.UniformPair;
+import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactory;
+import com.espertech.esper.common.internal.event.core.NaturalEventBean;
+import com.espertech.esper.runtime.internal.checkpoint.CheckpointSerdeEvent;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spill file of an outbound mailbox, holding outputs that did not fit the mailbox in the order they were written.
+ * <p>
+ * Each output is a length-prefixed record of the events, each event written as the position of its event type
+ * in the list of event types seen by the spill file followed by the event as written by {@link CheckpointSerdeEvent}. The file is truncated whenever all outputs written have been read.
+ * Supports map, object-array and bean events with serializable underlying values.
+ * <p>
+ * Not synchronized and not thread-safe.
+ */
+public class OutboundMailboxSpill {
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final EventBeanTypedEventFactory eventBeanTypedEventFactory;
+    private final List<EventType> types = new ArrayList<>();
+    private final List<CheckpointSerdeEvent> serdes = new ArrayList<>();
+    private long readPosition;
+    private long writePosition;
+    private int size;
+
+    /**
+     * Ctor.
+     *
+     * @param directory                  directory for the spill file, or null for the temporary-file directory
+     * @param prefix                     file name prefix
+     * @param eventBeanTypedEventFactory event factory
+     * @throws IOException when the file cannot be created
+     */
+    public OutboundMailboxSpill(File directory, String prefix, EventBeanTypedEventFactory eventBeanTypedEventFactory) throws IOException {
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create spill directory '" + directory + "'");
+        }
+        this.file = File.createTempFile(prefix, ".spill", directory);
+        this.file.deleteOnExit();
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        this.eventBeanTypedEventFactory = eventBeanTypedEventFactory;
+    }
+
+    /**
+     * Writes an output to the end of the spill file.
+     *
+     * @param events output
+     * @return false if the output cannot be spilled as its events are not supported or not serializable, true if written
+     * @throws IOException when writing failed
+     */
+    public boolean write(UniformPair<EventBean[]> events) throws IOException {
+        byte[] bytes = serialize(events);
+        if (bytes == null) {
+            return false;
+        }
+        randomAccessFile.seek(writePosition);
+        randomAccessFile.writeInt(bytes.length);
+        randomAccessFile.write(bytes);
+        writePosition = randomAccessFile.getFilePointer();
+        size++;
+        return true;
+    }
+
+    /**
+     * Reads and removes the first output of the spill file.
+     *
+     * @return output or null if the spill file is empty
+     * @throws IOException when reading failed
+     */
+    public UniformPair<EventBean[]> read() throws IOException {
+        if (size == 0) {
+            return null;
+        }
+        randomAccessFile.seek(readPosition);
+        byte[] bytes = new byte[randomAccessFile.readInt()];
+        randomAccessFile.readFully(bytes);
+        readPosition = randomAccessFile.getFilePointer();
+        size--;
+        if (size == 0) {
+            randomAccessFile.setLength(0);
+            readPosition = 0;
+            writePosition = 0;
+        }
+        return deserialize(bytes);
+    }
+
+    /**
+     * Returns the number of outputs in the spill file.
+     *
+     * @return number of outputs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the spill file.
+     *
+     * @return file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Closes and deletes the spill file.
+     */
+    public void destroy() {
+        try {
+            randomAccessFile.close();
+        } catch (IOException ex) {
+            // ignore
+        }
+        file.delete();
+    }
+
+    private byte[] serialize(UniformPair<EventBean[]> events) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            if (!writeEvents(events.getFirst(), output) || !writeEvents(events.getSecond(), output)) {
+                return null;
+            }
+            output.flush();
+        } catch (IOException | RuntimeException ex) {
+            // not serializable
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private UniformPair<EventBean[]> deserialize(byte[] bytes) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        EventBean[] newData = readEvents(input);
+        EventBean[] oldData = readEvents(input);
+        return new UniformPair<>(newData, oldData);
+    }
+
+    private boolean writeEvents(EventBean[] events, DataOutput output) throws IOException {
+        if (events == null) {
+            output.writeInt(-1);
+            return true;
+        }
+        output.writeInt(events.length);
+        for (EventBean event : events) {
+            if (event instanceof NaturalEventBean || !CheckpointSerdeEvent.isSupported(event.getEventType())) {
+                return false;
+            }
+            int index = types.indexOf(event.getEventType());
+            if (index == -1) {
+                index = types.size();
+                types.add(event.getEventType());
+                serdes.add(new CheckpointSerdeEvent(event.getEventType(), eventBeanTypedEventFactory));
+            }
+            output.writeInt(index);
+            serdes.get(index).write(event, output, null, null);
+        }
+        return true;
+    }
+
+    private EventBean[] readEvents(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length == -1) {
+            return null;
+        }
+        EventBean[] events = new EventBean[length];
+        for (int i = 0; i < length; i++) {
+            events[i] = serdes.get(input.readInt()).read(input, null);
+        }
+        return events;
+    }
+}
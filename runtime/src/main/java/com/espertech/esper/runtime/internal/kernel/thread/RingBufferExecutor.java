@@ -0,0 +1,217 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.util.RingBufferWaitStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executes units of work on a fixed number of threads that take work from a ring buffer of preallocated slots.
+ * <p>
+ * A unit of work is described by the fields of a slot, and slots are reused, so that submitting work does not allocate.
+ * A submitting thread claims the next slot by advancing the producer sequence, fills the slot and publishes it
+ * by advancing the slot's own sequence. A processing thread claims the next published slot by advancing the consumer sequence,
+ * copies out the slot's fields and releases the slot for reuse before processing.
+ * Threads that find the ring buffer full, or empty, wait using the configured wait strategy.
+ */
+public class RingBufferExecutor {
+    private static final Logger log = LoggerFactory.getLogger(RingBufferExecutor.class);
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 1000;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final RingBufferWaitStrategy waitStrategy;
+    private final RingBufferHandler handler;
+    private final AtomicLong producerSequence = new AtomicLong();
+    private final AtomicLong consumerSequence = new AtomicLong();
+    private final Thread[] threads;
+    private volatile boolean running = true;
+
+    /**
+     * Ctor.
+     *
+     * @param capacity      number of slots, rounded up to a power of two
+     * @param numThreads    number of processing threads
+     * @param waitStrategy  wait strategy
+     * @param handler       processes units of work
+     * @param threadFactory for processing threads
+     */
+    public RingBufferExecutor(int capacity, int numThreads, RingBufferWaitStrategy waitStrategy, RingBufferHandler handler, EngineThreadFactory threadFactory) {
+        int size = 1;
+        while (size < capacity && size < MAX_CAPACITY) {
+            size = size << 1;
+        }
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+        this.handler = handler;
+
+        this.threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            threads[i] = threadFactory.newThread(new Runnable() {
+                public void run() {
+                    processSlots();
+                }
+            });
+            threads[i].start();
+        }
+    }
+
+    /**
+     * Submit a unit of work.
+     *
+     * @param unitType      type of unit
+     * @param event         event or other payload
+     * @param eventTypeName event type name, if any
+     * @param target        service processing the unit
+     */
+    public void submit(int unitType, Object event, String eventTypeName, Object target) {
+        long sequence = producerSequence.get();
+        int idle = 0;
+        while (true) {
+            Slot slot = slots[(int) sequence & mask];
+            long difference = slot.sequence - sequence;
+            if (difference == 0) {
+                if (producerSequence.compareAndSet(sequence, sequence + 1)) {
+                    slot.unitType = unitType;
+                    slot.event = event;
+                    slot.eventTypeName = eventTypeName;
+                    slot.target = target;
+                    slot.sequence = sequence + 1;
+                    return;
+                }
+            } else if (difference < 0) {
+                // ring buffer full
+                if (!running) {
+                    log.info("Submit after shutdown, discarding unit of work");
+                    return;
+                }
+                waitFor(idle);
+                idle = Math.min(idle + 1, YIELD_TRIES);
+            }
+            sequence = producerSequence.get();
+        }
+    }
+
+    /**
+     * Returns the number of units of work submitted and not yet taken for processing.
+     *
+     * @return number of units
+     */
+    public int size() {
+        return (int) Math.max(0, producerSequence.get() - consumerSequence.get());
+    }
+
+    /**
+     * Stop processing threads, discarding any units of work not yet taken for processing.
+     */
+    public void destroy() {
+        running = false;
+        for (Thread thread : threads) {
+            try {
+                thread.join(10000);
+            } catch (InterruptedException e) {
+                log.error("Interruped awaiting termination", e);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void processSlots() {
+        long sequence = consumerSequence.get();
+        int idle = 0;
+        while (running) {
+            Slot slot = slots[(int) sequence & mask];
+            long difference = slot.sequence - (sequence + 1);
+            if (difference == 0) {
+                if (consumerSequence.compareAndSet(sequence, sequence + 1)) {
+                    int unitType = slot.unitType;
+                    Object event = slot.event;
+                    String eventTypeName = slot.eventTypeName;
+                    Object target = slot.target;
+                    slot.event = null;
+                    slot.eventTypeName = null;
+                    slot.target = null;
+                    slot.sequence = sequence + slots.length;
+
+                    try {
+                        handler.process(unitType, event, eventTypeName, target);
+                    } catch (Throwable t) {
+                        log.error("Unexpected error processing unit of work: " + t.getMessage(), t);
+                    }
+                    idle = 0;
+                }
+            } else if (difference < 0) {
+                // ring buffer empty
+                waitFor(idle);
+                idle = Math.min(idle + 1, YIELD_TRIES);
+            }
+            sequence = consumerSequence.get();
+        }
+    }
+
+    private void waitFor(int idle) {
+        switch (waitStrategy) {
+            case BUSYSPIN:
+                return;
+            case YIELD:
+                if (idle >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+                return;
+            default:
+                if (idle >= YIELD_TRIES) {
+                    LockSupport.parkNanos(PARK_NANOS);
+                } else if (idle >= SPIN_TRIES) {
+                    Thread.yield();
+                }
+        }
+    }
+
+    /**
+     * Processes units of work taken from the ring buffer.
+     */
+    public interface RingBufferHandler {
+        /**
+         * Process a unit of work.
+         *
+         * @param unitType      type of unit
+         * @param event         event or other payload
+         * @param eventTypeName event type name, if any
+         * @param target        service processing the unit
+         */
+        void process(int unitType, Object event, String eventTypeName, Object target);
+    }
+
+    private static class Slot {
+        private volatile long sequence;
+        private int unitType;
+        private Object event;
+        private String eventTypeName;
+        private Object target;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
@@ -10,10 +10,15 @@
  */
 package com.espertech.esper.runtime.internal.kernel.thread;
 
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.metric.OutboundMailboxMetric;
+import com.espertech.esper.common.internal.collection.UniformPair;
 import com.espertech.esper.common.internal.statement.thread.ThreadingCommon;
 import com.espertech.esper.runtime.internal.kernel.service.EPEventServiceImpl;
 import com.espertech.esper.runtime.internal.kernel.service.EPServicesContext;
+import com.espertech.esper.runtime.internal.kernel.service.StatementResultServiceImpl;
 
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -62,6 +67,51 @@ public interface ThreadingService extends ThreadingCommon {
      */
     public void submitInbound(InboundUnitRunnable unit);
 
+    /**
+     * Submit inbound work for an unwrapped event.
+     *
+     * @param theEvent      to process
+     * @param eventTypeName type name
+     * @param runtime       to process event
+     */
+    public void submitInboundBean(Object theEvent, String eventTypeName, EPEventServiceImpl runtime);
+
+    /**
+     * Submit inbound work for a map event.
+     *
+     * @param map           to process
+     * @param eventTypeName type name
+     * @param runtime       to process event
+     */
+    public void submitInboundMap(Map map, String eventTypeName, EPEventServiceImpl runtime);
+
+    /**
+     * Submit inbound work for an object-array event.
+     *
+     * @param properties    to process
+     * @param eventTypeName type name
+     * @param runtime       to process event
+     */
+    public void submitInboundObjectArray(Object[] properties, String eventTypeName, EPEventServiceImpl runtime);
+
+    /**
+     * Submit inbound work for a DOM event.
+     *
+     * @param node          to process
+     * @param eventTypeName type name
+     * @param runtime       to process event
+     */
+    public void submitInboundDOM(org.w3c.dom.Node node, String eventTypeName, EPEventServiceImpl runtime);
+
+    /**
+     * Submit inbound work for an Avro event.
+     *
+     * @param genericRecordDotData to process
+     * @param eventTypeName        type name
+     * @param runtime              to process event
+     */
+    public void submitInboundAvro(Object genericRecordDotData, String eventTypeName, EPEventServiceImpl runtime);
+
     /**
      * Returns true for route execution threading enabled.
      *
@@ -90,6 +140,28 @@ public interface ThreadingService extends ThreadingCommon {
      */
     public void submitOutbound(OutboundUnitRunnable unit);
 
+    /**
+     * Submit outbound work.
+     *
+     * @param events                 to dispatch
+     * @param statementResultService handles result indicate
+     */
+    public void submitOutbound(UniformPair<EventBean[]> events, StatementResultServiceImpl statementResultService);
+
+    /**
+     * Returns the queue depth and counters of the outbound mailbox of each statement, if outbound threading uses mailboxes.
+     *
+     * @return mailbox metrics, empty if there are no mailboxes
+     */
+    public OutboundMailboxMetric[] getOutboundMailboxMetrics();
+
+    /**
+     * Discards the outbound mailbox of a statement, if any.
+     *
+     * @param statementId statement id
+     */
+    public void removeOutboundMailbox(int statementId);
+
     /**
      * Returns the outbound queue.
      *
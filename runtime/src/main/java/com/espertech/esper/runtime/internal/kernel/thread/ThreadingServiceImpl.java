@@ -12,12 +12,18 @@ package com.espertech.esper.runtime.internal.kernel.thread;
 
 import com.espertech.esper.common.client.EventBean;
 import com.espertech.esper.common.client.configuration.runtime.ConfigurationRuntimeThreading;
+import com.espertech.esper.common.client.metric.OutboundMailboxMetric;
+import com.espertech.esper.common.client.util.RingBufferWaitStrategy;
+import com.espertech.esper.common.internal.collection.UniformPair;
 import com.espertech.esper.common.internal.event.util.EPRuntimeEventProcessWrapped;
 import com.espertech.esper.runtime.internal.kernel.service.EPEventServiceImpl;
 import com.espertech.esper.runtime.internal.kernel.service.EPServicesContext;
+import com.espertech.esper.runtime.internal.kernel.service.StatementResultServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.util.Map;
 import java.util.concurrent.*;
 
 /**
@@ -26,6 +32,17 @@ import java.util.concurrent.*;
 public class ThreadingServiceImpl implements ThreadingService {
     private static final Logger log = LoggerFactory.getLogger(ThreadingServiceImpl.class);
 
+    private static final int RING_BUFFER_DEFAULT_CAPACITY = 65536;
+
+    private static final int UNIT_RUNNABLE = 0;
+    private static final int UNIT_BEAN = 1;
+    private static final int UNIT_MAP = 2;
+    private static final int UNIT_OBJECTARRAY = 3;
+    private static final int UNIT_DOM = 4;
+    private static final int UNIT_AVRO = 5;
+    private static final int UNIT_WRAPPED = 6;
+    private static final int UNIT_OUTBOUND = 7;
+
     private final ConfigurationRuntimeThreading config;
     private final boolean isTimerThreading;
     private final boolean isInboundThreading;
@@ -42,6 +59,15 @@ public class ThreadingServiceImpl implements ThreadingService {
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
 
+    private RingBufferExecutor inboundRingBuffer;
+    private RingBufferExecutor outboundRingBuffer;
+    private ConcurrentHashMap<Integer, OutboundMailbox> outboundMailboxes;
+
+    private InboundPartitioner inboundPartitioner;
+    private BlockingQueue<Runnable>[] inboundPartitionQueues;
+    private ThreadPoolExecutor[] inboundPartitionThreadPools;
+    private RingBufferExecutor[] inboundPartitionRingBuffers;
+
     private EPServicesContext servicesContext;
 
     /**
@@ -76,8 +102,14 @@ public class ThreadingServiceImpl implements ThreadingService {
     public void initThreading(EPServicesContext services, EPEventServiceImpl runtime) {
         this.servicesContext = services;
         if (isInboundThreading) {
-            inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
-            inboundThreadPool = getThreadPool(services.getRuntimeURI(), "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
+            if (config.isThreadPoolInboundPartitioned()) {
+                initInboundPartitions(services);
+            } else if (config.isThreadPoolInboundRingBuffer()) {
+                inboundRingBuffer = getRingBuffer(services.getRuntimeURI(), "Inbound", config.getThreadPoolInboundCapacity(), config.getThreadPoolInboundNumThreads(), config.getThreadPoolInboundWaitStrategy());
+            } else {
+                inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
+                inboundThreadPool = getThreadPool(services.getRuntimeURI(), "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
+            }
         }
 
         if (isTimerThreading) {
@@ -91,8 +123,33 @@ public class ThreadingServiceImpl implements ThreadingService {
         }
 
         if (isOutboundThreading) {
-            outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
-            outboundThreadPool = getThreadPool(services.getRuntimeURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
+            if (config.isThreadPoolOutboundRingBuffer()) {
+                outboundRingBuffer = getRingBuffer(services.getRuntimeURI(), "Outbound", config.getThreadPoolOutboundCapacity(), config.getThreadPoolOutboundNumThreads(), config.getThreadPoolOutboundWaitStrategy());
+            } else {
+                outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
+                outboundThreadPool = getThreadPool(services.getRuntimeURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
+            }
+            if (config.getThreadPoolOutboundMailboxCapacity() != null) {
+                outboundMailboxes = new ConcurrentHashMap<>();
+            }
+        }
+    }
+
+    private void initInboundPartitions(EPServicesContext services) {
+        int numPartitions = config.getThreadPoolInboundNumThreads();
+        inboundPartitioner = new InboundPartitioner(numPartitions, config.getThreadPoolInboundPartitionProperties(), services.getContextManagementService(), services.getEventProcessingRWLock());
+        if (config.isThreadPoolInboundRingBuffer()) {
+            inboundPartitionRingBuffers = new RingBufferExecutor[numPartitions];
+            for (int i = 0; i < numPartitions; i++) {
+                inboundPartitionRingBuffers[i] = getRingBuffer(services.getRuntimeURI(), "Inbound-" + i, config.getThreadPoolInboundCapacity(), 1, config.getThreadPoolInboundWaitStrategy());
+            }
+        } else {
+            inboundPartitionQueues = new BlockingQueue[numPartitions];
+            inboundPartitionThreadPools = new ThreadPoolExecutor[numPartitions];
+            for (int i = 0; i < numPartitions; i++) {
+                inboundPartitionQueues[i] = makeQueue(config.getThreadPoolInboundCapacity());
+                inboundPartitionThreadPools[i] = getThreadPool(services.getRuntimeURI(), "Inbound-" + i, inboundPartitionQueues[i], 1);
+            }
         }
     }
 
@@ -115,6 +172,14 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public void submitInbound(InboundUnitRunnable unit) {
+        if (inboundPartitioner != null) {
+            submitInboundPartition(inboundPartitioner.nextPartition(), UNIT_RUNNABLE, unit, null, unit);
+            return;
+        }
+        if (inboundRingBuffer != null) {
+            inboundRingBuffer.submit(UNIT_RUNNABLE, unit, null, null);
+            return;
+        }
         try {
             inboundQueue.put(unit);
         } catch (InterruptedException e) {
@@ -122,7 +187,101 @@ public class ThreadingServiceImpl implements ThreadingService {
         }
     }
 
+    public void submitInboundBean(Object theEvent, String eventTypeName, EPEventServiceImpl runtime) {
+        if (inboundPartitioner != null) {
+            submitInbound(servicesContext.getEventTypeResolvingBeanFactory().adapterForBean(theEvent, eventTypeName), runtime);
+        } else if (inboundRingBuffer != null) {
+            inboundRingBuffer.submit(UNIT_BEAN, theEvent, eventTypeName, runtime);
+        } else {
+            submitInbound(new InboundUnitSendEvent(theEvent, eventTypeName, runtime));
+        }
+    }
+
+    public void submitInboundMap(Map map, String eventTypeName, EPEventServiceImpl runtime) {
+        if (inboundPartitioner != null) {
+            submitInbound(servicesContext.getEventTypeResolvingBeanFactory().adapterForMap(map, eventTypeName), runtime);
+        } else if (inboundRingBuffer != null) {
+            inboundRingBuffer.submit(UNIT_MAP, map, eventTypeName, runtime);
+        } else {
+            submitInbound(new InboundUnitSendMap(map, eventTypeName, runtime));
+        }
+    }
+
+    public void submitInboundObjectArray(Object[] properties, String eventTypeName, EPEventServiceImpl runtime) {
+        if (inboundPartitioner != null) {
+            submitInbound(servicesContext.getEventTypeResolvingBeanFactory().adapterForObjectArray(properties, eventTypeName), runtime);
+        } else if (inboundRingBuffer != null) {
+            inboundRingBuffer.submit(UNIT_OBJECTARRAY, properties, eventTypeName, runtime);
+        } else {
+            submitInbound(new InboundUnitSendObjectArray(properties, eventTypeName, runtime));
+        }
+    }
+
+    public void submitInboundDOM(org.w3c.dom.Node node, String eventTypeName, EPEventServiceImpl runtime) {
+        if (inboundPartitioner != null) {
+            submitInbound(servicesContext.getEventTypeResolvingBeanFactory().adapterForXMLDOM(node, eventTypeName), runtime);
+        } else if (inboundRingBuffer != null) {
+            inboundRingBuffer.submit(UNIT_DOM, node, eventTypeName, runtime);
+        } else {
+            submitInbound(new InboundUnitSendDOM(node, eventTypeName, runtime));
+        }
+    }
+
+    public void submitInboundAvro(Object genericRecordDotData, String eventTypeName, EPEventServiceImpl runtime) {
+        if (inboundPartitioner != null) {
+            submitInbound(servicesContext.getEventTypeResolvingBeanFactory().adapterForAvro(genericRecordDotData, eventTypeName), runtime);
+        } else if (inboundRingBuffer != null) {
+            inboundRingBuffer.submit(UNIT_AVRO, genericRecordDotData, eventTypeName, runtime);
+        } else {
+            submitInbound(new InboundUnitSendAvro(genericRecordDotData, eventTypeName, runtime));
+        }
+    }
+
     public void submitOutbound(OutboundUnitRunnable unit) {
+        submitOutboundRunnable(unit);
+    }
+
+    public void submitOutbound(UniformPair<EventBean[]> events, StatementResultServiceImpl statementResultService) {
+        if (outboundMailboxes != null) {
+            OutboundMailbox mailbox = outboundMailboxes.computeIfAbsent(statementResultService.getStatementId(), id -> makeOutboundMailbox(statementResultService));
+            if (mailbox.add(events)) {
+                submitOutboundRunnable(mailbox);
+            }
+        } else if (outboundRingBuffer != null) {
+            outboundRingBuffer.submit(UNIT_OUTBOUND, events, null, statementResultService);
+        } else {
+            submitOutbound(new OutboundUnitRunnable(events, statementResultService));
+        }
+    }
+
+    public OutboundMailboxMetric[] getOutboundMailboxMetrics() {
+        if (outboundMailboxes == null) {
+            return new OutboundMailboxMetric[0];
+        }
+        return outboundMailboxes.values().stream().map(OutboundMailbox::getMetric).toArray(OutboundMailboxMetric[]::new);
+    }
+
+    public void removeOutboundMailbox(int statementId) {
+        if (outboundMailboxes == null) {
+            return;
+        }
+        OutboundMailbox mailbox = outboundMailboxes.remove(statementId);
+        if (mailbox != null) {
+            mailbox.destroy();
+        }
+    }
+
+    private OutboundMailbox makeOutboundMailbox(StatementResultServiceImpl statementResultService) {
+        File spillDirectory = config.getThreadPoolOutboundSpillDirectory() == null ? null : new File(config.getThreadPoolOutboundSpillDirectory());
+        return new OutboundMailbox(statementResultService, statementResultService.getDeploymentId(), statementResultService.getStatementName(),
+            config.getThreadPoolOutboundMailboxCapacity(), config.getThreadPoolOutboundOverflowPolicy(), spillDirectory, servicesContext.getEventBeanTypedEventFactory());
+    }
+
+    private void submitOutboundRunnable(Runnable unit) {
+        if (outboundRingBuffer != null) {
+            outboundRingBuffer.submit(UNIT_RUNNABLE, unit, null, null);
+            return;
+        }
         try {
             outboundQueue.put(unit);
         } catch (InterruptedException e) {
@@ -171,6 +330,11 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public synchronized void destroy() {
+        if (outboundMailboxes != null) {
+            for (OutboundMailbox mailbox : outboundMailboxes.values()) {
+                mailbox.destroy();
+            }
+        }
         if (timerThreadPool != null) {
             stopPool(timerThreadPool, timerQueue, "TimerExec");
         }
@@ -183,11 +347,33 @@ public class ThreadingServiceImpl implements ThreadingService {
         if (inboundThreadPool != null) {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
+        if (outboundRingBuffer != null) {
+            stopRingBuffer(outboundRingBuffer, "Outbound");
+        }
+        if (inboundRingBuffer != null) {
+            stopRingBuffer(inboundRingBuffer, "Inbound");
+        }
+        if (inboundPartitionThreadPools != null) {
+            for (int i = 0; i < inboundPartitionThreadPools.length; i++) {
+                stopPool(inboundPartitionThreadPools[i], inboundPartitionQueues[i], "Inbound-" + i);
+            }
+        }
+        if (inboundPartitionRingBuffers != null) {
+            for (int i = 0; i < inboundPartitionRingBuffers.length; i++) {
+                stopRingBuffer(inboundPartitionRingBuffers[i], "Inbound-" + i);
+            }
+        }
 
         timerThreadPool = null;
         routeThreadPool = null;
         outboundThreadPool = null;
         inboundThreadPool = null;
+        outboundRingBuffer = null;
+        outboundMailboxes = null;
+        inboundRingBuffer = null;
+        inboundPartitioner = null;
+        inboundPartitionThreadPools = null;
+        inboundPartitionRingBuffers = null;
     }
 
     public Thread makeEventSourceThread(String runtimeURI, String sourceName, Runnable runnable) {
@@ -201,7 +387,118 @@ public class ThreadingServiceImpl implements ThreadingService {
     }
 
     public void submitInbound(EventBean event, EPRuntimeEventProcessWrapped runtimeEventSender) {
-        submitInbound(new InboundUnitSendWrapped(event, servicesContext, runtimeEventSender));
+        if (inboundPartitioner != null) {
+            submitInboundPartition(inboundPartitioner.partition(event), UNIT_WRAPPED, event, runtimeEventSender, null);
+        } else if (inboundRingBuffer != null) {
+            inboundRingBuffer.submit(UNIT_WRAPPED, event, null, runtimeEventSender);
+        } else {
+            submitInbound(new InboundUnitSendWrapped(event, servicesContext, runtimeEventSender));
+        }
+    }
+
+    /**
+     * Returns the number of inbound units of work submitted and not yet taken for processing, per partition,
+     * if inbound threading is partitioned.
+     *
+     * @return queue size per partition or null
+     */
+    public int[] getInboundPartitionQueueSizes() {
+        if (inboundPartitioner == null) {
+            return null;
+        }
+        int numPartitions = inboundPartitionRingBuffers != null ? inboundPartitionRingBuffers.length : inboundPartitionQueues.length;
+        int[] sizes = new int[numPartitions];
+        for (int i = 0; i < numPartitions; i++) {
+            sizes[i] = inboundPartitionRingBuffers != null ? inboundPartitionRingBuffers[i].size() : inboundPartitionQueues[i].size();
+        }
+        return sizes;
+    }
+
+    /**
+     * Returns the inbound ring buffer, if inbound threading uses a ring buffer.
+     *
+     * @return ring buffer or null
+     */
+    public RingBufferExecutor getInboundRingBuffer() {
+        return inboundRingBuffer;
+    }
+
+    /**
+     * Returns the outbound ring buffer, if outbound threading uses a ring buffer.
+     *
+     * @return ring buffer or null
+     */
+    public RingBufferExecutor getOutboundRingBuffer() {
+        return outboundRingBuffer;
+    }
+
+    private void submitInboundPartition(int partition, int unitType, Object event, EPRuntimeEventProcessWrapped runtimeEventSender, Runnable unit) {
+        if (inboundPartitionRingBuffers != null) {
+            inboundPartitionRingBuffers[partition].submit(unitType, event, null, runtimeEventSender);
+            return;
+        }
+        if (unit == null) {
+            unit = new InboundUnitSendWrapped((EventBean) event, servicesContext, runtimeEventSender);
+        }
+        try {
+            inboundPartitionQueues[partition].put(unit);
+        } catch (InterruptedException e) {
+            log.info("Submit interrupted:" + e);
+        }
+    }
+
+    private void processUnit(int unitType, Object event, String eventTypeName, Object target) {
+        switch (unitType) {
+            case UNIT_BEAN:
+                InboundUnitSendEvent.process(event, eventTypeName, (EPEventServiceImpl) target);
+                break;
+            case UNIT_MAP:
+                InboundUnitSendMap.process((Map) event, eventTypeName, (EPEventServiceImpl) target);
+                break;
+            case UNIT_OBJECTARRAY:
+                InboundUnitSendObjectArray.process((Object[]) event, eventTypeName, (EPEventServiceImpl) target);
+                break;
+            case UNIT_DOM:
+                InboundUnitSendDOM.process((org.w3c.dom.Node) event, eventTypeName, (EPEventServiceImpl) target);
+                break;
+            case UNIT_AVRO:
+                InboundUnitSendAvro.process(event, eventTypeName, (EPEventServiceImpl) target);
+                break;
+            case UNIT_WRAPPED:
+                InboundUnitSendWrapped.process((EventBean) event, servicesContext, (EPRuntimeEventProcessWrapped) target);
+                break;
+            case UNIT_OUTBOUND:
+                OutboundUnitRunnable.process((UniformPair<EventBean[]>) event, (StatementResultServiceImpl) target);
+                break;
+            default:
+                ((Runnable) event).run();
+        }
+    }
+
+    private void stopRingBuffer(RingBufferExecutor ringBuffer, String name) {
+        if (log.isInfoEnabled()) {
+            log.info("Shutting down ring buffer " + name);
+        }
+        ringBuffer.destroy();
+    }
+
+    private RingBufferExecutor getRingBuffer(String runtimeURI, String name, Integer capacity, int numThreads, RingBufferWaitStrategy waitStrategy) {
+        if (log.isInfoEnabled()) {
+            log.info("Starting ring buffer " + name + " with " + numThreads + " threads");
+        }
+
+        if (runtimeURI == null) {
+            runtimeURI = "default";
+        }
+
+        if ((capacity == null) || (capacity <= 0) || (capacity == Integer.MAX_VALUE)) {
+            capacity = RING_BUFFER_DEFAULT_CAPACITY;
+        }
+
+        String threadGroupName = "com.espertech.esper." + runtimeURI + "-" + name;
+        ThreadGroup threadGroup = new ThreadGroup(threadGroupName);
+        EngineThreadFactory threadFactory = new EngineThreadFactory(runtimeURI, name, threadGroup, Thread.NORM_PRIORITY);
+        return new RingBufferExecutor(capacity, numThreads, waitStrategy, this::processUnit, threadFactory);
     }
 
     private void stopPool(ThreadPoolExecutor threadPool, BlockingQueue<Runnable> queue, String name) {
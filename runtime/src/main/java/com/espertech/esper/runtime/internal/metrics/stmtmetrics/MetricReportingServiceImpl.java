@@ -13,6 +13,7 @@ package com.espertech.esper.runtime.internal.metrics.stmtmetrics;
 import com.espertech.esper.common.client.configuration.ConfigurationException;
 import com.espertech.esper.common.client.configuration.runtime.ConfigurationRuntimeMetricsReporting;
 import com.espertech.esper.common.client.metric.MetricEvent;
+import com.espertech.esper.common.client.metric.StatementLatencyMetric;
 import com.espertech.esper.common.internal.event.core.EventServiceSendEventCommon;
 import com.espertech.esper.common.internal.filtersvc.FilterService;
 import com.espertech.esper.common.internal.metrics.stmtmetrics.*;
@@ -20,6 +21,7 @@ import com.espertech.esper.common.internal.schedule.SchedulingService;
 import com.espertech.esper.common.internal.util.DeploymentIdNamePair;
 import com.espertech.esper.common.internal.util.MetricUtil;
 import com.espertech.esper.runtime.client.*;
+import com.espertech.esper.runtime.internal.metrics.codahale_metrics.metrics.core.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +51,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
 
     private final Map<DeploymentIdNamePair, StatementMetricHandle> statementMetricHandles;
     private final MetricsExecutor metricsExecutor;
+    private final StatementLatencyGauges latencyGauges;
 
     private final CopyOnWriteArraySet<MetricsStatementResultListener> statementOutputHooks = new CopyOnWriteArraySet<>();
 
@@ -66,6 +69,7 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
             stmtMetricRepository = null;
             statementMetricHandles = null;
             metricsExecutor = null;
+            latencyGauges = null;
             return;
         }
 
@@ -83,6 +87,12 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         } else {
             metricsExecutor = new MetricsExecutorUnthreaded();
         }
+
+        if (specification.isLatencyHistograms()) {
+            latencyGauges = new StatementLatencyGauges(runtimeURI, specification.isJmxRuntimeMetrics());
+        } else {
+            latencyGauges = null;
+        }
     }
 
     public boolean isMetricsReportingEnabled() {
@@ -101,6 +111,10 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         return statementOutputHooks;
     }
 
+    public MetricsRegistry getLatencyMetricsRegistry() {
+        return latencyGauges == null ? null : latencyGauges.getRegistry();
+    }
+
     public void setContext(FilterService filterService, SchedulingService schedulingService, EventServiceSendEventCommon eventServiceSendEventInternal) {
         MetricExecutionContext metricsExecutionContext = new MetricExecutionContext(filterService, schedulingService, eventServiceSendEventInternal, stmtMetricRepository);
 
@@ -162,9 +176,18 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
     public void destroy() {
         schedule.clear();
         metricsExecutor.destroy();
+        if (latencyGauges != null) {
+            latencyGauges.destroy();
+        }
     }
 
     public void route(MetricEvent metricEvent) {
+        if (latencyGauges != null && metricEvent instanceof StatementLatencyMetric) {
+            StatementLatencyMetric latency = (StatementLatencyMetric) metricEvent;
+            if (latency.getAgentInstanceId() == null) {
+                latencyGauges.update(latency);
+            }
+        }
         executionContext.getEpRuntimeSendEvent().sendEventBean(metricEvent, metricEvent.getClass().getName());
     }
 
@@ -172,6 +195,10 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         stmtMetricRepository.accountTimes(metricsHandle, deltaCPU, deltaWall, numInputEvents);
     }
 
+    public void accountTime(StatementMetricHandle metricsHandle, int agentInstanceId, long deltaCPU, long deltaWall, int numInputEvents) {
+        stmtMetricRepository.accountTimes(metricsHandle, agentInstanceId, deltaCPU, deltaWall, numInputEvents);
+    }
+
     public void accountOutput(StatementMetricHandle handle, int numIStream, int numRStream, Object epStatement, Object runtime) {
         stmtMetricRepository.accountOutput(handle, numIStream, numRStream);
         if (!statementOutputHooks.isEmpty()) {
@@ -205,6 +232,9 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
             DeploymentIdNamePair pair = new DeploymentIdNamePair(stmt.getDeploymentId(), stmt.getName());
             stmtMetricRepository.removeStatement(pair);
             statementMetricHandles.remove(pair);
+            if (latencyGauges != null) {
+                latencyGauges.remove(stmt.getDeploymentId(), stmt.getName());
+            }
         }
     }
 
@@ -11,6 +11,7 @@
 package com.espertech.esper.runtime.internal.metrics.stmtmetrics;
 
 import com.espertech.esper.common.internal.metrics.stmtmetrics.MetricReportingService;
+import com.espertech.esper.runtime.internal.metrics.codahale_metrics.metrics.core.MetricsRegistry;
 
 import java.util.Set;
 
@@ -38,4 +39,12 @@ public interface MetricReportingServiceSPI extends MetricReportingService {
      * @return hooks.
      */
     public Set<MetricsStatementResultListener> getStatementOutputHooks();
+
+    /**
+     * Returns the metrics registry that holds the statement latency gauges, for use with metrics reporters,
+     * or null if latency histograms are not enabled.
+     *
+     * @return registry
+     */
+    public MetricsRegistry getLatencyMetricsRegistry();
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.metrics.stmtmetrics;
+
+import com.espertech.esper.common.client.metric.StatementLatencyMetric;
+import com.espertech.esper.common.internal.util.DeploymentIdNamePair;
+import com.espertech.esper.runtime.internal.metrics.codahale_metrics.metrics.MetricNameFactory;
+import com.espertech.esper.runtime.internal.metrics.codahale_metrics.metrics.core.Gauge;
+import com.espertech.esper.runtime.internal.metrics.codahale_metrics.metrics.core.MetricName;
+import com.espertech.esper.runtime.internal.metrics.codahale_metrics.metrics.core.MetricsRegistry;
+import com.espertech.esper.runtime.internal.metrics.codahale_metrics.metrics.reporting.JmxReporter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes the statement-level latency percentiles of the last reporting interval as gauges
+ * of a metrics registry, for use with the metrics reporters such as the JMX, console and CSV reporters.
+ * <p>
+ * Gauges are named by the runtime URI, type "latency", the deployment id and statement name as the scope,
+ * and "p50", "p99", "p999" and "max" as the name. A JMX reporter is started when JMX runtime metrics are enabled.
+ */
+public class StatementLatencyGauges {
+    private static final String TYPE = "latency";
+
+    private final String group;
+    private final MetricsRegistry registry;
+    private final JmxReporter jmxReporter;
+    private final Map<DeploymentIdNamePair, LastLatency> statements = new ConcurrentHashMap<>();
+
+    /**
+     * Ctor.
+     *
+     * @param runtimeURI runtime URI
+     * @param jmx        true to start a JMX reporter
+     */
+    public StatementLatencyGauges(String runtimeURI, boolean jmx) {
+        this.group = MetricNameFactory.JMX_GROUP_NAME + "-" + runtimeURI;
+        this.registry = new MetricsRegistry();
+        if (jmx) {
+            jmxReporter = new JmxReporter(registry);
+            jmxReporter.start();
+        } else {
+            jmxReporter = null;
+        }
+    }
+
+    /**
+     * Update the gauges of the statement with the statement-level latency metric, registering gauges for a new statement.
+     *
+     * @param metric latency metric for all agent instances of the statement
+     */
+    public void update(StatementLatencyMetric metric) {
+        DeploymentIdNamePair key = new DeploymentIdNamePair(metric.getDeploymentId(), metric.getStatementName());
+        LastLatency last = statements.get(key);
+        if (last == null) {
+            last = new LastLatency();
+            last.metric = metric;
+            statements.put(key, last);
+            String scope = scope(key);
+            registry.newGauge(new MetricName(group, TYPE, "p50", scope), gauge(last, StatementLatencyMetric::getP50));
+            registry.newGauge(new MetricName(group, TYPE, "p99", scope), gauge(last, StatementLatencyMetric::getP99));
+            registry.newGauge(new MetricName(group, TYPE, "p999", scope), gauge(last, StatementLatencyMetric::getP999));
+            registry.newGauge(new MetricName(group, TYPE, "max", scope), gauge(last, StatementLatencyMetric::getMax));
+            return;
+        }
+        last.metric = metric;
+    }
+
+    /**
+     * Remove the gauges of a statement.
+     *
+     * @param deploymentId  deployment id
+     * @param statementName statement name
+     */
+    public void remove(String deploymentId, String statementName) {
+        DeploymentIdNamePair key = new DeploymentIdNamePair(deploymentId, statementName);
+        if (statements.remove(key) == null) {
+            return;
+        }
+        String scope = scope(key);
+        for (String name : new String[]{"p50", "p99", "p999", "max"}) {
+            registry.removeMetric(new MetricName(group, TYPE, name, scope));
+        }
+    }
+
+    /**
+     * Returns the metrics registry.
+     *
+     * @return registry
+     */
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Remove all gauges and stop the JMX reporter, if any.
+     */
+    public void destroy() {
+        for (DeploymentIdNamePair key : statements.keySet()) {
+            remove(key.getDeploymentId(), key.getName());
+        }
+        if (jmxReporter != null) {
+            jmxReporter.shutdown();
+        }
+        registry.shutdown();
+    }
+
+    private static String scope(DeploymentIdNamePair key) {
+        return key.getDeploymentId() + "/" + key.getName();
+    }
+
+    private static Gauge<Long> gauge(LastLatency last, ToLongFunction<StatementLatencyMetric> value) {
+        return new Gauge<Long>() {
+            public Long value() {
+                return value.applyAsLong(last.metric);
+            }
+        };
+    }
+
+    private static class LastLatency {
+        private volatile StatementLatencyMetric metric;
+    }
+}
@@ -124,7 +124,7 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
                             long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
                             long deltaCPU = cpuTimeAfter - cpuTimeBefore;
                             long deltaWall = wallTimeAfter - wallTimeBefore;
-                            metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
+                            metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), handle.getAgentInstanceId(), deltaCPU, deltaWall, 1);
                         } else {
                             processHandle(handle, entry.getValue(), newData, oldData);
                         }
@@ -226,7 +226,7 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
                             long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
                             long deltaCPU = cpuTimeAfter - cpuTimeBefore;
                             long deltaWall = wallTimeAfter - wallTimeBefore;
-                            metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
+                            metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), handle.getAgentInstanceId(), deltaCPU, deltaWall, 1);
                         } else {
                             Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> entries = unit.getDispatchTo();
                             List<NamedWindowConsumerView> items = entries.get(handle);
@@ -254,7 +254,7 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
                         long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
                         long deltaCPU = cpuTimeAfter - cpuTimeBefore;
                         long deltaWall = wallTimeAfter - wallTimeBefore;
-                        metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
+                        metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), handle.getAgentInstanceId(), deltaCPU, deltaWall, 1);
                     } else {
                         processHandleMultiple(handle, deltaPerConsumer);
                     }
@@ -0,0 +1,34 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.schedulesvcimpl;
+
+import com.espertech.esper.common.client.util.SchedulingServiceProfile;
+import com.espertech.esper.common.internal.schedule.SchedulingService;
+import com.espertech.esper.common.internal.schedule.TimeSourceService;
+
+/**
+ * Static factory for implementations of the {@link SchedulingService} interface.
+ */
+public final class SchedulingServiceProvider {
+    /**
+     * Creates an implementation of the SchedulingService interface.
+     *
+     * @param schedulingServiceProfile config
+     * @param timeSourceService        time source provider
+     * @return implementation
+     */
+    public static SchedulingServiceSPI newService(SchedulingServiceProfile schedulingServiceProfile, TimeSourceService timeSourceService) {
+        if (schedulingServiceProfile == SchedulingServiceProfile.TIMINGWHEEL) {
+            return new SchedulingServiceTimingWheel(timeSourceService);
+        }
+        return new SchedulingServiceImpl(timeSourceService);
+    }
+}
@@ -0,0 +1,472 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.schedulesvcimpl;
+
+import com.espertech.esper.common.client.util.DateTime;
+import com.espertech.esper.common.internal.schedule.ScheduleHandle;
+import com.espertech.esper.common.internal.schedule.ScheduleServiceException;
+import com.espertech.esper.common.internal.schedule.TimeSourceService;
+import com.espertech.esper.runtime.internal.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.runtime.internal.metrics.jmx.JmxGetter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service using a hierarchical timing wheel, for when there are many outstanding schedules
+ * that are frequently added and removed.
+ * <p>
+ * Adding and removing a handle takes constant time. The wheel has four levels of 256 buckets each,
+ * level zero having a bucket per time unit and each further level having buckets 256 times as wide.
+ * A handle is kept in the level that corresponds to the most significant 8-bit group in which its time differs
+ * from the wheel time, and handles too far in the future are kept in an overflow list.
+ * When the wheel time advances onto the bucket of a higher level the handles in that bucket move to lower levels.
+ * Evaluation skips empty buckets and therefore takes time proportional to the number of handles that trigger
+ * or move, independent of how far time advances.
+ * <p>
+ * Handles that trigger at the same time are returned ordered by schedule slot, same as for {@link SchedulingServiceImpl}.
+ */
+public final class SchedulingServiceTimingWheel implements SchedulingServiceSPI {
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final int WORDS_PER_LEVEL = WHEEL_SIZE / 64;
+    private static final int LIST_OVERFLOW = LEVELS * WHEEL_SIZE;
+    private static final int LIST_DUE = LIST_OVERFLOW + 1;
+    private static final int LIST_NONE = -1;
+    private static final long OVERFLOW_MASK = ~((1L << (WHEEL_BITS * LEVELS)) - 1);
+
+    private static final Comparator<Entry> TIME_SLOT_ORDER = new Comparator<Entry>() {
+        public int compare(Entry o1, Entry o2) {
+            int result = Long.compare(o1.time, o2.time);
+            if (result != 0) {
+                return result;
+            }
+            return Long.compare(o1.slot, o2.slot);
+        }
+    };
+
+    // Buckets of all levels followed by the overflow list and the list of handles that are due
+    private final Entry[] lists = new Entry[LIST_DUE + 1];
+
+    // Bit set of non-empty buckets per level
+    private final long[] occupied = new long[LEVELS * WORDS_PER_LEVEL];
+
+    // Map of handle and entry for removal
+    private final Map<ScheduleHandle, Entry> entries = new HashMap<ScheduleHandle, Entry>();
+
+    private final ArrayList<Entry> triggered = new ArrayList<Entry>();
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    // Time up to which the wheel has advanced, all handles on or before this time are in the due list
+    private long wheelTime;
+
+    // Earliest time at which an overflow handle can move into the wheel
+    private long overflowTime = Long.MAX_VALUE;
+
+    /**
+     * Constructor.
+     *
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimingWheel(TimeSourceService timeSourceService) {
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.wheelTime = currentTime;
+    }
+
+    public synchronized void destroy() {
+        log.debug("Destroying scheduling service");
+        entries.clear();
+        Arrays.fill(lists, null);
+        Arrays.fill(occupied, 0);
+        overflowTime = Long.MAX_VALUE;
+    }
+
+    public long getTime() {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime) {
+        this.currentTime = currentTime;
+        if (currentTime < wheelTime) {
+            rebase(currentTime);
+        }
+    }
+
+    public synchronized final void add(long afterTime, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleAdd(currentTime, afterTime, handle, slot);
+        }
+
+        Entry existing = entries.remove(handle);
+        if (existing != null) {
+            unlink(existing);
+        }
+
+        Entry entry = new Entry(handle, slot, currentTime + afterTime);
+        entries.put(handle, entry);
+        place(entry);
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleAdd();
+        }
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, long slot) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleRemove(handle, slot);
+        }
+
+        Entry entry = entries.remove(handle);
+        if (entry == null) {
+            // If it already has been removed then that's fine;
+            // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+            return;
+        }
+        unlink(entry);
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleRemove();
+        }
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleEval(currentTime);
+        }
+
+        // handles on or before the wheel time, such as those added for the current time
+        triggerDue(handles);
+
+        long evaluateTime = currentTime;
+        while (true) {
+            int level = lowestOccupiedLevel();
+            long next;
+            int bucket = -1;
+            if (level != -1) {
+                bucket = lowestOccupiedBucket(level);
+                int shift = WHEEL_BITS * level;
+                next = ((wheelTime >>> (shift + WHEEL_BITS)) << (shift + WHEEL_BITS)) | ((long) bucket << shift);
+            } else {
+                next = overflowTime;
+            }
+            if (next > evaluateTime) {
+                break;
+            }
+
+            wheelTime = next;
+            if (level == 0) {
+                moveList(bucket, LIST_DUE);
+            } else if (level != -1) {
+                replaceList(level * WHEEL_SIZE + bucket);
+            } else {
+                overflowTime = Long.MAX_VALUE;
+                replaceList(LIST_OVERFLOW);
+            }
+            triggerDue(handles);
+        }
+        wheelTime = evaluateTime;
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleEval(handles);
+        }
+    }
+
+    public synchronized ScheduleSet take(Set<Integer> statementIds) {
+        List<Entry> taken = new ArrayList<Entry>();
+        for (Entry entry : entries.values()) {
+            if (statementIds.contains(entry.handle.getStatementId())) {
+                taken.add(entry);
+            }
+        }
+        Collections.sort(taken, TIME_SLOT_ORDER);
+
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>(taken.size());
+        long currentTime = getTime();
+        for (Entry entry : taken) {
+            list.add(new ScheduleSetEntry(entry.time - currentTime, entry.slot, entry.handle));
+        }
+
+        for (ScheduleSetEntry entry : list) {
+            remove(entry.getHandle(), entry.getScheduleSlot());
+        }
+
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet) {
+        for (ScheduleSetEntry entry : scheduleSet.getList()) {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public synchronized int getTimeHandleCount() {
+        Set<Long> times = new HashSet<Long>();
+        for (Entry entry : entries.values()) {
+            times.add(entry.time);
+        }
+        return times.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate() {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate() {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle() {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        long furthest = Long.MIN_VALUE;
+        for (Entry entry : entries.values()) {
+            furthest = Math.max(furthest, entry.time);
+        }
+        return furthest;
+    }
+
+    public synchronized int getScheduleHandleCount() {
+        return entries.size();
+    }
+
+    public synchronized boolean isScheduled(ScheduleHandle handle) {
+        return entries.containsKey(handle);
+    }
+
+    @Override
+    public synchronized Long getNearestTimeHandle() {
+        // handles in lower levels are always earlier than handles in higher levels and the overflow list
+        if (lists[LIST_DUE] != null) {
+            return minTime(LIST_DUE);
+        }
+        int level = lowestOccupiedLevel();
+        if (level != -1) {
+            return minTime(level * WHEEL_SIZE + lowestOccupiedBucket(level));
+        }
+        if (lists[LIST_OVERFLOW] != null) {
+            return minTime(LIST_OVERFLOW);
+        }
+        return null;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        List<Entry> all = new ArrayList<Entry>(entries.values());
+        Collections.sort(all, TIME_SLOT_ORDER);
+
+        ScheduleVisit visit = new ScheduleVisit();
+        for (Entry entry : all) {
+            visit.setTimestamp(entry.time);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    private void place(Entry entry) {
+        long time = entry.time;
+        if (time <= wheelTime) {
+            link(entry, LIST_DUE);
+            return;
+        }
+
+        long diff = time ^ wheelTime;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = WHEEL_BITS * level;
+            if ((diff >>> (shift + WHEEL_BITS)) == 0) {
+                int bucket = (int) ((time >>> shift) & WHEEL_MASK);
+                link(entry, level * WHEEL_SIZE + bucket);
+                occupied[level * WORDS_PER_LEVEL + (bucket >>> 6)] |= 1L << bucket;
+                return;
+            }
+        }
+
+        link(entry, LIST_OVERFLOW);
+        overflowTime = Math.min(overflowTime, time & OVERFLOW_MASK);
+    }
+
+    private void rebase(long time) {
+        List<Entry> all = new ArrayList<Entry>(entries.values());
+        Arrays.fill(lists, null);
+        Arrays.fill(occupied, 0);
+        overflowTime = Long.MAX_VALUE;
+        wheelTime = time;
+        for (Entry entry : all) {
+            entry.next = null;
+            entry.prev = null;
+            place(entry);
+        }
+    }
+
+    private void triggerDue(Collection<ScheduleHandle> handles) {
+        Entry entry = lists[LIST_DUE];
+        if (entry == null) {
+            return;
+        }
+        lists[LIST_DUE] = null;
+
+        if (entry.next == null) {
+            entry.list = LIST_NONE;
+            entries.remove(entry.handle);
+            handles.add(entry.handle);
+            return;
+        }
+
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.list = LIST_NONE;
+            entry.next = null;
+            entry.prev = null;
+            triggered.add(entry);
+            entry = next;
+        }
+        Collections.sort(triggered, TIME_SLOT_ORDER);
+        for (Entry triggeredEntry : triggered) {
+            entries.remove(triggeredEntry.handle);
+            handles.add(triggeredEntry.handle);
+        }
+        triggered.clear();
+    }
+
+    private void moveList(int from, int to) {
+        Entry entry = takeList(from);
+        while (entry != null) {
+            Entry next = entry.next;
+            link(entry, to);
+            entry = next;
+        }
+    }
+
+    private void replaceList(int from) {
+        Entry entry = takeList(from);
+        while (entry != null) {
+            Entry next = entry.next;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private Entry takeList(int list) {
+        Entry head = lists[list];
+        lists[list] = null;
+        if (list < LIST_OVERFLOW) {
+            clearOccupied(list);
+        }
+        return head;
+    }
+
+    private Long minTime(int list) {
+        long min = Long.MAX_VALUE;
+        for (Entry entry = lists[list]; entry != null; entry = entry.next) {
+            min = Math.min(min, entry.time);
+        }
+        return min;
+    }
+
+    private int lowestOccupiedLevel() {
+        for (int level = 0; level < LEVELS; level++) {
+            for (int word = 0; word < WORDS_PER_LEVEL; word++) {
+                if (occupied[level * WORDS_PER_LEVEL + word] != 0) {
+                    return level;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int lowestOccupiedBucket(int level) {
+        for (int word = 0; word < WORDS_PER_LEVEL; word++) {
+            long bits = occupied[level * WORDS_PER_LEVEL + word];
+            if (bits != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    private void link(Entry entry, int list) {
+        Entry head = lists[list];
+        entry.list = list;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        lists[list] = entry;
+    }
+
+    private void unlink(Entry entry) {
+        int list = entry.list;
+        if (list == LIST_NONE) {
+            return;
+        }
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            lists[list] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.list = LIST_NONE;
+        entry.next = null;
+        entry.prev = null;
+        if (list < LIST_OVERFLOW && lists[list] == null) {
+            clearOccupied(list);
+        }
+    }
+
+    private void clearOccupied(int list) {
+        int level = list / WHEEL_SIZE;
+        int bucket = list & WHEEL_MASK;
+        occupied[level * WORDS_PER_LEVEL + (bucket >>> 6)] &= ~(1L << bucket);
+    }
+
+    private static class Entry {
+        private final ScheduleHandle handle;
+        private final long slot;
+        private final long time;
+        private int list = LIST_NONE;
+        private Entry prev;
+        private Entry next;
+
+        Entry(ScheduleHandle handle, long slot, long time) {
+            this.handle = handle;
+            this.slot = slot;
+            this.time = time;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceTimingWheel.class);
+}
@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.checkpoint;
+
+import com.espertech.esper.common.internal.event.json.JsonLazyMap;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+public class TestCheckpointSerdeValue extends TestCase {
+
+    public void testRoundTrip() throws Exception {
+        Object[] values = new Object[]{null, true, (byte) 1, (short) 2, 3, 4L, 5f, 6d, 'x', "abc", "",
+            new BigDecimal("12.345"), new BigInteger("-123456789012345678901234567890"), new Date(1000), UUID.randomUUID()};
+        for (Object value : values) {
+            assertEquals(value, roundTrip(value));
+        }
+    }
+
+    public void testMapAndArray() throws Exception {
+        Map<Object, Object> nested = new HashMap<>();
+        nested.put(1, "one");
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 10);
+        map.put("b", nested);
+        map.put("c", new Object[]{"x", null, 2L});
+
+        Map<Object, Object> result = (Map<Object, Object>) roundTrip(map);
+        assertEquals(3, result.size());
+        assertEquals(10, result.get("a"));
+        assertEquals(nested, result.get("b"));
+        assertTrue(Arrays.equals(new Object[]{"x", null, 2L}, (Object[]) result.get("c")));
+
+        // typed arrays are serialized
+        assertTrue(Arrays.equals(new int[]{1, 2}, (int[]) roundTrip(new int[]{1, 2})));
+    }
+
+    public void testJsonLazyMap() throws Exception {
+        JsonLazyMap json = JsonLazyMap.parse("{\"id\": \"E1\", \"qty\": 2, \"tags\": [\"a\"], \"nested\": {\"x\": true}}", (Map<String, Object>) null);
+        Object restored = roundTrip(json);
+        assertEquals(HashMap.class, restored.getClass());
+        Map<Object, Object> result = (Map<Object, Object>) restored;
+        assertEquals("E1", result.get("id"));
+        assertEquals(json.get("qty"), result.get("qty"));
+        assertTrue(Arrays.equals((Object[]) json.get("tags"), (Object[]) result.get("tags")));
+        assertEquals(Collections.singletonMap("x", true), result.get("nested"));
+    }
+
+    public void testNotSerializable() {
+        try {
+            roundTrip(new Object());
+            fail();
+        } catch (IOException ex) {
+            assertEquals("Value of type 'java.lang.Object' cannot be checkpointed as it is not serializable", ex.getMessage());
+        }
+    }
+
+    private static Object roundTrip(Object value) throws IOException {
+        return CheckpointUtil.deserialize(CheckpointSerdeValue.INSTANCE, CheckpointUtil.serialize(CheckpointSerdeValue.INSTANCE, value));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.checkpoint;
+
+import com.espertech.esper.common.client.util.NameAccessModifier;
+import com.espertech.esper.common.internal.epl.variable.compiletime.VariableMetaData;
+import com.espertech.esper.common.internal.epl.variable.core.Variable;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestCheckpointVariableStateHandler extends TestCase {
+
+    public void testRetainAndRestore() throws Exception {
+        CheckpointVariableStateHandler handler = new CheckpointVariableStateHandler(null, Collections.singletonMap("M1.var#0", bytes(10)));
+        assertNull(handler.takeChanged());
+
+        Variable variable = makeVariable("M1", "var");
+        handler.addVariable("D1", "var", variable, handler.getVariableSerde("D1", variable.getMetaData()));
+        assertEquals(10, handler.getHasState(variable, 0).getObject());
+        assertNull(handler.getHasState(variable, 1));
+        assertNull(handler.takeChanged());
+
+        handler.setState(variable, 0, 20);
+        assertChanged(handler.takeChanged(), "M1.var#0", 20);
+        assertNull(handler.takeChanged());
+
+        // undeploy retains the value for the next deployment
+        handler.removeVariable(variable, "D1", Collections.emptySet());
+        assertChanged(handler.takeChanged(), "M1.var#0", 20);
+
+        Variable redeployed = makeVariable("M1", "var");
+        handler.addVariable("D2", "var", redeployed, handler.getVariableSerde("D2", redeployed.getMetaData()));
+        assertEquals(20, handler.getHasState(redeployed, 0).getObject());
+        assertNull(handler.getHasState(makeVariable("M2", "var"), 0));
+    }
+
+    public void testKeyedReadWrite() throws Exception {
+        Map<String, byte[]> values = new HashMap<>();
+        values.put("M1.var#0", bytes(10));
+        values.put("M1.other#1", bytes(null));
+        Map<String, byte[]> read = CheckpointUtil.readKeyed(CheckpointUtil.writeKeyed(values));
+        assertEquals(values.keySet(), read.keySet());
+        assertEquals(10, CheckpointUtil.deserialize(CheckpointSerdeValue.INSTANCE, read.get("M1.var#0")));
+        assertNull(CheckpointUtil.deserialize(CheckpointSerdeValue.INSTANCE, read.get("M1.other#1")));
+    }
+
+    public void testFileReadWrite() throws Exception {
+        File directory = Files.createTempDirectory("esper-checkpoint").toFile();
+        try {
+            String fileName = CheckpointUtil.fileName("window-", "M1.my/window");
+            assertEquals("window-M1.my%2Fwindow.ckp", fileName);
+            assertNull(CheckpointUtil.read(directory, fileName));
+
+            CheckpointUtil.write(directory, fileName, new byte[]{1, 2, 3});
+            assertEquals(3, CheckpointUtil.read(directory, fileName).length);
+            CheckpointUtil.write(directory, fileName, new byte[]{4});
+            byte[] bytes = CheckpointUtil.read(directory, fileName);
+            assertEquals(1, bytes.length);
+            assertEquals(4, bytes[0]);
+            assertFalse(new File(directory, fileName + ".tmp").exists());
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    private static void assertChanged(Map<String, byte[]> changed, String key, Object expected) throws Exception {
+        assertEquals(Collections.singleton(key), changed.keySet());
+        assertEquals(expected, CheckpointUtil.deserialize(CheckpointSerdeValue.INSTANCE, changed.get(key)));
+    }
+
+    private static byte[] bytes(Object value) throws Exception {
+        return CheckpointUtil.serialize(CheckpointSerdeValue.INSTANCE, value);
+    }
+
+    private static Variable makeVariable(String moduleName, String name) {
+        VariableMetaData metaData = new VariableMetaData(name, moduleName, NameAccessModifier.PUBLIC, null, null, null, Integer.class, null, false, false, false, null, true);
+        return new Variable(0, "D1", metaData, null);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.filterspec.FilterOperator;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
+import com.espertech.esper.common.internal.filtersvc.FilterHandle;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.runtime.internal.support.SupportEventBeanFactory;
+import com.espertech.esper.runtime.internal.support.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestFilterServiceLockFree extends TestCase {
+    private EventType eventType;
+    private FilterServiceLockFree filterService;
+
+    public void setUp() {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        filterService = new FilterServiceLockFree(false);
+    }
+
+    public void testAddRemove() {
+        FilterValueSetParam[][] valueSet = makeValueSet("E1");
+        SupportFilterHandle handle = new SupportFilterHandle();
+        long versionBefore = filterService.getFiltersVersion();
+
+        filterService.add(eventType, valueSet, handle);
+        assertEquals(versionBefore + 1, filterService.getFiltersVersion());
+        assertMatches(makeEvent("E1"), handle);
+        assertMatches(makeEvent("E2"));
+        assertEquals(1, filterService.getCountTypes());
+
+        filterService.remove(handle, eventType, valueSet);
+        assertEquals(versionBefore + 2, filterService.getFiltersVersion());
+        assertMatches(makeEvent("E1"));
+
+        // both copies reflect the same filters after repeated changes
+        for (int i = 0; i < 5; i++) {
+            filterService.add(eventType, valueSet, handle);
+            assertMatches(makeEvent("E1"), handle);
+            filterService.remove(handle, eventType, valueSet);
+            assertMatches(makeEvent("E1"));
+        }
+    }
+
+    public void testWriteLockPublishesOnRelease() {
+        SupportFilterHandle handleOne = new SupportFilterHandle();
+        SupportFilterHandle handleTwo = new SupportFilterHandle();
+        filterService.add(eventType, makeValueSet("E1"), handleOne);
+
+        filterService.acquireWriteLock();
+        filterService.remove(handleOne, eventType, makeValueSet("E1"));
+        filterService.add(eventType, makeValueSet("E1"), handleTwo);
+
+        // matching sees the filters as before the changes, returning the previous version
+        List<FilterHandle> matches = new ArrayList<>();
+        long version = filterService.evaluate(makeEvent("E1"), matches);
+        assertEquals(1, matches.size());
+        assertSame(handleOne, matches.get(0));
+        assertTrue(version < filterService.getFiltersVersion());
+
+        filterService.releaseWriteLock();
+        assertMatches(makeEvent("E1"), handleTwo);
+        matches.clear();
+        assertEquals(filterService.getFiltersVersion(), filterService.evaluate(makeEvent("E1"), matches));
+    }
+
+    public void testEvaluateWhileChanging() throws Exception {
+        SupportFilterHandle handleStatic = new SupportFilterHandle();
+        filterService.add(eventType, makeValueSet("E1"), handleStatic);
+        EventBean theEvent = makeEvent("E1");
+
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService threadPool = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(threadPool.submit(() -> {
+                List<FilterHandle> matches = new ArrayList<>();
+                while (!done.get()) {
+                    matches.clear();
+                    filterService.evaluate(theEvent, matches);
+                    if (!matches.contains(handleStatic)) {
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        }
+        futures.add(threadPool.submit(() -> {
+            SupportFilterHandle handle = new SupportFilterHandle();
+            for (int i = 0; i < 2000; i++) {
+                filterService.add(eventType, makeValueSet("E" + (i % 3)), handle);
+                filterService.remove(handle, eventType, makeValueSet("E" + (i % 3)));
+            }
+            done.set(true);
+            return true;
+        }));
+
+        threadPool.shutdown();
+        assertTrue(threadPool.awaitTermination(30, TimeUnit.SECONDS));
+        for (Future<Boolean> future : futures) {
+            assertTrue(future.get());
+        }
+        assertMatches(theEvent, handleStatic);
+    }
+
+    private void assertMatches(EventBean theEvent, FilterHandle... expected) {
+        List<FilterHandle> matches = new ArrayList<>();
+        filterService.evaluate(theEvent, matches);
+        assertEquals(expected.length, matches.size());
+        for (FilterHandle handle : expected) {
+            assertTrue(matches.contains(handle));
+        }
+    }
+
+    private FilterValueSetParam[][] makeValueSet(String theString) {
+        return SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, theString}).getValueSet(null, null, null, null);
+    }
+
+    private EventBean makeEvent(String theString) {
+        return SupportEventBeanFactory.createObject(new SupportBean(theString, 0));
+    }
+}
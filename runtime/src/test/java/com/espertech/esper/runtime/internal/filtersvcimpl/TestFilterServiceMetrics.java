@@ -0,0 +1,138 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.metric.FilterMetric;
+import com.espertech.esper.common.internal.filterspec.FilterOperator;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
+import com.espertech.esper.common.internal.filtersvc.FilterHandle;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.runtime.internal.support.SupportEventBeanFactory;
+import com.espertech.esper.runtime.internal.support.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestFilterServiceMetrics extends TestCase {
+    private static final int NUM_FILTERS = 10;
+
+    private EventType eventType;
+    private SupportFilterHandle[] handles;
+
+    public void setUp() {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        handles = new SupportFilterHandle[NUM_FILTERS];
+        for (int i = 0; i < NUM_FILTERS; i++) {
+            handles[i] = new SupportFilterHandle();
+        }
+    }
+
+    public void testMetricsCoarse() {
+        runAssertion(new FilterServiceLockCoarse(false));
+    }
+
+    public void testMetricsFine() {
+        runAssertion(new FilterServiceLockFine(false));
+    }
+
+    public void testMetricsLockFree() {
+        runAssertion(new FilterServiceLockFree(false));
+    }
+
+    public void testMetricsDisabled() {
+        FilterServiceLockCoarse filterService = new FilterServiceLockCoarse(false);
+        filterService.add(eventType, makeValueSet(0), handles[0]);
+        assertMatches(filterService, makeEvent(0), handles[0]);
+
+        List<FilterMetric> metrics = new ArrayList<>();
+        filterService.collectMetrics("uri", 0, metrics);
+        assertTrue(metrics.isEmpty());
+        assertEquals(0, filterService.getFilterMetrics().length);
+        filterService.destroy();
+    }
+
+    private void runAssertion(FilterServiceSPI filterService) {
+        filterService.setMetricsEnabled(true);
+        assertTrue(FilterMetricsVisit.ENABLED);
+        for (int i = 0; i < NUM_FILTERS; i++) {
+            filterService.add(eventType, makeValueSet(i), handles[i]);
+        }
+
+        for (int i = 0; i < NUM_FILTERS; i++) {
+            assertMatches(filterService, makeEvent(i), handles[i]);
+        }
+        assertMatches(filterService, SupportEventBeanFactory.createObject(new SupportBean("T2", 0)));
+
+        // the "theString" index is evaluated by the root node, the "intPrimitive" indexes are evaluated by the "theString" index
+        List<FilterMetric> metrics = new ArrayList<>();
+        filterService.collectMetrics("uri", 1000, metrics);
+        assertEquals(2, metrics.size());
+        FilterMetric typeMetric = metrics.get(0);
+        assertEquals("uri", typeMetric.getRuntimeURI());
+        assertEquals(1000, typeMetric.getTimestamp());
+        assertEquals(eventType.getName(), typeMetric.getEventTypeName());
+        assertNull(typeMetric.getExpression());
+        assertNull(typeMetric.getFilterOperator());
+        assertEquals(NUM_FILTERS + 1, typeMetric.getNumEventsEvaluated());
+        assertEquals(NUM_FILTERS * 2 + 1, typeMetric.getNumNodesVisited());
+        assertEquals(NUM_FILTERS, typeMetric.getNumMatches());
+        assertTrue(typeMetric.getNanoTime() > 0);
+
+        FilterMetric indexMetric = metrics.get(1);
+        assertEquals(eventType.getName(), indexMetric.getEventTypeName());
+        assertEquals("theString", indexMetric.getExpression());
+        assertEquals(FilterOperator.EQUAL.name(), indexMetric.getFilterOperator());
+        assertEquals(NUM_FILTERS + 1, indexMetric.getNumEventsEvaluated());
+        assertEquals(NUM_FILTERS, indexMetric.getNumNodesVisited());
+        assertEquals(NUM_FILTERS, indexMetric.getNumMatches());
+        assertTrue(indexMetric.getNanoTime() <= typeMetric.getNanoTime());
+
+        assertFalse(FilterMetricsVisit.current().isActive());
+        String[] lines = filterService instanceof FilterServiceBase ? ((FilterServiceBase) filterService).getFilterMetrics() : ((FilterServiceLockFree) filterService).getFilterMetrics();
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith(eventType.getName() + " theString EQUAL numEventsEvaluated=" + (NUM_FILTERS + 1)));
+
+        filterService.resetStats();
+        metrics.clear();
+        filterService.collectMetrics("uri", 2000, metrics);
+        assertEquals(2, metrics.size());
+        assertEquals(0, metrics.get(0).getNumEventsEvaluated());
+        assertEquals(0, metrics.get(1).getNumMatches());
+
+        filterService.removeType(eventType);
+        metrics.clear();
+        filterService.collectMetrics("uri", 3000, metrics);
+        assertTrue(metrics.isEmpty());
+
+        filterService.destroy();
+        assertFalse(FilterMetricsVisit.ENABLED);
+    }
+
+    private void assertMatches(FilterServiceSPI filterService, EventBean theEvent, FilterHandle... expected) {
+        List<FilterHandle> matches = new ArrayList<>();
+        filterService.evaluate(theEvent, matches);
+        assertEquals(expected.length, matches.size());
+        for (FilterHandle handle : expected) {
+            assertTrue(matches.contains(handle));
+        }
+    }
+
+    private FilterValueSetParam[][] makeValueSet(int customer) {
+        return SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "T" + (customer % 2), "intPrimitive", FilterOperator.EQUAL, customer}).getValueSet(null, null, null, null);
+    }
+
+    private EventBean makeEvent(int customer) {
+        return SupportEventBeanFactory.createObject(new SupportBean("T" + (customer % 2), customer));
+    }
+}
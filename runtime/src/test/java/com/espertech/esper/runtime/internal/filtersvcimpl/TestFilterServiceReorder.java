@@ -0,0 +1,120 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.filtersvcimpl;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.filterspec.FilterOperator;
+import com.espertech.esper.common.internal.filterspec.FilterValueSetParam;
+import com.espertech.esper.common.internal.filtersvc.FilterHandle;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.runtime.internal.support.SupportEventBeanFactory;
+import com.espertech.esper.runtime.internal.support.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestFilterServiceReorder extends TestCase {
+    private static final int NUM_FILTERS = 200;
+
+    private EventType eventType;
+    private SupportFilterHandle[] handles;
+
+    public void setUp() {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        handles = new SupportFilterHandle[NUM_FILTERS];
+        for (int i = 0; i < NUM_FILTERS; i++) {
+            handles[i] = new SupportFilterHandle();
+        }
+    }
+
+    public void testReorderCoarse() {
+        FilterServiceLockCoarse filterService = new FilterServiceLockCoarse(false, 60000);
+        runAssertion(filterService, filterService.getReorder());
+    }
+
+    public void testReorderFine() {
+        FilterServiceLockFine filterService = new FilterServiceLockFine(false, 60000);
+        runAssertion(filterService, filterService.getReorder());
+    }
+
+    public void testReorderLockFree() {
+        FilterServiceLockFree filterService = new FilterServiceLockFree(false, 60000);
+        runAssertion(filterService, filterService.getReorder());
+    }
+
+    public void testReorderDisabled() {
+        FilterServiceLockCoarse filterService = new FilterServiceLockCoarse(false);
+        assertNull(filterService.getReorder());
+        filterService.add(eventType, makeValueSet(0), handles[0]);
+        filterService.reorderFilters();
+        assertMatches(filterService, makeEvent(0), handles[0]);
+    }
+
+    private void runAssertion(FilterServiceSPI filterService, FilterServiceReorder reorder) {
+        // low-cardinality "theString" parameter first, high-cardinality "intPrimitive" parameter second
+        for (int i = 0; i < NUM_FILTERS; i++) {
+            filterService.add(eventType, makeValueSet(i), handles[i]);
+        }
+        assertTrue(reorder.getStatistics(eventType).isEmpty());
+
+        for (int i = 0; i < FilterServiceReorder.SAMPLE_EVERY * FilterServiceReorder.SAMPLE_SIZE; i++) {
+            assertMatches(filterService, makeEvent(i % NUM_FILTERS), handles[i % NUM_FILTERS]);
+        }
+
+        filterService.reorderFilters();
+
+        List<FilterServiceReorder.AttributeStatistics> statistics = reorder.getStatistics(eventType);
+        assertEquals(2, statistics.size());
+        assertEquals("intPrimitive", statistics.get(0).getExpression());
+        assertEquals(FilterOperator.EQUAL, statistics.get(0).getFilterOperator());
+        assertEquals(NUM_FILTERS, statistics.get(0).getFanOut());
+        assertEquals(1d, statistics.get(0).getHitRatio(), 0.0001);
+        assertEquals(1d / NUM_FILTERS, statistics.get(0).getSelectivity(), 0.0001);
+        assertEquals("theString", statistics.get(1).getExpression());
+        assertEquals(2, statistics.get(1).getFanOut());
+        assertEquals(0.5d, statistics.get(1).getSelectivity(), 0.0001);
+
+        // matches are unchanged after reordering, and for filters added and removed afterwards
+        for (int i = 0; i < NUM_FILTERS; i++) {
+            assertMatches(filterService, makeEvent(i), handles[i]);
+        }
+        assertMatches(filterService, SupportEventBeanFactory.createObject(new SupportBean("T1", 0)));
+
+        SupportFilterHandle added = new SupportFilterHandle();
+        filterService.add(eventType, makeValueSet(0), added);
+        assertMatches(filterService, makeEvent(0), handles[0], added);
+        filterService.remove(added, eventType, makeValueSet(0));
+        filterService.remove(handles[1], eventType, makeValueSet(1));
+        assertMatches(filterService, makeEvent(0), handles[0]);
+        assertMatches(filterService, makeEvent(1));
+
+        filterService.destroy();
+    }
+
+    private void assertMatches(FilterServiceSPI filterService, EventBean theEvent, FilterHandle... expected) {
+        List<FilterHandle> matches = new ArrayList<>();
+        filterService.evaluate(theEvent, matches);
+        assertEquals(expected.length, matches.size());
+        for (FilterHandle handle : expected) {
+            assertTrue(matches.contains(handle));
+        }
+    }
+
+    private FilterValueSetParam[][] makeValueSet(int customer) {
+        return SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "T" + (customer % 2), "intPrimitive", FilterOperator.EQUAL, customer}).getValueSet(null, null, null, null);
+    }
+
+    private EventBean makeEvent(int customer) {
+        return SupportEventBeanFactory.createObject(new SupportBean("T" + (customer % 2), customer));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.service;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.internal.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.common.internal.context.util.EPStatementHandle;
+import com.espertech.esper.common.internal.filtersvc.FilterHandleCallback;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestMatchesPerStatement extends TestCase {
+    private MatchesPerStatement matches;
+
+    public void setUp() {
+        matches = new MatchesPerStatement();
+    }
+
+    public void testAddSingleAndMultiple() {
+        EPStatementAgentInstanceHandle handleA = makeHandle(1, 0, 0);
+        EPStatementAgentInstanceHandle handleB = makeHandle(2, 0, 0);
+        FilterHandleCallback[] callbacks = makeCallbacks(3);
+
+        matches.add(handleA, callbacks[0]);
+        matches.add(handleB, callbacks[1]);
+        matches.add(handleA, callbacks[2]);
+        assertEquals(2, matches.size());
+        assertSame(handleA, matches.getHandle(0));
+        assertSame(handleB, matches.getHandle(1));
+        assertEquals(Arrays.asList(callbacks[0], callbacks[2]), new ArrayList<>((Collection<?>) matches.getCallbacks(0)));
+        assertSame(callbacks[1], matches.getCallbacks(1));
+
+        // the copy is not affected by clear
+        Collection<?> copy = (Collection<?>) matches.getCallbacksCopy(0);
+        Object pooled = matches.getCallbacks(0);
+        matches.clear();
+        assertTrue(matches.isEmpty());
+        assertEquals(2, copy.size());
+
+        // the callback list is reused
+        matches.add(handleB, callbacks[0]);
+        matches.add(handleB, callbacks[1]);
+        assertSame(pooled, matches.getCallbacks(0));
+        assertEquals(Arrays.asList(callbacks[0], callbacks[1]), new ArrayList<>((Collection<?>) matches.getCallbacks(0)));
+    }
+
+    public void testEqualHandles() {
+        EPStatementHandle statementHandle = makeStatementHandle(1, 0);
+        EPStatementAgentInstanceHandle handleOne = new EPStatementAgentInstanceHandle(statementHandle, 5, null);
+        EPStatementAgentInstanceHandle handleTwo = new EPStatementAgentInstanceHandle(statementHandle, 5, null);
+        FilterHandleCallback[] callbacks = makeCallbacks(2);
+
+        matches.add(handleOne, callbacks[0]);
+        matches.add(handleTwo, callbacks[1]);
+        assertEquals(1, matches.size());
+        assertEquals(2, ((Collection<?>) matches.getCallbacks(0)).size());
+    }
+
+    public void testSort() {
+        EPStatementAgentInstanceHandle low = makeHandle(1, 0, 1);
+        EPStatementAgentInstanceHandle high = makeHandle(2, 0, 10);
+        EPStatementAgentInstanceHandle mid = makeHandle(3, 0, 5);
+        FilterHandleCallback[] callbacks = makeCallbacks(4);
+
+        matches.add(low, callbacks[0]);
+        matches.add(high, callbacks[1]);
+        matches.add(mid, callbacks[2]);
+        matches.add(low, callbacks[3]);
+        matches.sort(EPStatementAgentInstanceHandleComparator.INSTANCE);
+        assertSame(high, matches.getHandle(0));
+        assertSame(mid, matches.getHandle(1));
+        assertSame(low, matches.getHandle(2));
+        assertEquals(Arrays.asList(callbacks[0], callbacks[3]), new ArrayList<>((Collection<?>) matches.getCallbacks(2)));
+
+        // lookup still finds the handles after sorting
+        matches.add(mid, callbacks[0]);
+        assertEquals(3, matches.size());
+        assertEquals(2, ((Collection<?>) matches.getCallbacks(1)).size());
+        matches.clear();
+        assertEquals(0, matches.size());
+    }
+
+    public void testGrowAndCompare() {
+        Random random = new Random(1);
+        EPStatementAgentInstanceHandle[] handles = new EPStatementAgentInstanceHandle[200];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = makeHandle(i % 50, i / 50, 0);
+        }
+        FilterHandleCallback[] callbacks = makeCallbacks(10);
+
+        for (int round = 0; round < 20; round++) {
+            Map<EPStatementAgentInstanceHandle, List<FilterHandleCallback>> expected = new LinkedHashMap<>();
+            int numAdds = random.nextInt(500);
+            for (int i = 0; i < numAdds; i++) {
+                EPStatementAgentInstanceHandle handle = handles[random.nextInt(handles.length)];
+                FilterHandleCallback callback = callbacks[random.nextInt(callbacks.length)];
+                matches.add(handle, callback);
+                expected.computeIfAbsent(handle, k -> new ArrayList<>()).add(callback);
+            }
+
+            assertEquals(expected.size(), matches.size());
+            int index = 0;
+            for (Map.Entry<EPStatementAgentInstanceHandle, List<FilterHandleCallback>> entry : expected.entrySet()) {
+                assertSame(entry.getKey(), matches.getHandle(index));
+                Object value = matches.getCallbacks(index);
+                if (entry.getValue().size() == 1) {
+                    assertSame(entry.getValue().get(0), value);
+                } else {
+                    assertEquals(entry.getValue(), new ArrayList<>((Collection<?>) value));
+                }
+                index++;
+            }
+            matches.clear();
+        }
+    }
+
+    private static EPStatementAgentInstanceHandle makeHandle(int statementId, int agentInstanceId, int priority) {
+        return new EPStatementAgentInstanceHandle(makeStatementHandle(statementId, priority), agentInstanceId, null);
+    }
+
+    private static EPStatementHandle makeStatementHandle(int statementId, int priority) {
+        return new EPStatementHandle("s" + statementId, "d", statementId, null, priority, false, true, null, false, false, null, null, null);
+    }
+
+    private static FilterHandleCallback[] makeCallbacks(int num) {
+        FilterHandleCallback[] callbacks = new FilterHandleCallback[num];
+        for (int i = 0; i < callbacks.length; i++) {
+            callbacks[i] = new SupportFilterHandleCallback();
+        }
+        return callbacks;
+    }
+
+    private static class SupportFilterHandleCallback implements FilterHandleCallback {
+        public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+        }
+
+        public boolean isSubSelect() {
+            return false;
+        }
+    }
+}
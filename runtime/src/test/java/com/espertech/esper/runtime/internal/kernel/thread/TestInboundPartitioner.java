@@ -0,0 +1,92 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.internal.context.mgr.ContextManagementServiceImpl;
+import com.espertech.esper.common.internal.support.SupportBean;
+import com.espertech.esper.common.internal.util.ManagedReadWriteLock;
+import com.espertech.esper.runtime.internal.support.SupportEventBeanFactory;
+import com.espertech.esper.runtime.internal.support.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestInboundPartitioner extends TestCase {
+    private EventType eventType;
+
+    public void setUp() {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+    }
+
+    public void testPartitionProperty() {
+        InboundPartitioner partitioner = makePartitioner(Collections.singletonMap(eventType.getName(), "theString"));
+
+        Map<String, Integer> partitions = new HashMap<>();
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "K" + (i % 50);
+            int partition = partitioner.partition(makeEvent(key, i));
+            assertTrue(partition >= 0 && partition < 4);
+            Integer previous = partitions.put(key, partition);
+            assertTrue(previous == null || previous == partition);
+            used.add(partition);
+        }
+        assertEquals(4, used.size());
+
+        // null key
+        assertEquals(0, partitioner.partition(makeEvent(null, 0)));
+    }
+
+    public void testNoPartitionKey() {
+        assertRoundRobin(makePartitioner(Collections.<String, String>emptyMap()));
+        assertRoundRobin(makePartitioner(Collections.singletonMap(eventType.getName(), "dummy")));
+    }
+
+    public void testContextsVersionChange() {
+        Map<String, String> partitionProperties = new HashMap<>(Collections.singletonMap(eventType.getName(), "theString"));
+        SupportContextManagementService contexts = new SupportContextManagementService();
+        InboundPartitioner partitioner = new InboundPartitioner(4, partitionProperties, contexts, new ManagedReadWriteLock("test", false));
+        int partition = partitioner.partition(makeEvent("K", 0));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(partition, partitioner.partition(makeEvent("K", i)));
+        }
+
+        // getters cached for an earlier contexts version are not used
+        partitionProperties.clear();
+        assertEquals(partition, partitioner.partition(makeEvent("K", 0)));
+        contexts.version++;
+        assertRoundRobin(partitioner);
+    }
+
+    private void assertRoundRobin(InboundPartitioner partitioner) {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 4, partitioner.partition(makeEvent("K", i)));
+        }
+    }
+
+    private InboundPartitioner makePartitioner(Map<String, String> partitionProperties) {
+        return new InboundPartitioner(4, partitionProperties, new ContextManagementServiceImpl(), new ManagedReadWriteLock("test", false));
+    }
+
+    private EventBean makeEvent(String theString, int intPrimitive) {
+        return SupportEventBeanFactory.createObject(new SupportBean(theString, intPrimitive));
+    }
+
+    private static class SupportContextManagementService extends ContextManagementServiceImpl {
+        private long version;
+
+        public long getContextsVersion() {
+            return version;
+        }
+    }
+}
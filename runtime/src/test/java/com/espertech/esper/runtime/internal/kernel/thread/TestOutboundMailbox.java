@@ -0,0 +1,172 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.EventBean;
+import com.espertech.esper.common.client.EventType;
+import com.espertech.esper.common.client.metric.OutboundMailboxMetric;
+import com.espertech.esper.common.client.util.OutboundOverflowPolicy;
+import com.espertech.esper.common.internal.collection.UniformPair;
+import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactory;
+import com.espertech.esper.common.internal.event.core.EventBeanTypedEventFactoryRuntime;
+import com.espertech.esper.runtime.internal.support.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestOutboundMailbox extends TestCase {
+    private final EventBeanTypedEventFactory eventBeanTypedEventFactory = new EventBeanTypedEventFactoryRuntime(null);
+    private EventType eventType;
+
+    public void setUp() {
+        eventType = SupportEventTypeFactory.createMapType(Collections.<String, Object>singletonMap("id", Integer.class));
+    }
+
+    public void testDropOldest() {
+        OutboundMailbox mailbox = makeMailbox(2, OutboundOverflowPolicy.DROP_OLDEST, null);
+        assertTrue(mailbox.add(makeOutput(1)));
+        assertFalse(mailbox.add(makeOutput(2)));
+        assertFalse(mailbox.add(makeOutput(3)));
+        assertMetric(mailbox.getMetric(), 2, 0, 1, 0, 0);
+    }
+
+    public void testCoalesce() {
+        OutboundMailbox mailbox = makeMailbox(2, OutboundOverflowPolicy.COALESCE, null);
+        mailbox.add(makeOutput(1));
+        mailbox.add(makeOutput(2));
+        mailbox.add(makeOutput(3));
+        assertMetric(mailbox.getMetric(), 1, 0, 2, 0, 0);
+    }
+
+    public void testSpill() throws Exception {
+        File directory = Files.createTempDirectory("esper-spill").toFile();
+        try {
+            OutboundMailbox mailbox = makeMailbox(1, OutboundOverflowPolicy.SPILL, directory);
+            for (int i = 0; i < 3; i++) {
+                mailbox.add(makeOutput(i));
+            }
+            assertMetric(mailbox.getMetric(), 3, 2, 0, 2, 0);
+            assertEquals(1, directory.listFiles().length);
+
+            mailbox.destroy();
+            assertMetric(mailbox.getMetric(), 0, 0, 0, 2, 0);
+            assertEquals(0, directory.listFiles().length);
+        } finally {
+            directory.delete();
+        }
+    }
+
+    public void testSpillFile() throws Exception {
+        File directory = Files.createTempDirectory("esper-spill").toFile();
+        try {
+            OutboundMailboxSpill spill = new OutboundMailboxSpill(directory, "test-", eventBeanTypedEventFactory);
+            assertNull(spill.read());
+            for (int i = 0; i < 3; i++) {
+                assertTrue(spill.write(makeOutput(i)));
+            }
+            assertEquals(3, spill.size());
+            for (int i = 0; i < 3; i++) {
+                UniformPair<EventBean[]> output = spill.read();
+                assertEquals(1, output.getFirst().length);
+                assertSame(eventType, output.getFirst()[0].getEventType());
+                assertEquals(i, output.getFirst()[0].get("id"));
+                assertNull(output.getSecond());
+            }
+            assertEquals(0, spill.size());
+            assertEquals(0, spill.getFile().length());
+
+            Map<String, Object> values = Collections.singletonMap("id", new Object());
+            assertFalse(spill.write(new UniformPair<>(new EventBean[]{eventBeanTypedEventFactory.adapterForTypedMap(values, eventType)}, null)));
+            assertEquals(0, spill.size());
+
+            spill.destroy();
+            assertFalse(spill.getFile().exists());
+        } finally {
+            directory.delete();
+        }
+    }
+
+    public void testSpillOrderWithUnspillable() throws Exception {
+        File directory = Files.createTempDirectory("esper-spill").toFile();
+        try {
+            OutboundMailbox mailbox = makeMailbox(2, OutboundOverflowPolicy.SPILL, directory);
+            mailbox.add(makeOutput(0));
+            mailbox.add(makeOutput(1));
+            mailbox.add(makeOutput(2));
+            assertEquals(0, mailbox.take().getFirst()[0].get("id"));
+
+            Object unspillableId = new Object();
+            mailbox.add(new UniformPair<>(new EventBean[]{eventBeanTypedEventFactory.adapterForTypedMap(Collections.singletonMap("id", unspillableId), eventType)}, null));
+            mailbox.add(makeOutput(3));
+            mailbox.add(makeOutput(4));
+            assertMetric(mailbox.getMetric(), 5, 3, 0, 3, 0);
+
+            Object[] expected = new Object[]{1, 2, unspillableId, 3, 4};
+            for (Object id : expected) {
+                assertEquals(id, mailbox.take().getFirst()[0].get("id"));
+            }
+            assertNull(mailbox.take());
+            assertMetric(mailbox.getMetric(), 0, 0, 0, 3, 0);
+
+            mailbox.destroy();
+            assertEquals(0, directory.listFiles().length);
+        } finally {
+            directory.delete();
+        }
+    }
+
+    public void testBlock() throws Exception {
+        final OutboundMailbox mailbox = makeMailbox(1, OutboundOverflowPolicy.BLOCK, null);
+        mailbox.add(makeOutput(1));
+
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                mailbox.add(makeOutput(2));
+            }
+        });
+        thread.start();
+        long start = System.currentTimeMillis();
+        while (mailbox.getMetric().getBlockedCount() == 0 && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        assertTrue(thread.isAlive());
+        assertMetric(mailbox.getMetric(), 1, 0, 0, 0, 1);
+
+        mailbox.destroy();
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertMetric(mailbox.getMetric(), 0, 0, 0, 0, 1);
+    }
+
+    private OutboundMailbox makeMailbox(int capacity, OutboundOverflowPolicy overflowPolicy, File spillDirectory) {
+        return new OutboundMailbox(null, "D1", "S1", capacity, overflowPolicy, spillDirectory, eventBeanTypedEventFactory);
+    }
+
+    private UniformPair<EventBean[]> makeOutput(int id) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", id);
+        return new UniformPair<>(new EventBean[]{eventBeanTypedEventFactory.adapterForTypedMap(values, eventType)}, null);
+    }
+
+    private static void assertMetric(OutboundMailboxMetric metric, int depth, int spillDepth, long droppedCount, long spilledCount, long blockedCount) {
+        assertEquals("D1", metric.getDeploymentId());
+        assertEquals("S1", metric.getStatementName());
+        assertEquals(depth, metric.getDepth());
+        assertEquals(spillDepth, metric.getSpillDepth());
+        assertEquals(droppedCount, metric.getDroppedCount());
+        assertEquals(spilledCount, metric.getSpilledCount());
+        assertEquals(blockedCount, metric.getBlockedCount());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.kernel.thread;
+
+import com.espertech.esper.common.client.util.RingBufferWaitStrategy;
+import junit.framework.TestCase;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestRingBufferExecutor extends TestCase {
+
+    public void testProcessAll() throws Exception {
+        for (RingBufferWaitStrategy waitStrategy : RingBufferWaitStrategy.values()) {
+            runAssertionProcessAll(waitStrategy);
+        }
+    }
+
+    public void testDestroyUnblocksSubmit() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        RingBufferExecutor executor = new RingBufferExecutor(2, 1, RingBufferWaitStrategy.PARK, (unitType, event, eventTypeName, target) -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, makeThreadFactory());
+
+        // one unit in process and two filling the ring buffer
+        for (int i = 0; i < 3; i++) {
+            executor.submit(0, i, null, null);
+        }
+        Future<?> future = Executors.newSingleThreadExecutor().submit(() -> executor.submit(0, 3, null, null));
+        Thread.sleep(100);
+        assertFalse(future.isDone());
+
+        blocked.countDown();
+        executor.destroy();
+        future.get(10, TimeUnit.SECONDS);
+    }
+
+    private void runAssertionProcessAll(RingBufferWaitStrategy waitStrategy) throws Exception {
+        int numProducers = 3;
+        int numEvents = 20000;
+        AtomicIntegerArray counts = new AtomicIntegerArray(numProducers * numEvents);
+        AtomicLong total = new AtomicLong();
+        RingBufferExecutor executor = new RingBufferExecutor(100, 3, waitStrategy, (unitType, event, eventTypeName, target) -> {
+            assertEquals(1, unitType);
+            assertEquals("type", eventTypeName);
+            counts.incrementAndGet((Integer) event);
+            total.incrementAndGet();
+        }, makeThreadFactory());
+        assertEquals(0, executor.size());
+
+        ExecutorService producers = Executors.newFixedThreadPool(numProducers);
+        for (int i = 0; i < numProducers; i++) {
+            final int producer = i;
+            producers.submit(() -> {
+                for (int j = 0; j < numEvents; j++) {
+                    executor.submit(1, producer * numEvents + j, "type", null);
+                }
+            });
+        }
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(30, TimeUnit.SECONDS));
+
+        long deadline = System.currentTimeMillis() + 30000;
+        while (total.get() < numProducers * numEvents && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        executor.destroy();
+
+        assertEquals(numProducers * numEvents, total.get());
+        for (int i = 0; i < counts.length(); i++) {
+            assertEquals(1, counts.get(i));
+        }
+        assertEquals(0, executor.size());
+    }
+
+    private static EngineThreadFactory makeThreadFactory() {
+        return new EngineThreadFactory("default", "Test", new ThreadGroup("test"), Thread.NORM_PRIORITY);
+    }
+}
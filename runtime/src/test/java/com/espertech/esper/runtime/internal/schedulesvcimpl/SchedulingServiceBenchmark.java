@@ -0,0 +1,94 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.schedulesvcimpl;
+
+import com.espertech.esper.common.internal.schedule.ScheduleHandle;
+import com.espertech.esper.runtime.internal.timer.TimeSourceServiceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the sorted and the timing wheel scheduling service for a workload of many per-key timers,
+ * such as "every a=A -&gt; timer:interval(...)" patterns and time windows, that are added, removed and triggered.
+ * <p>
+ * Run as a main program with optional arguments for the number of handles and the number of operations.
+ */
+public class SchedulingServiceBenchmark {
+
+    public static void main(String[] args) {
+        int numHandles = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int numOperations = args.length > 1 ? Integer.parseInt(args[1]) : 5000000;
+
+        for (int run = 0; run < 3; run++) {
+            report("sorted", runWorkload(new SchedulingServiceImpl(new TimeSourceServiceImpl()), numHandles, numOperations), numOperations);
+            report("timingwheel", runWorkload(new SchedulingServiceTimingWheel(new TimeSourceServiceImpl()), numHandles, numOperations), numOperations);
+        }
+    }
+
+    private static long runWorkload(SchedulingServiceSPI service, int numHandles, int numOperations) {
+        Random random = new Random(1);
+        BenchmarkHandle[] handles = new BenchmarkHandle[numHandles];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new BenchmarkHandle(i);
+        }
+
+        long time = 0;
+        service.setTime(time);
+        for (int i = 0; i < handles.length; i++) {
+            service.add(1 + random.nextInt(60000), handles[i], i);
+        }
+
+        List<ScheduleHandle> triggered = new ArrayList<ScheduleHandle>();
+        long start = System.nanoTime();
+        for (int i = 0; i < numOperations; i++) {
+            int index = random.nextInt(numHandles);
+            if (i % 100 == 0) {
+                // advance time and reschedule what triggered
+                time += 1 + random.nextInt(10);
+                service.setTime(time);
+                triggered.clear();
+                service.evaluate(triggered);
+                for (ScheduleHandle handle : triggered) {
+                    service.add(1 + random.nextInt(60000), handle, ((BenchmarkHandle) handle).slot);
+                }
+            } else if (i % 2 == 0) {
+                service.remove(handles[index], index);
+            } else {
+                service.add(1 + random.nextInt(60000), handles[index], index);
+            }
+        }
+        long delta = System.nanoTime() - start;
+        service.destroy();
+        return delta;
+    }
+
+    private static class BenchmarkHandle implements ScheduleHandle {
+        private final long slot;
+
+        BenchmarkHandle(long slot) {
+            this.slot = slot;
+        }
+
+        public int getStatementId() {
+            return 1;
+        }
+
+        public int getAgentInstanceId() {
+            return 0;
+        }
+    }
+
+    private static void report(String name, long deltaNanos, int numOperations) {
+        System.out.println(String.format("%-12s %8d ms %12.0f ops/sec", name, deltaNanos / 1000000, numOperations / (deltaNanos / 1e9)));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.runtime.internal.schedulesvcimpl;
+
+import com.espertech.esper.common.internal.schedule.ScheduleBucket;
+import com.espertech.esper.common.internal.schedule.ScheduleHandle;
+import com.espertech.esper.runtime.internal.schedulesvcimpl.TestSchedulingServiceImpl.SupportScheduleCallback;
+import com.espertech.esper.runtime.internal.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestSchedulingServiceTimingWheel extends TestCase {
+    private SchedulingServiceTimingWheel service;
+
+    public void setUp() {
+        service = new SchedulingServiceTimingWheel(new TimeSourceServiceImpl());
+    }
+
+    public void testTriggerOrder() {
+        ScheduleBucket bucketOne = new ScheduleBucket(0);
+        ScheduleBucket bucketTwo = new ScheduleBucket(1);
+        long slotOneA = bucketOne.allocateSlot();
+        long slotOneB = bucketOne.allocateSlot();
+        long slotTwoA = bucketTwo.allocateSlot();
+        SupportScheduleCallback[] callbacks = makeCallbacks(4);
+
+        service.setTime(0);
+        service.add(20, callbacks[0], slotTwoA);
+        service.add(20, callbacks[1], slotOneB);
+        service.add(20, callbacks[2], slotOneA);
+        service.add(21, callbacks[3], slotOneA);
+        assertEquals(4, service.getScheduleHandleCount());
+        assertEquals(2, service.getTimeHandleCount());
+        assertEquals(20L, (long) service.getNearestTimeHandle());
+        assertEquals(21L, (long) service.getFurthestTimeHandle());
+
+        service.setTime(19);
+        assertEquals(0, evaluate().size());
+
+        service.setTime(20);
+        assertEquals(Arrays.asList(callbacks[2], callbacks[1], callbacks[0]), evaluate());
+        assertFalse(service.isScheduled(callbacks[0]));
+        assertTrue(service.isScheduled(callbacks[3]));
+
+        // adding again replaces the previous schedule
+        service.add(5, callbacks[3], slotOneA);
+        service.add(0, callbacks[0], slotTwoA);
+        service.remove(callbacks[1], slotOneB);
+        service.setTime(24);
+        assertEquals(Arrays.asList(callbacks[0]), evaluate());
+        service.setTime(25);
+        assertEquals(Arrays.asList(callbacks[3]), evaluate());
+        assertEquals(0, service.getScheduleHandleCount());
+        assertNull(service.getNearestTimeHandle());
+    }
+
+    public void testLargeTimeJump() {
+        SupportScheduleCallback[] callbacks = makeCallbacks(3);
+        service.setTime(1000);
+        service.add(1L << 40, callbacks[0], 1);
+        service.add(1L << 20, callbacks[1], 1);
+        service.add(Integer.MAX_VALUE, callbacks[2], 1);
+        assertEquals(1000L + (1L << 20), (long) service.getNearestTimeHandle());
+
+        service.setTime(1000 + (1L << 41));
+        assertEquals(Arrays.asList(callbacks[1], callbacks[2], callbacks[0]), evaluate());
+    }
+
+    public void testTake() {
+        SupportScheduleCallback[] callbacks = makeCallbacks(2);
+        service.setTime(0);
+        service.add(100, callbacks[0], 1);
+        service.add(70000, callbacks[1], 1);
+
+        ScheduleSet set = service.take(Collections.singleton(1));
+        assertEquals(0, service.getScheduleHandleCount());
+        assertEquals(2, set.getList().size());
+        assertEquals(100L, (long) set.getList().get(0).getTime());
+
+        service.setTime(50);
+        service.apply(set);
+        service.setTime(149);
+        assertEquals(0, evaluate().size());
+        service.setTime(150);
+        assertEquals(Arrays.asList(callbacks[0]), evaluate());
+    }
+
+    public void testCompareSorted() {
+        Random random = new Random(1);
+        SchedulingServiceImpl sorted = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        SupportScheduleCallback[] callbacks = makeCallbacks(200);
+        List<Long> slots = new ArrayList<Long>();
+        for (int i = 0; i < callbacks.length; i++) {
+            slots.add((long) i);
+        }
+        Collections.shuffle(slots, random);
+
+        long time = 0;
+        sorted.setTime(time);
+        service.setTime(time);
+        for (int iteration = 0; iteration < 20000; iteration++) {
+            int action = random.nextInt(10);
+            int index = random.nextInt(callbacks.length);
+            if (action < 5) {
+                long after = randomDelta(random);
+                sorted.add(after, callbacks[index], slots.get(index));
+                service.add(after, callbacks[index], slots.get(index));
+            } else if (action < 7) {
+                sorted.remove(callbacks[index], slots.get(index));
+                service.remove(callbacks[index], slots.get(index));
+            } else {
+                time += random.nextInt(50) == 0 ? -random.nextInt(1000) : randomDelta(random);
+                sorted.setTime(time);
+                service.setTime(time);
+                assertEquals(sorted.getNearestTimeHandle(), service.getNearestTimeHandle());
+                assertEquals(evaluate(sorted), evaluate());
+            }
+            assertEquals(sorted.getScheduleHandleCount(), service.getScheduleHandleCount());
+        }
+    }
+
+    private long randomDelta(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return random.nextInt(10);
+            case 1:
+                return random.nextInt(1000);
+            case 2:
+                return random.nextInt(1000000);
+            default:
+                return random.nextLong() & ((1L << 36) - 1);
+        }
+    }
+
+    private List<ScheduleHandle> evaluate() {
+        return evaluate(service);
+    }
+
+    private static List<ScheduleHandle> evaluate(SchedulingServiceSPI service) {
+        List<ScheduleHandle> handles = new ArrayList<ScheduleHandle>();
+        service.evaluate(handles);
+        return handles;
+    }
+
+    private static SupportScheduleCallback[] makeCallbacks(int num) {
+        SupportScheduleCallback[] callbacks = new SupportScheduleCallback[num];
+        for (int i = 0; i < callbacks.length; i++) {
+            callbacks[i] = new SupportScheduleCallback();
+        }
+        return callbacks;
+    }
+}